@@ -1,5 +1,6 @@
 package one.microproject.iamservice.client;
 
+import one.microproject.iamservice.client.dto.TokenCacheStats;
 import one.microproject.iamservice.core.dto.BuildInfo;
 import one.microproject.iamservice.core.dto.StandardTokenClaims;
 import one.microproject.iamservice.core.dto.Code;
@@ -85,6 +86,12 @@ public interface IAMClient extends AutoCloseable {
      */
     boolean updateKeyCache();
 
+    /**
+     * Get metrics of verified token cache.
+     * @return {@link Optional} of {@link TokenCacheStats}, empty if token cache is not enabled.
+     */
+    Optional<TokenCacheStats> getTokenCacheStats();
+
     /**
      * Get tokens in exchange for authorization_code. This call is used to finish OAuth2 authorization code grant flow.
      * @param code authorization_code.
@@ -9,6 +9,7 @@ import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.ProjectId;
 
 import java.net.URL;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -18,6 +19,11 @@ public class IAMClientBuilder {
     private OrganizationId organizationId;
     private ProjectId projectId;
     private TokenValidator tokenValidator;
+    private URL baseUrl;
+    private Long pollingInterval;
+    private TimeUnit timeUnit;
+    private Duration unknownKeyRefreshInterval = IAMServiceHttpProxyImpl.DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL;
+    private boolean keyChangeEvents = false;
 
     public IAMClientBuilder setOrganizationId(String organizationId) {
         this.organizationId = OrganizationId.from(organizationId);
@@ -33,13 +39,35 @@ public class IAMClientBuilder {
         Objects.requireNonNull(baseUrl);
         Objects.requireNonNull(organizationId);
         Objects.requireNonNull(projectId);
-        this.iamServiceProxy = new IAMServiceHttpProxyImpl(baseUrl, organizationId, projectId,
-                pollingInterval, timeUnit);
+        this.baseUrl = baseUrl;
+        this.pollingInterval = pollingInterval;
+        this.timeUnit = timeUnit;
+        this.iamServiceProxy = null;
+        return this;
+    }
+
+    /**
+     * Subscribe HTTP proxy for JWKS change events, so key changes are visible without waiting for next poll.
+     * @return this builder.
+     */
+    public IAMClientBuilder withKeyChangeEvents() {
+        this.keyChangeEvents = true;
+        return this;
+    }
+
+    /**
+     * Set min. interval between JWKS refreshes of HTTP proxy triggered by tokens signed by unknown key.
+     * @param unknownKeyRefreshInterval - min. interval between refreshes.
+     * @return this builder.
+     */
+    public IAMClientBuilder withUnknownKeyRefreshInterval(Duration unknownKeyRefreshInterval) {
+        this.unknownKeyRefreshInterval = Objects.requireNonNull(unknownKeyRefreshInterval);
         return this;
     }
 
     public IAMClientBuilder withIAMServiceProxy(IAMServiceProxy iamServiceProxy) {
         this.iamServiceProxy = iamServiceProxy;
+        this.baseUrl = null;
         return this;
     }
 
@@ -48,12 +76,26 @@ public class IAMClientBuilder {
         return this;
     }
 
+    /**
+     * Enable cache of validated tokens, so repeated validations of the same token skip signature verification.
+     * @param capacity - max. number of cached tokens.
+     * @return this builder.
+     */
+    public IAMClientBuilder withTokenCache(int capacity) {
+        this.tokenValidator = new TokenValidatorImpl(capacity);
+        return this;
+    }
+
     public IAMClient build() {
         if (tokenValidator == null) {
             tokenValidator = new TokenValidatorImpl();
         }
         Objects.requireNonNull(organizationId);
         Objects.requireNonNull(projectId);
+        if (iamServiceProxy == null && baseUrl != null) {
+            iamServiceProxy = new IAMServiceHttpProxyImpl(baseUrl, organizationId, projectId,
+                    pollingInterval, timeUnit, unknownKeyRefreshInterval, keyChangeEvents);
+        }
         Objects.requireNonNull(iamServiceProxy);
         return new IAMClientImpl(tokenValidator, iamServiceProxy, organizationId, projectId);
     }
@@ -1,11 +1,14 @@
 package one.microproject.iamservice.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Jwt;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SigningKeyResolver;
 import io.jsonwebtoken.impl.DefaultClaims;
 import one.microproject.iamservice.core.dto.StandardTokenClaims;
 import one.microproject.iamservice.client.impl.JWKSigningKeyResolver;
+import one.microproject.iamservice.client.impl.PublicKeyCache;
 import one.microproject.iamservice.core.KeyProvider;
 import one.microproject.iamservice.client.impl.ProviderSigningKeyResolver;
 import one.microproject.iamservice.core.dto.JWKData;
@@ -18,14 +21,22 @@ import one.microproject.iamservice.core.model.TokenType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URISyntaxException;
+import java.security.AlgorithmParameters;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
 import java.security.spec.InvalidKeySpecException;
+import java.security.spec.InvalidParameterSpecException;
 import java.security.spec.RSAPublicKeySpec;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Optional;
 import java.util.Set;
@@ -36,11 +47,17 @@ public final class JWTUtils {
     private static final Logger LOG = LoggerFactory.getLogger(JWTUtils.class);
 
     public static final String ALGORITHM   =  "RSA";
+    public static final String EC_ALGORITHM = "EC";
+    public static final String EC_CURVE = "P-256";
+    public static final String EC_CURVE_JCA = "secp256r1";
     public static final String BC_PROVIDER =  "BC";
 
     public static final String AUTHORIZATION = "Authorization";
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String SCOPE = "scope";
+    public static final String KEY_ID = "kid";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private JWTUtils() {
         throw new UnsupportedOperationException("Do not instantiate utility class.");
@@ -54,6 +71,29 @@ public final class JWTUtils {
         return new JWToken(authorization.substring(BEARER_PREFIX.length(), authorization.length()).trim());
     }
 
+    /**
+     * Read key ID (kid) from JWT header. Token signature is NOT verified.
+     * @param token - JWT token.
+     * @return key ID or empty if token is malformed or has no key ID.
+     */
+    public static Optional<String> getKeyId(JWToken token) {
+        String value = token.getToken();
+        int headerEnd = value.indexOf('.');
+        if (headerEnd <= 0) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode header = MAPPER.readTree(Base64.getUrlDecoder().decode(value.substring(0, headerEnd)));
+            JsonNode keyId = header.get(KEY_ID);
+            if (keyId != null && keyId.isTextual()) {
+                return Optional.of(keyId.asText());
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            LOG.debug("Malformed JWT header: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
     public static boolean validatePermissions(StandardTokenClaims tokenClaims, Set<Permission> requiredAdminPermissions, Set<Permission> requiredApplicationPermissions) {
         Set<String> scopeSet = tokenClaims.getScope();
         if (!requiredAdminPermissions.isEmpty()) {
@@ -89,8 +129,12 @@ public final class JWTUtils {
     }
 
     public static Optional<StandardTokenClaims> validateToken(OrganizationId organizationId, ProjectId projectId, JWKResponse response, JWToken token) {
+        return validateToken(organizationId, projectId, response, new PublicKeyCache(), token);
+    }
+
+    public static Optional<StandardTokenClaims> validateToken(OrganizationId organizationId, ProjectId projectId, JWKResponse response, PublicKeyCache publicKeyCache, JWToken token) {
         try {
-            JWKSigningKeyResolver resolver = new JWKSigningKeyResolver(response);
+            JWKSigningKeyResolver resolver = new JWKSigningKeyResolver(response, publicKeyCache);
             StandardTokenClaims claims = getStandardTokenClaims(resolver, token);
             if (organizationId.equals(claims.getOrganizationId()) && projectId.equals(claims.getProjectId())) {
                 return Optional.of(claims);
@@ -112,19 +156,39 @@ public final class JWTUtils {
     }
 
     public static PublicKey createPublicKey(JWKData jwkData) throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchProviderException {
+        if (EC_ALGORITHM.equals(jwkData.getKeyType())) {
+            return createECPublicKey(jwkData);
+        }
         BigInteger modulus = new BigInteger(Base64.getDecoder().decode(jwkData.getModulusValue()));
         BigInteger exponent = new BigInteger(Base64.getDecoder().decode(jwkData.getExponentValue()));
         KeyFactory factory = KeyFactory.getInstance(ALGORITHM, BC_PROVIDER);
         return factory.generatePublic(new RSAPublicKeySpec(modulus, exponent));
     }
 
+    private static PublicKey createECPublicKey(JWKData jwkData) throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchProviderException {
+        if (!EC_CURVE.equals(jwkData.getCurve())) {
+            throw new InvalidKeySpecException("Unsupported EC curve " + jwkData.getCurve());
+        }
+        BigInteger x = new BigInteger(1, Base64.getUrlDecoder().decode(jwkData.getXCoordinate()));
+        BigInteger y = new BigInteger(1, Base64.getUrlDecoder().decode(jwkData.getYCoordinate()));
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance(EC_ALGORITHM);
+            parameters.init(new ECGenParameterSpec(EC_CURVE_JCA));
+            ECParameterSpec parameterSpec = parameters.getParameterSpec(ECParameterSpec.class);
+            KeyFactory factory = KeyFactory.getInstance(EC_ALGORITHM, BC_PROVIDER);
+            return factory.generatePublic(new ECPublicKeySpec(new ECPoint(x, y), parameterSpec));
+        } catch (InvalidParameterSpecException e) {
+            throw new InvalidKeySpecException(e);
+        }
+    }
+
     private static StandardTokenClaims getStandardTokenClaims(SigningKeyResolver signingKeyResolver, JWToken token) throws URISyntaxException {
         LOG.debug("getStandardTokenClaims");
         Jwt jwt = Jwts.parserBuilder()
                 .setSigningKeyResolver(signingKeyResolver)
                 .build()
                 .parse(token.getToken());
-        String kid = (String)jwt.getHeader().get("kid");
+        String kid = (String)jwt.getHeader().get(KEY_ID);
         DefaultClaims claims = (DefaultClaims)jwt.getBody();
         String iss = claims.getIssuer();
         String sub = claims.getSubject();
@@ -136,8 +200,9 @@ public final class JWTUtils {
         OrganizationId issOrganizationId = OrganizationId.from(split[organizationIndex]);
         ProjectId issProjectId = ProjectId.from(split[projectIndex]);
         String tokenType = (String) claims.get("typ");
+        Instant expiration = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
         LOG.debug("getStandardTokenClaims: OK");
-        return new StandardTokenClaims(kid, iss, sub, aud, scopes, issOrganizationId, issProjectId, TokenType.getTokenType(tokenType));
+        return new StandardTokenClaims(kid, iss, sub, aud, scopes, issOrganizationId, issProjectId, TokenType.getTokenType(tokenType), expiration);
     }
 
 }
@@ -0,0 +1,63 @@
+package one.microproject.iamservice.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of verified token cache metrics.
+ * Hits count validations served from cache without signature verification,
+ * evictions count entries removed before token expiration because cache capacity was reached.
+ */
+public class TokenCacheStats {
+
+    private final int capacity;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int publicKeys;
+
+    @JsonCreator
+    public TokenCacheStats(@JsonProperty("capacity") int capacity,
+                           @JsonProperty("size") int size,
+                           @JsonProperty("hits") long hits,
+                           @JsonProperty("misses") long misses,
+                           @JsonProperty("evictions") long evictions,
+                           @JsonProperty("publicKeys") int publicKeys) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.publicKeys = publicKeys;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get number of decoded public keys cached by key ID.
+     * @return number of cached public keys.
+     */
+    public int getPublicKeys() {
+        return publicKeys;
+    }
+
+}
@@ -1,10 +1,13 @@
 package one.microproject.iamservice.client.impl;
 
 import one.microproject.iamservice.client.IAMClient;
+import one.microproject.iamservice.client.JWTUtils;
+import one.microproject.iamservice.client.dto.TokenCacheStats;
 import one.microproject.iamservice.core.TokenValidator;
 import one.microproject.iamservice.core.dto.BuildInfo;
 import one.microproject.iamservice.core.dto.StandardTokenClaims;
 import one.microproject.iamservice.core.dto.Code;
+import one.microproject.iamservice.core.dto.JWKResponse;
 import one.microproject.iamservice.core.dto.TokenResponseWrapper;
 import one.microproject.iamservice.core.model.JWToken;
 import one.microproject.iamservice.core.model.OrganizationId;
@@ -47,7 +50,7 @@ public class IAMClientImpl implements IAMClient {
     @Override
     public Optional<StandardTokenClaims> validate(OrganizationId organizationId, ProjectId projectId, JWToken token) {
         try {
-            return tokenValidator.validateToken(organizationId, projectId, iamServiceProxy.getJWKResponse(), token);
+            return tokenValidator.validateToken(organizationId, projectId, getJWKResponse(token), token);
         } catch (InterruptedException e) {
             LOG.info("Exception: ", e);
             Thread.currentThread().interrupt();
@@ -61,7 +64,7 @@ public class IAMClientImpl implements IAMClient {
                             Set<Permission> requiredAdminPermissions, Set<Permission> requiredApplicationPermissions,
                             JWToken token) {
         try {
-            return tokenValidator.validateToken(organizationId, projectId, iamServiceProxy.getJWKResponse(), requiredAdminPermissions, requiredApplicationPermissions, token);
+            return tokenValidator.validateToken(organizationId, projectId, getJWKResponse(token), requiredAdminPermissions, requiredApplicationPermissions, token);
         } catch (InterruptedException e) {
             LOG.info("Exception: ", e);
             Thread.currentThread().interrupt();
@@ -74,11 +77,35 @@ public class IAMClientImpl implements IAMClient {
         return validate(organizationId, projectId, Set.of(), requiredApplicationPermissions, token);
     }
 
+    /**
+     * Get JWKS to validate the token, JWKS is refreshed first if token is signed by unknown key.
+     */
+    private JWKResponse getJWKResponse(JWToken token) throws InterruptedException {
+        JWKResponse response = iamServiceProxy.getJWKResponse();
+        Optional<String> keyId = JWTUtils.getKeyId(token);
+        if (keyId.isPresent() && !containsKey(response, keyId.get()) && iamServiceProxy.updateKeyCache(keyId.get())) {
+            return iamServiceProxy.getJWKResponse();
+        }
+        return response;
+    }
+
+    private static boolean containsKey(JWKResponse response, String keyId) {
+        return response != null && response.getKeys().stream().anyMatch(jwkData -> keyId.equals(jwkData.getKeyId()));
+    }
+
     @Override
     public boolean updateKeyCache() {
         return iamServiceProxy.updateKeyCache();
     }
 
+    @Override
+    public Optional<TokenCacheStats> getTokenCacheStats() {
+        if (tokenValidator instanceof TokenValidatorImpl) {
+            return ((TokenValidatorImpl) tokenValidator).getTokenCacheStats();
+        }
+        return Optional.empty();
+    }
+
     @Override
     public TokenResponseWrapper getAccessTokensOAuth2AuthorizationCodeGrant(Code code, String state) throws IOException {
         return iamServiceProxy.getTokens(code, state);
@@ -0,0 +1,105 @@
+package one.microproject.iamservice.client.impl;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listens to JWKS change events (server-sent events) published by iam-service and refreshes JWK cache
+ * when JWKS changes. Connection is re-established after failure, each (re)connect delivers current JWKS ETag,
+ * so changes missed while disconnected are picked up as well.
+ */
+public class IAMServiceHttpEventTask implements Runnable, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IAMServiceHttpEventTask.class);
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String TEXT_EVENT_STREAM = "text/event-stream";
+
+    private final URL baseUrl;
+    private final OrganizationId organizationId;
+    private final ProjectId projectId;
+    private final OkHttpClient client;
+    private final IAMServiceHttpProxyImpl iamServiceHttpProxy;
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private volatile Call call;
+
+    public IAMServiceHttpEventTask(URL baseUrl, OrganizationId organizationId, ProjectId projectId,
+                                   OkHttpClient client, IAMServiceHttpProxyImpl iamServiceHttpProxy, long reconnectDelayMillis) {
+        this.baseUrl = baseUrl;
+        this.organizationId = organizationId;
+        this.projectId = projectId;
+        this.client = client.newBuilder().readTimeout(0, TimeUnit.MILLISECONDS).build();
+        this.iamServiceHttpProxy = iamServiceHttpProxy;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.running = true;
+    }
+
+    @Override
+    public void run() {
+        String targetUrl = baseUrl.toString()  +  "/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/.well-known/jwks-events";
+        while (running) {
+            LOG.debug("Subscribing iam-server JWKS events {}", targetUrl);
+            Request request = new Request.Builder()
+                    .url(targetUrl)
+                    .header("Accept", TEXT_EVENT_STREAM)
+                    .build();
+            call = client.newCall(request);
+            try (Response response = call.execute()) {
+                if (response.isSuccessful()) {
+                    readEvents(response.body().source());
+                } else {
+                    LOG.warn("JWKS events subscription failed {}", response.code());
+                }
+            } catch (IOException e) {
+                if (running) {
+                    LOG.debug("JWKS events connection lost: {}", e.getMessage());
+                }
+            }
+            if (!awaitReconnect()) {
+                return;
+            }
+        }
+    }
+
+    private void readEvents(BufferedSource source) throws IOException {
+        String line;
+        while (running && (line = source.readUtf8Line()) != null) {
+            if (line.startsWith(DATA_PREFIX)) {
+                iamServiceHttpProxy.onKeysChanged(line.substring(DATA_PREFIX.length()).trim());
+            }
+        }
+    }
+
+    private boolean awaitReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+            return running;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Call current = call;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+}
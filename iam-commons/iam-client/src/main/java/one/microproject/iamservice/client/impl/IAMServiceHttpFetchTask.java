@@ -16,6 +16,10 @@ public class IAMServiceHttpFetchTask implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(IAMServiceHttpFetchTask.class);
 
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String ETAG = "ETag";
+    private static final int NOT_MODIFIED = 304;
+
     private final URL baseUrl;
     private final OrganizationId organizationId;
     private final ProjectId projectId;
@@ -38,17 +42,28 @@ public class IAMServiceHttpFetchTask implements Runnable {
         updateCache();
     }
 
+    /**
+     * Fetch JWKS from iam-service. Request is conditional when JWKS has been fetched before,
+     * unchanged JWKS is neither downloaded nor parsed again.
+     * @return true if JWK cache is up to date, false otherwise.
+     */
     public boolean updateCache() {
         String targetUrl = baseUrl.toString()  +  "/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/.well-known/jwks.json";
         LOG.debug("Fetching iam-server {}", targetUrl);
-        Request request = new Request.Builder()
+        Request.Builder requestBuilder = new Request.Builder()
                 .url(targetUrl)
-                .method("GET", null)
-                .build();
-        try (Response response = client.newCall(request).execute()) {
-            if (response.isSuccessful()) {
+                .method("GET", null);
+        String eTag = iamServiceHttpProxy.getJwkETag();
+        if (eTag != null) {
+            requestBuilder.header(IF_NONE_MATCH, eTag);
+        }
+        try (Response response = client.newCall(requestBuilder.build()).execute()) {
+            if (response.code() == NOT_MODIFIED) {
+                LOG.debug("JWK cache not modified");
+                return true;
+            } else if (response.isSuccessful()) {
                 JWKResponse jwkResponse = mapper.readValue(response.body().string(), JWKResponse.class);
-                iamServiceHttpProxy.setJwkResponse(jwkResponse);
+                iamServiceHttpProxy.setJwkResponse(jwkResponse, response.header(ETAG));
                 return true;
             } else {
                 LOG.warn("HTTP response failed {}", response.code());
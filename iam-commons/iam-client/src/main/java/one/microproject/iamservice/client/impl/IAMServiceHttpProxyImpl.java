@@ -25,7 +25,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +38,8 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
     private static final Logger LOG = LoggerFactory.getLogger(IAMServiceHttpProxyImpl.class);
 
     private static final long INITIAL_DELAY = 1;
+    private static final long EVENTS_RECONNECT_DELAY_MILLIS = 5000;
+    public static final Duration DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL = Duration.ofSeconds(10);
     private static final String OAUTH2_URI = "/services/oauth2/";
     public static final String APPLICATION_JSON = "application/json";
     public static final String APPLICATION_FORM_URLENCODED = "application/x-www-form-urlencoded";
@@ -46,12 +51,31 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
     private final OkHttpClient client;
     private final ObjectMapper mapper;
     private final CountDownLatch cl;
-
-    private JWKResponse jwkResponse;
+    private final IAMServiceHttpFetchTask fetchTask;
+    private final long unknownKeyRefreshIntervalNanos;
+    private final Object refreshLock;
+    private final IAMServiceHttpEventTask eventTask;
+    private final ExecutorService eventExecutor;
+
+    private volatile JWKResponse jwkResponse;
+    private volatile String jwkETag;
     private ProviderConfigurationResponse providerConfigurationResponse;
+    private CompletableFuture<Boolean> inFlightRefresh;
+    private long lastUnknownKeyRefresh;
 
     public IAMServiceHttpProxyImpl(URL baseUrl, OrganizationId organizationId, ProjectId projectId,
                                    Long pollingInterval, TimeUnit timeUnit) {
+        this(baseUrl, organizationId, projectId, pollingInterval, timeUnit, DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL, false);
+    }
+
+    /**
+     * Create HTTP proxy of iam-service.
+     * @param pollingInterval - interval of periodic JWKS refresh.
+     * @param unknownKeyRefreshInterval - min. interval between JWKS refreshes triggered by tokens signed by unknown key.
+     * @param keyChangeEvents - subscribe for JWKS change events, so key changes are visible without waiting for next poll.
+     */
+    public IAMServiceHttpProxyImpl(URL baseUrl, OrganizationId organizationId, ProjectId projectId,
+                                   Long pollingInterval, TimeUnit timeUnit, Duration unknownKeyRefreshInterval, boolean keyChangeEvents) {
         this.baseUrl = baseUrl;
         this.organizationId = organizationId;
         this.projectId = projectId;
@@ -59,7 +83,23 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
         this.client = new OkHttpClient();
         this.mapper = new ObjectMapper();
         this.cl = new CountDownLatch(1);
-        this.executor.scheduleWithFixedDelay(new IAMServiceHttpFetchTask(baseUrl, organizationId, projectId, client, mapper, this), INITIAL_DELAY, pollingInterval, timeUnit);
+        this.fetchTask = new IAMServiceHttpFetchTask(baseUrl, organizationId, projectId, client, mapper, this);
+        this.unknownKeyRefreshIntervalNanos = unknownKeyRefreshInterval.toNanos();
+        this.refreshLock = new Object();
+        this.lastUnknownKeyRefresh = System.nanoTime() - unknownKeyRefreshIntervalNanos;
+        this.executor.scheduleWithFixedDelay(fetchTask, INITIAL_DELAY, pollingInterval, timeUnit);
+        if (keyChangeEvents) {
+            this.eventTask = new IAMServiceHttpEventTask(baseUrl, organizationId, projectId, client, this, EVENTS_RECONNECT_DELAY_MILLIS);
+            this.eventExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "iam-client-jwks-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.eventExecutor.execute(eventTask);
+        } else {
+            this.eventTask = null;
+            this.eventExecutor = null;
+        }
     }
 
     @Override
@@ -69,7 +109,6 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
 
     @Override
     public JWKResponse getJWKResponse() {
-        LOG.error("jwkResponse == NULL ? {}", (jwkResponse == null));
         return jwkResponse;
     }
 
@@ -106,8 +145,38 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
 
     @Override
     public boolean updateKeyCache() {
-        IAMServiceHttpFetchTask task = new IAMServiceHttpFetchTask(baseUrl, organizationId, projectId, client, mapper, this);
-        return task.updateCache();
+        return fetchTask.updateCache();
+    }
+
+    @Override
+    public boolean updateKeyCache(String keyId) {
+        CompletableFuture<Boolean> refresh;
+        boolean owner = false;
+        synchronized (refreshLock) {
+            refresh = inFlightRefresh;
+            if (refresh == null) {
+                long now = System.nanoTime();
+                if (now - lastUnknownKeyRefresh < unknownKeyRefreshIntervalNanos) {
+                    LOG.debug("JWK cache refresh for unknown kid={} skipped, rate limit", keyId);
+                    return false;
+                }
+                lastUnknownKeyRefresh = now;
+                refresh = new CompletableFuture<>();
+                inFlightRefresh = refresh;
+                owner = true;
+            }
+        }
+        if (owner) {
+            LOG.debug("JWK cache refresh for unknown kid={}", keyId);
+            try {
+                refresh.complete(fetchTask.updateCache());
+            } finally {
+                synchronized (refreshLock) {
+                    inFlightRefresh = null;
+                }
+            }
+        }
+        return refresh.join();
     }
 
     @Override
@@ -154,14 +223,30 @@ public class IAMServiceHttpProxyImpl implements IAMServiceProxy {
         }
     }
 
-    protected synchronized void setJwkResponse(JWKResponse jwkResponse) {
+    protected synchronized void setJwkResponse(JWKResponse jwkResponse, String eTag) {
         LOG.debug("JWK cache updated");
         this.jwkResponse = jwkResponse;
+        this.jwkETag = eTag;
         this.cl.countDown();
     }
 
+    protected String getJwkETag() {
+        return jwkETag;
+    }
+
+    protected void onKeysChanged(String eTag) {
+        if (!eTag.equals(jwkETag)) {
+            LOG.debug("JWKS change event received");
+            fetchTask.updateCache();
+        }
+    }
+
     @Override
     public void close() throws Exception {
+        if (eventTask != null) {
+            eventTask.close();
+            eventExecutor.shutdownNow();
+        }
         executor.shutdown();
         executor.awaitTermination(10, TimeUnit.SECONDS);
     }
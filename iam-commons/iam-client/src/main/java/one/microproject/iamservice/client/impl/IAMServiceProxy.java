@@ -24,6 +24,15 @@ public interface IAMServiceProxy extends AutoCloseable {
 
     boolean updateKeyCache();
 
+    /**
+     * Update JWK cache because token signed by unknown key has been seen.
+     * Concurrent callers share single update and updates are rate-limited, so tokens with bogus key IDs
+     * can't be used to flood iam-service with requests.
+     * @param keyId unknown key ID (kid).
+     * @return true if JWK cache has been updated, false if update failed or has been skipped by rate limit.
+     */
+    boolean updateKeyCache(String keyId);
+
     TokenResponseWrapper getTokens(Code code, String state) throws IOException;
 
     TokenResponseWrapper getTokens(Code code, String state, String codeVerifier) throws IOException;
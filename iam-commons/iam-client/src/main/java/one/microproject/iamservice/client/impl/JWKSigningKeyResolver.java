@@ -4,29 +4,33 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.UnsupportedJwtException;
-import one.microproject.iamservice.core.dto.JWKData;
 import one.microproject.iamservice.core.dto.JWKResponse;
 
 import java.security.Key;
+import java.security.PublicKey;
 import java.util.Optional;
 
-import static one.microproject.iamservice.client.JWTUtils.createPublicKey;
-
 public class JWKSigningKeyResolver extends SigningKeyResolverAdapter {
 
     private final JWKResponse response;
+    private final PublicKeyCache publicKeyCache;
 
     public JWKSigningKeyResolver(JWKResponse response) {
+        this(response, new PublicKeyCache());
+    }
+
+    public JWKSigningKeyResolver(JWKResponse response, PublicKeyCache publicKeyCache) {
         this.response = response;
+        this.publicKeyCache = publicKeyCache;
     }
 
     @Override
     public Key resolveSigningKey(JwsHeader jwsHeader, Claims claims) {
         try {
             String keyId = jwsHeader.getKeyId();
-            Optional<JWKData> jkwDataOptional = response.getKeys().stream().filter(jwkData -> keyId.equals(jwkData.getKeyId())).findFirst();
-            if (jkwDataOptional.isPresent()) {
-                return createPublicKey(jkwDataOptional.get());
+            Optional<PublicKey> publicKey = publicKeyCache.getKey(response, keyId);
+            if (publicKey.isPresent()) {
+                return publicKey.get();
             } else {
                 throw new UnsupportedJwtException("Key kid=" + keyId + " for JWT token not found !");
             }
@@ -0,0 +1,84 @@
+package one.microproject.iamservice.client.impl;
+
+import one.microproject.iamservice.client.JWTUtils;
+import one.microproject.iamservice.core.dto.JWKData;
+import one.microproject.iamservice.core.dto.JWKResponse;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of decoded {@link PublicKey}s by key ID (kid) for most recent {@link JWKResponse}.
+ * When new {@link JWKResponse} is observed, keys no longer published in JWKS are dropped,
+ * keys still published are kept, because key data for given kid never changes.
+ */
+public class PublicKeyCache {
+
+    private final Map<String, PublicKey> keys;
+    private volatile JWKResponse response;
+    private volatile Map<String, JWKData> published;
+
+    public PublicKeyCache() {
+        this.keys = new ConcurrentHashMap<>();
+        this.published = Map.of();
+    }
+
+    /**
+     * Get decoded public key published in JWKS.
+     * @param response current JWKS.
+     * @param keyId key ID (kid) of the key.
+     * @return decoded {@link PublicKey} or empty if given kid is not published in JWKS.
+     * @throws InvalidKeySpecException in case published key data can't be decoded.
+     */
+    public Optional<PublicKey> getKey(JWKResponse response, String keyId) throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchProviderException {
+        Map<String, JWKData> current = update(response);
+        JWKData jwkData = current.get(keyId);
+        if (jwkData == null) {
+            return Optional.empty();
+        }
+        PublicKey publicKey = keys.get(keyId);
+        if (publicKey == null) {
+            publicKey = JWTUtils.createPublicKey(jwkData);
+            keys.put(keyId, publicKey);
+        }
+        return Optional.of(publicKey);
+    }
+
+    /**
+     * Check if key is published in JWKS.
+     * @param response current JWKS.
+     * @param keyId key ID (kid) of the key.
+     * @return true if key with given kid is published in JWKS.
+     */
+    public boolean contains(JWKResponse response, String keyId) {
+        return update(response).containsKey(keyId);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private Map<String, JWKData> update(JWKResponse response) {
+        if (this.response == response) {
+            return published;
+        }
+        synchronized (this) {
+            if (this.response != response) {
+                Map<String, JWKData> current = new ConcurrentHashMap<>();
+                if (response != null) {
+                    response.getKeys().forEach(jwkData -> current.put(jwkData.getKeyId(), jwkData));
+                }
+                keys.keySet().retainAll(current.keySet());
+                this.published = current;
+                this.response = response;
+            }
+            return published;
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package one.microproject.iamservice.client.impl;
 
 import one.microproject.iamservice.client.JWTUtils;
+import one.microproject.iamservice.client.dto.TokenCacheStats;
 import one.microproject.iamservice.core.dto.JWKResponse;
 import one.microproject.iamservice.core.dto.StandardTokenClaims;
 import one.microproject.iamservice.core.KeyProvider;
@@ -9,6 +10,8 @@ import one.microproject.iamservice.core.TokenValidator;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.ProjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.security.PublicKey;
 import java.util.Optional;
@@ -16,6 +19,26 @@ import java.util.Set;
 
 public class TokenValidatorImpl implements TokenValidator {
 
+    private static final Logger LOG = LoggerFactory.getLogger(TokenValidatorImpl.class);
+
+    private final PublicKeyCache publicKeyCache;
+    private final VerifiedTokenCache tokenCache;
+
+    public TokenValidatorImpl() {
+        this.publicKeyCache = new PublicKeyCache();
+        this.tokenCache = null;
+    }
+
+    /**
+     * Create token validator caching validated tokens verified against {@link JWKResponse}.
+     * Cached token is valid until its expiration or until its signing key disappears from JWKS.
+     * @param tokenCacheCapacity - max. number of cached tokens.
+     */
+    public TokenValidatorImpl(int tokenCacheCapacity) {
+        this.publicKeyCache = new PublicKeyCache();
+        this.tokenCache = new VerifiedTokenCache(tokenCacheCapacity);
+    }
+
     @Override
     public Optional<StandardTokenClaims> validateToken(PublicKey key, JWToken token) {
         return JWTUtils.validateToken(key, token);
@@ -33,12 +56,43 @@ public class TokenValidatorImpl implements TokenValidator {
 
     @Override
     public Optional<StandardTokenClaims> validateToken(OrganizationId organizationId, ProjectId projectId, JWKResponse response, JWToken token) {
-        return JWTUtils.validateToken(organizationId, projectId, response, token);
+        if (tokenCache == null) {
+            return JWTUtils.validateToken(organizationId, projectId, response, publicKeyCache, token);
+        }
+        Optional<StandardTokenClaims> cachedClaims = tokenCache.get(token);
+        if (cachedClaims.isPresent()) {
+            StandardTokenClaims claims = cachedClaims.get();
+            if (!publicKeyCache.contains(response, claims.getKeyId())) {
+                tokenCache.invalidate(token);
+                return Optional.empty();
+            }
+            if (organizationId.equals(claims.getOrganizationId()) && projectId.equals(claims.getProjectId())) {
+                return cachedClaims;
+            }
+            LOG.warn("Invalid organization ID or project ID.");
+            return Optional.empty();
+        }
+        Optional<StandardTokenClaims> claims = JWTUtils.validateToken(organizationId, projectId, response, publicKeyCache, token);
+        claims.ifPresent(c -> tokenCache.put(token, c));
+        return claims;
     }
 
     @Override
     public boolean validateToken(OrganizationId organizationId, ProjectId projectId, JWKResponse response, Set<Permission> requiredAdminPermissions, Set<Permission> requiredApplicationPermissions, JWToken token) {
-        return JWTUtils.validateToken(organizationId, projectId, response, requiredAdminPermissions, requiredApplicationPermissions, token);
+        Optional<StandardTokenClaims> claims = validateToken(organizationId, projectId, response, token);
+        return claims.isPresent() && JWTUtils.validatePermissions(claims.get(), requiredAdminPermissions, requiredApplicationPermissions);
+    }
+
+    /**
+     * Get verified token cache metrics.
+     * @return {@link TokenCacheStats} or empty if token cache is not enabled.
+     */
+    public Optional<TokenCacheStats> getTokenCacheStats() {
+        if (tokenCache == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenCacheStats(tokenCache.getCapacity(), tokenCache.size(), tokenCache.getHits(),
+                tokenCache.getMisses(), tokenCache.getEvictions(), publicKeyCache.size()));
     }
 
 }
@@ -0,0 +1,120 @@
+package one.microproject.iamservice.client.impl;
+
+import one.microproject.iamservice.core.dto.StandardTokenClaims;
+import one.microproject.iamservice.core.model.JWToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of validated token claims, keyed by SHA-256 digest of the token.
+ * Entries are valid until token expiration, tokens without expiration are never cached.
+ * When capacity is reached, expired entries are purged first and then arbitrary entries are evicted.
+ */
+public class VerifiedTokenCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final int capacity;
+    private final Map<String, StandardTokenClaims> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public VerifiedTokenCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Token cache capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    public Optional<StandardTokenClaims> get(JWToken token) {
+        String digest = digest(token);
+        StandardTokenClaims claims = entries.get(digest);
+        if (claims == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (!claims.getExpiration().isAfter(Instant.now())) {
+            entries.remove(digest, claims);
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(claims);
+    }
+
+    public void put(JWToken token, StandardTokenClaims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= capacity) {
+            evict();
+        }
+        entries.put(digest(token), claims);
+    }
+
+    public void invalidate(JWToken token) {
+        entries.remove(digest(token));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private synchronized void evict() {
+        if (entries.size() < capacity) {
+            return;
+        }
+        Instant now = Instant.now();
+        entries.values().removeIf(claims -> !claims.getExpiration().isAfter(now));
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() >= capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(JWToken token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getToken().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
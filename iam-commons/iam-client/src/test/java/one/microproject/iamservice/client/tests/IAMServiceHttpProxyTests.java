@@ -0,0 +1,215 @@
+package one.microproject.iamservice.client.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import one.microproject.iamservice.client.IAMClient;
+import one.microproject.iamservice.client.IAMClientBuilder;
+import one.microproject.iamservice.client.impl.IAMServiceHttpProxyImpl;
+import one.microproject.iamservice.core.dto.JWKData;
+import one.microproject.iamservice.core.dto.JWKResponse;
+import one.microproject.iamservice.core.model.JWToken;
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.TokenType;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IAMServiceHttpProxyTests {
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("o-001");
+    private static final ProjectId PROJECT_ID = ProjectId.from("p-001");
+    private static final String PATH = "/services/oauth2/" + ORGANIZATION_ID.getId() + "/" + PROJECT_ID.getId() + "/.well-known/";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static KeyPair keyPair;
+
+    private HttpServer server;
+    private URL baseUrl;
+    private volatile byte[] jwks;
+    private volatile String eTag;
+    private volatile long responseDelay;
+    private AtomicInteger jwksRequests;
+    private AtomicInteger notModifiedResponses;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        keyPair = TokenUtils.generateKeyPair();
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        jwksRequests = new AtomicInteger();
+        notModifiedResponses = new AtomicInteger();
+        responseDelay = 0;
+        setJwks(List.of());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(PATH + "jwks.json", this::handleJwks);
+        server.createContext(PATH + "jwks-events", this::handleEvents);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = new URL("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testConditionalRefresh() throws Exception {
+        try (IAMServiceHttpProxyImpl proxy = createProxy(Duration.ofSeconds(10), false)) {
+            assertTrue(proxy.updateKeyCache());
+            JWKResponse response = proxy.getJWKResponse();
+            assertNotNull(response);
+            assertTrue(proxy.updateKeyCache());
+            assertSame(response, proxy.getJWKResponse());
+            assertEquals(2, jwksRequests.get());
+            assertEquals(1, notModifiedResponses.get());
+        }
+    }
+
+    @Test
+    void testUnknownKeyRefreshIsRateLimited() throws Exception {
+        try (IAMServiceHttpProxyImpl proxy = createProxy(Duration.ofHours(1), false)) {
+            assertTrue(proxy.updateKeyCache("k-unknown"));
+            assertFalse(proxy.updateKeyCache("k-unknown"));
+            assertEquals(1, jwksRequests.get());
+        }
+    }
+
+    @Test
+    void testUnknownKeyRefreshIsSingleFlight() throws Exception {
+        responseDelay = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (IAMServiceHttpProxyImpl proxy = createProxy(Duration.ofHours(1), false)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> proxy.updateKeyCache("k-unknown")));
+            }
+            for (Future<Boolean> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1, jwksRequests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTokenSignedByNewKeyIsValidated() throws Exception {
+        IAMServiceHttpProxyImpl proxy = createProxy(Duration.ofMillis(0), false);
+        try (IAMClient iamClient = IAMClientBuilder.builder()
+                .setOrganizationId(ORGANIZATION_ID.getId())
+                .setProjectId(PROJECT_ID.getId())
+                .withIAMServiceProxy(proxy)
+                .build()) {
+            assertTrue(iamClient.updateKeyCache());
+            KeyId keyId = KeyId.from("k-new");
+            setJwks(List.of(createJWKData(keyId, (RSAPublicKey) keyPair.getPublic())));
+            JWToken token = issueToken(keyId);
+            assertTrue(iamClient.validate(token).isPresent());
+        }
+    }
+
+    @Test
+    void testKeyChangeEventTriggersRefresh() throws Exception {
+        try (IAMServiceHttpProxyImpl proxy = createProxy(Duration.ofHours(1), true)) {
+            assertTrue(proxy.waitForInit(10, TimeUnit.SECONDS));
+            assertEquals(1, jwksRequests.get());
+        }
+    }
+
+    private IAMServiceHttpProxyImpl createProxy(Duration unknownKeyRefreshInterval, boolean keyChangeEvents) {
+        return new IAMServiceHttpProxyImpl(baseUrl, ORGANIZATION_ID, PROJECT_ID, 1L, TimeUnit.HOURS,
+                unknownKeyRefreshInterval, keyChangeEvents);
+    }
+
+    private void handleJwks(HttpExchange exchange) throws IOException {
+        jwksRequests.incrementAndGet();
+        sleep(responseDelay);
+        String currentETag = eTag;
+        byte[] body = jwks;
+        exchange.getResponseHeaders().add("ETag", currentETag);
+        if (currentETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream os = exchange.getResponseBody();
+        os.write(("event:jwks\nid:1\ndata:" + eTag + "\n\n").getBytes(StandardCharsets.UTF_8));
+        os.flush();
+    }
+
+    private void setJwks(List<JWKData> keys) throws IOException {
+        jwks = MAPPER.writeValueAsBytes(new JWKResponse(keys));
+        eTag = "\"" + keys.size() + "-" + System.nanoTime() + "\"";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JWToken issueToken(KeyId keyId) throws Exception {
+        URI uri = new URI("http://localhost:8080/services/oauth2/" + ORGANIZATION_ID.getId() + "/" + PROJECT_ID.getId());
+        return TokenUtils.issueToken(uri, ORGANIZATION_ID, PROJECT_ID, Set.of(), UserId.from("u-001"),
+                1L, TimeUnit.HOURS, Scope.empty(), Map.of(), keyId, keyPair.getPrivate(), TokenType.BEARER);
+    }
+
+    private static JWKData createJWKData(KeyId keyId, RSAPublicKey publicKey) {
+        return new JWKData(keyId.getId(), "RSA", "sig", "RS256", new String[] { "verify" }, "",
+                Base64.getEncoder().encodeToString(publicKey.getModulus().toByteArray()),
+                Base64.getEncoder().encodeToString(publicKey.getPublicExponent().toByteArray()));
+    }
+
+}
@@ -79,6 +79,15 @@ class JWTUtilsTests {
         assertEquals("Bearer token", token);
     }
 
+    @Test
+    void testGetKeyId() throws URISyntaxException {
+        JWToken token = TokenUtils.issueToken(new URI("http://localhost:8080"), OrganizationId.from("o-001"), ProjectId.from("p-001"), Set.of(), UserId.from("u-001"),
+                1L, TimeUnit.HOURS, Scope.empty(), Map.of(), KeyId.from("k-001"), validKeyPair.getPrivate(), TokenType.BEARER);
+        assertEquals(Optional.of("k-001"), JWTUtils.getKeyId(token));
+        assertEquals(Optional.empty(), JWTUtils.getKeyId(JWToken.from("token")));
+        assertEquals(Optional.empty(), JWTUtils.getKeyId(JWToken.from("%%%.payload.signature")));
+    }
+
     private static Stream<Arguments> provideValidatePermissionsData() throws URISyntaxException, PermissionParsingException {
         return Stream.of(
                 Arguments.of(createStandardTokenClaims(Set.of()), Set.of(), Set.of(), Boolean.TRUE),
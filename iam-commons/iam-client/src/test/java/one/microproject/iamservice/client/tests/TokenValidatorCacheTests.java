@@ -0,0 +1,135 @@
+package one.microproject.iamservice.client.tests;
+
+import one.microproject.iamservice.client.dto.TokenCacheStats;
+import one.microproject.iamservice.client.impl.TokenValidatorImpl;
+import one.microproject.iamservice.core.dto.JWKData;
+import one.microproject.iamservice.core.dto.JWKResponse;
+import one.microproject.iamservice.core.dto.StandardTokenClaims;
+import one.microproject.iamservice.core.model.JWToken;
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.TokenType;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenValidatorCacheTests {
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("o-001");
+    private static final ProjectId PROJECT_ID = ProjectId.from("p-001");
+    private static final KeyId KEY_ID = KeyId.from("k-001");
+
+    private static KeyPair keyPair;
+    private static JWKResponse jwkResponse;
+
+    @BeforeAll
+    public static void init() throws NoSuchProviderException, NoSuchAlgorithmException {
+        Security.addProvider(new BouncyCastleProvider());
+        keyPair = TokenUtils.generateKeyPair();
+        jwkResponse = new JWKResponse(List.of(createJWKData(KEY_ID, (RSAPublicKey) keyPair.getPublic())));
+    }
+
+    @Test
+    void testRepeatedValidationIsCached() throws URISyntaxException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl(10);
+        JWToken token = issueToken(UserId.from("u-001"), keyPair.getPrivate());
+        Optional<StandardTokenClaims> claims = tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token);
+        assertTrue(claims.isPresent());
+        assertEquals(claims, tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token));
+        assertTrue(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, Set.of(), Set.of(), token));
+        TokenCacheStats stats = tokenValidator.getTokenCacheStats().orElseThrow();
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getPublicKeys());
+    }
+
+    @Test
+    void testCachedTokenIsScopedToProject() throws URISyntaxException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl(10);
+        JWToken token = issueToken(UserId.from("u-001"), keyPair.getPrivate());
+        assertTrue(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        assertFalse(tokenValidator.validateToken(ORGANIZATION_ID, ProjectId.from("p-002"), jwkResponse, token).isPresent());
+    }
+
+    @Test
+    void testRemovedKeyInvalidatesCachedToken() throws URISyntaxException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl(10);
+        JWToken token = issueToken(UserId.from("u-001"), keyPair.getPrivate());
+        assertTrue(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        JWKResponse rotatedResponse = new JWKResponse(List.of());
+        assertFalse(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, rotatedResponse, token).isPresent());
+        TokenCacheStats stats = tokenValidator.getTokenCacheStats().orElseThrow();
+        assertEquals(0, stats.getSize());
+        assertEquals(0, stats.getPublicKeys());
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() throws URISyntaxException, NoSuchProviderException, NoSuchAlgorithmException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl(10);
+        JWToken token = issueToken(UserId.from("u-001"), TokenUtils.generateKeyPair().getPrivate());
+        assertFalse(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        assertFalse(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        TokenCacheStats stats = tokenValidator.getTokenCacheStats().orElseThrow();
+        assertEquals(0, stats.getSize());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void testCacheIsBounded() throws URISyntaxException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl(2);
+        for (int i = 0; i < 5; i++) {
+            JWToken token = issueToken(UserId.from("u-00" + i), keyPair.getPrivate());
+            assertTrue(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        }
+        TokenCacheStats stats = tokenValidator.getTokenCacheStats().orElseThrow();
+        assertTrue(stats.getSize() <= 2);
+        assertEquals(3, stats.getEvictions());
+    }
+
+    @Test
+    void testTokenCacheIsOptIn() throws URISyntaxException {
+        TokenValidatorImpl tokenValidator = new TokenValidatorImpl();
+        JWToken token = issueToken(UserId.from("u-001"), keyPair.getPrivate());
+        assertTrue(tokenValidator.validateToken(ORGANIZATION_ID, PROJECT_ID, jwkResponse, token).isPresent());
+        assertTrue(tokenValidator.getTokenCacheStats().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TokenValidatorImpl(0));
+    }
+
+    private static JWToken issueToken(UserId userId, PrivateKey privateKey) throws URISyntaxException {
+        URI uri = new URI("http://localhost:8080/services/oauth2/" + ORGANIZATION_ID.getId() + "/" + PROJECT_ID.getId());
+        return TokenUtils.issueToken(uri, ORGANIZATION_ID, PROJECT_ID, Set.of(), userId,
+                1L, TimeUnit.HOURS, Scope.empty(), Map.of(), KEY_ID, privateKey, TokenType.BEARER);
+    }
+
+    private static JWKData createJWKData(KeyId keyId, RSAPublicKey publicKey) {
+        return new JWKData(keyId.getId(), "RSA", "sig", "RS256", new String[] { "verify" }, "",
+                Base64.getEncoder().encodeToString(publicKey.getModulus().toByteArray()),
+                Base64.getEncoder().encodeToString(publicKey.getPublicExponent().toByteArray()));
+    }
+
+}
@@ -1,9 +1,12 @@
 package one.microproject.iamservice.core;
 
 import one.microproject.iamservice.core.model.JWToken;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.services.AuthenticationService;
+import one.microproject.iamservice.core.services.KeyPairPool;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.ProviderConfigurationService;
 import one.microproject.iamservice.core.services.ResourceServerService;
 import one.microproject.iamservice.core.services.TokenGenerator;
@@ -31,16 +34,20 @@ import one.microproject.iamservice.core.services.impl.admin.UserManagerServiceIm
 import one.microproject.iamservice.core.services.impl.caches.AuthorizationCodeCacheImpl;
 import one.microproject.iamservice.core.services.impl.caches.CacheCleanupSchedulerImpl;
 import one.microproject.iamservice.core.services.impl.caches.TokenCacheImpl;
+import one.microproject.iamservice.core.services.impl.keys.KeyPairPoolImpl;
 import one.microproject.iamservice.core.services.impl.persistence.LoggingPersistenceServiceImpl;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.utils.TokenUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.security.Security;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static one.microproject.iamservice.core.utils.ModelUtils.DEFAULT_MODEL;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_ORG;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_PROJECT;
 
 public class IAMCoreBuilder {
 
@@ -58,6 +65,7 @@ public class IAMCoreBuilder {
     private ProviderConfigurationService providerConfigurationService;
     private TokenGenerator tokenGenerator;
     private TokenValidator tokenValidator;
+    private KeyPairPool keyPairPool;
 
     public IAMCoreBuilder withBCProvider() {
         Security.addProvider(new BouncyCastleProvider());
@@ -74,9 +82,26 @@ public class IAMCoreBuilder {
         return this;
     }
 
+    /**
+     * Use pool of pre-generated key pairs for organization, project and user creation.
+     * Pool is started immediately and injected into model created by following builder calls
+     * and into {@link OrganizationManagerService}.
+     * @param keyPairPool pool of key pairs, closed together with {@link IAMCore}.
+     * @return this builder.
+     */
+    public IAMCoreBuilder withKeyPairPool(KeyPairPool keyPairPool) {
+        this.keyPairPool = keyPairPool;
+        this.keyPairPool.start();
+        return this;
+    }
+
+    public IAMCoreBuilder withKeyPairPool(int capacity, int workers) {
+        return withKeyPairPool(new KeyPairPoolImpl(capacity, workers));
+    }
+
     public IAMCoreBuilder withModelWrapper(ModelWrapper modelWrapper) {
         this.modelWrapper = modelWrapper;
-        this.modelCache = new ModelCacheImpl(modelWrapper);
+        this.modelCache = new ModelCacheImpl(modelWrapper, new KeyPairDataCache(), getKeyPairProvider());
         return this;
     }
 
@@ -84,7 +109,8 @@ public class IAMCoreBuilder {
         if (modelWrapper == null) {
             modelWrapper = new ModelWrapperImpl(DEFAULT_MODEL, new LoggingPersistenceServiceImpl(), false);
         }
-        this.modelCache = ModelUtils.createDefaultModelCache(iamAdminPassword, iamClientSecret, iamAdminEmail, modelWrapper, enableClientCredentialsFlow);
+        this.modelCache = ModelUtils.createDefaultModelCache(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, iamAdminPassword, iamClientSecret, iamAdminEmail, modelWrapper, enableClientCredentialsFlow,
+                new KeyPairDataCache(), getKeyPairProvider());
         return this;
     }
 
@@ -109,14 +135,12 @@ public class IAMCoreBuilder {
     }
 
     public IAMCoreBuilder withTokenCache(CacheHolder<JWToken> cache) {
-        Objects.requireNonNull(tokenValidator);
-        this.tokenCache = new TokenCacheImpl(modelCache, tokenValidator, cache);
+        this.tokenCache = new TokenCacheImpl(cache);
         return this;
     }
 
     public IAMCoreBuilder withDefaultTokenCache() {
-        Objects.requireNonNull(tokenValidator);
-        this.tokenCache = new TokenCacheImpl(modelCache, tokenValidator, new CacheHolderImpl<>());
+        this.tokenCache = new TokenCacheImpl(new CacheHolderImpl<>());
         return this;
     }
 
@@ -131,20 +155,24 @@ public class IAMCoreBuilder {
             authorizationCodeCache = new AuthorizationCodeCacheImpl(20L, TimeUnit.MINUTES, new CacheHolderImpl<>());
         }
         if (tokenCache == null) {
-            tokenCache = new TokenCacheImpl(modelCache, tokenValidator, new CacheHolderImpl<>());
+            tokenCache = new TokenCacheImpl(new CacheHolderImpl<>());
         }
         cacheCleanupScheduler = new CacheCleanupSchedulerImpl(10L, TimeUnit.MINUTES, authorizationCodeCache, tokenCache);
         cacheCleanupScheduler.start();
         authenticationService = new AuthenticationServiceImpl(modelCache, tokenCache, authorizationCodeCache, tokenGenerator, tokenValidator);
         resourceServerService = new ResourceServerServiceImpl(modelCache, tokenCache, tokenValidator);
         clientManagementService = new ClientManagementServiceImpl(modelCache);
-        organizationManagerService = new OrganizationManagerServiceImpl(modelCache);
+        organizationManagerService = new OrganizationManagerServiceImpl(modelCache, getKeyPairProvider());
         projectManagerService = new ProjectManagerServiceImpl(modelCache);
         userManagerService = new UserManagerServiceImpl(modelCache);
         providerConfigurationService = new ProviderConfigurationServiceImpl(organizationManagerService, projectManagerService);
         return new IAMCore();
     }
 
+    private KeyPairProvider getKeyPairProvider() {
+        return (keyPairPool == null) ? TokenUtils.DEFAULT_KEY_PAIR_PROVIDER : keyPairPool;
+    }
+
     public static IAMCoreBuilder builder() {
         return new IAMCoreBuilder();
     }
@@ -186,9 +214,16 @@ public class IAMCoreBuilder {
             return providerConfigurationService;
         }
 
+        public Optional<KeyPairPool> getKeyPairPool() {
+            return Optional.ofNullable(keyPairPool);
+        }
+
         @Override
         public void close() throws Exception {
             cacheCleanupScheduler.close();
+            if (keyPairPool != null) {
+                keyPairPool.close();
+            }
         }
     }
 
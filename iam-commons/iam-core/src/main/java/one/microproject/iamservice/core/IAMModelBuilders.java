@@ -1,8 +1,10 @@
 package one.microproject.iamservice.core;
 
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.RoleId;
 import one.microproject.iamservice.core.model.builders.ModelBuilder;
 import one.microproject.iamservice.core.model.builders.RoleBuilder;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
 
 public final class IAMModelBuilders {
@@ -14,6 +16,14 @@ public final class IAMModelBuilders {
         return new ModelBuilder(modelWrapper);
     }
 
+    public static ModelBuilder modelBuilder(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache) {
+        return new ModelBuilder(modelWrapper, keyPairDataCache);
+    }
+
+    public static ModelBuilder modelBuilder(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache, KeyPairProvider keyPairProvider) {
+        return new ModelBuilder(modelWrapper, keyPairDataCache, keyPairProvider);
+    }
+
     public static RoleBuilder roleBuilder(String name) {
         return new RoleBuilder(name);
     }
@@ -5,8 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 public class ClientImpl implements Client {
 
@@ -24,7 +24,7 @@ public class ClientImpl implements Client {
                       ClientProperties properties) {
         this.credentials = credentials;
         this.name = name;
-        this.roles = new HashSet<>();
+        this.roles = new CopyOnWriteArraySet<>();
         this.defaultAccessTokenDuration = defaultAccessTokenDuration;
         this.defaultRefreshTokenDuration = defaultRefreshTokenDuration;
         this.properties = properties;
@@ -39,7 +39,7 @@ public class ClientImpl implements Client {
                       @JsonProperty("properties") ClientProperties properties) {
         this.credentials = credentials;
         this.name = name;
-        this.roles = new HashSet<>();
+        this.roles = new CopyOnWriteArraySet<>();
         this.defaultAccessTokenDuration = defaultAccessTokenDuration;
         this.defaultRefreshTokenDuration = defaultRefreshTokenDuration;
         this.roles.addAll(roles);
@@ -0,0 +1,133 @@
+package one.microproject.iamservice.core.model;
+
+import one.microproject.iamservice.core.utils.ModelUtils;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of decoded {@link KeyPairData} by {@link KeyPairSerialized}.
+ * Model entities keep only serialized key pairs, services signing tokens decode private keys through this cache,
+ * so key pairs may be evicted and decoded again later. When capacity is reached, entries are evicted by CLOCK
+ * (second chance) policy, entries used since last sweep of the clock hand are kept, so hot keys are not evicted
+ * by a scan of cold keys. Lookups only set the reference flag and do not lock.
+ */
+public class KeyPairDataCache {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final Map<KeyPairSerialized, Entry> entries;
+    private final Queue<KeyPairSerialized> clock;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public KeyPairDataCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public KeyPairDataCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Key pair cache capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>();
+        this.clock = new ConcurrentLinkedQueue<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Get decoded key pair, decode it if it is not cached.
+     * @param keyPairSerialized serialized key pair.
+     * @return decoded {@link KeyPairData}.
+     * @throws IllegalStateException in case serialized key pair can't be decoded.
+     */
+    public KeyPairData get(KeyPairSerialized keyPairSerialized) {
+        Entry entry = entries.get(keyPairSerialized);
+        if (entry != null) {
+            hits.increment();
+            entry.referenced = true;
+            return entry.keyPairData;
+        }
+        misses.increment();
+        KeyPairData keyPairData = ModelUtils.decodeKeyPair(keyPairSerialized);
+        put(keyPairSerialized, keyPairData);
+        return keyPairData;
+    }
+
+    /**
+     * Cache key pair decoded or generated elsewhere.
+     * @param keyPairSerialized serialized key pair.
+     * @param keyPairData decoded key pair.
+     */
+    public void put(KeyPairSerialized keyPairSerialized, KeyPairData keyPairData) {
+        if (entries.size() >= capacity) {
+            evict();
+        }
+        if (entries.putIfAbsent(keyPairSerialized, new Entry(keyPairData)) == null) {
+            clock.offer(keyPairSerialized);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        clock.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Advance clock hand until size is below capacity, referenced entries get a second chance.
+     */
+    private synchronized void evict() {
+        KeyPairSerialized key;
+        while (entries.size() >= capacity && (key = clock.poll()) != null) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.offer(key);
+            } else if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final KeyPairData keyPairData;
+        private volatile boolean referenced;
+
+        private Entry(KeyPairData keyPairData) {
+            this.keyPairData = keyPairData;
+        }
+
+    }
+
+}
@@ -3,13 +3,13 @@ package one.microproject.iamservice.core.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.utils.TokenUtils;
 
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,15 +21,18 @@ public class OrganizationImpl implements Organization {
     private final OrganizationId id;
     private final String name;
     private final Set<ProjectId> projects;
-    private final KeyPairData keyPairData;
     private final KeyPairSerialized keyPairSerialized;
     private final Map<String, String> properties;
 
     public OrganizationImpl(OrganizationId id, String name) throws PKIException {
+        this(id, name, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public OrganizationImpl(OrganizationId id, String name, KeyPairProvider keyPairProvider) throws PKIException {
         this.id = id;
         this.name = name;
-        this.projects = new HashSet<>();
-        this.keyPairData = TokenUtils.createSelfSignedKeyPairData(id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS);
+        this.projects = ConcurrentHashMap.newKeySet();
+        KeyPairData keyPairData = TokenUtils.createSelfSignedKeyPairData(id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS, keyPairProvider);
         this.keyPairSerialized = ModelUtils.serializeKeyPair(keyPairData);
         this.properties = new ConcurrentHashMap<>();
     }
@@ -42,9 +45,8 @@ public class OrganizationImpl implements Organization {
                             @JsonProperty("properties") Map<String, String> properties) throws PKIException {
         this.id = id;
         this.name = name;
-        this.projects = new HashSet<>();
+        this.projects = ConcurrentHashMap.newKeySet();
         projects.forEach(this.projects::add);
-        this.keyPairData = ModelUtils.deserializeKeyPair(keyPairSerialized);
         this.keyPairSerialized = keyPairSerialized;
         this.properties = properties;
     }
@@ -82,19 +84,19 @@ public class OrganizationImpl implements Organization {
     @Override
     @JsonIgnore
     public PrivateKey getPrivateKey() {
-        return keyPairData.getPrivateKey();
+        return getKeyPairData().getPrivateKey();
     }
 
     @Override
     @JsonIgnore
     public X509Certificate getCertificate() {
-        return keyPairData.getX509Certificate();
+        return ModelUtils.decodeCertificate(keyPairSerialized);
     }
 
     @Override
     @JsonIgnore
     public KeyPairData getKeyPairData() {
-        return keyPairData;
+        return ModelUtils.decodeKeyPair(keyPairSerialized);
     }
 
     @Override
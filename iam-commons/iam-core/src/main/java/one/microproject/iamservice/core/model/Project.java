@@ -46,6 +46,12 @@ public interface Project {
 
     X509Certificate getCertificate();
 
+    /**
+     * Algorithm of project's key pair, users of this project get key pairs of the same algorithm.
+     * @return signing algorithm of this project.
+     */
+    SigningAlgorithm getSigningAlgorithm();
+
     void addClient(ClientId id);
 
     boolean removeClient(ClientId id);
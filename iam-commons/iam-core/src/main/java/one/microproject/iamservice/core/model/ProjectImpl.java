@@ -3,17 +3,18 @@ package one.microproject.iamservice.core.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.utils.TokenUtils;
 
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -24,7 +25,6 @@ public class ProjectImpl implements Project {
     private final String name;
     private final Set<UserId> users;
     private final Set<RoleId> roles;
-    private final KeyPairData keyPairData;
     private final KeyPairSerialized keyPairSerialized;
     private final Set<ClientId> clients;
     private final Set<Permission> permissions;
@@ -32,16 +32,27 @@ public class ProjectImpl implements Project {
     private final Map<String, String> properties;
 
     public ProjectImpl(ProjectId id, String name, OrganizationId organizationId, PrivateKey organizationPrivateKey, Collection<String> audience) throws PKIException {
+        this(id, name, organizationId, organizationPrivateKey, audience, SigningAlgorithm.RS256);
+    }
+
+    public ProjectImpl(ProjectId id, String name, OrganizationId organizationId, PrivateKey organizationPrivateKey, Collection<String> audience,
+                       SigningAlgorithm signingAlgorithm) throws PKIException {
+        this(id, name, organizationId, organizationPrivateKey, audience, signingAlgorithm, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public ProjectImpl(ProjectId id, String name, OrganizationId organizationId, PrivateKey organizationPrivateKey, Collection<String> audience,
+                       SigningAlgorithm signingAlgorithm, KeyPairProvider keyPairProvider) throws PKIException {
         this.id = id;
         this.name = name;
-        this.users = new HashSet<>();
+        this.users = ConcurrentHashMap.newKeySet();
         this.organizationId = organizationId;
-        this.roles = new HashSet<>();
-        this.clients = new HashSet<>();
-        this.permissions = new HashSet<>();
-        this.keyPairData = TokenUtils.createSignedKeyPairData(organizationId.getId(), id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS, organizationPrivateKey);
+        this.roles = new CopyOnWriteArraySet<>();
+        this.clients = ConcurrentHashMap.newKeySet();
+        this.permissions = new CopyOnWriteArraySet<>();
+        KeyPairData keyPairData = TokenUtils.createSignedKeyPairData(organizationId.getId(), id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS, organizationPrivateKey, signingAlgorithm,
+                keyPairProvider);
         this.keyPairSerialized = ModelUtils.serializeKeyPair(keyPairData);
-        this.audience = new HashSet<>();
+        this.audience = new CopyOnWriteArraySet<>();
         audience.forEach(this.audience::add);
         this.properties = new ConcurrentHashMap<>();
     }
@@ -59,13 +70,12 @@ public class ProjectImpl implements Project {
                        @JsonProperty("properties") Map<String, String> properties) throws PKIException {
         this.id = id;
         this.name = name;
-        this.users = new HashSet<>();
+        this.users = ConcurrentHashMap.newKeySet();
         this.organizationId = organizationId;
-        this.roles = new HashSet<>();
-        this.clients = new HashSet<>();
-        this.permissions = new HashSet<>();
-        this.audience = new HashSet<>();
-        this.keyPairData = ModelUtils.deserializeKeyPair(keyPairSerialized);
+        this.roles = new CopyOnWriteArraySet<>();
+        this.clients = ConcurrentHashMap.newKeySet();
+        this.permissions = new CopyOnWriteArraySet<>();
+        this.audience = new CopyOnWriteArraySet<>();
         this.keyPairSerialized = keyPairSerialized;
         users.forEach(this.users::add);
         roles.forEach(this.roles::add);
@@ -108,7 +118,7 @@ public class ProjectImpl implements Project {
     @Override
     @JsonIgnore
     public KeyPairData getKeyPairData() {
-        return keyPairData;
+        return ModelUtils.decodeKeyPair(keyPairSerialized);
     }
 
     @Override
@@ -149,13 +159,20 @@ public class ProjectImpl implements Project {
     @Override
     @JsonIgnore
     public PrivateKey getPrivateKey() {
-        return keyPairData.getPrivateKey();
+        return getKeyPairData().getPrivateKey();
     }
 
     @Override
     @JsonIgnore
     public X509Certificate getCertificate() {
-        return keyPairData.getX509Certificate();
+        return ModelUtils.decodeCertificate(keyPairSerialized);
+    }
+
+    @Override
+    @JsonIgnore
+    public SigningAlgorithm getSigningAlgorithm() {
+        //public key of certificate is cheaper to decode than PKCS#8 private key
+        return SigningAlgorithm.fromKey(getCertificate().getPublicKey());
     }
 
     @Override
@@ -204,7 +221,7 @@ public class ProjectImpl implements Project {
 
     @Override
     public void setAudience(Set<String> audience) {
-        this.audience.clear();
+        this.audience.retainAll(audience);
         this.audience.addAll(audience);
     }
 
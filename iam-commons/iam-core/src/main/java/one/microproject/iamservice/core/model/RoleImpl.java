@@ -4,9 +4,9 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
 public class RoleImpl implements Role {
@@ -18,7 +18,7 @@ public class RoleImpl implements Role {
     public RoleImpl(RoleId id, String name) {
         this.id = id;
         this.name = name;
-        this.permissions = new HashSet<>();
+        this.permissions = new CopyOnWriteArraySet<>();
     }
 
     @JsonCreator
@@ -27,7 +27,7 @@ public class RoleImpl implements Role {
                 @JsonProperty("permissions") Collection<Permission> permissions) {
         this.id = id;
         this.name = name;
-        this.permissions = new HashSet<>();
+        this.permissions = new CopyOnWriteArraySet<>();
         permissions.forEach(this.permissions::add);
     }
 
@@ -53,14 +53,7 @@ public class RoleImpl implements Role {
 
     @Override
     public boolean removePermission(PermissionId id) {
-        Set<Permission> filtered = permissions.stream().filter(p->!p.getId().equals(id)).collect(Collectors.toSet());
-        if (filtered.size() < permissions.size()) {
-            permissions.clear();
-            permissions.addAll(filtered);
-            return true;
-        } else {
-            return false;
-        }
+        return permissions.removeIf(p -> p.getId().equals(id));
     }
 
     @Override
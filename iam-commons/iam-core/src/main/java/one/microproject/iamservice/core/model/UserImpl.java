@@ -3,6 +3,7 @@ package one.microproject.iamservice.core.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.utils.TokenUtils;
 
@@ -24,7 +25,6 @@ public class UserImpl implements User {
     private final String name;
     private final Map<Class<? extends Credentials>, Credentials> credentials;
     private final Set<RoleId> roles;
-    private final KeyPairData keyPairData;
     private final KeyPairSerialized keyPairSerialized;
     private final Long defaultAccessTokenDuration;
     private final Long defaultRefreshTokenDuration;
@@ -34,12 +34,20 @@ public class UserImpl implements User {
     public UserImpl(UserId id, String name, ProjectId projectId,
                     Long defaultAccessTokenDuration, Long defaultRefreshTokenDuration, PrivateKey projectPrivateKey,
                     String email, UserProperties properties) throws PKIException {
+        this(id, name, projectId, defaultAccessTokenDuration, defaultRefreshTokenDuration, projectPrivateKey, email, properties,
+                TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public UserImpl(UserId id, String name, ProjectId projectId,
+                    Long defaultAccessTokenDuration, Long defaultRefreshTokenDuration, PrivateKey projectPrivateKey,
+                    String email, UserProperties properties, KeyPairProvider keyPairProvider) throws PKIException {
         this.id = id;
         this.name = name;
         this.credentials = new ConcurrentHashMap<>();
         this.roles = new CopyOnWriteArraySet<>();
         this.projectId = projectId;
-        this.keyPairData = TokenUtils.createSignedKeyPairData(projectId.getId(), id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS, projectPrivateKey);
+        KeyPairData keyPairData = TokenUtils.createSignedKeyPairData(projectId.getId(), id.getId(), ModelUtils.DURATION_10YEARS, TimeUnit.DAYS, projectPrivateKey,
+                SigningAlgorithm.fromKey(projectPrivateKey), keyPairProvider);
         this.keyPairSerialized = ModelUtils.serializeKeyPair(keyPairData);
         this.defaultAccessTokenDuration = defaultAccessTokenDuration;
         this.defaultRefreshTokenDuration = defaultRefreshTokenDuration;
@@ -63,7 +71,6 @@ public class UserImpl implements User {
         this.credentials = new ConcurrentHashMap<>();
         this.roles = new CopyOnWriteArraySet<>();
         this.projectId = projectId;
-        this.keyPairData = ModelUtils.deserializeKeyPair(keyPairSerialized);
         this.keyPairSerialized = keyPairSerialized;
         this.defaultAccessTokenDuration = defaultAccessTokenDuration;
         this.defaultRefreshTokenDuration = defaultRefreshTokenDuration;
@@ -113,7 +120,7 @@ public class UserImpl implements User {
     @Override
     @JsonIgnore
     public KeyPairData getKeyPairData() {
-        return keyPairData;
+        return ModelUtils.decodeKeyPair(keyPairSerialized);
     }
 
     @Override
@@ -139,13 +146,13 @@ public class UserImpl implements User {
     @Override
     @JsonIgnore
     public PrivateKey getPrivateKey() {
-        return keyPairData.getPrivateKey();
+        return getKeyPairData().getPrivateKey();
     }
 
     @Override
     @JsonIgnore
     public X509Certificate getCertificate() {
-        return keyPairData.getX509Certificate();
+        return ModelUtils.decodeCertificate(keyPairSerialized);
     }
 
     @Override
@@ -1,21 +1,34 @@
 package one.microproject.iamservice.core.model.builders;
 
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.OrganizationImpl;
 import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.utils.TokenUtils;
 
 import java.util.UUID;
 
 public final class ModelBuilder {
 
     private final ModelCache modelCache;
+    private final KeyPairProvider keyPairProvider;
 
     public ModelBuilder(ModelWrapper modelWrapper) {
-        this.modelCache = new ModelCacheImpl(modelWrapper);
+        this(modelWrapper, new KeyPairDataCache());
+    }
+
+    public ModelBuilder(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache) {
+        this(modelWrapper, keyPairDataCache, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public ModelBuilder(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache, KeyPairProvider keyPairProvider) {
+        this.modelCache = new ModelCacheImpl(modelWrapper, keyPairDataCache, keyPairProvider);
+        this.keyPairProvider = keyPairProvider;
     }
 
     public OrganizationBuilder addOrganization(String name) throws PKIException {
@@ -24,7 +37,7 @@ public final class ModelBuilder {
     }
 
     public OrganizationBuilder addOrganization(OrganizationId id, String name) throws PKIException {
-        Organization organization = new OrganizationImpl(id, name);
+        Organization organization = new OrganizationImpl(id, name, keyPairProvider);
         this.modelCache.add(organization);
         return new OrganizationBuilder(modelCache, this, organization.getId());
     }
@@ -4,6 +4,7 @@ import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.model.Project;
 import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
 
@@ -29,7 +30,11 @@ public final class OrganizationBuilder {
     }
 
     public ProjectBuilder addProject(ProjectId id, String name, Collection<String> audience) throws PKIException {
-        CreateProjectRequest request = new CreateProjectRequest(id, name, audience);
+        return addProject(id, name, audience, SigningAlgorithm.RS256);
+    }
+
+    public ProjectBuilder addProject(ProjectId id, String name, Collection<String> audience, SigningAlgorithm signingAlgorithm) throws PKIException {
+        CreateProjectRequest request = new CreateProjectRequest(id, name, audience, signingAlgorithm);
         Optional<Project> project = modelCache.add(organizationId, request);
         if (project.isPresent()) {
             return new ProjectBuilder(modelCache, this, organizationId, project.get().getId());
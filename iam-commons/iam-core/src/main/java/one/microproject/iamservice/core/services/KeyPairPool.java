@@ -0,0 +1,24 @@
+package one.microproject.iamservice.core.services;
+
+import one.microproject.iamservice.core.services.dto.KeyPairPoolStats;
+
+/**
+ * Bounded pool of pre-generated RSA key pairs.
+ * Pool is refilled by background worker threads, when the pool is empty, key pair is generated on caller's thread.
+ * EC key pairs are cheap to generate, those are always generated on caller's thread.
+ */
+public interface KeyPairPool extends KeyPairProvider, AutoCloseable {
+
+    /**
+     * Start background workers refilling this pool.
+     * This method is non-blocking.
+     */
+    void start();
+
+    /**
+     * Get current pool depth and hit / starvation counters.
+     * @return {@link KeyPairPoolStats} snapshot.
+     */
+    KeyPairPoolStats getStats();
+
+}
@@ -0,0 +1,30 @@
+package one.microproject.iamservice.core.services;
+
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
+
+import java.security.KeyPair;
+
+/**
+ * Source of key pairs used for organization, project and user key material.
+ */
+public interface KeyPairProvider {
+
+    /**
+     * Get new key pair for given signing algorithm. Each call returns different key pair.
+     * @param algorithm signing algorithm the key pair is used with.
+     * @return new {@link KeyPair}.
+     * @throws PKIException in case key pair can't be generated.
+     */
+    KeyPair getKeyPair(SigningAlgorithm algorithm) throws PKIException;
+
+    /**
+     * Get new RSA key pair.
+     * @return new {@link KeyPair}.
+     * @throws PKIException in case key pair can't be generated.
+     */
+    default KeyPair getKeyPair() throws PKIException {
+        return getKeyPair(SigningAlgorithm.RS256);
+    }
+
+}
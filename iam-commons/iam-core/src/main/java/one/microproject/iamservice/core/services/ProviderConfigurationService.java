@@ -29,6 +29,15 @@ public interface ProviderConfigurationService {
      */
     JWKResponse getJWKData(OrganizationId organizationId, ProjectId projectId);
 
+    /**
+     * Get revision of project's provider configuration and JWK data. Revision changes when keys or permissions of the project change,
+     * so responses created for the same revision may be reused.
+     * @param organizationId {@link OrganizationId} unique organization ID.
+     * @param projectId {@link ProjectId} unique project ID.
+     * @return current revision of the project.
+     */
+    long getRevision(OrganizationId organizationId, ProjectId projectId);
+
     /**
      * Search for key by Key-ID.
      * @param organizationId {@link OrganizationId} unique organization ID.
@@ -4,18 +4,19 @@ import one.microproject.iamservice.core.dto.TokenResponse;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.OrganizationId;
-import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.Project;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
 import one.microproject.iamservice.core.services.dto.IdTokenRequest;
 import one.microproject.iamservice.core.services.dto.Scope;
 
 import java.net.URI;
-import java.util.Set;
 
 /**
  * Generate {@link TokenResponse} for different type of auth flows.
+ * Depending on {@link one.microproject.iamservice.core.services.dto.TokenIssuancePolicy} and client properties,
+ * refresh token and ID token may be omitted from the response.
  */
 public interface TokenGenerator {
 
@@ -25,26 +26,26 @@ public interface TokenGenerator {
      * @param organizationId {@link OrganizationId} unique organization ID.
      * @param project {@link Project} data model.
      * @param user {@link User} data model.
-     * @param userPermissions user's permissions.
+     * @param userPermissions user's effective permissions.
      * @param scope requested scope.
      * @param clientId {@link ClientId} unique client's ID.
      * @param idTokenRequest ID Token request.
      * @return instance of {@link TokenResponse}.
      */
-    TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, User user, Set<Permission> userPermissions, Scope scope, ClientId clientId, IdTokenRequest idTokenRequest);
+    TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, User user, EffectivePermissions userPermissions, Scope scope, ClientId clientId, IdTokenRequest idTokenRequest);
 
     /**
      * Generate {@link TokenResponse} for Client Credentials flow or Refresh Token flow;
      * @param issuerUri unique URI of token issuer.
      * @param organizationId {@link OrganizationId} unique organization ID.
      * @param project {@link Project} data model.
-     * @param clientPermissions client's permissions.
+     * @param clientPermissions client's effective permissions.
      * @param client {@link Client} data model.
      * @param scope requested scope.
      * @param idTokenRequest ID Token request.
      * @return instance of {@link TokenResponse}.
      */
-    TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, Set<Permission> clientPermissions, Client client, Scope scope, IdTokenRequest idTokenRequest);
+    TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, EffectivePermissions clientPermissions, Client client, Scope scope, IdTokenRequest idTokenRequest);
 
     /**
      * Generate {@link TokenResponse} for Authorization Code Grant flow;
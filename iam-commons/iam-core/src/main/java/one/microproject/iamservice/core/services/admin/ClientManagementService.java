@@ -8,6 +8,7 @@ import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.RoleId;
 import one.microproject.iamservice.core.services.dto.CreateClientRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -25,4 +26,11 @@ public interface ClientManagementService {
 
     boolean removeRole(OrganizationId id, ProjectId projectId, ClientId clientId, RoleId roleId);
 
+    /**
+     * Wait until changes made by previous calls have been persisted. Admin calls return as soon as the change
+     * is applied to the model, callers requiring durable changes call this method after the change.
+     * @throws IOException in case changes have not been persisted.
+     */
+    void awaitDurable() throws IOException;
+
 }
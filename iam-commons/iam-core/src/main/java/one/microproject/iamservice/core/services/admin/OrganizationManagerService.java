@@ -1,12 +1,15 @@
 package one.microproject.iamservice.core.services.admin;
 
+import one.microproject.iamservice.core.model.KeyId;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.services.dto.CreateOrganizationRequest;
 import one.microproject.iamservice.core.services.dto.OrganizationInfo;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
 
+import java.io.IOException;
 import java.security.cert.CertificateEncodingException;
 import java.util.Collection;
 import java.util.Optional;
@@ -33,4 +36,13 @@ public interface OrganizationManagerService {
 
     Collection<User> getAllUsers(OrganizationId id);
 
+    Optional<VerificationKey> getVerificationKey(KeyId keyId);
+
+    /**
+     * Wait until changes made by previous calls have been persisted. Admin calls return as soon as the change
+     * is applied to the model, callers requiring durable changes call this method after the change.
+     * @throws IOException in case changes have not been persisted.
+     */
+    void awaitDurable() throws IOException;
+
 }
@@ -12,6 +12,7 @@ import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
 import one.microproject.iamservice.core.services.dto.CreateRoleRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -52,4 +53,13 @@ public interface ProjectManagerService {
 
     void setAudience(OrganizationId id, ProjectId projectId, Set<String> audience);
 
+    long getRevision(OrganizationId id, ProjectId projectId);
+
+    /**
+     * Wait until changes made by previous calls have been persisted. Admin calls return as soon as the change
+     * is applied to the model, callers requiring durable changes call this method after the change.
+     * @throws IOException in case changes have not been persisted.
+     */
+    void awaitDurable() throws IOException;
+
 }
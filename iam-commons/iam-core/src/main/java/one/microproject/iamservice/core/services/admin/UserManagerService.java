@@ -9,6 +9,7 @@ import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.RoleId;
 import one.microproject.iamservice.core.services.dto.CreateUserRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -31,4 +32,11 @@ public interface UserManagerService {
 
     boolean setCredentials(OrganizationId id, ProjectId projectId, UserId userId, Credentials credentials);
 
+    /**
+     * Wait until changes made by previous calls have been persisted. Admin calls return as soon as the change
+     * is applied to the model, callers requiring durable changes call this method after the change.
+     * @throws IOException in case changes have not been persisted.
+     */
+    void awaitDurable() throws IOException;
+
 }
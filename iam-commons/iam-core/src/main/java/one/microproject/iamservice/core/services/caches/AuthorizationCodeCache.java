@@ -17,6 +17,15 @@ public interface AuthorizationCodeCache {
 
     Optional<AuthorizationCodeContext> verifyAndRemove(Code code);
 
+    /**
+     * Redeem authorization code obtained by {@link #get(Code)}. Code is removed only if it is still mapped to
+     * given context, so concurrent redemptions of the same code succeed at most once.
+     * @param code authorization code.
+     * @param context context returned by {@link #get(Code)}.
+     * @return true if code has been redeemed by this call.
+     */
+    boolean redeem(Code code, AuthorizationCodeContext context);
+
     Optional<AuthorizationCodeContext> get(Code code);
 
 }
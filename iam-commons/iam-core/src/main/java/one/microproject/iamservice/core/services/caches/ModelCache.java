@@ -4,6 +4,9 @@ import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.ClientCredentials;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.Credentials;
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.KeyPairData;
+import one.microproject.iamservice.core.model.KeyPairSerialized;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
@@ -19,8 +22,11 @@ import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.services.dto.CreateClientRequest;
 import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
 import one.microproject.iamservice.core.services.dto.CreateUserRequest;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
 import one.microproject.iamservice.core.services.persistence.PersistenceService;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -126,4 +132,32 @@ public interface ModelCache {
 
     Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId, ClientId clientId);
 
+    EffectivePermissions getEffectivePermissions(OrganizationId organizationId, ProjectId projectId, UserId userId);
+
+    EffectivePermissions getEffectivePermissions(OrganizationId organizationId, ProjectId projectId, ClientId clientId);
+
+    //KEYS
+    Optional<VerificationKey> getVerificationKey(KeyId keyId);
+
+    /**
+     * Get decoded key pair of organization, project or user. Decoded key pairs are cached.
+     * @param keyPairSerialized serialized key pair stored in the model.
+     * @return decoded key pair.
+     */
+    KeyPairData getKeyPairData(KeyPairSerialized keyPairSerialized);
+
+    /**
+     * Get revision of project's public data. Revision changes every time signing keys or permissions of the project change.
+     * @param organizationId {@link OrganizationId} unique organization ID.
+     * @param projectId {@link ProjectId} unique project ID.
+     * @return current revision of the project.
+     */
+    long getRevision(OrganizationId organizationId, ProjectId projectId);
+
+    /**
+     * Wait until all model changes made so far have been persisted.
+     * @throws IOException in case changes have not been persisted.
+     */
+    void awaitDurable() throws IOException;
+
 }
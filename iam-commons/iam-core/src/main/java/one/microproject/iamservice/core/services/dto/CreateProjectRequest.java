@@ -3,6 +3,7 @@ package one.microproject.iamservice.core.services.dto;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -14,15 +15,22 @@ public class CreateProjectRequest {
     private final ProjectId id;
     private final String name;
     private final Set<String> audience;
+    private final SigningAlgorithm signingAlgorithm;
 
     @JsonCreator
     public CreateProjectRequest(@JsonProperty("id") ProjectId id,
                                 @JsonProperty("name") String name,
-                                @JsonProperty("audience") Collection<String> audience) {
+                                @JsonProperty("audience") Collection<String> audience,
+                                @JsonProperty("signingAlgorithm") SigningAlgorithm signingAlgorithm) {
         this.id = id;
         this.name = name;
         this.audience = new HashSet<>();
         this.audience.addAll(audience);
+        this.signingAlgorithm = (signingAlgorithm == null) ? SigningAlgorithm.RS256 : signingAlgorithm;
+    }
+
+    public CreateProjectRequest(ProjectId id, String name, Collection<String> audience) {
+        this(id, name, audience, SigningAlgorithm.RS256);
     }
 
     public ProjectId getId() {
@@ -37,6 +45,10 @@ public class CreateProjectRequest {
         return audience;
     }
 
+    public SigningAlgorithm getSigningAlgorithm() {
+        return signingAlgorithm;
+    }
+
     public static CreateProjectRequest from(String id, String name, String ... audience) {
 
         return new CreateProjectRequest(ProjectId.from(id), name, Arrays.asList(audience));
@@ -0,0 +1,68 @@
+package one.microproject.iamservice.core.services.dto;
+
+import one.microproject.iamservice.core.model.Permission;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable union of permissions of all roles assigned to user or client, together with precomputed scope string values.
+ */
+public class EffectivePermissions {
+
+    private static final EffectivePermissions EMPTY = new EffectivePermissions(Set.of());
+
+    private final Set<Permission> permissions;
+    private final Scope scope;
+
+    private EffectivePermissions(Set<Permission> permissions) {
+        this.permissions = permissions;
+        Set<String> values = new HashSet<>();
+        permissions.forEach(p -> values.add(p.asStringValue()));
+        this.scope = new Scope(Set.copyOf(values));
+    }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Get scope containing all effective permissions.
+     * @return scope of all permissions, scope values are immutable.
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * Filter effective permissions by requested scope. If requested scope is empty, precomputed scope of all permissions is returned.
+     * {@link Scope#OPENID} is not a permission and is never returned, so scope containing only openid grants no permissions.
+     * @param requested requested scope, values not present in effective permissions are ignored.
+     * @return effective permissions filtered by requested scope.
+     */
+    public Scope filter(Scope requested) {
+        if (requested.isEmpty()) {
+            return scope;
+        }
+        Set<String> values = new HashSet<>();
+        for (String value: requested.getValues()) {
+            if (!Scope.OPENID.equals(value) && scope.getValues().contains(value)) {
+                values.add(value);
+            }
+        }
+        return new Scope(values);
+    }
+
+    public static EffectivePermissions from(Collection<Permission> permissions) {
+        if (permissions.isEmpty()) {
+            return EMPTY;
+        }
+        return new EffectivePermissions(Set.copyOf(permissions));
+    }
+
+    public static EffectivePermissions empty() {
+        return EMPTY;
+    }
+
+}
@@ -0,0 +1,51 @@
+package one.microproject.iamservice.core.services.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of {@link one.microproject.iamservice.core.services.KeyPairPool} metrics.
+ * Starvations count key pairs requested while the pool was empty, those were generated on caller's thread.
+ */
+public class KeyPairPoolStats {
+
+    private final int capacity;
+    private final int depth;
+    private final long generated;
+    private final long hits;
+    private final long starvations;
+
+    @JsonCreator
+    public KeyPairPoolStats(@JsonProperty("capacity") int capacity,
+                            @JsonProperty("depth") int depth,
+                            @JsonProperty("generated") long generated,
+                            @JsonProperty("hits") long hits,
+                            @JsonProperty("starvations") long starvations) {
+        this.capacity = capacity;
+        this.depth = depth;
+        this.generated = generated;
+        this.hits = hits;
+        this.starvations = starvations;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getGenerated() {
+        return generated;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getStarvations() {
+        return starvations;
+    }
+
+}
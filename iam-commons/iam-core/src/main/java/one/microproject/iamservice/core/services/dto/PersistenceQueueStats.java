@@ -0,0 +1,58 @@
+package one.microproject.iamservice.core.services.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of {@link one.microproject.iamservice.core.services.impl.persistence.AsyncPersistenceServiceImpl} metrics.
+ * Depth counts model changes waiting for the writer, flushed changes divided by flushes is the coalescing ratio.
+ */
+public class PersistenceQueueStats {
+
+    private final long depth;
+    private final long flushes;
+    private final long flushedChanges;
+    private final long failures;
+    private final long totalFlushTimeNanos;
+    private final long lastFlushTimeNanos;
+
+    @JsonCreator
+    public PersistenceQueueStats(@JsonProperty("depth") long depth,
+                                 @JsonProperty("flushes") long flushes,
+                                 @JsonProperty("flushedChanges") long flushedChanges,
+                                 @JsonProperty("failures") long failures,
+                                 @JsonProperty("totalFlushTimeNanos") long totalFlushTimeNanos,
+                                 @JsonProperty("lastFlushTimeNanos") long lastFlushTimeNanos) {
+        this.depth = depth;
+        this.flushes = flushes;
+        this.flushedChanges = flushedChanges;
+        this.failures = failures;
+        this.totalFlushTimeNanos = totalFlushTimeNanos;
+        this.lastFlushTimeNanos = lastFlushTimeNanos;
+    }
+
+    public long getDepth() {
+        return depth;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public long getFlushedChanges() {
+        return flushedChanges;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getTotalFlushTimeNanos() {
+        return totalFlushTimeNanos;
+    }
+
+    public long getLastFlushTimeNanos() {
+        return lastFlushTimeNanos;
+    }
+
+}
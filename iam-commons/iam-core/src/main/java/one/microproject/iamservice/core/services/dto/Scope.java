@@ -4,11 +4,14 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 public class Scope {
 
+    public static final String OPENID = "openid";
+
     private final Set<String> values;
 
     @JsonCreator
@@ -25,6 +28,24 @@ public class Scope {
         return values.isEmpty();
     }
 
+    @JsonIgnore
+    public boolean isOpenId() {
+        return values.contains(OPENID);
+    }
+
+    /**
+     * Get scope without {@link Scope#OPENID}, openid is not a permission and is never part of access or refresh token scope.
+     * @return this scope if it does not contain openid, copy of this scope without openid otherwise.
+     */
+    public Scope withoutOpenId() {
+        if (!isOpenId()) {
+            return this;
+        }
+        Set<String> result = new HashSet<>(values);
+        result.remove(OPENID);
+        return new Scope(result);
+    }
+
     public static Scope empty() {
         return new Scope(Set.of());
     }
@@ -0,0 +1,26 @@
+package one.microproject.iamservice.core.services.dto;
+
+/**
+ * Policy deciding which tokens {@link one.microproject.iamservice.core.services.TokenGenerator} issues.
+ * Each issued token costs one signature, so tokens the caller did not ask for are better skipped.
+ */
+public enum TokenIssuancePolicy {
+
+    /**
+     * ID token is issued for every grant.
+     */
+    ALWAYS,
+
+    /**
+     * ID token is issued only for OpenID Connect requests, those with {@link Scope#OPENID} in requested scope.
+     */
+    OPENID_SCOPE;
+
+    public boolean issueIdToken(Scope requestedScope) {
+        if (this == ALWAYS) {
+            return true;
+        }
+        return requestedScope != null && requestedScope.isOpenId();
+    }
+
+}
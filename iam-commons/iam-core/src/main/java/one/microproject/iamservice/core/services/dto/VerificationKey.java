@@ -0,0 +1,42 @@
+package one.microproject.iamservice.core.services.dto;
+
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+
+import java.security.PublicKey;
+
+/**
+ * Public key used to verify tokens signed with given key ID, together with organization and project owning the key.
+ */
+public class VerificationKey {
+
+    private final KeyId keyId;
+    private final OrganizationId organizationId;
+    private final ProjectId projectId;
+    private final PublicKey publicKey;
+
+    public VerificationKey(KeyId keyId, OrganizationId organizationId, ProjectId projectId, PublicKey publicKey) {
+        this.keyId = keyId;
+        this.organizationId = organizationId;
+        this.projectId = projectId;
+        this.publicKey = publicKey;
+    }
+
+    public KeyId getKeyId() {
+        return keyId;
+    }
+
+    public OrganizationId getOrganizationId() {
+        return organizationId;
+    }
+
+    public ProjectId getProjectId() {
+        return projectId;
+    }
+
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+}
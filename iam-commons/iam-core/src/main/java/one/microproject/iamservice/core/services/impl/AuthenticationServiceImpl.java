@@ -8,7 +8,6 @@ import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.Credentials;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKCEMethod;
-import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.Project;
 import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.TokenType;
@@ -26,6 +25,7 @@ import one.microproject.iamservice.core.services.caches.TokenCache;
 import one.microproject.iamservice.core.services.dto.AuthorizationCode;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
 import one.microproject.iamservice.core.dto.Code;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
 import one.microproject.iamservice.core.services.dto.IdTokenRequest;
 import one.microproject.iamservice.core.model.JWToken;
 import one.microproject.iamservice.core.services.dto.RevokeTokenRequest;
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import java.net.URI;
 import java.security.PublicKey;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -93,7 +94,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             if (credentials.isPresent()) {
                 boolean valid = credentials.get().verify(authenticationRequest);
                 if (valid) {
-                    Set<Permission> userPermissions = modelCache.getPermissions(organizationId, projectId, user.getId());
+                    EffectivePermissions userPermissions = modelCache.getEffectivePermissions(organizationId, projectId, user.getId());
                     return Optional.of(tokenGenerator.generate(issuerUri, organizationId, projectOptional.get(), user,
                             userPermissions, authenticationRequest.getScope(), authenticationRequest.getClientCredentials().getId() , idTokenRequest));
                 }
@@ -119,7 +120,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 if (validationResult) {
                     Client client = clientOptional.get();
                     Project project = projectOptional.get();
-                    Set<Permission> clientPermissions = modelCache.getPermissions(organizationId, projectId, client.getId());
+                    EffectivePermissions clientPermissions = modelCache.getEffectivePermissions(organizationId, projectId, client.getId());
                     return Optional.of(tokenGenerator.generate(issuerUri, organizationId, project, clientPermissions, client, scope, idTokenRequest));
                 } else {
                     LOG.info("Client {} credentials invalid !", clientCredentials.getId());
@@ -153,13 +154,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             Optional<User> userOptional = modelCache.getUser(organizationId, projectId, UserId.from(subject));
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
-                Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(user.getCertificate().getPublicKey(), token);
+                Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(modelCache.getKeyPairData(user.getKeyPairSerialized()).getPublicKey(), token);
                 LOG.info("JWT verified={}", claimsOptional.isPresent());
                 if (claimsOptional.isPresent()) {
                     try {
                         StandardTokenClaims tokenClaims = claimsOptional.get();
                         if (TokenType.REFRESH.equals(tokenClaims.getType())) {
-                            Set<Permission> userPermissions = modelCache.getPermissions(organizationId, projectId, user.getId());
+                            EffectivePermissions userPermissions = modelCache.getEffectivePermissions(organizationId, projectId, user.getId());
                             return Optional.of(tokenGenerator.generate(tokenClaims.getIssuerUri(), organizationId, projectOptional.get(), user, userPermissions, scope, clientCredentials.getId(), idTokenRequest));
                         } else {
                             LOG.info("Invalid JWT type {}, expected type {}", tokenClaims.getType(), TokenType.BEARER.getType());
@@ -178,11 +179,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                         try {
                             Client client = clientOptional.get();
                             Project project = projectOptional.get();
-                            Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(projectOptional.get().getCertificate().getPublicKey(), token);
+                            Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(modelCache.getKeyPairData(projectOptional.get().getKeyPairSerialized()).getPublicKey(), token);
                             LOG.info("JWT verified={}", claimsOptional.isPresent());
                             if (claimsOptional.isPresent()) {
                                 StandardTokenClaims tokenClaims = claimsOptional.get();
-                                Set<Permission> clientPermissions = modelCache.getPermissions(organizationId, projectId, client.getId());
+                                EffectivePermissions clientPermissions = modelCache.getEffectivePermissions(organizationId, projectId, client.getId());
                                 return Optional.of(tokenGenerator.generate(tokenClaims.getIssuerUri(), organizationId, project, clientPermissions, client, scope, idTokenRequest));
                             } else {
                                 LOG.warn("JWT is invalid !");
@@ -221,14 +222,14 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 if (isPKCEEnabled(context.getCodeChallenge(), idTokenRequest.getCodeVerifier())) {
                     if (verifyPKCE(context.getCodeChallenge(), context.getCodeChallengeMethod(), idTokenRequest.getCodeVerifier())) {
                         LOG.info("PKCE OK code_challenge={} method={} code_verifier={}", context.getCodeChallenge(), context.getCodeChallengeMethod(), idTokenRequest.getCodeVerifier());
-                        return Optional.of(tokenGenerator.generate(context, user, idTokenRequest));
+                        return redeem(code, context, user, idTokenRequest);
                     } else {
                         LOG.info("PKCE verification failed for code_challenge={} method={} code_verifier={}",
                                 context.getCodeChallenge(), context.getCodeChallengeMethod(), idTokenRequest.getCodeVerifier());
                     }
                 } else {
                     LOG.info("PKCE disabled");
-                    return Optional.of(tokenGenerator.generate(context, user, idTokenRequest));
+                    return redeem(code, context, user, idTokenRequest);
                 }
             } else {
                 LOG.info("User {} not found", context.getUserId());
@@ -269,8 +270,14 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 UPAuthenticationRequest authenticationRequest = new UPAuthenticationRequest(userId, password, scope, null);
                 boolean valid = credentials.get().verify(authenticationRequest);
                 if (valid) {
-                    Set<Permission> userPermissions = modelCache.getPermissions(organizationId, projectId, user.getId());
+                    EffectivePermissions userPermissions = modelCache.getEffectivePermissions(organizationId, projectId, user.getId());
                     Scope filteredScopes = TokenUtils.filterScopes(userPermissions, scope);
+                    if (scope.isOpenId()) {
+                        //openid is not a permission, keep it so ID token is issued when code is exchanged
+                        Set<String> values = new HashSet<>(filteredScopes.getValues());
+                        values.add(Scope.OPENID);
+                        filteredScopes = new Scope(values);
+                    }
 
                     Code code = Code.from(UUID.randomUUID().toString());
                     AuthorizationCodeContext authorizationCodeContext =
@@ -293,7 +300,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         String subject = defaultClaims.getSubject();
         Optional<User> userOptional = modelCache.getUser(organizationId, projectId, UserId.from(subject));
         if (userOptional.isPresent()) {
-            Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(userOptional.get().getCertificate().getPublicKey(), token);
+            Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(modelCache.getKeyPairData(userOptional.get().getKeyPairSerialized()).getPublicKey(), token);
             LOG.info("JWT verified={}", claimsOptional.isPresent());
             if (claimsOptional.isPresent()) {
                 tokenCache.addRevokedToken(token);
@@ -304,7 +311,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             Optional<Client> clientOptional = this.modelCache.getClient(organizationId, projectId, clientId);
             Optional<Project> projectOptional = this.modelCache.getProject(organizationId, projectId);
             if (projectOptional.isPresent() && clientOptional.isPresent()) {
-                Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(projectOptional.get().getCertificate().getPublicKey(), token);
+                Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(modelCache.getKeyPairData(projectOptional.get().getKeyPairSerialized()).getPublicKey(), token);
                 LOG.info("JWT verified={}", claimsOptional.isPresent());
                 if (claimsOptional.isPresent()) {
                     tokenCache.addRevokedToken(token);
@@ -323,7 +330,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             String subject = defaultClaims.getSubject();
             Optional<User> userOptional = modelCache.getUser(organizationId, projectId, UserId.from(subject));
             if (userOptional.isPresent()) {
-                PublicKey publicKey = userOptional.get().getKeyPairData().getPublicKey();
+                PublicKey publicKey = modelCache.getKeyPairData(userOptional.get().getKeyPairSerialized()).getPublicKey();
                 Optional<StandardTokenClaims> claimsOptional = tokenValidator.validateToken(publicKey, token);
                 if (claimsOptional.isPresent()) {
                     StandardTokenClaims tokenClaims = claimsOptional.get();
@@ -337,4 +344,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         return Optional.empty();
     }
 
+    private Optional<TokenResponse> redeem(Code code, AuthorizationCodeContext context, User user, IdTokenRequest idTokenRequest) {
+        if (codeCache.redeem(code, context)) {
+            return Optional.of(tokenGenerator.generate(context, user, idTokenRequest));
+        }
+        LOG.info("Authorization code already redeemed or expired");
+        return Optional.empty();
+    }
+
 }
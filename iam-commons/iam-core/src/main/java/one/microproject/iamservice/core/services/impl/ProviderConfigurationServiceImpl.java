@@ -1,9 +1,11 @@
 package one.microproject.iamservice.core.services.impl;
 
-import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.utils.TokenUtils;
 import one.microproject.iamservice.core.services.ProviderConfigurationService;
@@ -12,9 +14,12 @@ import one.microproject.iamservice.core.services.admin.ProjectManagerService;
 import one.microproject.iamservice.core.dto.JWKData;
 import one.microproject.iamservice.core.dto.JWKResponse;
 import one.microproject.iamservice.core.services.dto.ProviderConfigurationRequest;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
 import one.microproject.iamservice.core.dto.ProviderConfigurationResponse;
 
+import java.math.BigInteger;
 import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -27,11 +32,15 @@ public class ProviderConfigurationServiceImpl implements ProviderConfigurationSe
     public static final String KEY_TYPE = "RSA";
     public static final String KEY_USE = "sig";
     public static final String KEY_ALGORITHM = "RS256";
+    public static final String EC_KEY_TYPE = "EC";
+    public static final String EC_KEY_ALGORITHM = "ES256";
+
+    private static final int EC_COORDINATE_LENGTH = 32;
 
     private static final String[] responseTypes = { "code", "code id_token","code token","code id_token token" };
     private static final String[] grantTypes = { "authorization_code", "refresh_token", "password", "client_credentials" };
     private static final String[] subjectTypesSupported = { "public", "pairwise" };
-    private static final String[] idTokenSigningAlgValuesSupported = { KEY_ALGORITHM };
+    private static final String[] idTokenSigningAlgValuesSupported = { KEY_ALGORITHM, EC_KEY_ALGORITHM };
     private static final String[] idTokenEncryptionAlgValuesSupported = { KEY_TYPE };
 
     public static String[] getOperations() {
@@ -40,11 +49,18 @@ public class ProviderConfigurationServiceImpl implements ProviderConfigurationSe
 
     private final OrganizationManagerService organizationManagerService;
     private final ProjectManagerService projectManagerService;
+    private final KeyPairDataCache keyPairDataCache;
 
     public ProviderConfigurationServiceImpl(OrganizationManagerService organizationManagerService,
                                             ProjectManagerService projectManagerService) {
+        this(organizationManagerService, projectManagerService, new KeyPairDataCache());
+    }
+
+    public ProviderConfigurationServiceImpl(OrganizationManagerService organizationManagerService,
+                                            ProjectManagerService projectManagerService, KeyPairDataCache keyPairDataCache) {
         this.organizationManagerService = organizationManagerService;
         this.projectManagerService = projectManagerService;
+        this.keyPairDataCache = keyPairDataCache;
     }
 
     @Override
@@ -69,46 +85,66 @@ public class ProviderConfigurationServiceImpl implements ProviderConfigurationSe
         Collection<User> users = projectManagerService.getUsers(organizationId, projectId);
         List<JWKData> keys = new ArrayList<>();
         users.forEach(u -> {
-            RSAPublicKey publicKey = (RSAPublicKey) u.getKeyPairData().getPublicKey();
-            String modulusBase64String = Base64.getEncoder().encodeToString(TokenUtils.toBytesUnsigned(publicKey.getModulus()));
-            String exponentBase64String = Base64.getEncoder().encodeToString(TokenUtils.toBytesUnsigned(publicKey.getPublicExponent()));
-            JWKData jwkData = new JWKData(u.getKeyPairData().getId().getId(), KEY_TYPE, KEY_USE, KEY_ALGORITHM, getOperations(),
-                    u.getKeyPairSerialized().getX509Certificate(), modulusBase64String, exponentBase64String);
-            keys.add(jwkData);
+            PublicKey publicKey = keyPairDataCache.get(u.getKeyPairSerialized()).getPublicKey();
+            String keyId = u.getKeyPairSerialized().getId().getId();
+            String certificate = u.getKeyPairSerialized().getX509Certificate();
+            if (SigningAlgorithm.ES256.equals(SigningAlgorithm.fromKey(publicKey))) {
+                ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+                String x = Base64.getUrlEncoder().withoutPadding().encodeToString(toCoordinateBytes(ecPublicKey.getW().getAffineX()));
+                String y = Base64.getUrlEncoder().withoutPadding().encodeToString(toCoordinateBytes(ecPublicKey.getW().getAffineY()));
+                keys.add(new JWKData(keyId, EC_KEY_TYPE, KEY_USE, EC_KEY_ALGORITHM, getOperations(), certificate,
+                        null, null, SigningAlgorithm.EC_CURVE, x, y));
+            } else {
+                RSAPublicKey rsaPublicKey = (RSAPublicKey) publicKey;
+                String modulusBase64String = Base64.getEncoder().encodeToString(TokenUtils.toBytesUnsigned(rsaPublicKey.getModulus()));
+                String exponentBase64String = Base64.getEncoder().encodeToString(TokenUtils.toBytesUnsigned(rsaPublicKey.getPublicExponent()));
+                keys.add(new JWKData(keyId, KEY_TYPE, KEY_USE, KEY_ALGORITHM, getOperations(), certificate,
+                        modulusBase64String, exponentBase64String));
+            }
         });
         return new JWKResponse(keys);
     }
 
+    /**
+     * EC point coordinates in JWK are unsigned big-endian values padded to the curve's field size (RFC 7518, section 6.2.1.2).
+     */
+    private static byte[] toCoordinateBytes(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        if (bytes.length == EC_COORDINATE_LENGTH) {
+            return bytes;
+        }
+        byte[] result = new byte[EC_COORDINATE_LENGTH];
+        if (bytes.length > EC_COORDINATE_LENGTH) {
+            System.arraycopy(bytes, bytes.length - EC_COORDINATE_LENGTH, result, 0, EC_COORDINATE_LENGTH);
+        } else {
+            System.arraycopy(bytes, 0, result, EC_COORDINATE_LENGTH - bytes.length, bytes.length);
+        }
+        return result;
+    }
+
+    @Override
+    public long getRevision(OrganizationId organizationId, ProjectId projectId) {
+        return projectManagerService.getRevision(organizationId, projectId);
+    }
+
     @Override
     public Optional<PublicKey> getKeyById(OrganizationId organizationId, ProjectId projectId, String kid) {
-        Collection<User> users = projectManagerService.getUsers(organizationId, projectId);
-        return filterKeys(users, kid);
+        return organizationManagerService.getVerificationKey(KeyId.from(kid))
+                .filter(k -> k.getOrganizationId().equals(organizationId) && k.getProjectId().equals(projectId))
+                .map(VerificationKey::getPublicKey);
     }
 
     @Override
     public Optional<PublicKey> getKeyById(OrganizationId organizationId, String kid) {
-        Collection<User> users = organizationManagerService.getAllUsers(organizationId);
-        return filterKeys(users, kid);
+        return organizationManagerService.getVerificationKey(KeyId.from(kid))
+                .filter(k -> k.getOrganizationId().equals(organizationId))
+                .map(VerificationKey::getPublicKey);
     }
 
     @Override
     public Optional<PublicKey> getKeyById(String kid) {
-        for (Organization organization: organizationManagerService.getAll()) {
-            Optional<PublicKey> key = getKeyById(organization.getId(), kid);
-            if (key.isPresent()) {
-                return key;
-            }
-        }
-        return Optional.empty();
-    }
-
-    private Optional<PublicKey> filterKeys(Collection<User> users, String kid) {
-        Optional<User> optionalUser = users.stream().filter(u -> u.getKeyPairData().getId().getId().equals(kid)).findFirst();
-        if (optionalUser.isPresent()) {
-            PublicKey publicKey = optionalUser.get().getKeyPairData().getPublicKey();
-            return Optional.of(publicKey);
-        }
-        return Optional.empty();
+        return organizationManagerService.getVerificationKey(KeyId.from(kid))
+                .map(VerificationKey::getPublicKey);
     }
 
 }
@@ -4,7 +4,6 @@ import io.jsonwebtoken.impl.DefaultClaims;
 import one.microproject.iamservice.core.dto.StandardTokenClaims;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.ClientId;
-import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.model.Organization;
@@ -53,7 +52,7 @@ public class ResourceServerServiceImpl implements ResourceServerService {
                 UserId userId = UserId.from(defaultClaims.getSubject());
                 Optional<User> userOptional = this.modelCache.getUser(organizationId, projectId, userId);
                 if (userOptional.isPresent()) {
-                    Optional<StandardTokenClaims> tokenClaims = tokenValidator.validateToken(userOptional.get().getCertificate().getPublicKey(), request.getToken());
+                    Optional<StandardTokenClaims> tokenClaims = tokenValidator.validateToken(modelCache.getKeyPairData(userOptional.get().getKeyPairSerialized()).getPublicKey(), request.getToken());
                     LOG.info("JWT verified={}", tokenClaims.isPresent());
                     return new IntrospectResponse(tokenClaims.isPresent());
                 } else {
@@ -61,7 +60,7 @@ public class ResourceServerServiceImpl implements ResourceServerService {
                     Optional<Client> clientOptional = this.modelCache.getClient(organizationId, projectId, clientId);
                     Optional<Project> projectOptional = this.modelCache.getProject(organizationId, projectId);
                     if (projectOptional.isPresent() && clientOptional.isPresent()) {
-                        Optional<StandardTokenClaims> tokenClaims = tokenValidator.validateToken(projectOptional.get().getCertificate().getPublicKey(), request.getToken());
+                        Optional<StandardTokenClaims> tokenClaims = tokenValidator.validateToken(modelCache.getKeyPairData(projectOptional.get().getKeyPairSerialized()).getPublicKey(), request.getToken());
                         LOG.info("JWT verified={}", tokenClaims.isPresent());
                         return new IntrospectResponse(tokenClaims.isPresent());
                     }
@@ -86,7 +85,7 @@ public class ResourceServerServiceImpl implements ResourceServerService {
                 Set<String> userIds = modelCache.getUsers(organizationId, projectId).stream().map(user -> user.getId().getId()).collect(Collectors.toSet());
                 Set<String> clientIds = project.getClients().stream().map(Id::getId).collect(Collectors.toSet());
                 ProjectInfo projectInfo = new ProjectInfo(project.getId().getId(), project.getOrganizationId().getId(),
-                        project.getName(), organizationOptional.get().getKeyPairData(), project.getKeyPairData(),
+                        project.getName(), modelCache.getKeyPairData(organizationOptional.get().getKeyPairSerialized()), modelCache.getKeyPairData(project.getKeyPairSerialized()),
                         project.getAudience(), clientIds, userIds);
                 return Optional.of(projectInfo);
             }
@@ -101,12 +100,12 @@ public class ResourceServerServiceImpl implements ResourceServerService {
             Optional<Project> projectOptional = modelCache.getProject(organizationId, projectId);
             if (projectOptional.isPresent()) {
                 Optional<User> userOptional = modelCache.getUser(organizationId, projectId, userId);
-                Set<String> permissions = modelCache.getPermissions(organizationId, projectId, userId).stream().map(Permission::asStringValue).collect(Collectors.toSet());
+                Set<String> permissions = modelCache.getEffectivePermissions(organizationId, projectId, userId).getScope().getValues();
                 if (userOptional.isPresent()) {
                     Set<String> roles = userOptional.get().getRoles().stream().map(Id::getId).collect(Collectors.toSet());
                     UserInfo userInfo = new UserInfo(userId.getId(), projectId.getId(), organizationId.getId(),
-                            userOptional.get().getName(), organizationOptional.get().getKeyPairData(),
-                            projectOptional.get().getKeyPairData(), userOptional.get().getKeyPairData(),
+                            userOptional.get().getName(), modelCache.getKeyPairData(organizationOptional.get().getKeyPairSerialized()),
+                            modelCache.getKeyPairData(projectOptional.get().getKeyPairSerialized()), modelCache.getKeyPairData(userOptional.get().getKeyPairSerialized()),
                             roles, permissions);
                     return Optional.of(userInfo);
                 }
@@ -122,7 +121,7 @@ public class ResourceServerServiceImpl implements ResourceServerService {
             Optional<Project> projectOptional = modelCache.getProject(organizationId, projectId);
             if (projectOptional.isPresent()) {
                 Optional<Client> clientOptional = modelCache.getClient(organizationId, projectId, clientId);
-                Set<String> permissions = modelCache.getPermissions(organizationId, projectId, clientId).stream().map(Permission::asStringValue).collect(Collectors.toSet());
+                Set<String> permissions = modelCache.getEffectivePermissions(organizationId, projectId, clientId).getScope().getValues();
                 if (clientOptional.isPresent()) {
                     Set<String> roles = clientOptional.get().getRoles().stream().map(Id::getId).collect(Collectors.toSet());
                     ClientInfo clientInfo = new ClientInfo(clientId.getId(), clientOptional.get().getName(), roles, permissions);
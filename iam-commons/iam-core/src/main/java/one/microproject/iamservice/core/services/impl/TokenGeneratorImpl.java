@@ -5,8 +5,8 @@ import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.JWToken;
 import one.microproject.iamservice.core.model.KeyPairData;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.OrganizationId;
-import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.Project;
 import one.microproject.iamservice.core.model.TokenType;
 import one.microproject.iamservice.core.model.Tokens;
@@ -14,18 +14,35 @@ import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.utils.TokenUtils;
 import one.microproject.iamservice.core.services.TokenGenerator;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
 import one.microproject.iamservice.core.services.dto.IdTokenRequest;
 import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.services.dto.TokenIssuancePolicy;
 
 import java.net.URI;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class TokenGeneratorImpl implements TokenGenerator {
 
+    private final TokenIssuancePolicy issuancePolicy;
+    private final KeyPairDataCache keyPairDataCache;
+
+    public TokenGeneratorImpl() {
+        this(TokenIssuancePolicy.ALWAYS);
+    }
+
+    public TokenGeneratorImpl(TokenIssuancePolicy issuancePolicy) {
+        this(issuancePolicy, new KeyPairDataCache());
+    }
+
+    public TokenGeneratorImpl(TokenIssuancePolicy issuancePolicy, KeyPairDataCache keyPairDataCache) {
+        this.issuancePolicy = issuancePolicy;
+        this.keyPairDataCache = keyPairDataCache;
+    }
+
     @Override
-    public TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, User user, Set<Permission> userPermissions, Scope scope, ClientId clientId, IdTokenRequest idTokenRequest) {
-        KeyPairData keyPairData = user.getKeyPairData();
+    public TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, User user, EffectivePermissions userPermissions, Scope scope, ClientId clientId, IdTokenRequest idTokenRequest) {
+        KeyPairData keyPairData = keyPairDataCache.get(user.getKeyPairSerialized());
         Scope filteredScopes = TokenUtils.filterScopes(userPermissions, scope);
         JWToken accessToken = TokenUtils.issueToken(issuerUri, organizationId, project.getId(), project.getAudience(), user.getId(),
                 user.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, filteredScopes,
@@ -33,44 +50,60 @@ public class TokenGeneratorImpl implements TokenGenerator {
         JWToken refreshToken = TokenUtils.issueToken(issuerUri, organizationId, project.getId(), project.getAudience(), user.getId(),
                 user.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, filteredScopes,
                 null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.REFRESH);
-        JWToken idToken = TokenUtils.issueIdToken(issuerUri, organizationId, project.getId(), clientId,
-                user.getId().getId(), user.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
-                keyPairData.getId(), keyPairData.getPrivateKey());
+        JWToken idToken = null;
+        if (issuancePolicy.issueIdToken(scope)) {
+            idToken = TokenUtils.issueIdToken(issuerUri, organizationId, project.getId(), clientId,
+                    user.getId().getId(), user.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
+                    keyPairData.getId(), keyPairData.getPrivateKey());
+        }
         Tokens tokens = new Tokens(accessToken, refreshToken, TokenType.BEARER,
                 user.getDefaultAccessTokenDuration()/1000L, user.getDefaultRefreshTokenDuration()/1000L, idToken);
         return getTokenResponse(tokens);
     }
 
     @Override
-    public TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, Set<Permission> clientPermissions, Client client, Scope scope, IdTokenRequest idTokenRequest) {
+    public TokenResponse generate(URI issuerUri, OrganizationId organizationId, Project project, EffectivePermissions clientPermissions, Client client, Scope scope, IdTokenRequest idTokenRequest) {
         Scope filteredScopes = TokenUtils.filterScopes(clientPermissions, scope);
-        KeyPairData keyPairData = project.getKeyPairData();
+        KeyPairData keyPairData = keyPairDataCache.get(project.getKeyPairSerialized());
         JWToken accessToken = TokenUtils.issueToken(issuerUri, organizationId, project.getId(), project.getAudience(), client.getId(),
                 client.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, filteredScopes,
                 null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.BEARER);
-        JWToken refreshToken = TokenUtils.issueToken(issuerUri, organizationId, project.getId(), project.getAudience(), client.getId(),
-                client.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, filteredScopes,
-                null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.REFRESH);
-        JWToken idToken = TokenUtils.issueIdToken(issuerUri, organizationId, project.getId(), client.getId(), client.getId().getId(),
-                client.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
-                keyPairData.getId(), keyPairData.getPrivateKey());
+        JWToken refreshToken = null;
+        Long refreshExpiresIn = null;
+        if (!Boolean.FALSE.equals(client.getProperties().getRefreshTokenEnabled())) {
+            refreshToken = TokenUtils.issueToken(issuerUri, organizationId, project.getId(), project.getAudience(), client.getId(),
+                    client.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, filteredScopes,
+                    null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.REFRESH);
+            refreshExpiresIn = client.getDefaultRefreshTokenDuration()/1000L;
+        }
+        JWToken idToken = null;
+        if (issuancePolicy.issueIdToken(scope)) {
+            idToken = TokenUtils.issueIdToken(issuerUri, organizationId, project.getId(), client.getId(), client.getId().getId(),
+                    client.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
+                    keyPairData.getId(), keyPairData.getPrivateKey());
+        }
         Tokens tokens = new Tokens(accessToken, refreshToken, TokenType.BEARER,
-                client.getDefaultAccessTokenDuration()/1000L, client.getDefaultRefreshTokenDuration()/1000L, idToken);
+                client.getDefaultAccessTokenDuration()/1000L, refreshExpiresIn, idToken);
         return getTokenResponse(tokens);
     }
 
     @Override
     public TokenResponse generate(AuthorizationCodeContext context, User user, IdTokenRequest idTokenRequest) {
-        KeyPairData keyPairData = user.getKeyPairData();
+        KeyPairData keyPairData = keyPairDataCache.get(user.getKeyPairSerialized());
+        //context scope keeps openid to issue ID token, openid is not a permission
+        Scope tokenScope = context.getScope().withoutOpenId();
         JWToken accessToken = TokenUtils.issueToken(context.getIssuerUri(), context.getOrganizationId(), context.getProjectId(), context.getAudience(), user.getId(),
-                user.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, context.getScope(),
+                user.getDefaultAccessTokenDuration(), TimeUnit.MILLISECONDS, tokenScope,
                 null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.BEARER);
         JWToken refreshToken = TokenUtils.issueToken(context.getIssuerUri(), context.getOrganizationId(), context.getProjectId(), context.getAudience(), user.getId(),
-                user.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, context.getScope(),
+                user.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, tokenScope,
                 null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.REFRESH);
-        JWToken idToken = TokenUtils.issueIdToken(context.getIssuerUri(), context.getOrganizationId(), context.getProjectId(), context.getClientId(), user.getId().getId(),
-                user.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
-                keyPairData.getId(), keyPairData.getPrivateKey());
+        JWToken idToken = null;
+        if (issuancePolicy.issueIdToken(context.getScope())) {
+            idToken = TokenUtils.issueIdToken(context.getIssuerUri(), context.getOrganizationId(), context.getProjectId(), context.getClientId(), user.getId().getId(),
+                    user.getDefaultRefreshTokenDuration(), TimeUnit.MILLISECONDS, idTokenRequest,
+                    keyPairData.getId(), keyPairData.getPrivateKey());
+        }
         Tokens tokens = new Tokens(accessToken, refreshToken, TokenType.BEARER,
                 user.getDefaultAccessTokenDuration() / 1000L, user.getDefaultRefreshTokenDuration() / 1000L, idToken);
         return getTokenResponse(tokens);
@@ -81,9 +114,9 @@ public class TokenGeneratorImpl implements TokenGenerator {
                 tokens.getAccessToken().getToken(),
                 tokens.getExpiresIn(),
                 tokens.getRefreshExpiresIn(),
-                tokens.getRefreshToken().getToken(),
+                tokens.getRefreshToken() == null ? null : tokens.getRefreshToken().getToken(),
                 tokens.getTokenType().getType(),
-                tokens.getIdToken().getToken()
+                tokens.getIdToken() == null ? null : tokens.getIdToken().getToken()
         );
     }
 
@@ -10,6 +10,7 @@ import one.microproject.iamservice.core.services.admin.ClientManagementService;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateClientRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -55,4 +56,9 @@ public class ClientManagementServiceImpl implements ClientManagementService {
         return modelCache.removeRole(id, projectId, clientId, roleId);
     }
 
+    @Override
+    public void awaitDurable() throws IOException {
+        modelCache.awaitDurable();
+    }
+
 }
@@ -1,16 +1,21 @@
 package one.microproject.iamservice.core.services.impl.admin;
 
+import one.microproject.iamservice.core.model.KeyId;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.OrganizationImpl;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.core.utils.TokenUtils;
 import one.microproject.iamservice.core.services.admin.OrganizationManagerService;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateOrganizationRequest;
 import one.microproject.iamservice.core.services.dto.OrganizationInfo;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
 
+import java.io.IOException;
 import java.security.cert.CertificateEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -20,14 +25,20 @@ import java.util.Optional;
 public class OrganizationManagerServiceImpl implements OrganizationManagerService {
 
     private final ModelCache modelCache;
+    private final KeyPairProvider keyPairProvider;
 
     public OrganizationManagerServiceImpl(ModelCache modelCache) {
+        this(modelCache, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public OrganizationManagerServiceImpl(ModelCache modelCache, KeyPairProvider keyPairProvider) {
         this.modelCache = modelCache;
+        this.keyPairProvider = keyPairProvider;
     }
 
     @Override
     public Optional<OrganizationId> create(CreateOrganizationRequest request) throws PKIException {
-        return modelCache.add(new OrganizationImpl(request.getId(), request.getName()));
+        return modelCache.add(new OrganizationImpl(request.getId(), request.getName(), keyPairProvider));
     }
 
     @Override
@@ -39,7 +50,7 @@ public class OrganizationManagerServiceImpl implements OrganizationManagerServic
     public Collection<OrganizationInfo> getAllInfo() throws CertificateEncodingException  {
         List<OrganizationInfo> organizationInfoList = new ArrayList<>();
         for (Organization organization: getAll()) {
-            organizationInfoList.add(ModelUtils.createOrganizationInfo(organization));
+            organizationInfoList.add(ModelUtils.createOrganizationInfo(organization, modelCache.getKeyPairData(organization.getKeyPairSerialized())));
         }
         return organizationInfoList;
     }
@@ -53,7 +64,7 @@ public class OrganizationManagerServiceImpl implements OrganizationManagerServic
     public Optional<OrganizationInfo> getInfo(OrganizationId id) throws CertificateEncodingException {
         Optional<Organization> organization = modelCache.getOrganization(id);
         if (organization.isPresent()) {
-            return Optional.of(ModelUtils.createOrganizationInfo(organization.get()));
+            return Optional.of(ModelUtils.createOrganizationInfo(organization.get(), modelCache.getKeyPairData(organization.get().getKeyPairSerialized())));
         }
         return Optional.empty();
     }
@@ -83,4 +94,14 @@ public class OrganizationManagerServiceImpl implements OrganizationManagerServic
         return modelCache.getUsers(id);
     }
 
+    @Override
+    public Optional<VerificationKey> getVerificationKey(KeyId keyId) {
+        return modelCache.getVerificationKey(keyId);
+    }
+
+    @Override
+    public void awaitDurable() throws IOException {
+        modelCache.awaitDurable();
+    }
+
 }
@@ -15,6 +15,7 @@ import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
 import one.microproject.iamservice.core.services.dto.CreateRoleRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -113,4 +114,14 @@ public class ProjectManagerServiceImpl implements ProjectManagerService {
         modelCache.setAudience(id, projectId, audience);
     }
 
+    @Override
+    public long getRevision(OrganizationId id, ProjectId projectId) {
+        return modelCache.getRevision(id, projectId);
+    }
+
+    @Override
+    public void awaitDurable() throws IOException {
+        modelCache.awaitDurable();
+    }
+
 }
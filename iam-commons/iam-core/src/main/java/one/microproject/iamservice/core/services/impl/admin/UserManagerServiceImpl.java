@@ -11,6 +11,7 @@ import one.microproject.iamservice.core.services.admin.UserManagerService;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateUserRequest;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -63,4 +64,9 @@ public class UserManagerServiceImpl implements UserManagerService {
         return modelCache.setCredentials(id, projectId, userId, credentials);
     }
 
+    @Override
+    public void awaitDurable() throws IOException {
+        modelCache.awaitDurable();
+    }
+
 }
@@ -6,38 +6,61 @@ import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
 import one.microproject.iamservice.core.dto.Code;
 import one.microproject.iamservice.core.services.dto.Scope;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Authorization codes are stored with their expiration time, shared {@link CacheHolder} expires them natively.
+ * For local {@link CacheHolder} expiration times are indexed in {@link TimingWheel}, so purge drains only expired
+ * buckets instead of scanning all codes. Codes redeemed before expiration stay in the wheel until their bucket
+ * expires, purge ignores them. Redemption and scope updates are atomic operations of {@link CacheHolder}.
+ */
 public class AuthorizationCodeCacheImpl implements AuthorizationCodeCache {
 
-    private final Long maxDuration;
-    private final TimeUnit timeUnit;
-    private CacheHolder<AuthorizationCodeContext> codes;
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final long maxDurationMillis;
+    private final CacheHolder<AuthorizationCodeContext> codes;
+    private final TimingWheel<String> expirations;
 
     public AuthorizationCodeCacheImpl(Long maxDuration, TimeUnit timeUnit, CacheHolder<AuthorizationCodeContext> codes) {
-        this.maxDuration = maxDuration;
-        this.timeUnit = timeUnit;
+        this.maxDurationMillis = timeUnit.toMillis(maxDuration);
         this.codes = codes;
+        this.expirations = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        if (codes.isLocal()) {
+            synchronized (this) {
+                index();
+            }
+        }
     }
 
     @Override
     public AuthorizationCode save(Code code, AuthorizationCodeContext authorizationCodeContext) {
         AuthorizationCode authorizationCode = new AuthorizationCode(code, authorizationCodeContext.getState(), authorizationCodeContext.getScope());
-        codes.put(code.getCodeValue(), authorizationCodeContext);
+        long expirationTime = getExpirationTime(authorizationCodeContext);
+        codes.put(code.getCodeValue(), authorizationCodeContext, expirationTime);
+        if (codes.isLocal()) {
+            synchronized (this) {
+                expirations.add(code.getCodeValue(), expirationTime);
+            }
+        }
         return authorizationCode;
     }
 
     @Override
-    public int purgeCodes() {
+    public synchronized int purgeCodes() {
+        if (!codes.isLocal()) {
+            return 0;
+        }
         int purged = 0;
-        for (String key: codes.keys()) {
-            Optional<AuthorizationCodeContext> verifiedCode = verifyAndRemove(Code.from(key));
-            if (verifiedCode.isPresent()) {
-                codes.remove(key);
+        Collection<String> expired = expirations.advance(System.currentTimeMillis());
+        for (String key: expired) {
+            if (codes.remove(key) != null) {
                 purged++;
             }
         }
@@ -46,23 +69,22 @@ public class AuthorizationCodeCacheImpl implements AuthorizationCodeCache {
 
     @Override
     public Optional<AuthorizationCodeContext> setScope(Code code, Scope scope) {
-        AuthorizationCodeContext context = codes.get(code.getCodeValue());
-        if (context != null) {
+        AuthorizationCodeContext updatedContext = codes.computeIfPresent(code.getCodeValue(), (key, context) -> {
             Set<String> filteredScopes = new HashSet<>();
             context.getScope().getValues().forEach(s->{
                 if (scope.getValues().contains(s)) {
                     filteredScopes.add(s);
                 }
             });
-            AuthorizationCodeContext updatedContext = new AuthorizationCodeContext(code, context.getIssuerUri(),
+            return new AuthorizationCodeContext(code, context.getIssuerUri(),
                     context.getOrganizationId(), context.getProjectId(), context.getClientId(), context.getUserId(),
                     context.getState(), context.getIssued(), new Scope(filteredScopes), context.getAudience(),
                     context.getRedirectURI(), context.getCodeChallenge(), context.getCodeChallengeMethod());
-            codes.put(code.getCodeValue(), updatedContext);
-            return Optional.of(context);
-        } else {
-            return Optional.empty();
+        });
+        if (updatedContext != null) {
+            return verify(updatedContext);
         }
+        return Optional.empty();
     }
 
     @Override
@@ -74,6 +96,11 @@ public class AuthorizationCodeCacheImpl implements AuthorizationCodeCache {
         return Optional.empty();
     }
 
+    @Override
+    public boolean redeem(Code code, AuthorizationCodeContext context) {
+        return codes.remove(code.getCodeValue(), context) && verify(context).isPresent();
+    }
+
     @Override
     public Optional<AuthorizationCodeContext> get(Code code) {
         AuthorizationCodeContext context = codes.get(code.getCodeValue());
@@ -83,10 +110,25 @@ public class AuthorizationCodeCacheImpl implements AuthorizationCodeCache {
         return Optional.empty();
     }
 
+    /**
+     * Index expiration times of codes already present in local cache holder, before this instance has been created.
+     */
+    private void index() {
+        for (String key : codes.keys()) {
+            AuthorizationCodeContext context = codes.get(key);
+            if (context != null) {
+                expirations.add(key, getExpirationTime(context));
+            }
+        }
+    }
+
+    private long getExpirationTime(AuthorizationCodeContext context) {
+        return context.getIssued().getTime() + maxDurationMillis;
+    }
+
     private Optional<AuthorizationCodeContext> verify(AuthorizationCodeContext context) {
-        long expirationTime = context.getIssued().getTime() + timeUnit.toMillis(maxDuration);
         long nowTime = new Date().getTime();
-        if (nowTime <= expirationTime) {
+        if (nowTime <= getExpirationTime(context)) {
             return Optional.of(context);
         }
         return Optional.empty();
@@ -1,6 +1,7 @@
 package one.microproject.iamservice.core.services.impl.caches;
 
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
 public interface CacheHolder<V> {
@@ -9,6 +10,15 @@ public interface CacheHolder<V> {
 
     void put(String key, V value);
 
+    /**
+     * Put entry valid until given time. Shared caches expire such entries natively, local caches keep them
+     * until they are removed.
+     * @param key entry key.
+     * @param value entry value.
+     * @param expiresAtMillis expiration time of the entry in milliseconds since epoch.
+     */
+    void put(String key, V value, long expiresAtMillis);
+
     V get(String key);
 
     int size();
@@ -17,4 +27,27 @@ public interface CacheHolder<V> {
 
     void remove(Predicate<V> predicate);
 
+    /**
+     * Atomically remove entry only if key is currently mapped to given value.
+     * @param key entry key.
+     * @param value expected value of the entry.
+     * @return true if entry has been removed by this call.
+     */
+    boolean remove(String key, V value);
+
+    /**
+     * Atomically replace value of existing entry, entry is removed if remapping function returns null.
+     * @param key entry key.
+     * @param remappingFunction function computing new value from key and current value.
+     * @return new value of the entry or null if entry does not exist or has been removed.
+     */
+    V computeIfPresent(String key, BiFunction<String, V, V> remappingFunction);
+
+    /**
+     * Check if cache content is visible to this process only.
+     * Local indexes built over local cache are complete, over shared cache they miss entries added by other processes.
+     * @return true if cache is local to this process, false if cache is shared.
+     */
+    boolean isLocal();
+
 }
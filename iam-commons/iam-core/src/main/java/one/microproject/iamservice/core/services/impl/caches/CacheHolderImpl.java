@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
 public class CacheHolderImpl<V> implements CacheHolder<V> {
@@ -24,6 +25,11 @@ public class CacheHolderImpl<V> implements CacheHolder<V> {
         this.cache.put(key, value);
     }
 
+    @Override
+    public void put(String key, V value, long expiresAtMillis) {
+        this.cache.put(key, value);
+    }
+
     @Override
     public V get(String key) {
         return this.cache.get(key);
@@ -50,4 +56,19 @@ public class CacheHolderImpl<V> implements CacheHolder<V> {
         keysToRemove.forEach(cache::remove);
     }
 
+    @Override
+    public boolean remove(String key, V value) {
+        return this.cache.remove(key, value);
+    }
+
+    @Override
+    public V computeIfPresent(String key, BiFunction<String, V, V> remappingFunction) {
+        return this.cache.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
 }
@@ -0,0 +1,101 @@
+package one.microproject.iamservice.core.services.impl.caches;
+
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Materialized {@link EffectivePermissions} of users and clients used by {@link ModelCacheImpl}.
+ * Entries are computed on first lookup and invalidated by mutations touching the principal.
+ * Invalidation must follow the model mutation, a concurrent load of the same key then either observes
+ * the new model or is discarded by the invalidation. Entries expire after time to live, so a missed invalidation
+ * can not serve stale permissions for longer than that. When disabled, permissions are loaded on every lookup.
+ */
+final class EffectivePermissionsCache {
+
+    private final Map<ModelKey<?>, Entry> permissions;
+    private final long timeToLiveNanos;
+    private volatile boolean enabled;
+
+    EffectivePermissionsCache(long timeToLive, TimeUnit timeUnit) {
+        this.permissions = new ConcurrentHashMap<>();
+        this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+        this.enabled = true;
+    }
+
+    /**
+     * Get cached effective permissions of principal or load them.
+     * @param principalKey user or client key.
+     * @param loader loads effective permissions, returns null if principal does not exist.
+     * @return effective permissions of principal, empty if principal does not exist.
+     */
+    EffectivePermissions get(ModelKey<?> principalKey, Function<ModelKey<?>, EffectivePermissions> loader) {
+        EffectivePermissions result;
+        if (enabled) {
+            long now = System.nanoTime();
+            Entry entry = permissions.get(principalKey);
+            if (entry == null || entry.isExpired(now, timeToLiveNanos)) {
+                entry = permissions.compute(principalKey, (key, current) -> {
+                    if (current != null && !current.isExpired(now, timeToLiveNanos)) {
+                        return current;
+                    }
+                    EffectivePermissions loaded = loader.apply(key);
+                    return (loaded == null) ? null : new Entry(loaded, now);
+                });
+            }
+            result = (entry == null) ? null : entry.permissions;
+        } else {
+            result = loader.apply(principalKey);
+        }
+        if (result == null) {
+            return EffectivePermissions.empty();
+        }
+        return result;
+    }
+
+    void invalidate(ModelKey<?> principalKey) {
+        permissions.remove(principalKey);
+    }
+
+    void invalidateProject(ModelKey<Project> projectKey) {
+        permissions.keySet().removeIf(k -> k.startsWith(projectKey));
+    }
+
+    /**
+     * Enable or disable caching, cached entries are discarded in both cases.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        permissions.clear();
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void clear() {
+        permissions.clear();
+    }
+
+    private static final class Entry {
+
+        private final EffectivePermissions permissions;
+        private final long loadedAt;
+
+        private Entry(EffectivePermissions permissions, long loadedAt) {
+            this.permissions = permissions;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long now, long timeToLiveNanos) {
+            return now - loadedAt >= timeToLiveNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package one.microproject.iamservice.core.services.impl.caches;
+
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.KeyPairSerialized;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.utils.TokenUtils;
+
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global index of user key IDs (kid) used by {@link ModelCacheImpl}.
+ * Index maps key ID to the owning user and is built from serialized key pairs, public key is decoded from
+ * user's certificate on first lookup. Every hit is verified against {@link ModelWrapper}, so an entry of removed
+ * or re-keyed user is never served. Index is populated on first lookup without blocking model mutations,
+ * it is kept in sync by user and project mutations and may be rebuilt on a miss at most once per refresh interval.
+ */
+final class KeyIdIndex {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<KeyId, Entry> keys;
+    private volatile boolean populated;
+    private volatile long populatedAt;
+
+    KeyIdIndex() {
+        this.keys = new ConcurrentHashMap<>();
+        this.populated = false;
+    }
+
+    /**
+     * Populate index from model unless it is populated already.
+     */
+    void populate(ModelWrapper modelWrapper) {
+        if (!populated) {
+            synchronized (this) {
+                if (!populated) {
+                    load(modelWrapper);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild index from model, unless it has been rebuilt within refresh interval.
+     * @return true if index has been rebuilt.
+     */
+    boolean refresh(ModelWrapper modelWrapper) {
+        synchronized (this) {
+            if (populated && System.nanoTime() - populatedAt < REFRESH_INTERVAL_NANOS) {
+                return false;
+            }
+            load(modelWrapper);
+            return true;
+        }
+    }
+
+    /**
+     * Get verification key of key ID, entry is verified against current user stored in model.
+     */
+    Optional<VerificationKey> get(KeyId keyId, ModelWrapper modelWrapper) {
+        Entry entry = keys.get(keyId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        User user = modelWrapper.getUser(entry.userKey);
+        if (user == null || !keyId.equals(user.getKeyPairSerialized().getId())) {
+            keys.remove(keyId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(new VerificationKey(keyId, entry.getOrganizationId(), entry.getProjectId(),
+                entry.getPublicKey(user.getKeyPairSerialized())));
+    }
+
+    void add(ModelKey<User> userKey, User user) {
+        keys.put(user.getKeyPairSerialized().getId(), new Entry(userKey));
+    }
+
+    void add(OrganizationId organizationId, ProjectId projectId, User user) {
+        add(ModelKey.from(User.class, organizationId, projectId, user.getId()), user);
+    }
+
+    void remove(User user) {
+        keys.remove(user.getKeyPairSerialized().getId());
+    }
+
+    void removeProject(OrganizationId organizationId, ProjectId projectId) {
+        keys.values().removeIf(e -> e.getOrganizationId().equals(organizationId) && e.getProjectId().equals(projectId));
+    }
+
+    /**
+     * Discard index content, index is populated again on next lookup.
+     */
+    void reset() {
+        synchronized (this) {
+            populated = false;
+            keys.clear();
+        }
+    }
+
+    private void load(ModelWrapper modelWrapper) {
+        for (Map.Entry<ModelKey<User>, User> user: modelWrapper.getUserEntrySet()) {
+            keys.putIfAbsent(user.getValue().getKeyPairSerialized().getId(), new Entry(user.getKey()));
+        }
+        populatedAt = System.nanoTime();
+        populated = true;
+    }
+
+    private static final class Entry {
+
+        private final ModelKey<User> userKey;
+        private volatile PublicKey publicKey;
+
+        private Entry(ModelKey<User> userKey) {
+            this.userKey = userKey;
+        }
+
+        private OrganizationId getOrganizationId() {
+            return OrganizationId.from(userKey.getIds()[0].getId());
+        }
+
+        private ProjectId getProjectId() {
+            return ProjectId.from(userKey.getIds()[1].getId());
+        }
+
+        /**
+         * Decode public key from certificate, key ID is unique for every key pair so decoded key never changes.
+         */
+        private PublicKey getPublicKey(KeyPairSerialized keyPairSerialized) {
+            PublicKey result = publicKey;
+            if (result == null) {
+                try {
+                    result = TokenUtils.deserializeX509Certificate(keyPairSerialized.getX509Certificate()).getPublicKey();
+                } catch (PKIException e) {
+                    throw new IllegalStateException("Certificate of key " + keyPairSerialized.getId() + " can't be decoded.", e);
+                }
+                publicKey = result;
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -5,6 +5,10 @@ import one.microproject.iamservice.core.model.ClientCredentials;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.ClientImpl;
 import one.microproject.iamservice.core.model.Credentials;
+import one.microproject.iamservice.core.model.KeyId;
+import one.microproject.iamservice.core.model.KeyPairData;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
+import one.microproject.iamservice.core.model.KeyPairSerialized;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
@@ -20,48 +24,130 @@ import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.model.UserImpl;
 import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.CreateClientRequest;
 import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
 import one.microproject.iamservice.core.services.dto.CreateUserRequest;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
+import one.microproject.iamservice.core.services.dto.VerificationKey;
 import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelChangeListener;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.utils.TokenUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+
+/**
+ * {@link ModelCache} implementation backed by {@link ModelWrapper}.
+ * Lookups are lock-free and rely on thread-safe {@link ModelWrapper} implementation.
+ * Mutations are guarded by per-organization and per-project striped locks, so changes in different
+ * projects do not block each other and never block readers.
+ * Effective permissions of users and clients are materialized on first lookup and invalidated
+ * by mutations of roles and role assignments. User key IDs are indexed, so token verification keys
+ * are resolved by single lookup. Decoded key pairs are held by bounded {@link KeyPairDataCache}. Project revision changes whenever project's signing keys or permissions change.
+ * When the model is shared with other instances, cached effective permissions are invalidated by changes reported
+ * by {@link ModelWrapper}, and they are not cached at all while such changes are not tracked. Key IDs created
+ * by other instances are indexed when reported, or found by rebuilding the index on a miss.
+ */
 public class ModelCacheImpl implements ModelCache {
 
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 60;
+
     private final ModelWrapper modelWrapper;
+    private final ModelLocks locks;
+    private final EffectivePermissionsCache effectivePermissions;
+    private final KeyIdIndex keyIdIndex;
+    private final ProjectRevisions projectRevisions;
+    private final KeyPairDataCache keyPairDataCache;
+    private final KeyPairProvider keyPairProvider;
 
     public ModelCacheImpl(ModelWrapper modelWrapper) {
+        this(modelWrapper, ModelLocks.DEFAULT_STRIPES);
+    }
+
+    public ModelCacheImpl(ModelWrapper modelWrapper, int lockStripes) {
+        this(modelWrapper, lockStripes, new KeyPairDataCache());
+    }
+
+    public ModelCacheImpl(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache) {
+        this(modelWrapper, ModelLocks.DEFAULT_STRIPES, keyPairDataCache);
+    }
+
+    public ModelCacheImpl(ModelWrapper modelWrapper, int lockStripes, KeyPairDataCache keyPairDataCache) {
+        this(modelWrapper, lockStripes, keyPairDataCache, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public ModelCacheImpl(ModelWrapper modelWrapper, KeyPairDataCache keyPairDataCache, KeyPairProvider keyPairProvider) {
+        this(modelWrapper, ModelLocks.DEFAULT_STRIPES, keyPairDataCache, keyPairProvider);
+    }
+
+    /**
+     * @param keyPairProvider source of key pairs for projects and users created by this cache.
+     */
+    public ModelCacheImpl(ModelWrapper modelWrapper, int lockStripes, KeyPairDataCache keyPairDataCache, KeyPairProvider keyPairProvider) {
         this.modelWrapper = modelWrapper;
+        this.keyPairDataCache = keyPairDataCache;
+        this.keyPairProvider = keyPairProvider;
+        this.locks = new ModelLocks(lockStripes);
+        this.effectivePermissions = new EffectivePermissionsCache(DEFAULT_CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+        this.keyIdIndex = new KeyIdIndex();
+        this.projectRevisions = new ProjectRevisions();
+        if (modelWrapper.isShared()) {
+            effectivePermissions.setEnabled(false);
+            modelWrapper.addChangeListener(new SharedModelChangeListener());
+        }
     }
 
     @Override
-    public synchronized void onInit(PersistenceService persistenceService, boolean flushOnChange) throws Exception {
-        modelWrapper.onInit(persistenceService, flushOnChange);
+    public void onInit(PersistenceService persistenceService, boolean flushOnChange) throws Exception {
+        locks.lockAll();
+        try {
+            modelWrapper.onInit(persistenceService, flushOnChange);
+            effectivePermissions.clear();
+            keyIdIndex.reset();
+            projectRevisions.reset();
+        } finally {
+            locks.unlockAll();
+        }
     }
 
     @Override
-    public synchronized void flush() throws Exception {
-        modelWrapper.flush();
+    public void flush() throws Exception {
+        locks.lockAll();
+        try {
+            modelWrapper.flush();
+        } finally {
+            locks.unlockAll();
+        }
     }
 
     @Override
-    public synchronized Model getModel() {
+    public Model getModel() {
         return this.modelWrapper.getModel();
     }
 
     @Override
-    public synchronized void setModel(Model model) {
-        this.modelWrapper.setModel(model);
+    public void setModel(Model model) {
+        locks.lockAll();
+        try {
+            this.modelWrapper.setModel(model);
+            effectivePermissions.clear();
+            keyIdIndex.reset();
+            projectRevisions.reset();
+        } finally {
+            locks.unlockAll();
+        }
     }
 
     /**
@@ -69,64 +155,108 @@ public class ModelCacheImpl implements ModelCache {
      **/
 
     @Override
-    public synchronized Optional<OrganizationId> add(Organization organization) {
-        ModelKey<Organization> key = organizationKey(organization.getId());
-        if (modelWrapper.getOrganization(key) == null) {
-            modelWrapper.putOrganization(key, organization);
-            return Optional.of(organization.getId());
-        } else {
-            return Optional.empty();
+    public Optional<OrganizationId> add(Organization organization) {
+        Lock organizationLock = locks.organization(organization.getId());
+        organizationLock.lock();
+        try {
+            ModelKey<Organization> key = organizationKey(organization.getId());
+            if (modelWrapper.getOrganization(key) == null) {
+                modelWrapper.putOrganization(key, organization);
+                return Optional.of(organization.getId());
+            } else {
+                return Optional.empty();
+            }
+        } finally {
+            organizationLock.unlock();
         }
     }
 
     @Override
-    public synchronized Collection<Organization> getOrganizations() {
+    public Collection<Organization> getOrganizations() {
         return modelWrapper.getAllOrganizations();
     }
 
     @Override
-    public synchronized Optional<Organization> getOrganization(OrganizationId organizationId) {
+    public Optional<Organization> getOrganization(OrganizationId organizationId) {
         return Optional.ofNullable(modelWrapper.getOrganization(organizationKey(organizationId)));
     }
 
     @Override
-    public synchronized boolean remove(OrganizationId organizationId) {
-        if (!checkOrganizationReferences(organizationId)) {
-            ModelKey<Organization> key = organizationKey(organizationId);
-            Organization removed = modelWrapper.removeOrganization(key);
-            return removed != null;
+    public boolean remove(OrganizationId organizationId) {
+        Lock organizationLock = locks.organization(organizationId);
+        organizationLock.lock();
+        try {
+            if (!checkOrganizationReferences(organizationId)) {
+                ModelKey<Organization> key = organizationKey(organizationId);
+                Organization removed = modelWrapper.removeOrganization(key);
+                return removed != null;
+            }
+            return false;
+        } finally {
+            organizationLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean removeWithDependencies(OrganizationId organizationId) {
-        ModelKey<Organization> organizationKey = organizationKey(organizationId);
-        for (ModelKey<Project> key: modelWrapper.getProjectKeys()) {
-            if (key.startsWith(organizationKey)) {
-                removeWithDependencies(organizationId, ProjectId.from(key.getIds()[1].getId()));
+    public boolean removeWithDependencies(OrganizationId organizationId) {
+        Lock organizationLock = locks.organization(organizationId);
+        organizationLock.lock();
+        List<Lock> projectLocks = new ArrayList<>();
+        try {
+            ModelKey<Organization> organizationKey = organizationKey(organizationId);
+            Organization organization = modelWrapper.getOrganization(organizationKey);
+            List<ProjectId> projectIds = new ArrayList<>();
+            for (ModelKey<Project> key: modelWrapper.getProjectKeys(organizationId)) {
+                projectIds.add(ProjectId.from(key.getIds()[1].getId()));
+            }
+            //projects of organization can't be added or removed while organization stripe is held
+            for (Lock projectLock: locks.projects(organizationId, projectIds)) {
+                projectLock.lock();
+                projectLocks.add(projectLock);
             }
+            ModelBatch batch = new ModelBatch();
+            projectIds.forEach(projectId -> removeProject(batch, organizationId, projectId));
+            batch.removeOrganization(organizationKey);
+            modelWrapper.write(batch);
+            projectIds.forEach(projectId -> invalidateProject(organizationId, projectId));
+            return organization != null;
+        } finally {
+            for (int i = projectLocks.size() - 1; i >= 0; i--) {
+                projectLocks.get(i).unlock();
+            }
+            organizationLock.unlock();
         }
-        return remove(organizationId);
     }
 
     @Override
-    public synchronized void setProperty(OrganizationId id, String key, String value) {
-        ModelKey<Organization> organizationKey = organizationKey(id);
-        Organization organization = modelWrapper.getOrganization(organizationKey);
-        if (organization != null) {
-            organization.setProperty(key, value);
-            modelWrapper.putOrganization(organizationKey, organization);
+    public void setProperty(OrganizationId id, String key, String value) {
+        Lock organizationLock = locks.organization(id);
+        organizationLock.lock();
+        try {
+            ModelKey<Organization> organizationKey = organizationKey(id);
+            Organization organization = modelWrapper.getOrganization(organizationKey);
+            if (organization != null) {
+                organization.setProperty(key, value);
+                modelWrapper.putOrganization(organizationKey, organization);
+            }
+        } finally {
+            organizationLock.unlock();
         }
     }
 
     @Override
-    public synchronized void removeProperty(OrganizationId id, String key) {
-        ModelKey<Organization> organizationKey = organizationKey(id);
-        Organization organization = modelWrapper.getOrganization(organizationKey);
-        if (organization != null) {
-            organization.removeProperty(key);
-            modelWrapper.putOrganization(organizationKey, organization);
+    public void removeProperty(OrganizationId id, String key) {
+        Lock organizationLock = locks.organization(id);
+        organizationLock.lock();
+        try {
+            ModelKey<Organization> organizationKey = organizationKey(id);
+            Organization organization = modelWrapper.getOrganization(organizationKey);
+            if (organization != null) {
+                organization.removeProperty(key);
+                modelWrapper.putOrganization(organizationKey, organization);
+            }
+        } finally {
+            organizationLock.unlock();
         }
     }
 
@@ -135,7 +265,7 @@ public class ModelCacheImpl implements ModelCache {
      */
 
     @Override
-    public synchronized Optional<User> getUser(OrganizationId organizationId, ProjectId projectId, UserId userId) {
+    public Optional<User> getUser(OrganizationId organizationId, ProjectId projectId, UserId userId) {
         User user = modelWrapper.getUser(userKey(organizationId, projectId, userId));
         if (user !=  null) {
             return Optional.of(user);
@@ -144,62 +274,66 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized Collection<User> getUsers(OrganizationId organizationId, ProjectId projectId) {
-        List<User> result = new ArrayList<>();
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        modelWrapper.getUserKeys().forEach(k -> {
-            if (k.startsWith(projectKey)) {
-                result.add(modelWrapper.getUser(k));
-            }
-        });
-        return result;
+    public Collection<User> getUsers(OrganizationId organizationId, ProjectId projectId) {
+        return modelWrapper.getAllUsers(organizationId, projectId);
     }
 
     @Override
-    public synchronized Collection<User> getUsers(OrganizationId organizationId) {
-        List<User> result = new ArrayList<>();
-        ModelKey<Organization> organizationKey = organizationKey(organizationId);
-        modelWrapper.getUserKeys().forEach(k -> {
-            if (k.startsWith(organizationKey)) {
-                result.add(modelWrapper.getUser(k));
-            }
-        });
-        return result;
+    public Collection<User> getUsers(OrganizationId organizationId) {
+        return modelWrapper.getAllUsers(organizationId);
     }
 
     @Override
-    public synchronized boolean remove(OrganizationId organizationId, ProjectId projectId, UserId userId) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        ModelKey<User> userKey = userKey(organizationId, projectId, userId);
-        User removed = modelWrapper.removeUser(userKey);
-        if (project != null) {
-            project.remove(userId);
-            modelWrapper.putProject(projectKey, project);
+    public boolean remove(OrganizationId organizationId, ProjectId projectId, UserId userId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            ModelKey<User> userKey = userKey(organizationId, projectId, userId);
+            User removed = modelWrapper.removeUser(userKey);
+            effectivePermissions.invalidate(userKey);
+            if (removed != null) {
+                keyIdIndex.remove(removed);
+                projectRevisions.bump(organizationId, projectId);
+            }
+            if (project != null) {
+                project.remove(userId);
+                modelWrapper.putProject(projectKey, project);
+            }
+            return removed != null;
+        } finally {
+            projectLock.unlock();
         }
-        return removed != null;
     }
 
     @Override
-    public synchronized Optional<Client> add(OrganizationId organizationId, ProjectId projectId, CreateClientRequest request) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        ModelKey<Client> clientKey = clientKey(organizationId, projectId, request.getId());
-        Project project = modelWrapper.getProject(projectKey);
-        Client c = modelWrapper.getClient(clientKey);
-        if (project !=  null && c == null) {
-            ClientCredentials credentials = new ClientCredentials(request.getId(), request.getSecret());
-            Client client = new ClientImpl(credentials, request.getName(),
-                    request.getDefaultAccessTokenDuration(), request.getDefaultRefreshTokenDuration(), request.getProperties());
-            project.addClient(client.getId());
-            modelWrapper.putClient(clientKey, client);
-            modelWrapper.putProject(projectKey, project);
-            return Optional.of(client);
+    public Optional<Client> add(OrganizationId organizationId, ProjectId projectId, CreateClientRequest request) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            ModelKey<Client> clientKey = clientKey(organizationId, projectId, request.getId());
+            Project project = modelWrapper.getProject(projectKey);
+            Client c = modelWrapper.getClient(clientKey);
+            if (project !=  null && c == null) {
+                ClientCredentials credentials = new ClientCredentials(request.getId(), request.getSecret());
+                Client client = new ClientImpl(credentials, request.getName(),
+                        request.getDefaultAccessTokenDuration(), request.getDefaultRefreshTokenDuration(), request.getProperties());
+                project.addClient(client.getId());
+                modelWrapper.putClient(clientKey, client);
+                modelWrapper.putProject(projectKey, project);
+                effectivePermissions.invalidate(clientKey);
+                return Optional.of(client);
+            }
+            return Optional.empty();
+        } finally {
+            projectLock.unlock();
         }
-        return Optional.empty();
     }
 
     @Override
-    public synchronized Optional<Project> getProject(OrganizationId organizationId, ProjectId projectId) {
+    public Optional<Project> getProject(OrganizationId organizationId, ProjectId projectId) {
         Project project = modelWrapper.getProject(projectKey(organizationId, projectId));
         if (project != null) {
             return Optional.of(project);
@@ -208,124 +342,173 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized Collection<Project> getProjects(OrganizationId organizationId) {
-        List<Project> result = new ArrayList<>();
-        ModelKey<Organization> organizationKey = ModelKey.from(Organization.class, organizationId);
-        modelWrapper.getProjectKeys().forEach(k -> {
-            if (k.startsWith(organizationKey)) {
-                result.add(modelWrapper.getProject(k));
-            }
-        });
-        return result;
-    }
-
-    @Override
-    public synchronized Optional<Project> add(OrganizationId organizationId, CreateProjectRequest request) throws PKIException {
-        ModelKey<Organization> organizationKey = organizationKey(organizationId);
-        ModelKey<Project> projectKey = projectKey(organizationId, request.getId());
-        Organization organization = modelWrapper.getOrganization(organizationKey);
-        Project p = modelWrapper.getProject(projectKey);
-        if (organization != null && p == null) {
-            organization.addProject(request.getId());
-            ModelKey<Project> key = projectKey(organizationId, request.getId());
-            Project project = new ProjectImpl(request.getId(),
-                    request.getName(), organization.getId(), organization.getPrivateKey(), request.getAudience());
-            modelWrapper.putProject(key, project);
-            modelWrapper.putOrganization(organizationKey, organization);
-            return Optional.of(project);
-        } else {
-            return Optional.empty();
-        }
+    public Collection<Project> getProjects(OrganizationId organizationId) {
+        return modelWrapper.getAllProjects(organizationId);
     }
 
     @Override
-    public synchronized boolean remove(OrganizationId organizationId, ProjectId projectId) {
-        if (!checkProjectReferences(organizationId, projectId)) {
+    public Optional<Project> add(OrganizationId organizationId, CreateProjectRequest request) throws PKIException {
+        Lock organizationLock = locks.organization(organizationId);
+        organizationLock.lock();
+        try {
             ModelKey<Organization> organizationKey = organizationKey(organizationId);
-            ModelKey<Project> key = projectKey(organizationId, projectId);
-            Project removed = modelWrapper.removeProject(key);
+            ModelKey<Project> projectKey = projectKey(organizationId, request.getId());
             Organization organization = modelWrapper.getOrganization(organizationKey);
-            if (organization != null) {
-                organization.removeProject(projectId);
+            Project p = modelWrapper.getProject(projectKey);
+            if (organization != null && p == null) {
+                organization.addProject(request.getId());
+                ModelKey<Project> key = projectKey(organizationId, request.getId());
+                Project project = new ProjectImpl(request.getId(),
+                        request.getName(), organization.getId(), keyPairDataCache.get(organization.getKeyPairSerialized()).getPrivateKey(),
+                        request.getAudience(), request.getSigningAlgorithm(), keyPairProvider);
+                modelWrapper.putProject(key, project);
                 modelWrapper.putOrganization(organizationKey, organization);
+                projectRevisions.bump(organizationId, request.getId());
+                return Optional.of(project);
+            } else {
+                return Optional.empty();
             }
-            return removed != null;
-        }
-        return false;
-    }
-
-    @Override
-    public synchronized boolean removeWithDependencies(OrganizationId organizationId, ProjectId projectId) {
-        ModelKey<Project> projectKey = projectKey(organizationId,  projectId);
-        for (ModelKey<User> key: modelWrapper.getUserKeys()) {
-            if (key.startsWith(projectKey)) {
-                modelWrapper.removeUser(key);
-            }
-        }
-        for (ModelKey<Client> key: modelWrapper.getClientKeys()) {
-            if (key.startsWith(projectKey)) {
-                modelWrapper.removeClient(key);
+        } finally {
+            organizationLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(OrganizationId organizationId, ProjectId projectId) {
+        Lock organizationLock = locks.organization(organizationId);
+        organizationLock.lock();
+        try {
+            Lock projectLock = locks.project(organizationId, projectId);
+            projectLock.lock();
+            try {
+                if (!checkProjectReferences(organizationId, projectId)) {
+                    ModelKey<Organization> organizationKey = organizationKey(organizationId);
+                    ModelKey<Project> key = projectKey(organizationId, projectId);
+                    Project removed = modelWrapper.removeProject(key);
+                    projectRevisions.bump(organizationId, projectId);
+                    Organization organization = modelWrapper.getOrganization(organizationKey);
+                    if (organization != null) {
+                        organization.removeProject(projectId);
+                        modelWrapper.putOrganization(organizationKey, organization);
+                    }
+                    return removed != null;
+                }
+                return false;
+            } finally {
+                projectLock.unlock();
             }
-        }
-        for (ModelKey<Role> key: modelWrapper.getRoleKeys()) {
-            if (key.startsWith(projectKey)) {
-                modelWrapper.removeRole(key);
+        } finally {
+            organizationLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeWithDependencies(OrganizationId organizationId, ProjectId projectId) {
+        Lock organizationLock = locks.organization(organizationId);
+        organizationLock.lock();
+        try {
+            Lock projectLock = locks.project(organizationId, projectId);
+            projectLock.lock();
+            try {
+                ModelKey<Organization> organizationKey = organizationKey(organizationId);
+                Project project = modelWrapper.getProject(projectKey(organizationId, projectId));
+                ModelBatch batch = new ModelBatch();
+                removeProject(batch, organizationId, projectId);
+                Organization organization = modelWrapper.getOrganization(organizationKey);
+                if (organization != null) {
+                    organization.removeProject(projectId);
+                    batch.putOrganization(organizationKey, organization);
+                }
+                modelWrapper.write(batch);
+                invalidateProject(organizationId, projectId);
+                return project != null;
+            } finally {
+                projectLock.unlock();
             }
+        } finally {
+            organizationLock.unlock();
         }
-        return remove(organizationId, projectId);
     }
 
     @Override
-    public synchronized void setProperty(OrganizationId id, ProjectId projectId, String key, String value) {
-        ModelKey<Project> projectKey = projectKey(id, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null) {
-            project.setProperty(key, value);
-            modelWrapper.putProject(projectKey, project);
+    public void setProperty(OrganizationId id, ProjectId projectId, String key, String value) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(id, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            if (project != null) {
+                project.setProperty(key, value);
+                modelWrapper.putProject(projectKey, project);
+            }
+        } finally {
+            projectLock.unlock();
         }
     }
 
     @Override
-    public synchronized void removeProperty(OrganizationId id, ProjectId projectId, String key) {
-        ModelKey<Project> projectKey = projectKey(id, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null) {
-            project.removeProperty(key);
-            modelWrapper.putProject(projectKey, project);
+    public void removeProperty(OrganizationId id, ProjectId projectId, String key) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(id, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            if (project != null) {
+                project.removeProperty(key);
+                modelWrapper.putProject(projectKey, project);
+            }
+        } finally {
+            projectLock.unlock();
         }
     }
 
     @Override
-    public synchronized void setAudience(OrganizationId id, ProjectId projectId, Set<String> audience) {
-        ModelKey<Project> projectKey = projectKey(id, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null) {
-            project.setAudience(audience);
-            modelWrapper.putProject(projectKey, project);
+    public void setAudience(OrganizationId id, ProjectId projectId, Set<String> audience) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(id, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            if (project != null) {
+                project.setAudience(audience);
+                modelWrapper.putProject(projectKey, project);
+            }
+        } finally {
+            projectLock.unlock();
         }
     }
 
     @Override
-    public synchronized Optional<User> add(OrganizationId organizationId, ProjectId projectId, CreateUserRequest request) throws PKIException {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        ModelKey<User> userKey = userKey(organizationId, projectId, request.getId());
-        Project project = modelWrapper.getProject(projectKey);
-        User u = modelWrapper.getUser(userKey);
-        if (project != null && u == null) {
-            User user = new UserImpl(request.getId(), request.getName(), project.getId(),
-                    request.getDefaultAccessTokenDuration(), request.getDefaultRefreshTokenDuration(), project.getPrivateKey(),
-                    request.getEmail(), request.getUserProperties());
-            ModelKey<User> key = userKey(organizationId, projectId, user.getId());
-            project.add(user.getId());
-            modelWrapper.putUser(key, user);
-            modelWrapper.putProject(projectKey, project);
-            return Optional.of(user);
+    public Optional<User> add(OrganizationId organizationId, ProjectId projectId, CreateUserRequest request) throws PKIException {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            ModelKey<User> userKey = userKey(organizationId, projectId, request.getId());
+            Project project = modelWrapper.getProject(projectKey);
+            User u = modelWrapper.getUser(userKey);
+            if (project != null && u == null) {
+                User user = new UserImpl(request.getId(), request.getName(), project.getId(),
+                        request.getDefaultAccessTokenDuration(), request.getDefaultRefreshTokenDuration(),
+                        keyPairDataCache.get(project.getKeyPairSerialized()).getPrivateKey(),
+                        request.getEmail(), request.getUserProperties(), keyPairProvider);
+                ModelKey<User> key = userKey(organizationId, projectId, user.getId());
+                project.add(user.getId());
+                modelWrapper.putUser(key, user);
+                modelWrapper.putProject(projectKey, project);
+                effectivePermissions.invalidate(key);
+                keyIdIndex.add(organizationId, projectId, user);
+                projectRevisions.bump(organizationId, projectId);
+                return Optional.of(user);
+            }
+            return Optional.empty();
+        } finally {
+            projectLock.unlock();
         }
-        return Optional.empty();
     }
 
     @Override
-    public synchronized Optional<Client> getClient(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
+    public Optional<Client> getClient(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
         ModelKey<Client> key = clientKey(organizationId, projectId, clientId);
         Client client = modelWrapper.getClient(key);
         if (client !=  null) {
@@ -335,19 +518,12 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized Collection<Client> getClients(OrganizationId organizationId, ProjectId projectId) {
-        List<Client> result = new ArrayList<>();
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        modelWrapper.getClientKeys().forEach(k -> {
-            if (k.startsWith(projectKey)) {
-                result.add(modelWrapper.getClient(k));
-            }
-        });
-        return result;
+    public Collection<Client> getClients(OrganizationId organizationId, ProjectId projectId) {
+        return modelWrapper.getAllClients(organizationId, projectId);
     }
 
     @Override
-    public synchronized boolean verifyClientCredentials(OrganizationId organizationId, ProjectId projectId, ClientCredentials clientCredentials) {
+    public boolean verifyClientCredentials(OrganizationId organizationId, ProjectId projectId, ClientCredentials clientCredentials) {
         ModelKey<Client> key = clientKey(organizationId, projectId, clientCredentials.getId());
         Client client = modelWrapper.getClient(key);
         if (client != null) {
@@ -357,75 +533,96 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized boolean remove(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null) {
-            project.removeClient(clientId);
-            ModelKey<Client> clientKey = clientKey(organizationId, projectId, clientId);
-            Client removed = modelWrapper.removeClient(clientKey);
-            modelWrapper.putProject(projectKey, project);
-            return removed != null;
+    public boolean remove(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            if (project != null) {
+                project.removeClient(clientId);
+                ModelKey<Client> clientKey = clientKey(organizationId, projectId, clientId);
+                Client removed = modelWrapper.removeClient(clientKey);
+                effectivePermissions.invalidate(clientKey);
+                modelWrapper.putProject(projectKey, project);
+                return removed != null;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean assignRole(OrganizationId id, ProjectId projectId, ClientId clientId, RoleId roleId) {
-        ModelKey<Client> clientKey = clientKey(id, projectId, clientId);
-        Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
-        Client client = modelWrapper.getClient(clientKey);
-        if (role != null && client != null) {
-            client.addRole(roleId);
-            modelWrapper.putClient(clientKey, client);
-            return true;
+    public boolean assignRole(OrganizationId id, ProjectId projectId, ClientId clientId, RoleId roleId) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Client> clientKey = clientKey(id, projectId, clientId);
+            Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
+            Client client = modelWrapper.getClient(clientKey);
+            if (role != null && client != null) {
+                client.addRole(roleId);
+                modelWrapper.putClient(clientKey, client);
+                effectivePermissions.invalidate(clientKey);
+                return true;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean removeRole(OrganizationId id, ProjectId projectId, ClientId clientId, RoleId roleId) {
-        ModelKey<Client> clientKey = clientKey(id, projectId, clientId);
-        Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
-        Client client = modelWrapper.getClient(clientKey);
-        if (role != null && client != null) {
-            client.removeRole(roleId);
-            modelWrapper.putClient(clientKey, client);
-            return true;
+    public boolean removeRole(OrganizationId id, ProjectId projectId, ClientId clientId, RoleId roleId) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Client> clientKey = clientKey(id, projectId, clientId);
+            Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
+            Client client = modelWrapper.getClient(clientKey);
+            if (role != null && client != null) {
+                client.removeRole(roleId);
+                modelWrapper.putClient(clientKey, client);
+                effectivePermissions.invalidate(clientKey);
+                return true;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized Optional<RoleId> add(OrganizationId organizationId, ProjectId projectId, Role role) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Role r = modelWrapper.getRole(roleKey(organizationId, projectId, role.getId()));
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null && r == null) {
-            project.addRole(role.getId());
-            ModelKey<Role> key = roleKey(organizationId, projectId, role.getId());
-            modelWrapper.putRole(key, role);
-            modelWrapper.putProject(projectKey, project);
-            return Optional.of(role.getId());
-        } else {
-            return Optional.empty();
+    public Optional<RoleId> add(OrganizationId organizationId, ProjectId projectId, Role role) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            Role r = modelWrapper.getRole(roleKey(organizationId, projectId, role.getId()));
+            Project project = modelWrapper.getProject(projectKey);
+            if (project != null && r == null) {
+                project.addRole(role.getId());
+                ModelKey<Role> key = roleKey(organizationId, projectId, role.getId());
+                modelWrapper.putRole(key, role);
+                modelWrapper.putProject(projectKey, project);
+                invalidateRoleHolders(organizationId, projectId, role.getId());
+                return Optional.of(role.getId());
+            } else {
+                return Optional.empty();
+            }
+        } finally {
+            projectLock.unlock();
         }
     }
 
     @Override
-    public synchronized Collection<Role> getRoles(OrganizationId organizationId, ProjectId projectId) {
-        List<Role> result = new ArrayList<>();
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        modelWrapper.getRoleKeys().forEach(k -> {
-            if (k.startsWith(projectKey)) {
-                result.add(modelWrapper.getRole(k));
-            }
-        });
-        return result;
+    public Collection<Role> getRoles(OrganizationId organizationId, ProjectId projectId) {
+        return modelWrapper.getAllRoles(organizationId, projectId);
     }
 
     @Override
-    public synchronized Set<RoleId> getRoles(OrganizationId organizationId, ProjectId projectId, UserId userId) {
+    public Set<RoleId> getRoles(OrganizationId organizationId, ProjectId projectId, UserId userId) {
         ModelKey<User> userKey = userKey(organizationId, projectId, userId);
         User user = modelWrapper.getUser(userKey);
         if (user != null) {
@@ -435,122 +632,180 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized Optional<Role> getRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
+    public Optional<Role> getRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
         ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
         return Optional.ofNullable(modelWrapper.getRole(roleKey));
     }
 
     @Override
-    public synchronized boolean remove(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
-        if (!checkRoleReferences(organizationId, projectId, roleId)) {
-            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-            Project project = modelWrapper.getProject(projectKey);
-            if (project != null) {
-                project.removeRole(roleId);
-                ModelKey<Role> key = roleKey(organizationId, projectId, roleId);
-                Role removed = modelWrapper.removeRole(key);
-                modelWrapper.putProject(projectKey, project);
-                return removed != null;
+    public boolean remove(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            if (!checkRoleReferences(organizationId, projectId, roleId)) {
+                ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+                Project project = modelWrapper.getProject(projectKey);
+                if (project != null) {
+                    project.removeRole(roleId);
+                    ModelKey<Role> key = roleKey(organizationId, projectId, roleId);
+                    Role removed = modelWrapper.removeRole(key);
+                    modelWrapper.putProject(projectKey, project);
+                    invalidateRoleHolders(organizationId, projectId, roleId);
+                    return removed != null;
+                }
             }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean addPermissionToRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId, PermissionId permissionId) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
-        Role role = modelWrapper.getRole(roleKey);
-        if (role != null && project != null) {
-            Optional<Permission> permission = project.getPermission(permissionId);
-            if (permission.isPresent()) {
-                role.addPermission(permission.get());
-                modelWrapper.putRole(roleKey, role);
+    public boolean addPermissionToRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId, PermissionId permissionId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+            Project project = modelWrapper.getProject(projectKey);
+            ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
+            Role role = modelWrapper.getRole(roleKey);
+            if (role != null && project != null) {
+                Optional<Permission> permission = project.getPermission(permissionId);
+                if (permission.isPresent()) {
+                    role.addPermission(permission.get());
+                    modelWrapper.putRole(roleKey, role);
+                    invalidateRoleHolders(organizationId, projectId, roleId);
+                }
+                return true;
             }
-            return true;
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean assignRole(OrganizationId id, ProjectId projectId, UserId userId, RoleId roleId) {
-        ModelKey<User> userKey = userKey(id, projectId, userId);
-        Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
-        User user = modelWrapper.getUser(userKey);
-        if (role != null && user != null) {
-            user.addRole(roleId);
-            modelWrapper.putUser(userKey, user);
-            return true;
+    public boolean assignRole(OrganizationId id, ProjectId projectId, UserId userId, RoleId roleId) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<User> userKey = userKey(id, projectId, userId);
+            Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
+            User user = modelWrapper.getUser(userKey);
+            if (role != null && user != null) {
+                user.addRole(roleId);
+                modelWrapper.putUser(userKey, user);
+                effectivePermissions.invalidate(userKey);
+                return true;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean removeRole(OrganizationId id, ProjectId projectId, UserId userId, RoleId roleId) {
-        ModelKey<User> userKey = userKey(id, projectId, userId);
-        Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
-        User user = modelWrapper.getUser(userKey);
-        if (role != null && user != null) {
-            user.removeRole(roleId);
-            modelWrapper.putUser(userKey, user);
-            return true;
-        }
-        return false;
-    }
-
-    @Override
-    public synchronized boolean setCredentials(OrganizationId id, ProjectId projectId, UserId userId, Credentials credentials) {
-        ModelKey<User> userKey = userKey(id, projectId, userId);
-        User user = modelWrapper.getUser(userKey);
-        if (user != null) {
-            user.addCredentials(credentials);
-            modelWrapper.putUser(userKey, user);
-            return true;
+    public boolean removeRole(OrganizationId id, ProjectId projectId, UserId userId, RoleId roleId) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<User> userKey = userKey(id, projectId, userId);
+            Role role = modelWrapper.getRole(roleKey(id, projectId, roleId));
+            User user = modelWrapper.getUser(userKey);
+            if (role != null && user != null) {
+                user.removeRole(roleId);
+                modelWrapper.putUser(userKey, user);
+                effectivePermissions.invalidate(userKey);
+                return true;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean removePermissionFromRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId, PermissionId permissionId) {
-        ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
-        Role role = modelWrapper.getRole(roleKey);
-        if (role != null) {
-            boolean result = role.removePermission(permissionId);
-            modelWrapper.putRole(roleKey, role);
-            return result;
+    public boolean setCredentials(OrganizationId id, ProjectId projectId, UserId userId, Credentials credentials) {
+        Lock projectLock = locks.project(id, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<User> userKey = userKey(id, projectId, userId);
+            User user = modelWrapper.getUser(userKey);
+            if (user != null) {
+                user.addCredentials(credentials);
+                modelWrapper.putUser(userKey, user);
+                return true;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean addPermission(OrganizationId organizationId, ProjectId projectId, Permission permission) {
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Project project = modelWrapper.getProject(projectKey);
-        if (project != null) {
-            project.addPermission(permission);
-            modelWrapper.putProject(projectKey, project);
-            return true;
+    public boolean removePermissionFromRole(OrganizationId organizationId, ProjectId projectId, RoleId roleId, PermissionId permissionId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
+            Role role = modelWrapper.getRole(roleKey);
+            if (role != null) {
+                boolean result = role.removePermission(permissionId);
+                modelWrapper.putRole(roleKey, role);
+                if (result) {
+                    invalidateRoleHolders(organizationId, projectId, roleId);
+                }
+                return result;
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized boolean removePermission(OrganizationId organizationId, ProjectId projectId, PermissionId permissionId) {
-        if (!checkPermissionReferences(organizationId, projectId, permissionId)) {
+    public boolean addPermission(OrganizationId organizationId, ProjectId projectId, Permission permission) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
             ModelKey<Project> projectKey = projectKey(organizationId, projectId);
             Project project = modelWrapper.getProject(projectKey);
             if (project != null) {
-                project.removePermission(permissionId);
+                project.addPermission(permission);
                 modelWrapper.putProject(projectKey, project);
+                projectRevisions.bump(organizationId, projectId);
                 return true;
             }
+            return false;
+        } finally {
+            projectLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removePermission(OrganizationId organizationId, ProjectId projectId, PermissionId permissionId) {
+        Lock projectLock = locks.project(organizationId, projectId);
+        projectLock.lock();
+        try {
+            // permission referenced by any role can not be removed, so effective permissions are not affected
+            if (!checkPermissionReferences(organizationId, projectId, permissionId)) {
+                ModelKey<Project> projectKey = projectKey(organizationId, projectId);
+                Project project = modelWrapper.getProject(projectKey);
+                if (project != null) {
+                    project.removePermission(permissionId);
+                    modelWrapper.putProject(projectKey, project);
+                    projectRevisions.bump(organizationId, projectId);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            projectLock.unlock();
         }
-        return false;
     }
 
     @Override
-    public synchronized Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId) {
+    public Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId) {
         ModelKey<Project> projectKey = projectKey(organizationId, projectId);
         Project project =  modelWrapper.getProject(projectKey);
         if (project != null) {
@@ -560,41 +815,93 @@ public class ModelCacheImpl implements ModelCache {
     }
 
     @Override
-    public synchronized Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId, UserId userId) {
-        Set<Permission> result = new HashSet<>();
+    public Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId, UserId userId) {
+        return getEffectivePermissions(organizationId, projectId, userId).getPermissions();
+    }
+
+    @Override
+    public Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
+        return getEffectivePermissions(organizationId, projectId, clientId).getPermissions();
+    }
+
+    @Override
+    public EffectivePermissions getEffectivePermissions(OrganizationId organizationId, ProjectId projectId, UserId userId) {
         ModelKey<User> userKey = userKey(organizationId, projectId, userId);
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        User user = modelWrapper.getUser(userKey);
-        Project project =  modelWrapper.getProject(projectKey);
-        if (user != null && project != null) {
-            for (RoleId roleId: user.getRoles()) {
-                 ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
-                 Role role = modelWrapper.getRole(roleKey);
-                 if (role != null) {
-                     result.addAll(role.getPermissions());
-                 }
+        return effectivePermissions.get(userKey, k -> {
+            User user = modelWrapper.getUser(userKey);
+            if (user == null) {
+                return null;
             }
+            return loadEffectivePermissions(organizationId, projectId, user.getRoles());
+        });
+    }
+
+    @Override
+    public EffectivePermissions getEffectivePermissions(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
+        ModelKey<Client> clientKey = clientKey(organizationId, projectId, clientId);
+        return effectivePermissions.get(clientKey, k -> {
+            Client client = modelWrapper.getClient(clientKey);
+            if (client == null) {
+                return null;
+            }
+            return loadEffectivePermissions(organizationId, projectId, client.getRoles());
+        });
+    }
+
+    @Override
+    public Optional<VerificationKey> getVerificationKey(KeyId keyId) {
+        keyIdIndex.populate(modelWrapper);
+        Optional<VerificationKey> verificationKey = keyIdIndex.get(keyId, modelWrapper);
+        if (verificationKey.isEmpty() && modelWrapper.isShared() && keyIdIndex.refresh(modelWrapper)) {
+            // key may have been created by other instance
+            verificationKey = keyIdIndex.get(keyId, modelWrapper);
         }
-        return result;
+        return verificationKey;
+    }
+
+    @Override
+    public KeyPairData getKeyPairData(KeyPairSerialized keyPairSerialized) {
+        return keyPairDataCache.get(keyPairSerialized);
+    }
+
+    @Override
+    public long getRevision(OrganizationId organizationId, ProjectId projectId) {
+        return projectRevisions.get(organizationId, projectId);
     }
 
     @Override
-    public synchronized Set<Permission> getPermissions(OrganizationId organizationId, ProjectId projectId, ClientId clientId) {
+    public void awaitDurable() throws IOException {
+        modelWrapper.awaitDurable();
+    }
+
+    private EffectivePermissions loadEffectivePermissions(OrganizationId organizationId, ProjectId projectId, Collection<RoleId> roleIds) {
+        if (modelWrapper.getProject(projectKey(organizationId, projectId)) == null) {
+            return null;
+        }
         Set<Permission> result = new HashSet<>();
-        ModelKey<Client> clientKey = clientKey(organizationId, projectId, clientId);
-        ModelKey<Project> projectKey = projectKey(organizationId, projectId);
-        Client client = modelWrapper.getClient(clientKey);
-        Project project =  modelWrapper.getProject(projectKey);
-        if (client != null && project != null) {
-            for (RoleId roleId: client.getRoles()) {
-                 ModelKey<Role> roleKey = roleKey(organizationId, projectId, roleId);
-                 Role role = modelWrapper.getRole(roleKey);
-                 if (role != null) {
-                     result.addAll(role.getPermissions());
-                 }
+        for (RoleId roleId: roleIds) {
+            Role role = modelWrapper.getRole(roleKey(organizationId, projectId, roleId));
+            if (role != null) {
+                result.addAll(role.getPermissions());
+            }
+        }
+        return EffectivePermissions.from(result);
+    }
+
+    /**
+     * Invalidate effective permissions of all users and clients of the project which have role assigned.
+     */
+    private void invalidateRoleHolders(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
+        for (User user: modelWrapper.getAllUsers(organizationId, projectId)) {
+            if (user.getRoles().contains(roleId)) {
+                effectivePermissions.invalidate(userKey(organizationId, projectId, user.getId()));
+            }
+        }
+        for (Client client: modelWrapper.getAllClients(organizationId, projectId)) {
+            if (client.getRoles().contains(roleId)) {
+                effectivePermissions.invalidate(clientKey(organizationId, projectId, client.getId()));
             }
         }
-        return result;
     }
 
     private static ModelKey<Organization> organizationKey(OrganizationId id) {
@@ -617,63 +924,95 @@ public class ModelCacheImpl implements ModelCache {
         return ModelKey.from(User.class, id, projectId, userId);
     }
 
+    /**
+     * Add removal of project and all its users, clients and roles to the batch, caller holds the project lock.
+     * Caller must invalidate the project using {@link #invalidateProject(OrganizationId, ProjectId)} after the batch is written.
+     */
+    private void removeProject(ModelBatch batch, OrganizationId organizationId, ProjectId projectId) {
+        modelWrapper.getUserKeys(organizationId, projectId).forEach(batch::removeUser);
+        modelWrapper.getClientKeys(organizationId, projectId).forEach(batch::removeClient);
+        modelWrapper.getRoleKeys(organizationId, projectId).forEach(batch::removeRole);
+        batch.removeProject(projectKey(organizationId, projectId));
+    }
+
+    private void invalidateProject(OrganizationId organizationId, ProjectId projectId) {
+        effectivePermissions.invalidateProject(projectKey(organizationId, projectId));
+        keyIdIndex.removeProject(organizationId, projectId);
+        projectRevisions.bump(organizationId, projectId);
+    }
+
     private boolean checkOrganizationReferences(OrganizationId organizationId) {
-        ModelKey<Organization> organizationKey = organizationKey(organizationId);
-        for (ModelKey<Project> key: modelWrapper.getProjectKeys()) {
-            if (key.startsWith(organizationKey)) {
-                return true;
-            }
-        }
-        return false;
+        return !modelWrapper.getProjectKeys(organizationId).isEmpty();
     }
 
     private boolean checkProjectReferences(OrganizationId organizationId, ProjectId projectId)  {
-        ModelKey<Project> projectKey = projectKey(organizationId,  projectId);
-        for (ModelKey<User> key: modelWrapper.getUserKeys()) {
-            if (key.startsWith(projectKey)) {
-                return true;
+        return !modelWrapper.getUserKeys(organizationId, projectId).isEmpty()
+                || !modelWrapper.getClientKeys(organizationId, projectId).isEmpty()
+                || !modelWrapper.getRoleKeys(organizationId, projectId).isEmpty();
+    }
+
+    private boolean checkPermissionReferences(OrganizationId organizationId, ProjectId projectId, PermissionId permissionId) {
+        for (Role role: modelWrapper.getAllRoles(organizationId, projectId)) {
+            for (Permission permission : role.getPermissions()) {
+                if (permission.getId().equals(permissionId)) {
+                    return true;
+                }
             }
         }
-        for (ModelKey<Client> key: modelWrapper.getClientKeys()) {
-            if (key.startsWith(projectKey)) {
+        return false;
+    }
+
+    private boolean checkRoleReferences(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
+        for (User user: modelWrapper.getAllUsers(organizationId, projectId)) {
+            if (user.getRoles().contains(roleId)) {
                 return true;
             }
         }
-        for (ModelKey<Role> key: modelWrapper.getRoleKeys()) {
-            if (key.startsWith(projectKey)) {
+        for (Client client: modelWrapper.getAllClients(organizationId, projectId)) {
+            if (client.getRoles().contains(roleId)) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean checkPermissionReferences(OrganizationId organizationId, ProjectId projectId, PermissionId permissionId) {
-        ModelKey<Project> projectKey = projectKey(organizationId,  projectId);
-        for (Map.Entry<ModelKey<Role>, Role> entry: modelWrapper.getRoleEntrySet()) {
-            if (entry.getKey().startsWith(projectKey)) {
-                for (Permission permission : entry.getValue().getPermissions()) {
-                    if (permission.getId().equals(permissionId)) {
-                        return true;
-                    }
+    /**
+     * Invalidates effective permissions, bumps project revisions and indexes key IDs changed by other instances sharing the model.
+     */
+    private final class SharedModelChangeListener implements ModelChangeListener {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onChange(ModelKey<?> key) {
+            if (User.class.equals(key.getType())) {
+                effectivePermissions.invalidate(key);
+                User user = modelWrapper.getUser((ModelKey<User>) key);
+                if (user != null) {
+                    keyIdIndex.add((ModelKey<User>) key, user);
                 }
+                bumpRevision(key);
+            } else if (Client.class.equals(key.getType())) {
+                effectivePermissions.invalidate(key);
+            } else if (Role.class.equals(key.getType()) || Project.class.equals(key.getType())) {
+                effectivePermissions.invalidateProject(ModelKey.from(Project.class, key.getIds()[0], key.getIds()[1]));
+                bumpRevision(key);
             }
         }
-        return false;
-    }
 
-    private boolean checkRoleReferences(OrganizationId organizationId, ProjectId projectId, RoleId roleId) {
-        ModelKey<Project> projectKey = projectKey(organizationId,  projectId);
-        for (Map.Entry<ModelKey<User>, User> entry: modelWrapper.getUserEntrySet()) {
-            if (entry.getKey().startsWith(projectKey)) {
-                return entry.getValue().getRoles().contains(roleId);
-            }
+        @Override
+        public void onTrackingChanged(boolean tracking) {
+            effectivePermissions.setEnabled(tracking);
+            keyIdIndex.reset();
+            projectRevisions.reset();
         }
-        for (Map.Entry<ModelKey<Client>, Client> entry: modelWrapper.getClientEntrySet()) {
-            if (entry.getKey().startsWith(projectKey)) {
-                return entry.getValue().getRoles().contains(roleId);
-            }
+
+        /**
+         * Keys and permissions of the project may have been changed by other instance.
+         */
+        private void bumpRevision(ModelKey<?> key) {
+            projectRevisions.bump(OrganizationId.from(key.getIds()[0].getId()), ProjectId.from(key.getIds()[1].getId()));
         }
-        return false;
+
     }
 
 }
@@ -0,0 +1,90 @@
+package one.microproject.iamservice.core.services.impl.caches;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped mutation locks used by {@link ModelCacheImpl}.
+ * Organization scoped mutations are guarded by organization stripe, project scoped mutations by project stripe.
+ * Organization stripes are always acquired before project stripes and multiple project stripes are acquired
+ * in ascending stripe order by {@link #projects(OrganizationId, Collection)}, so nested locking can not deadlock.
+ */
+final class ModelLocks {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final Lock[] organizationLocks;
+    private final Lock[] projectLocks;
+
+    ModelLocks(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Number of stripes must be positive !");
+        }
+        this.organizationLocks = createLocks(stripes);
+        this.projectLocks = createLocks(stripes);
+    }
+
+    Lock organization(OrganizationId organizationId) {
+        return organizationLocks[index(organizationId.hashCode())];
+    }
+
+    Lock project(OrganizationId organizationId, ProjectId projectId) {
+        return projectLocks[index(Objects.hash(organizationId, projectId))];
+    }
+
+    /**
+     * Get distinct project stripes guarding given projects, sorted by stripe index.
+     * Stripes must be acquired in returned order and released in reverse order.
+     */
+    List<Lock> projects(OrganizationId organizationId, Collection<ProjectId> projectIds) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        projectIds.forEach(projectId -> indexes.add(index(Objects.hash(organizationId, projectId))));
+        List<Lock> result = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> result.add(projectLocks[index]));
+        return result;
+    }
+
+    /**
+     * Acquire all stripes in fixed order, used for whole-model operations like flush.
+     */
+    void lockAll() {
+        for (Lock lock: organizationLocks) {
+            lock.lock();
+        }
+        for (Lock lock: projectLocks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = projectLocks.length - 1; i >= 0; i--) {
+            projectLocks[i].unlock();
+        }
+        for (int i = organizationLocks.length - 1; i >= 0; i--) {
+            organizationLocks[i].unlock();
+        }
+    }
+
+    private int index(int hash) {
+        int spread = hash ^ (hash >>> 16);
+        return Math.floorMod(spread, organizationLocks.length);
+    }
+
+    private static Lock[] createLocks(int stripes) {
+        Lock[] locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+}
@@ -0,0 +1,42 @@
+package one.microproject.iamservice.core.services.impl.caches;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revisions of project's public data (signing keys and permissions) used by {@link ModelCacheImpl}.
+ * Revisions are drawn from one monotonic sequence, so a project never returns to previously observed revision,
+ * not even after it is removed and created again or after the whole model is replaced.
+ */
+final class ProjectRevisions {
+
+    private final AtomicLong sequence;
+    private final Map<ModelKey<Project>, Long> revisions;
+    private volatile long baseRevision;
+
+    ProjectRevisions() {
+        this.sequence = new AtomicLong();
+        this.revisions = new ConcurrentHashMap<>();
+        this.baseRevision = sequence.get();
+    }
+
+    long get(OrganizationId organizationId, ProjectId projectId) {
+        return revisions.getOrDefault(ModelKey.from(Project.class, organizationId, projectId), baseRevision);
+    }
+
+    void bump(OrganizationId organizationId, ProjectId projectId) {
+        revisions.put(ModelKey.from(Project.class, organizationId, projectId), sequence.incrementAndGet());
+    }
+
+    void reset() {
+        baseRevision = sequence.incrementAndGet();
+        revisions.clear();
+    }
+
+}
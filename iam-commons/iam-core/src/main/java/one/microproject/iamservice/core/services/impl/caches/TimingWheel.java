@@ -0,0 +1,166 @@
+package one.microproject.iamservice.core.services.impl.caches;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel indexing keys by their expiration time.
+ * Level 0 has wheelSize buckets of tickMillis, each next level has buckets wheelSize times longer, levels are added
+ * on demand. Advancing the wheel touches only buckets whose time has passed, so cost of expiration is proportional
+ * to number of expired keys, not to number of indexed keys.
+ * Keys expire at most one tick after their deadline, never before. This class is not thread safe.
+ */
+public final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level> levels;
+    private final Map<K, Long> deadlines;
+    private final List<K> pending;
+    private long currentTime;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid timing wheel tick or size.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = new ArrayList<>();
+        this.levels.add(new Level(tickMillis));
+        this.deadlines = new HashMap<>();
+        this.pending = new ArrayList<>();
+        this.currentTime = startMillis - (startMillis % tickMillis);
+    }
+
+    /**
+     * Add key or replace deadline of already indexed key.
+     * @param key indexed key.
+     * @param deadlineMillis expiration time of the key in milliseconds.
+     */
+    public void add(K key, long deadlineMillis) {
+        deadlines.put(key, deadlineMillis);
+        insert(key, deadlineMillis);
+    }
+
+    public boolean remove(K key) {
+        return deadlines.remove(key) != null;
+    }
+
+    public boolean contains(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    public Set<K> keys() {
+        return Set.copyOf(deadlines.keySet());
+    }
+
+    /**
+     * Advance the wheel to given time and remove expired keys.
+     * @param nowMillis current time in milliseconds.
+     * @return keys with deadline before current time, removed from the wheel.
+     */
+    public Collection<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        drain(pending, expired);
+        if (deadlines.isEmpty()) {
+            currentTime = Math.max(currentTime, nowMillis - (nowMillis % tickMillis));
+            return expired;
+        }
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime = currentTime + tickMillis;
+            drain(levels.get(0).bucketBefore(currentTime), expired);
+            for (int i = levels.size() - 1; i > 0; i--) {
+                Level level = levels.get(i);
+                if (currentTime % level.tick == 0) {
+                    Set<K> bucket = level.bucketAt(currentTime);
+                    List<K> keys = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (K key : keys) {
+                        Long deadline = deadlines.get(key);
+                        if (deadline != null) {
+                            insert(key, deadline);
+                        }
+                    }
+                }
+            }
+            drain(pending, expired);
+        }
+        return expired;
+    }
+
+    private void drain(Collection<K> bucket, List<K> expired) {
+        List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        for (K key : keys) {
+            Long deadline = deadlines.get(key);
+            if (deadline == null) {
+                continue;
+            }
+            if (deadline < currentTime) {
+                deadlines.remove(key);
+                expired.add(key);
+            } else {
+                // stale bucket entry of key with replaced deadline
+                insert(key, deadline);
+            }
+        }
+    }
+
+    private void insert(K key, long deadline) {
+        if (deadline < currentTime) {
+            pending.add(key);
+            return;
+        }
+        int index = 0;
+        while (true) {
+            if (index == levels.size()) {
+                Level top = levels.get(index - 1);
+                if (top.tick > Long.MAX_VALUE / wheelSize) {
+                    // deadline is centuries ahead, keep it in top level
+                    top.bucketAt(deadline).add(key);
+                    return;
+                }
+                levels.add(new Level(top.tick * wheelSize));
+            }
+            Level level = levels.get(index);
+            if (deadline / level.tick < currentTime / level.tick + wheelSize) {
+                level.bucketAt(deadline).add(key);
+                return;
+            }
+            index++;
+        }
+    }
+
+    private final class Level {
+
+        private final long tick;
+        private final List<Set<K>> buckets;
+
+        private Level(long tick) {
+            this.tick = tick;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new HashSet<>());
+            }
+        }
+
+        private Set<K> bucketAt(long time) {
+            return buckets.get((int) ((time / tick) % wheelSize));
+        }
+
+        private Set<K> bucketBefore(long time) {
+            return bucketAt(time - tick);
+        }
+
+    }
+
+}
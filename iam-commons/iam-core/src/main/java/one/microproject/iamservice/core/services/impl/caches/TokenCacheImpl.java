@@ -1,46 +1,92 @@
 package one.microproject.iamservice.core.services.impl.caches;
 
-import io.jsonwebtoken.impl.DefaultClaims;
-import one.microproject.iamservice.core.dto.StandardTokenClaims;
-import one.microproject.iamservice.core.model.OrganizationId;
-import one.microproject.iamservice.core.model.ProjectId;
-import one.microproject.iamservice.core.model.User;
-import one.microproject.iamservice.core.model.UserId;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import one.microproject.iamservice.core.utils.TokenUtils;
-import one.microproject.iamservice.core.TokenValidator;
-import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.caches.TokenCache;
 import one.microproject.iamservice.core.model.JWToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Set;
 
+/**
+ * Revoked tokens are stored by token ID (jti), tokens without jti by SHA-256 digest of the token.
+ * Tokens are stored with their expiration time, shared {@link CacheHolder} expires them natively.
+ * For local {@link CacheHolder} expiration times are indexed in {@link TimingWheel}, so purge touches only expired
+ * tokens and never verifies signatures, and negative lookups are answered by {@link BloomFilter} without touching the cache.
+ * Purged keys stay in the bloom filter, the filter is rebuilt from live keys once number of keys added to it exceeds
+ * its expected keys.
+ */
 public class TokenCacheImpl implements TokenCache {
 
-    private final ModelCache modelCache;
-    private final TokenValidator tokenValidator;
-    private CacheHolder<JWToken> revokedJWTokens;
+    private static final Logger LOG = LoggerFactory.getLogger(TokenCacheImpl.class);
 
-    public TokenCacheImpl(ModelCache modelCache, TokenValidator tokenValidator, CacheHolder<JWToken> cacheHolder) {
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int MIN_BLOOM_FILTER_KEYS = 1024;
+
+    private final CacheHolder<JWToken> revokedJWTokens;
+    private final TimingWheel<String> expirations;
+    private volatile BloomFilter bloomFilter;
+    private int bloomFilterKeys;
+
+    public TokenCacheImpl(CacheHolder<JWToken> cacheHolder) {
         this.revokedJWTokens = cacheHolder;
-        this.tokenValidator =  tokenValidator;
-        this.modelCache = modelCache;
+        this.expirations = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        if (cacheHolder.isLocal()) {
+            synchronized (this) {
+                index();
+            }
+        }
     }
 
     @Override
     public void addRevokedToken(JWToken jwToken) {
-        this.revokedJWTokens.put(jwToken.getToken(), jwToken);
+        Claims claims = extractClaims(jwToken);
+        String key = getKey(jwToken, claims);
+        if (claims != null && claims.getExpiration() != null) {
+            this.revokedJWTokens.put(key, jwToken, claims.getExpiration().getTime());
+        } else {
+            this.revokedJWTokens.put(key, jwToken);
+        }
+        if (!revokedJWTokens.isLocal()) {
+            return;
+        }
+        synchronized (this) {
+            addExpiration(key, claims);
+            BloomFilter filter = this.bloomFilter;
+            filter.add(key);
+            bloomFilterKeys++;
+            if (bloomFilterKeys > filter.getExpectedKeys()) {
+                rebuildBloomFilter();
+            }
+        }
     }
 
     @Override
-    public int purgeRevokedTokens() {
-        int size = this.revokedJWTokens.size();
-        this.revokedJWTokens.remove(this::isTokenInvalid);
-        return size - this.revokedJWTokens.size();
+    public synchronized int purgeRevokedTokens() {
+        if (!revokedJWTokens.isLocal()) {
+            return 0;
+        }
+        Collection<String> expired = expirations.advance(System.currentTimeMillis());
+        expired.forEach(revokedJWTokens::remove);
+        return expired.size();
     }
 
     @Override
     public boolean isRevoked(JWToken jwToken) {
-        return this.revokedJWTokens.get(jwToken.getToken()) != null;
+        String key = getKey(jwToken, extractClaims(jwToken));
+        BloomFilter filter = this.bloomFilter;
+        if (filter != null && !filter.mightContain(key)) {
+            return false;
+        }
+        return this.revokedJWTokens.get(key) != null;
     }
 
     @Override
@@ -48,21 +94,54 @@ public class TokenCacheImpl implements TokenCache {
         return this.revokedJWTokens.size();
     }
 
-    private boolean isTokenInvalid(JWToken jwToken) {
-        return !validateToken(jwToken);
+    /**
+     * Index expiration times of tokens already present in local cache holder, before this instance has been created.
+     */
+    private void index() {
+        for (String key : revokedJWTokens.keys()) {
+            JWToken jwToken = revokedJWTokens.get(key);
+            if (jwToken != null) {
+                addExpiration(key, extractClaims(jwToken));
+            }
+        }
+        rebuildBloomFilter();
+    }
+
+    private void addExpiration(String key, Claims claims) {
+        if (claims != null && claims.getExpiration() != null) {
+            expirations.add(key, claims.getExpiration().getTime());
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(MIN_BLOOM_FILTER_KEYS, revokedJWTokens.size() * 2));
+        Set<String> keys = revokedJWTokens.keys();
+        keys.forEach(filter::add);
+        this.bloomFilterKeys = keys.size();
+        this.bloomFilter = filter;
     }
 
-    private boolean validateToken(JWToken jwToken) {
-        DefaultClaims defaultClaims = TokenUtils.extractClaims(jwToken);
-        OrganizationId organizationId = OrganizationId.from(defaultClaims.getIssuer());
-        ProjectId projectId = ProjectId.from(defaultClaims.getAudience());
-        UserId userId = UserId.from(defaultClaims.getSubject());
-        Optional<User> userOptional = this.modelCache.getUser(organizationId, projectId, userId);
-        if (userOptional.isPresent()) {
-            Optional<StandardTokenClaims> tokenClaims = tokenValidator.validateToken(userOptional.get().getCertificate().getPublicKey(), jwToken);
-            return tokenClaims.isPresent();
+    private static Claims extractClaims(JWToken jwToken) {
+        try {
+            return TokenUtils.extractClaims(jwToken);
+        } catch (ExpiredJwtException e) {
+            return e.getClaims();
+        } catch (Exception e) {
+            LOG.debug("Malformed JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String getKey(JWToken jwToken, Claims claims) {
+        if (claims != null && claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(jwToken.getToken().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return false;
     }
 
 }
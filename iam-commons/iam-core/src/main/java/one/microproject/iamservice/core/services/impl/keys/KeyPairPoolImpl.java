@@ -0,0 +1,119 @@
+package one.microproject.iamservice.core.services.impl.keys;
+
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
+import one.microproject.iamservice.core.services.KeyPairPool;
+import one.microproject.iamservice.core.services.dto.KeyPairPoolStats;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class KeyPairPoolImpl implements KeyPairPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeyPairPoolImpl.class);
+    private static final long MIN_BACKOFF_MILLIS = 100L;
+    private static final long MAX_BACKOFF_MILLIS = 30_000L;
+
+    private final int capacity;
+    private final int workers;
+    private final BlockingQueue<KeyPair> keyPairs;
+    private final ExecutorService executorService;
+    private final LongAdder generated;
+    private final LongAdder hits;
+    private final LongAdder starvations;
+
+    public KeyPairPoolImpl(int capacity, int workers) {
+        if (capacity < 1 || workers < 1) {
+            throw new IllegalArgumentException("Key pair pool capacity and workers must be positive numbers.");
+        }
+        this.capacity = capacity;
+        this.workers = workers;
+        this.keyPairs = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "key-pair-pool-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.generated = new LongAdder();
+        this.hits = new LongAdder();
+        this.starvations = new LongAdder();
+    }
+
+    @Override
+    public void start() {
+        LOG.info("starting key pair pool capacity={} workers={} ...", capacity, workers);
+        for (int i = 0; i < workers; i++) {
+            executorService.execute(this::refill);
+        }
+    }
+
+    @Override
+    public KeyPair getKeyPair(SigningAlgorithm algorithm) throws PKIException {
+        if (SigningAlgorithm.RS256.equals(algorithm)) {
+            KeyPair keyPair = keyPairs.poll();
+            if (keyPair != null) {
+                hits.increment();
+                return keyPair;
+            }
+            starvations.increment();
+            LOG.debug("key pair pool is empty, generating key pair on caller's thread");
+        }
+        try {
+            return TokenUtils.generateKeyPair(algorithm);
+        } catch (Exception e) {
+            throw new PKIException(e);
+        }
+    }
+
+    @Override
+    public KeyPairPoolStats getStats() {
+        return new KeyPairPoolStats(capacity, keyPairs.size(), generated.sum(), hits.sum(), starvations.sum());
+    }
+
+    @Override
+    public void close() throws Exception {
+        executorService.shutdownNow();
+        keyPairs.clear();
+    }
+
+    /**
+     * Refill loop of single worker, runs until the pool is closed.
+     * Failing key pair generation does not terminate the worker, it is retried with exponential backoff.
+     */
+    private void refill() {
+        KeyPairGenerator keyPairGenerator = null;
+        long backoffMillis = MIN_BACKOFF_MILLIS;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (keyPairGenerator == null) {
+                    keyPairGenerator = TokenUtils.createKeyPairGenerator();
+                }
+                keyPairs.put(keyPairGenerator.generateKeyPair());
+                generated.increment();
+                backoffMillis = MIN_BACKOFF_MILLIS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                LOG.error("Key pair pool worker failed, retrying in {}ms: ", backoffMillis, e);
+                keyPairGenerator = null;
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+}
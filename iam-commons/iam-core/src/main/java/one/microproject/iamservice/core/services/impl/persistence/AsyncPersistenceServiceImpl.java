@@ -0,0 +1,374 @@
+package one.microproject.iamservice.core.services.impl.persistence;
+
+import one.microproject.iamservice.core.services.dto.PersistenceQueueStats;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit in front of another {@link PersistenceService}.
+ * Model changes are merged into pending batch and returned immediately, single writer thread persists pending batch
+ * once it is older than max delay or holds max batch size changes. Whole model persistence request supersedes pending
+ * changes, because the model already contains them, and it always waits until the model has been persisted.
+ * Callers which need their changes persisted before they return call {@link #awaitDurable()} after the change.
+ * Failed batch is merged back into pending changes and retried after retry delay. Callers awaiting changes of a failed
+ * flush get the failure until a retry persists them.
+ */
+public class AsyncPersistenceServiceImpl implements PersistenceService, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncPersistenceServiceImpl.class);
+    private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PersistenceService delegate;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final long retryDelayNanos;
+    private final ReentrantLock lock;
+    private final Condition pendingCondition;
+    private final Condition durableCondition;
+    private final Thread writer;
+    private final List<FailedRange> failedRanges;
+
+    private ModelWrapper modelWrapper;
+    private ModelBatch pending;
+    private long pendingChanges;
+    private long pendingSince;
+    private boolean snapshotRequested;
+    private long enqueuedSeq;
+    private long durableSeq;
+    private boolean retrying;
+    private long retryAt;
+    private boolean closed;
+    private boolean stopped;
+
+    private long flushes;
+    private long flushedChanges;
+    private long failures;
+    private long totalFlushTimeNanos;
+    private long lastFlushTimeNanos;
+
+    public AsyncPersistenceServiceImpl(PersistenceService delegate, long maxDelayMillis, int maxBatchSize) {
+        if (maxDelayMillis < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max delay must not be negative and max batch size must be positive number.");
+        }
+        this.delegate = delegate;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.retryDelayNanos = Math.max(maxDelayNanos, MIN_RETRY_DELAY_NANOS);
+        this.lock = new ReentrantLock();
+        this.pendingCondition = lock.newCondition();
+        this.durableCondition = lock.newCondition();
+        this.pending = new ModelBatch();
+        this.failedRanges = new ArrayList<>();
+        this.writer = new Thread(this::write, "model-persistence-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        LOG.info("AsyncPersistence: maxDelay={}ms maxBatchSize={}", maxDelayMillis, maxBatchSize);
+    }
+
+    @Override
+    public void onModelChange(ModelWrapper modelWrapper) throws IOException {
+        long seq;
+        lock.lock();
+        try {
+            checkOpen();
+            this.modelWrapper = modelWrapper;
+            snapshotRequested = true;
+            pending = new ModelBatch();
+            seq = enqueue(0);
+        } finally {
+            lock.unlock();
+        }
+        await(seq);
+    }
+
+    @Override
+    public void onModelChange(ModelWrapper modelWrapper, ModelBatch changes) throws IOException {
+        lock.lock();
+        try {
+            checkOpen();
+            this.modelWrapper = modelWrapper;
+            if (!snapshotRequested) {
+                pending.merge(changes);
+            }
+            enqueue(changes.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all changes accepted so far have been persisted.
+     * @throws IOException in case flush of any of those changes failed and the changes have not been persisted by a retry yet,
+     * or the service has been closed before the changes have been persisted.
+     */
+    @Override
+    public void awaitDurable() throws IOException {
+        long seq;
+        lock.lock();
+        try {
+            seq = enqueuedSeq;
+        } finally {
+            lock.unlock();
+        }
+        await(seq);
+    }
+
+    public PersistenceQueueStats getStats() {
+        lock.lock();
+        try {
+            return new PersistenceQueueStats(pendingChanges, flushes, flushedChanges, failures, totalFlushTimeNanos, lastFlushTimeNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Persist pending changes, stop writer thread and close delegate if it is {@link AutoCloseable}.
+     */
+    @Override
+    public void close() throws Exception {
+        lock.lock();
+        try {
+            closed = true;
+            pendingCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        writer.join();
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+
+    private long enqueue(int changes) {
+        if (pendingChanges == 0 && !snapshotRequested) {
+            pendingSince = System.nanoTime();
+        }
+        pendingChanges = pendingChanges + changes;
+        enqueuedSeq++;
+        pendingCondition.signalAll();
+        return enqueuedSeq;
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Persistence service is closed.");
+        }
+    }
+
+    private void await(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                IOException failure = getFailure(seq);
+                if (failure != null) {
+                    throw new IOException("Model change has not been persisted: " + failure.getMessage(), failure);
+                }
+                if (stopped) {
+                    throw new IOException("Model change has not been persisted, persistence service is closed.");
+                }
+                durableCondition.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for model persistence.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IOException getFailure(long seq) {
+        for (int i = failedRanges.size() - 1; i >= 0; i--) {
+            FailedRange range = failedRanges.get(i);
+            if (range.contains(seq)) {
+                return range.exception;
+            }
+        }
+        return null;
+    }
+
+    private void write() {
+        try {
+            while (true) {
+                ModelWrapper wrapper;
+                ModelBatch batch;
+                boolean snapshot;
+                long changes;
+                long fromSeq;
+                long toSeq;
+                lock.lock();
+                try {
+                    while (!readyToFlush()) {
+                        if (enqueuedSeq == durableSeq) {
+                            if (closed) {
+                                return;
+                            }
+                            pendingCondition.await();
+                        } else {
+                            pendingCondition.awaitNanos(nanosToFlush());
+                        }
+                    }
+                    wrapper = modelWrapper;
+                    batch = pending;
+                    snapshot = snapshotRequested;
+                    changes = pendingChanges;
+                    fromSeq = durableSeq + 1;
+                    toSeq = enqueuedSeq;
+                    pending = new ModelBatch();
+                    pendingChanges = 0;
+                    snapshotRequested = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.error("Model persistence writer interrupted, {} changes not persisted", pendingChanges);
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+                if (!flush(wrapper, batch, snapshot, changes, fromSeq, toSeq) && isClosed()) {
+                    LOG.error("Model persistence writer closed, {} changes not persisted", changes);
+                    return;
+                }
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    private boolean readyToFlush() {
+        if (enqueuedSeq == durableSeq) {
+            return false;
+        }
+        if (closed) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (retrying && now - retryAt < 0) {
+            return false;
+        }
+        return snapshotRequested || pendingChanges >= maxBatchSize || now - pendingSince >= maxDelayNanos;
+    }
+
+    private long nanosToFlush() {
+        long now = System.nanoTime();
+        long nanos = maxDelayNanos - (now - pendingSince);
+        if (retrying) {
+            nanos = Math.max(nanos, retryAt - now);
+        }
+        return nanos;
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wake up callers awaiting changes which will never be persisted.
+     */
+    private void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            durableCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return changes of failed flush to pending changes, so they are persisted by next flush.
+     * Changes accepted after the failed batch has been taken win over changes of failed batch.
+     */
+    private void requeue(ModelBatch batch, boolean snapshot, long changes) {
+        if (snapshot) {
+            snapshotRequested = true;
+            pending = new ModelBatch();
+        } else if (!snapshotRequested) {
+            pending = batch.merge(pending);
+        }
+        pendingChanges = pendingChanges + changes;
+    }
+
+    /**
+     * Persist taken changes.
+     * @return true if changes have been persisted, false if flush failed and changes have been returned to pending changes.
+     */
+    private boolean flush(ModelWrapper wrapper, ModelBatch batch, boolean snapshot, long changes, long fromSeq, long toSeq) {
+        long timestamp = System.nanoTime();
+        IOException exception = null;
+        try {
+            if (snapshot) {
+                delegate.onModelChange(wrapper);
+            } else if (!batch.isEmpty()) {
+                delegate.onModelChange(wrapper, batch);
+            }
+        } catch (IOException e) {
+            LOG.error("Persistence Error: {}", e.getMessage());
+            exception = e;
+        } catch (RuntimeException e) {
+            LOG.error("Persistence Error: ", e);
+            exception = new IOException(e);
+        }
+        long duration = System.nanoTime() - timestamp;
+        lock.lock();
+        try {
+            flushes++;
+            totalFlushTimeNanos = totalFlushTimeNanos + duration;
+            lastFlushTimeNanos = duration;
+            if (exception != null) {
+                failures++;
+                failedRanges.add(new FailedRange(fromSeq, toSeq, exception));
+                requeue(batch, snapshot, changes);
+                retrying = true;
+                retryAt = System.nanoTime() + retryDelayNanos;
+            } else {
+                flushedChanges = flushedChanges + changes;
+                durableSeq = toSeq;
+                failedRanges.removeIf(r -> r.toSeq <= toSeq);
+                retrying = false;
+            }
+            durableCondition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LOG.debug("flush: {} changes, snapshot={}, persisted={} in {}ms", changes, snapshot, exception == null, (duration/1_000_000F));
+        return exception == null;
+    }
+
+    /**
+     * Sequence numbers of changes taken by failed flush.
+     */
+    private static final class FailedRange {
+
+        private final long fromSeq;
+        private final long toSeq;
+        private final IOException exception;
+
+        private FailedRange(long fromSeq, long toSeq, IOException exception) {
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+            this.exception = exception;
+        }
+
+        private boolean contains(long seq) {
+            return fromSeq <= seq && seq <= toSeq;
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package one.microproject.iamservice.core.services.persistence;
 
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
 
 import java.io.IOException;
@@ -10,6 +11,30 @@ import java.io.IOException;
  */
 public interface PersistenceService {
 
+    /**
+     * Persist whole model.
+     * @param modelWrapper model to persist.
+     * @throws IOException in case model can't be persisted.
+     */
     void onModelChange(ModelWrapper modelWrapper) throws IOException;
 
+    /**
+     * Persist single change of the model, called after the change has been applied to the model.
+     * Default implementation persists whole model, services able to persist changes incrementally should override it.
+     * @param modelWrapper changed model.
+     * @param changes changes applied to the model.
+     * @throws IOException in case changes can't be persisted.
+     */
+    default void onModelChange(ModelWrapper modelWrapper, ModelBatch changes) throws IOException {
+        onModelChange(modelWrapper);
+    }
+
+    /**
+     * Wait until all changes accepted so far have been persisted.
+     * Default implementation persists changes before onModelChange returns, so there is nothing to wait for.
+     * @throws IOException in case accepted changes have not been persisted.
+     */
+    default void awaitDurable() throws IOException {
+    }
+
 }
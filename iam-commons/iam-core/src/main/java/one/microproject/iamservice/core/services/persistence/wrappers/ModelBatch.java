@@ -0,0 +1,128 @@
+package one.microproject.iamservice.core.services.persistence.wrappers;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set of model changes written by {@link ModelWrapper#write(ModelBatch)} at once.
+ * Each key holds its last change only, null value marks removal of the key.
+ * Batch is not thread safe, it is expected to be built and written by one thread.
+ */
+public class ModelBatch {
+
+    private final Map<ModelKey<Organization>, Organization> organizations;
+    private final Map<ModelKey<Project>, Project> projects;
+    private final Map<ModelKey<User>, User> users;
+    private final Map<ModelKey<Client>, Client> clients;
+    private final Map<ModelKey<Role>, Role> roles;
+
+    public ModelBatch() {
+        this.organizations = new LinkedHashMap<>();
+        this.projects = new LinkedHashMap<>();
+        this.users = new LinkedHashMap<>();
+        this.clients = new LinkedHashMap<>();
+        this.roles = new LinkedHashMap<>();
+    }
+
+    public ModelBatch putOrganization(ModelKey<Organization> key, Organization value) {
+        organizations.put(key, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public ModelBatch putProject(ModelKey<Project> key, Project value) {
+        projects.put(key, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public ModelBatch putUser(ModelKey<User> key, User value) {
+        users.put(key, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public ModelBatch putClient(ModelKey<Client> key, Client value) {
+        clients.put(key, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public ModelBatch putRole(ModelKey<Role> key, Role value) {
+        roles.put(key, Objects.requireNonNull(value));
+        return this;
+    }
+
+    public ModelBatch removeOrganization(ModelKey<Organization> key) {
+        organizations.put(key, null);
+        return this;
+    }
+
+    public ModelBatch removeProject(ModelKey<Project> key) {
+        projects.put(key, null);
+        return this;
+    }
+
+    public ModelBatch removeUser(ModelKey<User> key) {
+        users.put(key, null);
+        return this;
+    }
+
+    public ModelBatch removeClient(ModelKey<Client> key) {
+        clients.put(key, null);
+        return this;
+    }
+
+    public ModelBatch removeRole(ModelKey<Role> key) {
+        roles.put(key, null);
+        return this;
+    }
+
+    /**
+     * Add all changes of other batch, changes of other batch win over changes of this batch for the same key.
+     * @param other batch written after this batch.
+     * @return this batch.
+     */
+    public ModelBatch merge(ModelBatch other) {
+        organizations.putAll(other.organizations);
+        projects.putAll(other.projects);
+        users.putAll(other.users);
+        clients.putAll(other.clients);
+        roles.putAll(other.roles);
+        return this;
+    }
+
+    public Map<ModelKey<Organization>, Organization> getOrganizations() {
+        return Collections.unmodifiableMap(organizations);
+    }
+
+    public Map<ModelKey<Project>, Project> getProjects() {
+        return Collections.unmodifiableMap(projects);
+    }
+
+    public Map<ModelKey<User>, User> getUsers() {
+        return Collections.unmodifiableMap(users);
+    }
+
+    public Map<ModelKey<Client>, Client> getClients() {
+        return Collections.unmodifiableMap(clients);
+    }
+
+    public Map<ModelKey<Role>, Role> getRoles() {
+        return Collections.unmodifiableMap(roles);
+    }
+
+    public int size() {
+        return organizations.size() + projects.size() + users.size() + clients.size() + roles.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+}
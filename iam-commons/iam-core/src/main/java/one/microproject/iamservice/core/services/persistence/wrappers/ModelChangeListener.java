@@ -0,0 +1,24 @@
+package one.microproject.iamservice.core.services.persistence.wrappers;
+
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+/**
+ * Listener notified about model changes made by other iam-service instances sharing the same persistence.
+ * Notifications are delivered after the change is visible in {@link ModelWrapper}.
+ */
+public interface ModelChangeListener {
+
+    /**
+     * Entity has been created, updated or removed.
+     * @param key key of changed entity.
+     */
+    void onChange(ModelKey<?> key);
+
+    /**
+     * Tracking of changes has been started or lost. Changes may have been missed in both cases,
+     * so everything derived from the model must be discarded.
+     * @param tracking true if changes are reported from now on, false if they are not reported anymore.
+     */
+    void onTrackingChanged(boolean tracking);
+
+}
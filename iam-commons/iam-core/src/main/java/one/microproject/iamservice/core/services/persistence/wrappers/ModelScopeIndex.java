@@ -0,0 +1,158 @@
+package one.microproject.iamservice.core.services.persistence.wrappers;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.Id;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hierarchical secondary index of model keys: organization -&gt; project -&gt; {users, clients, roles}.
+ * Scoped lookups cost O(result size) instead of scanning all keys of the model.
+ * All modifications of one organization subtree are atomic, lookups are lock-free and return snapshots.
+ */
+public class ModelScopeIndex {
+
+    private final Map<Id, OrganizationScope> organizations;
+
+    public ModelScopeIndex() {
+        this.organizations = new ConcurrentHashMap<>();
+    }
+
+    public void addProject(ModelKey<Project> key) {
+        organizations.compute(key.getIds()[0], (id, scope) -> {
+            OrganizationScope organizationScope = (scope == null) ? new OrganizationScope() : scope;
+            organizationScope.projectKeys.add(key);
+            return organizationScope;
+        });
+    }
+
+    public void removeProject(ModelKey<Project> key) {
+        organizations.computeIfPresent(key.getIds()[0], (id, scope) -> {
+            scope.projectKeys.remove(key);
+            return scope.isEmpty() ? null : scope;
+        });
+    }
+
+    public void addUser(ModelKey<User> key) {
+        addProjectMember(key, s -> s.userKeys);
+    }
+
+    public void removeUser(ModelKey<User> key) {
+        removeProjectMember(key, s -> s.userKeys);
+    }
+
+    public void addClient(ModelKey<Client> key) {
+        addProjectMember(key, s -> s.clientKeys);
+    }
+
+    public void removeClient(ModelKey<Client> key) {
+        removeProjectMember(key, s -> s.clientKeys);
+    }
+
+    public void addRole(ModelKey<Role> key) {
+        addProjectMember(key, s -> s.roleKeys);
+    }
+
+    public void removeRole(ModelKey<Role> key) {
+        removeProjectMember(key, s -> s.roleKeys);
+    }
+
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        OrganizationScope scope = organizations.get(organizationId);
+        if (scope == null) {
+            return Set.of();
+        }
+        return new HashSet<>(scope.projectKeys);
+    }
+
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        OrganizationScope scope = organizations.get(organizationId);
+        if (scope == null) {
+            return Set.of();
+        }
+        Set<ModelKey<User>> result = new HashSet<>();
+        scope.projects.values().forEach(p -> result.addAll(p.userKeys));
+        return result;
+    }
+
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        return getProjectMembers(organizationId, projectId, s -> s.userKeys);
+    }
+
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        return getProjectMembers(organizationId, projectId, s -> s.clientKeys);
+    }
+
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        return getProjectMembers(organizationId, projectId, s -> s.roleKeys);
+    }
+
+    public void clear() {
+        organizations.clear();
+    }
+
+    private <T> void addProjectMember(ModelKey<T> key, Function<ProjectScope, Set<ModelKey<T>>> members) {
+        organizations.compute(key.getIds()[0], (id, scope) -> {
+            OrganizationScope organizationScope = (scope == null) ? new OrganizationScope() : scope;
+            ProjectScope projectScope = organizationScope.projects.computeIfAbsent(key.getIds()[1], p -> new ProjectScope());
+            members.apply(projectScope).add(key);
+            return organizationScope;
+        });
+    }
+
+    private <T> void removeProjectMember(ModelKey<T> key, Function<ProjectScope, Set<ModelKey<T>>> members) {
+        organizations.computeIfPresent(key.getIds()[0], (id, scope) -> {
+            scope.projects.computeIfPresent(key.getIds()[1], (p, projectScope) -> {
+                members.apply(projectScope).remove(key);
+                return projectScope.isEmpty() ? null : projectScope;
+            });
+            return scope.isEmpty() ? null : scope;
+        });
+    }
+
+    private <T> Set<ModelKey<T>> getProjectMembers(OrganizationId organizationId, ProjectId projectId, Function<ProjectScope, Set<ModelKey<T>>> members) {
+        OrganizationScope scope = organizations.get(organizationId);
+        if (scope == null) {
+            return Set.of();
+        }
+        ProjectScope projectScope = scope.projects.get(projectId);
+        if (projectScope == null) {
+            return Set.of();
+        }
+        return new HashSet<>(members.apply(projectScope));
+    }
+
+    private static class OrganizationScope {
+
+        private final Set<ModelKey<Project>> projectKeys = ConcurrentHashMap.newKeySet();
+        private final Map<Id, ProjectScope> projects = new ConcurrentHashMap<>();
+
+        private boolean isEmpty() {
+            return projectKeys.isEmpty() && projects.isEmpty();
+        }
+
+    }
+
+    private static class ProjectScope {
+
+        private final Set<ModelKey<User>> userKeys = ConcurrentHashMap.newKeySet();
+        private final Set<ModelKey<Client>> clientKeys = ConcurrentHashMap.newKeySet();
+        private final Set<ModelKey<Role>> roleKeys = ConcurrentHashMap.newKeySet();
+
+        private boolean isEmpty() {
+            return userKeys.isEmpty() && clientKeys.isEmpty() && roleKeys.isEmpty();
+        }
+
+    }
+
+}
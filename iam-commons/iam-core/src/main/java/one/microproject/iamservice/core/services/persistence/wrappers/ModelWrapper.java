@@ -4,12 +4,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.Role;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.keys.ModelKey;
 import one.microproject.iamservice.core.services.persistence.PersistenceService;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +58,13 @@ public interface ModelWrapper {
     @JsonIgnore
     void putRole(ModelKey<Role> key, Role value);
 
+    /**
+     * Write all changes of the batch at once, users, clients and roles are written first, then projects and organizations.
+     * @param batch changes to write.
+     */
+    @JsonIgnore
+    void write(ModelBatch batch);
+
     @JsonIgnore
     Organization removeOrganization(ModelKey<Organization> key);
 
@@ -100,9 +110,39 @@ public interface ModelWrapper {
     @JsonIgnore
     Set<ModelKey<Role>> getRoleKeys();
 
+    @JsonIgnore
+    Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId);
+
+    @JsonIgnore
+    Set<ModelKey<User>> getUserKeys(OrganizationId organizationId);
+
+    @JsonIgnore
+    Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId);
+
+    @JsonIgnore
+    Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId);
+
+    @JsonIgnore
+    Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId);
+
     @JsonIgnore
     Collection<Organization> getAllOrganizations();
 
+    @JsonIgnore
+    Collection<Project> getAllProjects(OrganizationId organizationId);
+
+    @JsonIgnore
+    Collection<User> getAllUsers(OrganizationId organizationId);
+
+    @JsonIgnore
+    Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId);
+
+    @JsonIgnore
+    Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId);
+
+    @JsonIgnore
+    Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId);
+
     @JsonIgnore
     Set<Map.Entry<ModelKey<Client>, Client>> getClientEntrySet();
 
@@ -115,4 +155,32 @@ public interface ModelWrapper {
     @JsonIgnore
     void setPersistenceService(PersistenceService persistenceService);
 
+    /**
+     * Wait until all changes of this model made so far have been persisted by {@link PersistenceService}.
+     * Wrappers writing changes to storage directly persist them before mutation returns, so there is nothing to wait for.
+     * @throws IOException in case changes have not been persisted.
+     */
+    default void awaitDurable() throws IOException {
+    }
+
+    /**
+     * Model stored by this wrapper may be changed by other iam-service instances, for example replicas sharing MongoDB.
+     * @return true if model is shared with other instances, false if this instance is the only writer.
+     */
+    @JsonIgnore
+    default boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Register listener notified about changes made by other instances sharing the model.
+     * Listener is notified about current tracking state before this method returns.
+     * @param listener change listener.
+     * @return true if wrapper reports changes of other instances, false if it can't track them.
+     */
+    @JsonIgnore
+    default boolean addChangeListener(ModelChangeListener listener) {
+        return false;
+    }
+
 }
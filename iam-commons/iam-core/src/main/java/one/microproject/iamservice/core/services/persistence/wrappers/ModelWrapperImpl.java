@@ -6,7 +6,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.Role;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.keys.ModelKey;
@@ -27,15 +29,16 @@ public class ModelWrapperImpl implements ModelWrapper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ModelWrapperImpl.class);
 
-    private Model model;
+    private volatile Model model;
     private final Map<ModelKey<Organization>, Organization> organizations;
     private final Map<ModelKey<Project>, Project> projects;
     private final Map<ModelKey<User>, User> users;
     private final Map<ModelKey<Client>, Client> clients;
     private final Map<ModelKey<Role>, Role> roles;
+    private final ModelScopeIndex scopeIndex;
 
-    private PersistenceService persistenceService;
-    private boolean flushOnChange = false;
+    private volatile PersistenceService persistenceService;
+    private volatile boolean flushOnChange = false;
 
     public ModelWrapperImpl(Model model, PersistenceService persistenceService, boolean flushOnChange) {
         this.model = model;
@@ -44,6 +47,7 @@ public class ModelWrapperImpl implements ModelWrapper {
         this.users  = new ConcurrentHashMap<>();
         this.clients  = new ConcurrentHashMap<>();
         this.roles  = new ConcurrentHashMap<>();
+        this.scopeIndex = new ModelScopeIndex();
         this.persistenceService = persistenceService;
         this.flushOnChange = flushOnChange;
     }
@@ -61,11 +65,24 @@ public class ModelWrapperImpl implements ModelWrapper {
         this.users  = new ConcurrentHashMap<>();
         this.clients  = new ConcurrentHashMap<>();
         this.roles  = new ConcurrentHashMap<>();
+        this.scopeIndex = new ModelScopeIndex();
         organizations.forEach(o -> this.organizations.put(o.getKey(), o.getValue()));
-        projects.forEach(p -> this.projects.put(p.getKey(), p.getValue()));
-        users.forEach(u -> this.users.put(u.getKey(), u.getValue()));
-        clients.forEach(c -> this.clients.put(c.getKey(), c.getValue()));
-        roles.forEach(r -> this.roles.put(r.getKey(), r.getValue()));
+        projects.forEach(p -> {
+            this.projects.put(p.getKey(), p.getValue());
+            this.scopeIndex.addProject(p.getKey());
+        });
+        users.forEach(u -> {
+            this.users.put(u.getKey(), u.getValue());
+            this.scopeIndex.addUser(u.getKey());
+        });
+        clients.forEach(c -> {
+            this.clients.put(c.getKey(), c.getValue());
+            this.scopeIndex.addClient(c.getKey());
+        });
+        roles.forEach(r -> {
+            this.roles.put(r.getKey(), r.getValue());
+            this.scopeIndex.addRole(r.getKey());
+        });
     }
 
     @Override
@@ -91,6 +108,13 @@ public class ModelWrapperImpl implements ModelWrapper {
         return true;
     }
 
+    @Override
+    public void awaitDurable() throws IOException {
+        if (flushOnChange) {
+            persistenceService.awaitDurable();
+        }
+    }
+
     private void flushOnChange() {
         if (flushOnChange) {
             try {
@@ -101,6 +125,16 @@ public class ModelWrapperImpl implements ModelWrapper {
         }
     }
 
+    private void flushOnChange(ModelBatch changes) {
+        if (flushOnChange) {
+            try {
+                persistenceService.onModelChange(this, changes);
+            } catch (IOException e) {
+                LOG.error("Persistence Error: {}", e.getMessage());
+            }
+        }
+    }
+
     @Override
     public Model getModel() {
         return model;
@@ -150,35 +184,94 @@ public class ModelWrapperImpl implements ModelWrapper {
     @Override
     public void putOrganization(ModelKey<Organization> key, Organization value) {
         organizations.put(key, value);
-        flushOnChange();
+        flushOnChange(new ModelBatch().putOrganization(key, value));
     }
 
     @JsonIgnore
     @Override
     public void putProject(ModelKey<Project> key, Project value) {
         projects.put(key, value);
-        flushOnChange();
+        scopeIndex.addProject(key);
+        flushOnChange(new ModelBatch().putProject(key, value));
     }
 
     @JsonIgnore
     @Override
     public void putUser(ModelKey<User> key, User value) {
         users.put(key, value);
-        flushOnChange();
+        scopeIndex.addUser(key);
+        flushOnChange(new ModelBatch().putUser(key, value));
     }
 
     @JsonIgnore
     @Override
     public void putClient(ModelKey<Client> key, Client value) {
         clients.put(key, value);
-        flushOnChange();
+        scopeIndex.addClient(key);
+        flushOnChange(new ModelBatch().putClient(key, value));
     }
 
     @JsonIgnore
     @Override
     public void putRole(ModelKey<Role> key, Role value) {
         roles.put(key, value);
-        flushOnChange();
+        scopeIndex.addRole(key);
+        flushOnChange(new ModelBatch().putRole(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void write(ModelBatch batch) {
+        batch.getUsers().forEach((key, value) -> {
+            if (value == null) {
+                if (users.remove(key) != null) {
+                    scopeIndex.removeUser(key);
+                }
+            } else {
+                users.put(key, value);
+                scopeIndex.addUser(key);
+            }
+        });
+        batch.getClients().forEach((key, value) -> {
+            if (value == null) {
+                if (clients.remove(key) != null) {
+                    scopeIndex.removeClient(key);
+                }
+            } else {
+                clients.put(key, value);
+                scopeIndex.addClient(key);
+            }
+        });
+        batch.getRoles().forEach((key, value) -> {
+            if (value == null) {
+                if (roles.remove(key) != null) {
+                    scopeIndex.removeRole(key);
+                }
+            } else {
+                roles.put(key, value);
+                scopeIndex.addRole(key);
+            }
+        });
+        batch.getProjects().forEach((key, value) -> {
+            if (value == null) {
+                if (projects.remove(key) != null) {
+                    scopeIndex.removeProject(key);
+                }
+            } else {
+                projects.put(key, value);
+                scopeIndex.addProject(key);
+            }
+        });
+        batch.getOrganizations().forEach((key, value) -> {
+            if (value == null) {
+                organizations.remove(key);
+            } else {
+                organizations.put(key, value);
+            }
+        });
+        if (!batch.isEmpty()) {
+            flushOnChange(batch);
+        }
     }
 
     @JsonIgnore
@@ -186,7 +279,7 @@ public class ModelWrapperImpl implements ModelWrapper {
     public Organization removeOrganization(ModelKey<Organization> key) {
         Organization organization = organizations.remove(key);
         if (organization !=  null) {
-            flushOnChange();
+            flushOnChange(new ModelBatch().removeOrganization(key));
         }
         return organization;
     }
@@ -196,7 +289,8 @@ public class ModelWrapperImpl implements ModelWrapper {
     public Project removeProject(ModelKey<Project> key) {
         Project project = projects.remove(key);
         if (project !=  null) {
-            flushOnChange();
+            scopeIndex.removeProject(key);
+            flushOnChange(new ModelBatch().removeProject(key));
         }
         return project;
     }
@@ -206,7 +300,8 @@ public class ModelWrapperImpl implements ModelWrapper {
     public User removeUser(ModelKey<User> key) {
         User user = users.remove(key);
         if (user !=  null) {
-            flushOnChange();
+            scopeIndex.removeUser(key);
+            flushOnChange(new ModelBatch().removeUser(key));
         }
         return user;
     }
@@ -216,7 +311,8 @@ public class ModelWrapperImpl implements ModelWrapper {
     public Client removeClient(ModelKey<Client> key) {
         Client client = clients.remove(key);
         if (client !=  null) {
-            flushOnChange();
+            scopeIndex.removeClient(key);
+            flushOnChange(new ModelBatch().removeClient(key));
         }
         return client;
     }
@@ -226,7 +322,8 @@ public class ModelWrapperImpl implements ModelWrapper {
     public Role removeRole(ModelKey<Role> key) {
         Role role = roles.remove(key);
         if (role !=  null) {
-            flushOnChange();
+            scopeIndex.removeRole(key);
+            flushOnChange(new ModelBatch().removeRole(key));
         }
         return role;
     }
@@ -291,12 +388,72 @@ public class ModelWrapperImpl implements ModelWrapper {
         return roles.keySet();
     }
 
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        return scopeIndex.getProjectKeys(organizationId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        return scopeIndex.getUserKeys(organizationId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        return scopeIndex.getUserKeys(organizationId, projectId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        return scopeIndex.getClientKeys(organizationId, projectId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        return scopeIndex.getRoleKeys(organizationId, projectId);
+    }
+
     @JsonIgnore
     @Override
     public Collection<Organization> getAllOrganizations() {
         return organizations.values().stream().collect(Collectors.toUnmodifiableList());
     }
 
+    @JsonIgnore
+    @Override
+    public Collection<Project> getAllProjects(OrganizationId organizationId) {
+        return getValues(projects, scopeIndex.getProjectKeys(organizationId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId) {
+        return getValues(users, scopeIndex.getUserKeys(organizationId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId) {
+        return getValues(users, scopeIndex.getUserKeys(organizationId, projectId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId) {
+        return getValues(clients, scopeIndex.getClientKeys(organizationId, projectId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId) {
+        return getValues(roles, scopeIndex.getRoleKeys(organizationId, projectId));
+    }
+
     @JsonIgnore
     @Override
     public Set<Map.Entry<ModelKey<Client>, Client>> getClientEntrySet() {
@@ -321,4 +478,15 @@ public class ModelWrapperImpl implements ModelWrapper {
         this.persistenceService = persistenceService;
     }
 
+    private static <T> List<T> getValues(Map<ModelKey<T>, T> values, Set<ModelKey<T>> keys) {
+        List<T> result = new ArrayList<>(keys.size());
+        for (ModelKey<T> key: keys) {
+            T value = values.get(key);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
 }
@@ -4,6 +4,7 @@ import one.microproject.iamservice.core.IAMModelBuilders;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.ClientProperties;
 import one.microproject.iamservice.core.model.KeyPairData;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.KeyPairSerialized;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.ModelId;
@@ -23,6 +24,7 @@ import one.microproject.iamservice.core.model.builders.ModelBuilder;
 import one.microproject.iamservice.core.model.builders.OrganizationBuilder;
 import one.microproject.iamservice.core.model.builders.ProjectBuilder;
 import one.microproject.iamservice.core.model.builders.UserBuilder;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.dto.OrganizationInfo;
 import one.microproject.iamservice.core.services.dto.Scope;
@@ -85,6 +87,16 @@ public final class ModelUtils {
     }
 
     public static ModelCache createDefaultModelCache(OrganizationId organizationId, ProjectId projectId, String iamAdminPassword, String iamClientSecret, String iamAdminEmail, ModelWrapper modelWrapper, Boolean enableClientCredentialsFlow) throws PKIException {
+        return createDefaultModelCache(organizationId, projectId, iamAdminPassword, iamClientSecret, iamAdminEmail, modelWrapper, enableClientCredentialsFlow, new KeyPairDataCache());
+    }
+
+    public static ModelCache createDefaultModelCache(OrganizationId organizationId, ProjectId projectId, String iamAdminPassword, String iamClientSecret, String iamAdminEmail, ModelWrapper modelWrapper, Boolean enableClientCredentialsFlow,
+                                                     KeyPairDataCache keyPairDataCache) throws PKIException {
+        return createDefaultModelCache(organizationId, projectId, iamAdminPassword, iamClientSecret, iamAdminEmail, modelWrapper, enableClientCredentialsFlow, keyPairDataCache, TokenUtils.DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public static ModelCache createDefaultModelCache(OrganizationId organizationId, ProjectId projectId, String iamAdminPassword, String iamClientSecret, String iamAdminEmail, ModelWrapper modelWrapper, Boolean enableClientCredentialsFlow,
+                                                     KeyPairDataCache keyPairDataCache, KeyPairProvider keyPairProvider) throws PKIException {
 
         Role iamGlobalAdminRole = IAMModelBuilders.roleBuilder(RoleId.from("iam-admin-global"), "Global IAM-Service admin role.")
                 .addPermissions(ModelCommons.GLOBAL_ADMIN_PERMISSIONS)
@@ -104,7 +116,7 @@ public final class ModelUtils {
         LOG.info("#MODEL: Default organizationId={}, projectId={}", IAM_ADMINS_ORG.getId(), IAM_ADMINS_PROJECT.getId());
         LOG.info("#MODEL:    Default admin userId={}", IAM_ADMIN_USER.getId());
         LOG.info("#MODEL:    Default client credentials clientId={} clientSecret={}", IAM_ADMIN_CLIENT_ID.getId(), iamClientSecret);
-        return IAMModelBuilders.modelBuilder(modelWrapper)
+        return IAMModelBuilders.modelBuilder(modelWrapper, keyPairDataCache, keyPairProvider)
                 .addOrganization(organizationId, IAM_ADMINS_NAME)
                 .addProject(projectId, IAM_ADMINS_NAME, IAM_AUDIENCE)
                     .addRole(iamGlobalAdminRole)
@@ -128,9 +140,9 @@ public final class ModelUtils {
         return "http://loclahost:8080/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/redirect";
     }
 
-    public static OrganizationInfo createOrganizationInfo(Organization organization) throws CertificateEncodingException {
+    public static OrganizationInfo createOrganizationInfo(Organization organization, KeyPairData keyPairData) throws CertificateEncodingException {
         Set<String> projects = organization.getProjects().stream().map(p -> p.getId()).collect(Collectors.toSet());
-        return new OrganizationInfo(organization.getId().getId(), organization.getName(), projects, organization.getKeyPairData());
+        return new OrganizationInfo(organization.getId().getId(), organization.getName(), projects, keyPairData);
     }
 
     public static KeyPairSerialized serializeKeyPair(KeyPairData keyPairData) throws PKIException {
@@ -145,6 +157,30 @@ public final class ModelUtils {
         return new KeyPairData(keyPairData.getId(), privateKey, certificate);
     }
 
+    /**
+     * Decode key pair stored in the model, use {@link KeyPairDataCache} on hot paths.
+     * @throws IllegalStateException in case serialized key pair can't be decoded.
+     */
+    public static KeyPairData decodeKeyPair(KeyPairSerialized keyPairSerialized) {
+        try {
+            return deserializeKeyPair(keyPairSerialized);
+        } catch (PKIException e) {
+            throw new IllegalStateException("Key pair " + keyPairSerialized.getId() + " can't be decoded.", e);
+        }
+    }
+
+    /**
+     * Decode only certificate of key pair stored in the model.
+     * @throws IllegalStateException in case certificate can't be decoded.
+     */
+    public static X509Certificate decodeCertificate(KeyPairSerialized keyPairSerialized) {
+        try {
+            return TokenUtils.deserializeX509Certificate(keyPairSerialized.getX509Certificate());
+        } catch (PKIException e) {
+            throw new IllegalStateException("Certificate of key " + keyPairSerialized.getId() + " can't be decoded.", e);
+        }
+    }
+
     public static String getSha512HashBase64(String data) throws NoSuchAlgorithmException {
         MessageDigest md = MessageDigest.getInstance("SHA-512");
         byte[] hash = md.digest(data.getBytes(StandardCharsets.UTF_8));
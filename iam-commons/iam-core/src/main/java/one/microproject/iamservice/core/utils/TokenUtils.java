@@ -11,12 +11,18 @@ import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.model.Permission;
 import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
 import one.microproject.iamservice.core.model.TokenType;
 import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.KeyPairProvider;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
 import one.microproject.iamservice.core.services.dto.IdTokenRequest;
 import one.microproject.iamservice.core.model.JWToken;
 import one.microproject.iamservice.core.services.dto.Scope;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
 import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
 import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
 import org.bouncycastle.cert.X509v3CertificateBuilder;
 import org.bouncycastle.operator.ContentSigner;
@@ -27,6 +33,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URI;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.KeyPair;
@@ -40,6 +47,7 @@ import java.security.SignatureException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.Base64;
 import java.util.Date;
@@ -53,10 +61,8 @@ import java.util.stream.Collectors;
 public final class TokenUtils {
 
     private static final String BC_PROVIDER = "BC";
-    private static final String SHA256_RSA = "SHA256withRSA";
     private static final String CN_DIR_NAME = "CN=";
     private static final String X509_TYPE = "X.509";
-    private static final String ALGORITHM = "RSA";
 
     public static final String ROLES_CLAIM = "roles";
     public static final String PERMISSIONS_CLAIM = "permissions";
@@ -69,6 +75,17 @@ public final class TokenUtils {
     public static final String TYP_ID = "typ";
     public static final String TYP_VALUE = "JWT";
 
+    /**
+     * Key pair provider generating key pairs on caller's thread.
+     */
+    public static final KeyPairProvider DEFAULT_KEY_PAIR_PROVIDER = algorithm -> {
+        try {
+            return generateKeyPair(algorithm);
+        } catch (Exception e) {
+            throw new PKIException(e);
+        }
+    };
+
     private TokenUtils() {
     }
 
@@ -89,6 +106,17 @@ public final class TokenUtils {
         }
     }
 
+    /**
+     * Filter effective permissions by scope. If scope is empty, precomputed scope of all effective permissions is returned
+     * without creating any intermediate collections.
+     * @param effectivePermissions effective permissions of user or client.
+     * @param scope subset of available permissions.
+     * @return permissions set filtered by scope.
+     */
+    public static Scope filterScopes(EffectivePermissions effectivePermissions, Scope scope) {
+        return effectivePermissions.filter(scope);
+    }
+
     public static Map<String, Set<String>> getPermissionsClaims(Set<Permission> permissions) {
         Map<String, Set<String>> claims = new HashMap<>();
         Set<String> values = permissions.stream().map(p->p.asStringValue()).collect(Collectors.toSet());
@@ -152,10 +180,30 @@ public final class TokenUtils {
     }
 
     public static KeyPair generateKeyPair() throws NoSuchAlgorithmException, NoSuchProviderException {
-        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(ALGORITHM, BC_PROVIDER);
+        return generateKeyPair(SigningAlgorithm.RS256);
+    }
+
+    public static KeyPair generateKeyPair(SigningAlgorithm algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return createKeyPairGenerator(algorithm).generateKeyPair();
+    }
+
+    public static KeyPairGenerator createKeyPairGenerator() throws NoSuchAlgorithmException, NoSuchProviderException {
+        return createKeyPairGenerator(SigningAlgorithm.RS256);
+    }
+
+    public static KeyPairGenerator createKeyPairGenerator(SigningAlgorithm algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyType(), BC_PROVIDER);
         SecureRandom secureRandom = SecureRandom.getInstance("NativePRNG");
-        keyPairGenerator.initialize(2048, secureRandom);
-        return keyPairGenerator.generateKeyPair();
+        if (SigningAlgorithm.ES256.equals(algorithm)) {
+            try {
+                keyPairGenerator.initialize(new ECGenParameterSpec(SigningAlgorithm.EC_CURVE_JCA), secureRandom);
+            } catch (InvalidAlgorithmParameterException e) {
+                throw new NoSuchAlgorithmException(e);
+            }
+        } else {
+            keyPairGenerator.initialize(2048, secureRandom);
+        }
+        return keyPairGenerator;
     }
 
     @SuppressWarnings("unchecked")
@@ -178,7 +226,7 @@ public final class TokenUtils {
         X500Name subject = new X500Name(CN_DIR_NAME + subjectName);
         SubjectPublicKeyInfo publicKeyInfo = SubjectPublicKeyInfo.getInstance(publicKey.getEncoded());
         X509v3CertificateBuilder certBuilder = new X509v3CertificateBuilder(issuer, serial, notBefore, notAfter, subject, publicKeyInfo);
-        JcaContentSignerBuilder jcaContentSignerBuilder = new JcaContentSignerBuilder(SHA256_RSA);
+        JcaContentSignerBuilder jcaContentSignerBuilder = new JcaContentSignerBuilder(SigningAlgorithm.fromKey(privateKey).getCertificateSignatureAlgorithm());
         ContentSigner signer = jcaContentSignerBuilder.build(privateKey);
         CertificateFactory certificateFactory = CertificateFactory.getInstance(X509_TYPE, BC_PROVIDER);
         byte[] certBytes = certBuilder.build(signer).getEncoded();
@@ -202,9 +250,13 @@ public final class TokenUtils {
     }
 
     public static KeyPairData createSelfSignedKeyPairData(String issuerAndSubject, Long duration, TimeUnit timeUnit) throws PKIException {
+        return createSelfSignedKeyPairData(issuerAndSubject, duration, timeUnit, DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public static KeyPairData createSelfSignedKeyPairData(String issuerAndSubject, Long duration, TimeUnit timeUnit, KeyPairProvider keyPairProvider) throws PKIException {
         try {
             KeyId keyId = KeyId.from(UUID.randomUUID().toString());
-            KeyPair keyPair = generateKeyPair();
+            KeyPair keyPair = keyPairProvider.getKeyPair(SigningAlgorithm.RS256);
             X509Certificate x509Certificate = createSelfSignedCertificate(issuerAndSubject, duration, timeUnit, keyPair);
             return new KeyPairData(keyId, keyPair.getPrivate(), x509Certificate);
         } catch (Exception e) {
@@ -213,9 +265,22 @@ public final class TokenUtils {
     }
 
     public static KeyPairData createSignedKeyPairData(String issuer, String subject, Long duration, TimeUnit timeUnit, PrivateKey privateKey) throws PKIException {
+        return createSignedKeyPairData(issuer, subject, duration, timeUnit, privateKey, SigningAlgorithm.RS256);
+    }
+
+    /**
+     * Create new key pair of given algorithm with certificate signed by issuer's private key.
+     * Issuer's key may use different algorithm than the created key pair.
+     */
+    public static KeyPairData createSignedKeyPairData(String issuer, String subject, Long duration, TimeUnit timeUnit, PrivateKey privateKey, SigningAlgorithm algorithm) throws PKIException {
+        return createSignedKeyPairData(issuer, subject, duration, timeUnit, privateKey, algorithm, DEFAULT_KEY_PAIR_PROVIDER);
+    }
+
+    public static KeyPairData createSignedKeyPairData(String issuer, String subject, Long duration, TimeUnit timeUnit, PrivateKey privateKey, SigningAlgorithm algorithm,
+                                                      KeyPairProvider keyPairProvider) throws PKIException {
         try {
             KeyId keyId = KeyId.from(UUID.randomUUID().toString());
-            KeyPair keyPair = generateKeyPair();
+            KeyPair keyPair = keyPairProvider.getKeyPair(algorithm);
             X509Certificate x509Certificate = createSignedCertificate(issuer, subject, duration, timeUnit, keyPair.getPublic(), privateKey);
             return new KeyPairData(keyId, keyPair.getPrivate(), x509Certificate);
         } catch (Exception e) {
@@ -264,7 +329,9 @@ public final class TokenUtils {
     public static PrivateKey deserializePrivateKey(String base64EncodedCertificate) throws PKIException {
         try {
             byte[] data = Base64.getDecoder().decode(base64EncodedCertificate);
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM, BC_PROVIDER);
+            ASN1ObjectIdentifier keyAlgorithm = PrivateKeyInfo.getInstance(data).getPrivateKeyAlgorithm().getAlgorithm();
+            SigningAlgorithm algorithm = X9ObjectIdentifiers.id_ecPublicKey.equals(keyAlgorithm) ? SigningAlgorithm.ES256 : SigningAlgorithm.RS256;
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyType(), BC_PROVIDER);
             PKCS8EncodedKeySpec pkcs8EncodedKeySpec = new PKCS8EncodedKeySpec(data);
             return keyFactory.generatePrivate(pkcs8EncodedKeySpec);
         } catch(Exception e) {
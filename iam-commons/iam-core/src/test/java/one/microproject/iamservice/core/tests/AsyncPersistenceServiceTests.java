@@ -0,0 +1,189 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.RoleImpl;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.dto.PersistenceQueueStats;
+import one.microproject.iamservice.core.services.impl.persistence.AsyncPersistenceServiceImpl;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_ORG;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_PROJECT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncPersistenceServiceTests {
+
+    @Test
+    void testChangesAreCoalescedIntoOneFlush() throws Exception {
+        RecordingPersistenceService delegate = new RecordingPersistenceService();
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 60_000, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(i), role(i)));
+            }
+            persistenceService.onModelChange(modelWrapper, new ModelBatch().removeRole(roleKey(0)));
+            assertEquals(11, persistenceService.getStats().getDepth());
+            assertTrue(delegate.batches.isEmpty());
+        }
+        assertEquals(1, delegate.batches.size());
+        assertEquals(10, delegate.batches.get(0).getRoles().size());
+        assertNull(delegate.batches.get(0).getRoles().get(roleKey(0)));
+        assertEquals(0, delegate.snapshots.get());
+    }
+
+    @Test
+    void testMaxBatchSizeTriggersFlush() throws Exception {
+        RecordingPersistenceService delegate = new RecordingPersistenceService();
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 60_000, 5)) {
+            for (int i = 0; i < 5; i++) {
+                persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(i), role(i)));
+            }
+            persistenceService.awaitDurable();
+            PersistenceQueueStats stats = persistenceService.getStats();
+            assertEquals(0, stats.getDepth());
+            assertEquals(5, stats.getFlushedChanges());
+            assertTrue(stats.getFlushes() >= 1);
+        }
+    }
+
+    @Test
+    void testSnapshotSupersedesPendingChanges() throws Exception {
+        RecordingPersistenceService delegate = new RecordingPersistenceService();
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 60_000, 1000)) {
+            persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(0), role(0)));
+            persistenceService.onModelChange(modelWrapper);
+            assertEquals(1, delegate.snapshots.get());
+            assertTrue(delegate.batches.isEmpty());
+        }
+        assertTrue(delegate.batches.isEmpty());
+    }
+
+    @Test
+    void testAwaitDurableBlocksUntilFlushed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingPersistenceService delegate = new RecordingPersistenceService(release);
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 0, 1000)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(0), role(0)));
+                    persistenceService.awaitDurable();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            thread.join(200);
+            assertTrue(thread.isAlive());
+            release.countDown();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertEquals(1, delegate.batches.size());
+        }
+    }
+
+    @Test
+    void testFailedFlushIsReportedToWaiters() throws Exception {
+        PersistenceService delegate = new PersistenceService() {
+            @Override
+            public void onModelChange(ModelWrapper modelWrapper) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 0, 1000)) {
+            persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(0), role(0)));
+            assertThrows(IOException.class, persistenceService::awaitDurable);
+            PersistenceQueueStats stats = persistenceService.getStats();
+            assertEquals(1, stats.getFailures());
+            assertEquals(0, stats.getFlushedChanges());
+            assertEquals(1, stats.getDepth());
+        }
+    }
+
+    @Test
+    void testFailedFlushIsRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        RecordingPersistenceService delegate = new RecordingPersistenceService() {
+            @Override
+            public void onModelChange(ModelWrapper modelWrapper, ModelBatch changes) throws IOException {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IOException("disk full");
+                }
+                super.onModelChange(modelWrapper, changes);
+            }
+        };
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        try (AsyncPersistenceServiceImpl persistenceService = new AsyncPersistenceServiceImpl(delegate, 0, 1000)) {
+            persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(0), role(0)));
+            assertThrows(IOException.class, persistenceService::awaitDurable);
+            persistenceService.onModelChange(modelWrapper, new ModelBatch().putRole(roleKey(1), role(1)));
+            //failed batch is merged with the new change and persisted by retry
+            persistenceService.awaitDurable();
+            assertEquals(1, delegate.batches.size());
+            assertEquals(2, delegate.batches.get(0).getRoles().size());
+            PersistenceQueueStats stats = persistenceService.getStats();
+            assertEquals(1, stats.getFailures());
+            assertEquals(2, stats.getFlushedChanges());
+            assertEquals(0, stats.getDepth());
+        }
+    }
+
+    private static ModelKey<Role> roleKey(int i) {
+        return ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-" + i));
+    }
+
+    private static Role role(int i) {
+        return new RoleImpl(RoleId.from("role-" + i), "name-" + i, Set.of());
+    }
+
+    private static class RecordingPersistenceService implements PersistenceService {
+
+        private final List<ModelBatch> batches = new CopyOnWriteArrayList<>();
+        private final AtomicInteger snapshots = new AtomicInteger();
+        private final CountDownLatch release;
+
+        RecordingPersistenceService() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingPersistenceService(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onModelChange(ModelWrapper modelWrapper) {
+            snapshots.incrementAndGet();
+        }
+
+        @Override
+        public void onModelChange(ModelWrapper modelWrapper, ModelBatch changes) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            batches.add(changes);
+        }
+
+    }
+
+}
@@ -20,13 +20,20 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -73,4 +80,64 @@ class AuthorizationCodeCacheTests {
         assertEquals(0, purged);
     }
 
+    @Test
+    @Order(3)
+    void testConcurrentRedemption() throws Exception {
+        Code code = Code.from(UUID.randomUUID().toString());
+        authorizationCodeCache.save(code, createContext(code, new Date()));
+        AuthorizationCodeContext context = authorizationCodeCache.get(code).orElseThrow();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> authorizationCodeCache.redeem(code, context));
+            }
+            int redeemed = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    redeemed++;
+                }
+            }
+            assertEquals(1, redeemed);
+            assertTrue(authorizationCodeCache.get(code).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(4)
+    void testSetScopeInvalidatesRedemptionOfStaleContext() {
+        Code code = Code.from(UUID.randomUUID().toString());
+        authorizationCodeCache.save(code, createContext(code, new Date()));
+        AuthorizationCodeContext staleContext = authorizationCodeCache.get(code).orElseThrow();
+        Optional<AuthorizationCodeContext> updatedContext = authorizationCodeCache.setScope(code, new Scope(Set.of("manage-projects")));
+        assertTrue(updatedContext.isPresent());
+        assertEquals(new Scope(Set.of("manage-projects")), updatedContext.get().getScope());
+        assertFalse(authorizationCodeCache.redeem(code, staleContext));
+        AuthorizationCodeContext context = authorizationCodeCache.get(code).orElseThrow();
+        assertTrue(authorizationCodeCache.redeem(code, context));
+        assertTrue(authorizationCodeCache.setScope(code, scope).isEmpty());
+    }
+
+    @Test
+    @Order(5)
+    void testPurgeExpiredCodes() {
+        Code expiredCode = Code.from(UUID.randomUUID().toString());
+        Code validCode = Code.from(UUID.randomUUID().toString());
+        Date issued = new Date(System.currentTimeMillis() - timeUnit.toMillis(maxDuration) - 1000);
+        authorizationCodeCache.save(expiredCode, createContext(expiredCode, issued));
+        authorizationCodeCache.save(validCode, createContext(validCode, new Date()));
+        assertTrue(authorizationCodeCache.get(expiredCode).isEmpty());
+        assertEquals(1, authorizationCodeCache.purgeCodes());
+        assertEquals(0, authorizationCodeCache.purgeCodes());
+        assertTrue(authorizationCodeCache.verifyAndRemove(validCode).isPresent());
+    }
+
+    private static AuthorizationCodeContext createContext(Code code, Date issued) {
+        return new AuthorizationCodeContext(code, issuerUri, OrganizationId.from("org01"), ProjectId.from("proj01"),
+                ClientId.from("cl01"), UserId.from("usr01"), UUID.randomUUID().toString(), issued, scope, audience,
+                "", "", PKCEMethod.PLAIN);
+    }
+
 }
@@ -78,7 +78,7 @@ class ClientCCAuthenticationTests {
         tokenValidator = new TokenValidatorImpl();
         authorizationCodeCache = new AuthorizationCodeCacheImpl(10L, TimeUnit.MINUTES, new CacheHolderImpl<>());
         modelCache = ModelUtils.createDefaultModelCache(adminPassword, adminSecret, adminEmail, Boolean.FALSE);
-        tokenCache = new TokenCacheImpl(modelCache, tokenValidator, new CacheHolderImpl<>());
+        tokenCache = new TokenCacheImpl(new CacheHolderImpl<>());
         authenticationService = new AuthenticationServiceImpl(modelCache, tokenCache, authorizationCodeCache, new TokenGeneratorImpl(), tokenValidator);
         resourceServerService = new ResourceServerServiceImpl(modelCache, tokenCache, tokenValidator);
         idTokenRequest = new IdTokenRequest("http://localhost:8080/iam-service", "ad4u64s", "");
@@ -0,0 +1,236 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.ModelId;
+import one.microproject.iamservice.core.model.ModelImpl;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Permission;
+import one.microproject.iamservice.core.model.PermissionId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
+import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.services.impl.persistence.LoggingPersistenceServiceImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelChangeListener;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.security.Security;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class EffectivePermissionsTests {
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("organization-0");
+    private static final ProjectId PROJECT_ID = ProjectId.from("project-0");
+    private static final UserId USER_ID = UserId.from("user-0");
+    private static final UserId OTHER_USER_ID = UserId.from("user-1");
+    private static final ClientId CLIENT_ID = ClientId.from("client-0");
+    private static final RoleId ROLE_ID = RoleId.from("role-0");
+    private static final PermissionId PERMISSION_ID = PermissionId.from("service1.resource-4.action");
+
+    private static ModelCache modelCache;
+
+    @BeforeAll
+    private static void init() throws PKIException {
+        Security.addProvider(new BouncyCastleProvider());
+        modelCache = ModelUtils.createModel(1, 1, 1, 2, 4, 2, createInMemoryModelWrapper("effective-permissions"));
+    }
+
+    @Test
+    @Order(1)
+    void effectivePermissionsAreCached() {
+        EffectivePermissions permissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        assertSame(permissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertEquals(permissions.getPermissions(), modelCache.getPermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertEquals(permissions.getPermissions().size(), permissions.getScope().getValues().size());
+        assertSame(permissions.getScope(), permissions.filter(Scope.empty()));
+    }
+
+    @Test
+    @Order(2)
+    void filterByRequestedScope() {
+        EffectivePermissions permissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        String available = permissions.getScope().getValues().iterator().next();
+        Scope filtered = permissions.filter(new Scope(Set.of(available, "unknown.resource.action")));
+        assertEquals(Set.of(available), filtered.getValues());
+    }
+
+    @Test
+    @Order(3)
+    void addPermissionToRoleInvalidatesRoleHolders() {
+        EffectivePermissions userPermissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        EffectivePermissions clientPermissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID);
+        assertFalse(containsPermission(userPermissions, PERMISSION_ID));
+        assertTrue(modelCache.addPermission(ORGANIZATION_ID, PROJECT_ID, new Permission("service1", "resource-4", "action")));
+        assertSame(userPermissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertTrue(modelCache.addPermissionToRole(ORGANIZATION_ID, PROJECT_ID, ROLE_ID, PERMISSION_ID));
+        assertTrue(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID), PERMISSION_ID));
+        assertTrue(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID), PERMISSION_ID));
+        assertNotSame(clientPermissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID));
+    }
+
+    @Test
+    @Order(4)
+    void removeRoleInvalidatesOnlyTouchedPrincipal() {
+        EffectivePermissions otherUserPermissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, OTHER_USER_ID);
+        assertTrue(modelCache.removeRole(ORGANIZATION_ID, PROJECT_ID, USER_ID, ROLE_ID));
+        assertFalse(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID), PERMISSION_ID));
+        assertSame(otherUserPermissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, OTHER_USER_ID));
+        assertTrue(modelCache.assignRole(ORGANIZATION_ID, PROJECT_ID, USER_ID, ROLE_ID));
+        assertTrue(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID), PERMISSION_ID));
+    }
+
+    @Test
+    @Order(5)
+    void removePermissionFromRoleInvalidatesRoleHolders() {
+        assertTrue(modelCache.removePermissionFromRole(ORGANIZATION_ID, PROJECT_ID, ROLE_ID, PERMISSION_ID));
+        assertFalse(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID), PERMISSION_ID));
+        assertFalse(containsPermission(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID), PERMISSION_ID));
+        assertTrue(modelCache.removePermission(ORGANIZATION_ID, PROJECT_ID, PERMISSION_ID));
+    }
+
+    @Test
+    @Order(6)
+    void unknownPrincipalHasNoPermissions() {
+        assertTrue(modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, UserId.from("unknown")).getPermissions().isEmpty());
+        assertTrue(modelCache.getPermissions(ORGANIZATION_ID, ProjectId.from("unknown"), CLIENT_ID).isEmpty());
+    }
+
+    @Test
+    @Order(7)
+    void sharedModelChangesInvalidateOtherInstances() throws PKIException {
+        SharedModelWrapper modelWrapper = new SharedModelWrapper();
+        ModelCache instanceA = ModelUtils.createModel(1, 1, 1, 2, 4, 2, modelWrapper);
+        ModelCache instanceB = new ModelCacheImpl(modelWrapper);
+        EffectivePermissions permissions = instanceB.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        assertFalse(permissions.getPermissions().isEmpty());
+        assertSame(permissions, instanceB.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertFalse(instanceB.getPermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID).isEmpty());
+        long revision = instanceB.getRevision(ORGANIZATION_ID, PROJECT_ID);
+
+        assertTrue(instanceA.remove(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertTrue(instanceB.getPermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID).isEmpty());
+        assertNotEquals(revision, instanceB.getRevision(ORGANIZATION_ID, PROJECT_ID));
+        revision = instanceB.getRevision(ORGANIZATION_ID, PROJECT_ID);
+        assertTrue(instanceA.removeWithDependencies(ORGANIZATION_ID, PROJECT_ID));
+        assertTrue(instanceB.getPermissions(ORGANIZATION_ID, PROJECT_ID, CLIENT_ID).isEmpty());
+        assertNotEquals(revision, instanceB.getRevision(ORGANIZATION_ID, PROJECT_ID));
+    }
+
+    @Test
+    @Order(8)
+    void sharedModelIsNotCachedWithoutTracking() throws PKIException {
+        SharedModelWrapper modelWrapper = new SharedModelWrapper();
+        ModelCache modelCache = ModelUtils.createModel(1, 1, 1, 2, 4, 2, modelWrapper);
+        modelWrapper.setTracking(false);
+        EffectivePermissions permissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        assertFalse(permissions.getPermissions().isEmpty());
+        assertNotSame(permissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        modelWrapper.setTracking(true);
+        permissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID);
+        assertSame(permissions, modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+    }
+
+    private static boolean containsPermission(EffectivePermissions permissions, PermissionId permissionId) {
+        return permissions.getPermissions().stream().anyMatch(p -> p.getId().equals(permissionId));
+    }
+
+    /**
+     * In-memory model shared by several {@link ModelCache} instances, reports every write to change listeners
+     * like change stream of shared persistence does.
+     */
+    private static class SharedModelWrapper extends ModelWrapperImpl {
+
+        private final List<ModelChangeListener> listeners = new CopyOnWriteArrayList<>();
+        private volatile boolean tracking = true;
+
+        SharedModelWrapper() {
+            super(new ModelImpl(ModelId.from("shared-model"), ""), new LoggingPersistenceServiceImpl(), false);
+        }
+
+        @Override
+        public boolean isShared() {
+            return true;
+        }
+
+        @Override
+        public boolean addChangeListener(ModelChangeListener listener) {
+            listeners.add(listener);
+            listener.onTrackingChanged(tracking);
+            return true;
+        }
+
+        void setTracking(boolean tracking) {
+            this.tracking = tracking;
+            listeners.forEach(listener -> listener.onTrackingChanged(tracking));
+        }
+
+        @Override
+        public void putUser(ModelKey<User> key, User value) {
+            super.putUser(key, value);
+            changed(key);
+        }
+
+        @Override
+        public void putClient(ModelKey<Client> key, Client value) {
+            super.putClient(key, value);
+            changed(key);
+        }
+
+        @Override
+        public void putRole(ModelKey<Role> key, Role value) {
+            super.putRole(key, value);
+            changed(key);
+        }
+
+        @Override
+        public User removeUser(ModelKey<User> key) {
+            User user = super.removeUser(key);
+            changed(key);
+            return user;
+        }
+
+        @Override
+        public void write(ModelBatch batch) {
+            super.write(batch);
+            batch.getUsers().keySet().forEach(this::changed);
+            batch.getClients().keySet().forEach(this::changed);
+            batch.getRoles().keySet().forEach(this::changed);
+            batch.getProjects().keySet().forEach(this::changed);
+        }
+
+        private void changed(ModelKey<?> key) {
+            if (tracking) {
+                listeners.forEach(listener -> listener.onChange(key));
+            }
+        }
+
+    }
+
+}
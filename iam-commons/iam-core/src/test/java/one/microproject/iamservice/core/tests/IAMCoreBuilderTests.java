@@ -1,11 +1,14 @@
 package one.microproject.iamservice.core.tests;
 
 import one.microproject.iamservice.core.IAMCoreBuilder;
+import one.microproject.iamservice.core.services.dto.KeyPairPoolStats;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IAMCoreBuilderTests {
 
@@ -44,4 +47,20 @@ class IAMCoreBuilderTests {
         iamCore.close();
     }
 
+    @Test
+    void testBuilderWithKeyPairPool() throws Exception {
+        IAMCoreBuilder.IAMCore iamCore = IAMCoreBuilder.builder()
+                .withBCProvider()
+                .withKeyPairPool(4, 1)
+                .withDefaultModel("secret", "top-secret", "admin@email.com", Boolean.FALSE)
+                .build();
+        assertNotNull(iamCore.getModelCache());
+        assertTrue(iamCore.getKeyPairPool().isPresent());
+        KeyPairPoolStats stats = iamCore.getKeyPairPool().get().getStats();
+        assertEquals(4, stats.getCapacity());
+        //organization, project and admin user key pairs of default model are taken from the pool
+        assertEquals(3, stats.getHits() + stats.getStarvations());
+        iamCore.close();
+    }
+
 }
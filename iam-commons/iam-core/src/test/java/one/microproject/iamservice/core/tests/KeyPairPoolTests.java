@@ -0,0 +1,80 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.OrganizationImpl;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.services.KeyPairPool;
+import one.microproject.iamservice.core.services.dto.KeyPairPoolStats;
+import one.microproject.iamservice.core.services.impl.keys.KeyPairPoolImpl;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.Security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyPairPoolTests {
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void poolIsRefilledUpToCapacity() throws Exception {
+        try (KeyPairPool keyPairPool = new KeyPairPoolImpl(2, 1)) {
+            keyPairPool.start();
+            awaitDepth(keyPairPool, 2);
+            KeyPair first = keyPairPool.getKeyPair();
+            KeyPair second = keyPairPool.getKeyPair();
+            assertNotEquals(first.getPublic(), second.getPublic());
+            KeyPairPoolStats stats = keyPairPool.getStats();
+            assertEquals(2, stats.getCapacity());
+            assertEquals(2, stats.getHits());
+            assertEquals(0, stats.getStarvations());
+        }
+    }
+
+    @Test
+    void emptyPoolGeneratesKeyPairOnCallerThread() throws Exception {
+        try (KeyPairPool keyPairPool = new KeyPairPoolImpl(1, 1)) {
+            assertNotNull(keyPairPool.getKeyPair());
+            KeyPairPoolStats stats = keyPairPool.getStats();
+            assertEquals(0, stats.getDepth());
+            assertEquals(0, stats.getHits());
+            assertEquals(1, stats.getStarvations());
+        }
+    }
+
+    @Test
+    void keyPairDataIsCreatedFromPool() throws Exception {
+        try (KeyPairPool keyPairPool = new KeyPairPoolImpl(1, 1)) {
+            keyPairPool.start();
+            awaitDepth(keyPairPool, 1);
+            OrganizationImpl organization = new OrganizationImpl(OrganizationId.from("organization-001"), "name", keyPairPool);
+            TokenUtils.verifySelfSignedCertificate(organization.getKeyPairData().getX509Certificate());
+            assertEquals(1, keyPairPool.getStats().getHits());
+        }
+    }
+
+    @Test
+    void invalidPoolSize() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyPairPoolImpl(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new KeyPairPoolImpl(1, 0));
+    }
+
+    private static void awaitDepth(KeyPairPool keyPairPool, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000L;
+        while (keyPairPool.getStats().getDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(depth, keyPairPool.getStats().getDepth());
+    }
+
+}
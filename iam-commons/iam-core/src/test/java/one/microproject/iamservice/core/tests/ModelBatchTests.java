@@ -0,0 +1,75 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.Security;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelBatchTests {
+
+    private static final OrganizationId ORGANIZATION_0 = OrganizationId.from("organization-0");
+    private static final OrganizationId ORGANIZATION_1 = OrganizationId.from("organization-1");
+    private static final ProjectId PROJECT_0 = ProjectId.from("project-0");
+    private static final ProjectId PROJECT_1 = ProjectId.from("project-1");
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void testRemoveWithDependenciesIsSingleWrite() throws PKIException {
+        AtomicInteger flushes = new AtomicInteger();
+        PersistenceService persistenceService = modelWrapper -> flushes.incrementAndGet();
+        ModelWrapper modelWrapper = ModelUtils.createModelWrapper("model-001", persistenceService, true);
+        ModelCache modelCache = ModelUtils.createModel(2, 2, 2, 2, 3, 2, modelWrapper);
+
+        flushes.set(0);
+        assertTrue(modelCache.removeWithDependencies(ORGANIZATION_0, PROJECT_0));
+        assertEquals(1, flushes.get());
+        assertTrue(modelCache.getProject(ORGANIZATION_0, PROJECT_0).isEmpty());
+        assertTrue(modelCache.getUsers(ORGANIZATION_0, PROJECT_0).isEmpty());
+        assertTrue(modelCache.getClients(ORGANIZATION_0, PROJECT_0).isEmpty());
+        assertTrue(modelCache.getRoles(ORGANIZATION_0, PROJECT_0).isEmpty());
+        assertEquals(2, modelCache.getUsers(ORGANIZATION_0, PROJECT_1).size());
+        assertFalse(modelCache.getOrganization(ORGANIZATION_0).get().getProjects().contains(PROJECT_0));
+
+        flushes.set(0);
+        assertTrue(modelCache.removeWithDependencies(ORGANIZATION_1));
+        assertEquals(1, flushes.get());
+        assertTrue(modelCache.getOrganization(ORGANIZATION_1).isEmpty());
+        assertTrue(modelCache.getProjects(ORGANIZATION_1).isEmpty());
+        assertTrue(modelCache.getUsers(ORGANIZATION_1).isEmpty());
+        assertFalse(modelCache.removeWithDependencies(ORGANIZATION_1));
+    }
+
+    @Test
+    void testLastChangeOfKeyWins() throws PKIException {
+        ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper("model-001");
+        ModelCache modelCache = ModelUtils.createModel(1, 1, 1, 1, 1, 1, modelWrapper);
+        ModelBatch batch = new ModelBatch();
+        modelWrapper.getUserKeys(ORGANIZATION_0, PROJECT_0).forEach(key -> batch
+                .removeUser(key)
+                .putUser(key, modelWrapper.getUser(key)));
+        modelWrapper.getRoleKeys(ORGANIZATION_0, PROJECT_0).forEach(batch::removeRole);
+        assertEquals(2, batch.size());
+        modelWrapper.write(batch);
+        assertEquals(1, modelCache.getUsers(ORGANIZATION_0, PROJECT_0).size());
+        assertTrue(modelCache.getRoles(ORGANIZATION_0, PROJECT_0).isEmpty());
+    }
+
+}
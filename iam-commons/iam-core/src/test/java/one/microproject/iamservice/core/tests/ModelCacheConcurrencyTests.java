@@ -0,0 +1,288 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.ClientProperties;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.OrganizationImpl;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Permission;
+import one.microproject.iamservice.core.model.PermissionId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.CreateClientRequest;
+import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
+import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that lock-free lookups and striped mutations of {@link ModelCache} produce
+ * the same model as serial execution of the same operations.
+ */
+class ModelCacheConcurrencyTests {
+
+    private static final int ORGANIZATIONS = 2;
+    private static final int PROJECTS = 2;
+    private static final int CLIENTS = 2;
+    private static final int USERS = 2;
+    private static final int PERMISSIONS = 3;
+    private static final int ROLES = 2;
+    private static final int ROUNDS = 50;
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void concurrentMutationsAreEquivalentToSerialExecution() throws Exception {
+        ModelCache serial = ModelUtils.createModel(ORGANIZATIONS, PROJECTS, CLIENTS, USERS, PERMISSIONS, ROLES, createInMemoryModelWrapper("serial"));
+        ModelCache concurrent = ModelUtils.createModel(ORGANIZATIONS, PROJECTS, CLIENTS, USERS, PERMISSIONS, ROLES, createInMemoryModelWrapper("concurrent"));
+        assertEquals(snapshot(serial), snapshot(concurrent));
+
+        for (OrganizationId organizationId: organizationIds()) {
+            for (ProjectId projectId: projectIds()) {
+                for (Consumer<ModelCache> operation: projectOperations(organizationId, projectId)) {
+                    operation.accept(serial);
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ORGANIZATIONS * PROJECTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (OrganizationId organizationId: organizationIds()) {
+                for (ProjectId projectId: projectIds()) {
+                    List<Consumer<ModelCache>> operations = projectOperations(organizationId, projectId);
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        operations.forEach(o -> o.accept(concurrent));
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future: futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(snapshot(serial), snapshot(concurrent));
+    }
+
+    @Test
+    void lookupsDuringMutationsNeverObserveInconsistentCollections() throws Exception {
+        ModelCache modelCache = ModelUtils.createModel(ORGANIZATIONS, PROJECTS, CLIENTS, USERS, PERMISSIONS, ROLES, createInMemoryModelWrapper("read-write"));
+        OrganizationId organizationId = OrganizationId.from("organization-0");
+        ProjectId projectId = ProjectId.from("project-0");
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    int lookups = 0;
+                    while (running.get()) {
+                        Collection<Client> clients = modelCache.getClients(organizationId, projectId);
+                        clients.forEach(c -> assertNotNull(c));
+                        modelCache.getUsers(organizationId).forEach(u -> assertNotNull(u));
+                        Set<Permission> permissions = modelCache.getPermissions(organizationId, projectId, UserId.from("user-0"));
+                        assertNotNull(permissions);
+                        lookups++;
+                    }
+                    return lookups;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < ROUNDS * 4; i++) {
+                    ClientId clientId = ClientId.from("client-rw-" + i);
+                    modelCache.add(organizationId, projectId, new CreateClientRequest(clientId, "name", 3600L, 3600L, "secret",
+                            ClientProperties.from("")));
+                    modelCache.assignRole(organizationId, projectId, clientId, RoleId.from("role-0"));
+                    modelCache.removeRole(organizationId, projectId, UserId.from("user-0"), RoleId.from("role-" + (i % ROLES)));
+                    modelCache.assignRole(organizationId, projectId, UserId.from("user-0"), RoleId.from("role-" + (i % ROLES)));
+                    modelCache.remove(organizationId, projectId, clientId);
+                }
+                return null;
+            });
+            writer.get(60, TimeUnit.SECONDS);
+            running.set(false);
+            for (Future<Integer> reader: readers) {
+                assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(CLIENTS, modelCache.getClients(organizationId, projectId).size());
+        Optional<Project> project = modelCache.getProject(organizationId, projectId);
+        assertTrue(project.isPresent());
+        assertEquals(CLIENTS, project.get().getClients().size());
+    }
+
+    @Test
+    void concurrentProjectCreationWithinOrganization() throws Exception {
+        ModelCache modelCache = ModelUtils.createModel(1, 0, 0, 0, 0, 0, createInMemoryModelWrapper("projects"));
+        OrganizationId organizationId = OrganizationId.from("organization-0");
+        int projects = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(projects);
+        try {
+            List<Future<Optional<Project>>> futures = new ArrayList<>();
+            for (int i = 0; i < projects; i++) {
+                CreateProjectRequest request = new CreateProjectRequest(ProjectId.from("p-" + i), "name", Set.of());
+                futures.add(executor.submit(() -> modelCache.add(organizationId, request)));
+            }
+            for (Future<Optional<Project>> future: futures) {
+                assertTrue(future.get(60, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Optional<Organization> organization = modelCache.getOrganization(organizationId);
+        assertTrue(organization.isPresent());
+        assertEquals(projects, organization.get().getProjects().size());
+        assertEquals(projects, modelCache.getProjects(organizationId).size());
+        assertFalse(modelCache.remove(organizationId));
+    }
+
+    @Test
+    void concurrentOrganizationRemovalsDoNotDeadlock() throws Exception {
+        int organizations = 4;
+        int projects = 8;
+        for (int round = 0; round < 10; round++) {
+            //two stripes only, projects of different organizations map to both project stripes in different order
+            ModelCache modelCache = new ModelCacheImpl(createInMemoryModelWrapper("remove-" + round), 2);
+            for (int i = 0; i < organizations; i++) {
+                OrganizationId organizationId = OrganizationId.from("organization-" + i);
+                modelCache.add(new OrganizationImpl(organizationId, "name"));
+                for (int j = 0; j < projects; j++) {
+                    modelCache.add(organizationId, new CreateProjectRequest(ProjectId.from("p-" + ((i + j) % projects)), "name", Set.of(), SigningAlgorithm.ES256));
+                }
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(organizations);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int i = 0; i < organizations; i++) {
+                    OrganizationId organizationId = OrganizationId.from("organization-" + i);
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return modelCache.removeWithDependencies(organizationId);
+                    }));
+                }
+                start.countDown();
+                for (Future<Boolean> future: futures) {
+                    assertTrue(future.get(60, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertTrue(modelCache.getOrganizations().isEmpty());
+        }
+    }
+
+    private static List<Consumer<ModelCache>> projectOperations(OrganizationId organizationId, ProjectId projectId) {
+        List<Consumer<ModelCache>> operations = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            int round = i;
+            RoleId roleId = RoleId.from("role-" + (round % ROLES));
+            PermissionId permissionId = PermissionId.from("service1.resource-" + (round % PERMISSIONS) + ".action");
+            UserId userId = UserId.from("user-" + (round % USERS));
+            ClientId clientId = ClientId.from("client-" + (round % CLIENTS));
+            if (round % 3 == 0) {
+                operations.add(m -> m.removeRole(organizationId, projectId, userId, roleId));
+                operations.add(m -> m.removePermissionFromRole(organizationId, projectId, roleId, permissionId));
+                operations.add(m -> m.removeRole(organizationId, projectId, clientId, roleId));
+            } else {
+                operations.add(m -> m.assignRole(organizationId, projectId, userId, roleId));
+                operations.add(m -> m.addPermissionToRole(organizationId, projectId, roleId, permissionId));
+                operations.add(m -> m.assignRole(organizationId, projectId, clientId, roleId));
+            }
+            operations.add(m -> m.setProperty(organizationId, projectId, "round", String.valueOf(round)));
+        }
+        return operations;
+    }
+
+    private static Map<String, Object> snapshot(ModelCache modelCache) {
+        Map<String, Object> snapshot = new TreeMap<>();
+        for (OrganizationId organizationId: organizationIds()) {
+            for (ProjectId projectId: projectIds()) {
+                String prefix = organizationId.getId() + "/" + projectId.getId() + "/";
+                Project project = modelCache.getProject(organizationId, projectId).orElseThrow();
+                snapshot.put(prefix + "properties", new HashMap<>(project.getProperties()));
+                snapshot.put(prefix + "permissions", permissionIds(modelCache.getPermissions(organizationId, projectId)));
+                for (Role role: modelCache.getRoles(organizationId, projectId)) {
+                    snapshot.put(prefix + "role/" + role.getId().getId(), permissionIds(role.getPermissions()));
+                }
+                for (User user: modelCache.getUsers(organizationId, projectId)) {
+                    UserId userId = user.getId();
+                    snapshot.put(prefix + "user/" + userId.getId(), permissionIds(modelCache.getPermissions(organizationId, projectId, userId)));
+                }
+                for (Client client: modelCache.getClients(organizationId, projectId)) {
+                    ClientId clientId = client.getId();
+                    snapshot.put(prefix + "client/" + clientId.getId(), permissionIds(modelCache.getPermissions(organizationId, projectId, clientId)));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static Set<String> permissionIds(Collection<Permission> permissions) {
+        Set<String> result = new TreeSet<>();
+        permissions.forEach(p -> result.add(p.asStringValue()));
+        return result;
+    }
+
+    private static List<OrganizationId> organizationIds() {
+        List<OrganizationId> result = new ArrayList<>();
+        for (int i = 0; i < ORGANIZATIONS; i++) {
+            result.add(OrganizationId.from("organization-" + i));
+        }
+        return result;
+    }
+
+    private static List<ProjectId> projectIds() {
+        List<ProjectId> result = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            result.add(ProjectId.from("project-" + i));
+        }
+        return result;
+    }
+
+}
@@ -1,16 +1,22 @@
 package one.microproject.iamservice.core.tests;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
+import one.microproject.iamservice.core.model.KeyPairSerialized;
 import one.microproject.iamservice.core.model.Organization;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKIException;
 import one.microproject.iamservice.core.model.PermissionId;
 import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.keys.ModelKey;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -21,12 +27,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.Security;
+import java.security.cert.X509Certificate;
 import java.util.Collection;
 import java.util.Optional;
 
 import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -75,6 +83,15 @@ class ModelPerformanceTests {
         assertEquals(organizations*projects*clients, modelWrapper.getClients().size());
         assertEquals(organizations*projects*users, modelWrapper.getUsers().size());
         assertEquals(organizations*projects*roles, modelWrapper.getRoles().size());
+        OrganizationId organizationId = OrganizationId.from("organization-1");
+        ProjectId projectId = ProjectId.from("project-2");
+        assertEquals(projects, modelWrapper.getProjectKeys(organizationId).size());
+        assertEquals(projects*users, modelWrapper.getUserKeys(organizationId).size());
+        assertEquals(users, modelWrapper.getUserKeys(organizationId, projectId).size());
+        assertEquals(clients, modelWrapper.getClientKeys(organizationId, projectId).size());
+        assertEquals(roles, modelWrapper.getRoleKeys(organizationId, projectId).size());
+        assertEquals(0, modelWrapper.getUserKeys(OrganizationId.from("organization-x")).size());
+        assertEquals(0, modelWrapper.getClientKeys(organizationId, ProjectId.from("project-x")).size());
     }
     
     @Test
@@ -135,6 +152,8 @@ class ModelPerformanceTests {
         assertEquals(organizations*projects*clients, modelWrapper.getClients().size());
         assertEquals(0, modelWrapper.getUsers().size());
         assertEquals(organizations*projects*roles, modelWrapper.getRoles().size());
+        assertEquals(0, modelWrapper.getUserKeys(OrganizationId.from("organization-0")).size());
+        assertEquals(clients, modelWrapper.getClientKeys(OrganizationId.from("organization-0"), ProjectId.from("project-0")).size());
     }
 
     @Test
@@ -225,4 +244,57 @@ class ModelPerformanceTests {
         assertEquals(0, modelWrapper.getRoles().size());
     }
 
+    @Test
+    @Order(14)
+    void loadLargeModelWithLazyKeyPairs() throws Exception {
+        ModelWrapper largeModelWrapper = createInMemoryModelWrapper("large");
+        ModelUtils.createModel(2, 2, 1, 50, 2, 1, largeModelWrapper);
+        String serializedModel = new ObjectMapper().writeValueAsString(largeModelWrapper);
+        ModelKey<User> userKey = ModelKey.from(User.class, OrganizationId.from("organization-1"), ProjectId.from("project-1"), UserId.from("user-7"));
+        byte[] expectedPrivateKey = largeModelWrapper.getUser(userKey).getPrivateKey().getEncoded();
+        X509Certificate expectedCertificate = largeModelWrapper.getUser(userKey).getCertificate();
+        KeyPairDataCache keyPairDataCache = new KeyPairDataCache(16);
+        System.gc();
+        long memBefore = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long timeStamp = System.nanoTime();
+        ModelWrapper loadedModelWrapper = new ObjectMapper().readValue(serializedModel, ModelWrapperImpl.class);
+        float loadTime = (System.nanoTime() - timeStamp)/1_000_000F;
+        long memAfter = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        LOG.info("large model users={} loaded in {}ms, memory allocated for model = {}Mb", loadedModelWrapper.getUsers().size(),
+                loadTime, (((memAfter - memBefore)/1024F)/1024F));
+        assertEquals(2*2*50, loadedModelWrapper.getUsers().size());
+
+        User loadedUser = loadedModelWrapper.getUser(userKey);
+        assertArrayEquals(expectedPrivateKey, keyPairDataCache.get(loadedUser.getKeyPairSerialized()).getPrivateKey().getEncoded());
+        assertEquals(expectedCertificate, keyPairDataCache.get(loadedUser.getKeyPairSerialized()).getX509Certificate());
+        assertEquals(expectedCertificate, loadedUser.getCertificate());
+        assertEquals(1, keyPairDataCache.size());
+        assertEquals(1, keyPairDataCache.getMisses());
+        assertEquals(1, keyPairDataCache.getHits());
+
+        loadedModelWrapper.getUsers().forEach(u -> assertNotNull(keyPairDataCache.get(u.getValue().getKeyPairSerialized()).getX509Certificate()));
+        assertTrue(keyPairDataCache.size() <= 16);
+        assertTrue(keyPairDataCache.getEvictions() > 0);
+    }
+
+    @Test
+    @Order(15)
+    void keyPairCacheKeepsHotKeyPairs() throws Exception {
+        ModelWrapper modelWrapper = createInMemoryModelWrapper("key-pair-cache");
+        ModelUtils.createModel(1, 1, 0, 40, 0, 0, modelWrapper);
+        KeyPairDataCache keyPairDataCache = new KeyPairDataCache(8);
+        ModelKey<User> hotUserKey = ModelKey.from(User.class, OrganizationId.from("organization-0"), ProjectId.from("project-0"), UserId.from("user-0"));
+        KeyPairSerialized hotKeyPair = modelWrapper.getUser(hotUserKey).getKeyPairSerialized();
+        keyPairDataCache.get(hotKeyPair);
+        for (User user: modelWrapper.getAllUsers(OrganizationId.from("organization-0"), ProjectId.from("project-0"))) {
+            keyPairDataCache.get(user.getKeyPairSerialized());
+            keyPairDataCache.get(hotKeyPair);
+        }
+        long misses = keyPairDataCache.getMisses();
+        keyPairDataCache.get(hotKeyPair);
+        assertEquals(misses, keyPairDataCache.getMisses());
+        assertTrue(keyPairDataCache.size() <= 8);
+        assertTrue(keyPairDataCache.getEvictions() > 0);
+    }
+
 }
@@ -0,0 +1,144 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.model.ModelId;
+import one.microproject.iamservice.core.model.ModelImpl;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Permission;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.UserProperties;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.CreateUserRequest;
+import one.microproject.iamservice.core.services.impl.ProviderConfigurationServiceImpl;
+import one.microproject.iamservice.core.services.impl.admin.OrganizationManagerServiceImpl;
+import one.microproject.iamservice.core.services.impl.admin.ProjectManagerServiceImpl;
+import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.services.impl.persistence.LoggingPersistenceServiceImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.security.PublicKey;
+import java.security.Security;
+import java.util.Optional;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ProviderConfigurationServiceTests {
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("organization-1");
+    private static final ProjectId PROJECT_ID = ProjectId.from("project-1");
+    private static final UserId USER_ID = UserId.from("user-1");
+
+    private static ModelCache modelCache;
+    private static ProviderConfigurationService providerConfigurationService;
+    private static String kid;
+
+    @BeforeAll
+    private static void init() throws PKIException {
+        Security.addProvider(new BouncyCastleProvider());
+        modelCache = ModelUtils.createModel(2, 2, 0, 2, 0, 0, createInMemoryModelWrapper("provider-configuration"));
+        providerConfigurationService = new ProviderConfigurationServiceImpl(new OrganizationManagerServiceImpl(modelCache),
+                new ProjectManagerServiceImpl(modelCache));
+    }
+
+    @Test
+    @Order(1)
+    void resolveExistingKeyById() {
+        User user = modelCache.getUser(ORGANIZATION_ID, PROJECT_ID, USER_ID).orElseThrow();
+        kid = user.getKeyPairData().getId().getId();
+        PublicKey expected = user.getKeyPairData().getPublicKey();
+        assertEquals(Optional.of(expected), providerConfigurationService.getKeyById(kid));
+        assertEquals(Optional.of(expected), providerConfigurationService.getKeyById(ORGANIZATION_ID, kid));
+        assertEquals(Optional.of(expected), providerConfigurationService.getKeyById(ORGANIZATION_ID, PROJECT_ID, kid));
+    }
+
+    @Test
+    @Order(2)
+    void keyIsScopedToOwningOrganizationAndProject() {
+        assertTrue(providerConfigurationService.getKeyById(OrganizationId.from("organization-0"), kid).isEmpty());
+        assertTrue(providerConfigurationService.getKeyById(ORGANIZATION_ID, ProjectId.from("project-0"), kid).isEmpty());
+        assertTrue(providerConfigurationService.getKeyById("unknown-kid").isEmpty());
+    }
+
+    @Test
+    @Order(3)
+    void createdUserKeyIsResolved() throws PKIException {
+        CreateUserRequest request = new CreateUserRequest(UserId.from("user-new"), "name", 3600L, 3600L, "user@email.com", UserProperties.getDefault());
+        User user = modelCache.add(ORGANIZATION_ID, PROJECT_ID, request).orElseThrow();
+        String newKid = user.getKeyPairData().getId().getId();
+        assertEquals(Optional.of(user.getKeyPairData().getPublicKey()), providerConfigurationService.getKeyById(newKid));
+    }
+
+    @Test
+    @Order(4)
+    void revisionChangesWithKeysAndPermissions() {
+        long revision = providerConfigurationService.getRevision(ORGANIZATION_ID, PROJECT_ID);
+        assertEquals(revision, providerConfigurationService.getRevision(ORGANIZATION_ID, PROJECT_ID));
+        assertTrue(modelCache.addPermission(ORGANIZATION_ID, PROJECT_ID, new Permission("service", "resource", "action")));
+        long permissionRevision = providerConfigurationService.getRevision(ORGANIZATION_ID, PROJECT_ID);
+        assertNotEquals(revision, permissionRevision);
+        assertTrue(modelCache.remove(ORGANIZATION_ID, PROJECT_ID, UserId.from("user-new")));
+        assertNotEquals(permissionRevision, providerConfigurationService.getRevision(ORGANIZATION_ID, PROJECT_ID));
+    }
+
+    @Test
+    @Order(5)
+    void removedUserKeyIsNotResolved() {
+        assertTrue(modelCache.remove(ORGANIZATION_ID, PROJECT_ID, USER_ID));
+        assertTrue(providerConfigurationService.getKeyById(kid).isEmpty());
+    }
+
+    @Test
+    @Order(6)
+    void removedProjectKeysAreNotResolved() {
+        User user = modelCache.getUser(ORGANIZATION_ID, ProjectId.from("project-0"), UserId.from("user-0")).orElseThrow();
+        String projectKid = user.getKeyPairData().getId().getId();
+        assertTrue(providerConfigurationService.getKeyById(projectKid).isPresent());
+        assertTrue(modelCache.removeWithDependencies(ORGANIZATION_ID, ProjectId.from("project-0")));
+        assertTrue(providerConfigurationService.getKeyById(projectKid).isEmpty());
+    }
+
+    @Test
+    @Order(7)
+    void keysChangedByOtherInstanceAreResolved() throws Exception {
+        ModelWrapper sharedModel = new ModelWrapperImpl(new ModelImpl(ModelId.from("shared-model"), ""), new LoggingPersistenceServiceImpl(), false) {
+            @Override
+            public boolean isShared() {
+                return true;
+            }
+        };
+        OrganizationId organizationId = OrganizationId.from("organization-0");
+        ProjectId projectId = ProjectId.from("project-0");
+        ModelCache instanceA = ModelUtils.createModel(1, 1, 0, 1, 0, 0, sharedModel);
+        ModelCache instanceB = new ModelCacheImpl(sharedModel);
+        ProviderConfigurationService providerB = new ProviderConfigurationServiceImpl(new OrganizationManagerServiceImpl(instanceB),
+                new ProjectManagerServiceImpl(instanceB));
+
+        User user = instanceA.getUser(organizationId, projectId, UserId.from("user-0")).orElseThrow();
+        String userKid = user.getKeyPairSerialized().getId().getId();
+        assertTrue(providerB.getKeyById(userKid).isPresent());
+        assertTrue(instanceA.remove(organizationId, projectId, UserId.from("user-0")));
+        assertTrue(providerB.getKeyById(userKid).isEmpty());
+
+        CreateUserRequest request = new CreateUserRequest(UserId.from("user-new"), "name", 3600L, 3600L, "user@email.com", UserProperties.getDefault());
+        User created = instanceA.add(organizationId, projectId, request).orElseThrow();
+        // index of other instance is rebuilt on a miss at most once per second
+        Thread.sleep(1100);
+        assertEquals(Optional.of(created.getKeyPairData().getPublicKey()), providerB.getKeyById(created.getKeyPairSerialized().getId().getId()));
+    }
+
+}
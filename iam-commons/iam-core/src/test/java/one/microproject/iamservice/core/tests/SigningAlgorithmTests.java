@@ -0,0 +1,141 @@
+package one.microproject.iamservice.core.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.microproject.iamservice.client.JWTUtils;
+import one.microproject.iamservice.client.impl.TokenValidatorImpl;
+import one.microproject.iamservice.core.TokenValidator;
+import one.microproject.iamservice.core.dto.JWKData;
+import one.microproject.iamservice.core.dto.JWKResponse;
+import one.microproject.iamservice.core.dto.StandardTokenClaims;
+import one.microproject.iamservice.core.model.JWToken;
+import one.microproject.iamservice.core.model.KeyPairData;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.SigningAlgorithm;
+import one.microproject.iamservice.core.model.TokenType;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.UserProperties;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
+import one.microproject.iamservice.core.services.dto.CreateUserRequest;
+import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.services.impl.ProviderConfigurationServiceImpl;
+import one.microproject.iamservice.core.services.impl.admin.OrganizationManagerServiceImpl;
+import one.microproject.iamservice.core.services.impl.admin.ProjectManagerServiceImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.net.URI;
+import java.security.Security;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SigningAlgorithmTests {
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("organization-0");
+    private static final ProjectId RSA_PROJECT_ID = ProjectId.from("project-0");
+    private static final ProjectId EC_PROJECT_ID = ProjectId.from("ec-project");
+    private static final UserId EC_USER_ID = UserId.from("ec-user");
+
+    private static ModelCache modelCache;
+    private static ProviderConfigurationService providerConfigurationService;
+    private static TokenValidator tokenValidator;
+    private static JWToken ecToken;
+
+    @BeforeAll
+    private static void init() throws PKIException {
+        Security.addProvider(new BouncyCastleProvider());
+        modelCache = ModelUtils.createModel(1, 1, 0, 1, 0, 0, createInMemoryModelWrapper("signing-algorithm"));
+        providerConfigurationService = new ProviderConfigurationServiceImpl(new OrganizationManagerServiceImpl(modelCache),
+                new ProjectManagerServiceImpl(modelCache));
+        tokenValidator = new TokenValidatorImpl();
+    }
+
+    @Test
+    @Order(1)
+    void createECProjectAndUser() throws PKIException {
+        Project project = modelCache.add(ORGANIZATION_ID, new CreateProjectRequest(EC_PROJECT_ID, "ec", Set.of("audience"), SigningAlgorithm.ES256)).orElseThrow();
+        assertEquals(SigningAlgorithm.ES256, project.getSigningAlgorithm());
+        TokenUtils.verifySignedCertificate(modelCache.getOrganization(ORGANIZATION_ID).orElseThrow().getCertificate(), project.getCertificate());
+        User user = modelCache.add(ORGANIZATION_ID, EC_PROJECT_ID,
+                new CreateUserRequest(EC_USER_ID, "name", 3600L, 3600L, "user@email.com", UserProperties.getDefault())).orElseThrow();
+        assertEquals(SigningAlgorithm.ES256, SigningAlgorithm.fromKey(user.getKeyPairData().getPublicKey()));
+        TokenUtils.verifySignedCertificate(project.getCertificate(), user.getCertificate());
+        assertEquals(SigningAlgorithm.RS256, modelCache.getProject(ORGANIZATION_ID, RSA_PROJECT_ID).orElseThrow().getSigningAlgorithm());
+    }
+
+    @Test
+    @Order(2)
+    void issueAndValidateES256Token() throws Exception {
+        User user = modelCache.getUser(ORGANIZATION_ID, EC_PROJECT_ID, EC_USER_ID).orElseThrow();
+        KeyPairData keyPairData = user.getKeyPairData();
+        URI issuerUri = new URI("http://localhost:8080/services/oauth2/" + ORGANIZATION_ID.getId() + "/" + EC_PROJECT_ID.getId());
+        ecToken = TokenUtils.issueToken(issuerUri, ORGANIZATION_ID, EC_PROJECT_ID, Set.of("audience"), user.getId(), 60L, TimeUnit.MINUTES,
+                Scope.empty(), null, keyPairData.getId(), keyPairData.getPrivateKey(), TokenType.BEARER);
+        Optional<StandardTokenClaims> claims = tokenValidator.validateToken(keyPairData.getPublicKey(), ecToken);
+        assertTrue(claims.isPresent());
+        assertEquals(EC_USER_ID.getId(), claims.get().getSubject());
+    }
+
+    @Test
+    @Order(3)
+    void validateES256TokenWithJWKS() throws Exception {
+        JWKResponse jwkResponse = providerConfigurationService.getJWKData(ORGANIZATION_ID, EC_PROJECT_ID);
+        assertEquals(1, jwkResponse.getKeys().size());
+        JWKData jwkData = jwkResponse.getKeys().iterator().next();
+        assertEquals("EC", jwkData.getKeyType());
+        assertEquals("ES256", jwkData.getAlgorithm());
+        assertEquals(SigningAlgorithm.EC_CURVE, jwkData.getCurve());
+        assertNull(jwkData.getModulusValue());
+        User user = modelCache.getUser(ORGANIZATION_ID, EC_PROJECT_ID, EC_USER_ID).orElseThrow();
+        assertEquals(user.getKeyPairData().getPublicKey(), JWTUtils.createPublicKey(jwkData));
+        assertTrue(JWTUtils.validateToken(ORGANIZATION_ID, EC_PROJECT_ID, jwkResponse, ecToken).isPresent());
+    }
+
+    @Test
+    @Order(4)
+    void jwkSerialization() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String ecJson = mapper.writeValueAsString(providerConfigurationService.getJWKData(ORGANIZATION_ID, EC_PROJECT_ID));
+        assertTrue(ecJson.contains("\"crv\":\"P-256\""));
+        assertFalse(ecJson.contains("\"n\""));
+        JWKResponse ecDeserialized = mapper.readValue(ecJson, JWKResponse.class);
+        assertTrue(JWTUtils.validateToken(ORGANIZATION_ID, EC_PROJECT_ID, ecDeserialized, ecToken).isPresent());
+        String rsaJson = mapper.writeValueAsString(providerConfigurationService.getJWKData(ORGANIZATION_ID, RSA_PROJECT_ID));
+        assertTrue(rsaJson.contains("\"n\""));
+        assertFalse(rsaJson.contains("\"crv\""));
+    }
+
+    @Test
+    @Order(5)
+    void ecKeyPairSerialization() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        User user = modelCache.getUser(ORGANIZATION_ID, EC_PROJECT_ID, EC_USER_ID).orElseThrow();
+        User deserialized = mapper.readValue(mapper.writeValueAsString(user), User.class);
+        assertEquals(user.getKeyPairData().getPrivateKey(), deserialized.getKeyPairData().getPrivateKey());
+        assertNotNull(tokenValidator.validateToken(deserialized.getKeyPairData().getPublicKey(), ecToken).orElse(null));
+        Project project = modelCache.getProject(ORGANIZATION_ID, EC_PROJECT_ID).orElseThrow();
+        Project projectDeserialized = mapper.readValue(mapper.writeValueAsString(project), Project.class);
+        assertEquals(SigningAlgorithm.ES256, projectDeserialized.getSigningAlgorithm());
+    }
+
+}
@@ -0,0 +1,82 @@
+package one.microproject.iamservice.core.tests;
+
+import one.microproject.iamservice.core.services.impl.caches.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+    @Test
+    void testKeysExpireAfterDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 1000);
+        wheel.add("a", 1015);
+        wheel.add("b", 1500);
+        wheel.add("c", 900);
+        assertEquals(Set.of("c"), Set.copyOf(wheel.advance(1000)));
+        assertTrue(wheel.advance(1015).isEmpty());
+        assertEquals(Set.of("a"), Set.copyOf(wheel.advance(1020)));
+        assertTrue(wheel.advance(1500).isEmpty());
+        assertEquals(Set.of("b"), Set.copyOf(wheel.advance(1510)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testRemoveAndReplaceDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.add("a", 100);
+        wheel.add("b", 100);
+        assertTrue(wheel.remove("a"));
+        assertFalse(wheel.remove("a"));
+        wheel.add("b", 5000);
+        assertTrue(wheel.advance(1000).isEmpty());
+        assertTrue(wheel.contains("b"));
+        assertEquals(Set.of("b"), Set.copyOf(wheel.advance(5010)));
+    }
+
+    @Test
+    void testRandomDeadlinesExpireInOrder() {
+        long tick = 10;
+        TimingWheel<Integer> wheel = new TimingWheel<>(tick, 8, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = random.nextInt(1_000_000);
+            deadlines.put(i, deadline);
+            wheel.add(i, deadline);
+        }
+        Set<Integer> expired = new HashSet<>();
+        long now = 0;
+        while (now < 1_100_000) {
+            now = now + random.nextInt(5_000);
+            long alignedNow = now - (now % tick);
+            for (Integer key : wheel.advance(now)) {
+                assertTrue(deadlines.get(key) < alignedNow, "expired too early");
+                assertTrue(expired.add(key));
+            }
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                if (entry.getValue() < alignedNow) {
+                    assertTrue(expired.contains(entry.getKey()), "expired too late");
+                }
+            }
+        }
+        assertEquals(deadlines.size(), expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(10, 1, 0));
+    }
+
+}
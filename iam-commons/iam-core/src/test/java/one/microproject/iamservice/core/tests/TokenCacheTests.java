@@ -3,13 +3,10 @@ package one.microproject.iamservice.core.tests;
 import one.microproject.iamservice.core.model.KeyId;
 import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.UserId;
-import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.PKIException;
-import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.caches.TokenCache;
 import one.microproject.iamservice.core.services.dto.Scope;
-import one.microproject.iamservice.client.impl.TokenValidatorImpl;
 import one.microproject.iamservice.core.services.impl.caches.CacheHolderImpl;
 import one.microproject.iamservice.core.services.impl.caches.TokenCacheImpl;
 import one.microproject.iamservice.core.model.TokenType;
@@ -51,7 +48,6 @@ class TokenCacheTests {
 
     private static KeyId keyId;
     private static KeyPair keyPair;
-    private static ModelCache modelCache;
     private static TokenCache tokenCache;
     private static JWToken jwToken;
     private static URI issuerUri;
@@ -60,8 +56,7 @@ class TokenCacheTests {
     private static void init() throws NoSuchAlgorithmException, NoSuchProviderException, PKIException, URISyntaxException {
         Security.addProvider(new BouncyCastleProvider());
         keyPair = TokenUtils.generateKeyPair();
-        modelCache = ModelUtils.createDefaultModelCache("top-secret", "top-secret", "admin@email.com", Boolean.FALSE);
-        tokenCache = new TokenCacheImpl(modelCache, new TokenValidatorImpl(), new CacheHolderImpl<>());
+        tokenCache = new TokenCacheImpl(new CacheHolderImpl<>());
         keyId = KeyId.from("key-001");
         issuerUri = new URI("http://localhost:8080/" + ORGANIZATION_ID.getId() + "/" + PROJECT_ID.getId());
         Map<String, Set<String>> roleClaims = new HashMap<>();
@@ -89,9 +84,12 @@ class TokenCacheTests {
     @Test
     @Order(3)
     void waitForTokensToExpireTest() throws InterruptedException {
-        while(tokenCache.purgeRevokedTokens() > 0) {
+        int purged = 0;
+        for (int i = 0; i < 10 && purged == 0; i++) {
             Thread.sleep(1000);
-        };
+            purged = tokenCache.purgeRevokedTokens();
+        }
+        assertEquals(1, purged);
         int size = tokenCache.size();
         assertEquals(0, size);
     }
@@ -102,4 +100,20 @@ class TokenCacheTests {
         assertFalse(tokenCache.isRevoked(jwToken));
     }
 
+    @Test
+    @Order(5)
+    void purgeRemovesOnlyExpiredTokensTest() throws InterruptedException {
+        JWToken shortLivedToken = TokenUtils.issueToken(issuerUri, ORGANIZATION_ID, PROJECT_ID, AUDIENCE, USER_ID, 1L, TIME_UNIT, SCOPE, Map.of(), keyId, keyPair.getPrivate(), TokenType.BEARER);
+        JWToken longLivedToken = TokenUtils.issueToken(issuerUri, ORGANIZATION_ID, PROJECT_ID, AUDIENCE, USER_ID, 1L, TimeUnit.HOURS, SCOPE, Map.of(), keyId, keyPair.getPrivate(), TokenType.BEARER);
+        tokenCache.addRevokedToken(shortLivedToken);
+        tokenCache.addRevokedToken(longLivedToken);
+        assertEquals(2, tokenCache.size());
+        assertEquals(0, tokenCache.purgeRevokedTokens());
+        Thread.sleep(2500);
+        assertEquals(1, tokenCache.purgeRevokedTokens());
+        assertTrue(tokenCache.isRevoked(longLivedToken));
+        assertFalse(tokenCache.isRevoked(jwToken));
+        assertEquals(1, tokenCache.size());
+    }
+
 }
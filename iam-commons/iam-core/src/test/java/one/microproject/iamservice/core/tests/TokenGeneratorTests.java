@@ -0,0 +1,165 @@
+package one.microproject.iamservice.core.tests;
+
+import io.jsonwebtoken.impl.DefaultClaims;
+import one.microproject.iamservice.core.dto.Code;
+import one.microproject.iamservice.core.dto.TokenResponse;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.ClientProperties;
+import one.microproject.iamservice.core.model.JWToken;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.TokenGenerator;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
+import one.microproject.iamservice.core.services.dto.CreateClientRequest;
+import one.microproject.iamservice.core.services.dto.EffectivePermissions;
+import one.microproject.iamservice.core.services.dto.IdTokenRequest;
+import one.microproject.iamservice.core.services.dto.Scope;
+import one.microproject.iamservice.core.services.dto.TokenIssuancePolicy;
+import one.microproject.iamservice.core.services.impl.TokenGeneratorImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.Security;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Set;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.createInMemoryModelWrapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenGeneratorTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenGeneratorTests.class);
+
+    private static final OrganizationId ORGANIZATION_ID = OrganizationId.from("organization-0");
+    private static final ProjectId PROJECT_ID = ProjectId.from("project-0");
+    private static final Scope OPENID = new Scope(Set.of(Scope.OPENID));
+    private static final int ROUNDS = 200;
+
+    private static URI issuerUri;
+    private static IdTokenRequest idTokenRequest;
+    private static Project project;
+    private static User user;
+    private static Client client;
+    private static Client m2mClient;
+    private static EffectivePermissions userPermissions;
+    private static EffectivePermissions clientPermissions;
+
+    @BeforeAll
+    private static void init() throws PKIException, URISyntaxException {
+        Security.addProvider(new BouncyCastleProvider());
+        ModelCache modelCache = ModelUtils.createModel(1, 1, 1, 1, 2, 1, createInMemoryModelWrapper("token-generator"));
+        issuerUri = new URI("http://localhost:8080/iam-admins/iam-admins");
+        idTokenRequest = new IdTokenRequest(issuerUri.toString(), "nonce", "");
+        project = modelCache.getProject(ORGANIZATION_ID, PROJECT_ID).orElseThrow();
+        user = modelCache.getUser(ORGANIZATION_ID, PROJECT_ID, UserId.from("user-0")).orElseThrow();
+        client = modelCache.getClient(ORGANIZATION_ID, PROJECT_ID, ClientId.from("client-0")).orElseThrow();
+        ClientProperties m2mProperties = new ClientProperties("", false, false, true, false, new HashMap<>());
+        m2mClient = modelCache.add(ORGANIZATION_ID, PROJECT_ID,
+                new CreateClientRequest(ClientId.from("m2m-client"), "m2m", 3600*1000L, 3600*1000L, "secret", m2mProperties)).orElseThrow();
+        userPermissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, user.getId());
+        clientPermissions = modelCache.getEffectivePermissions(ORGANIZATION_ID, PROJECT_ID, client.getId());
+    }
+
+    @Test
+    void alwaysPolicyIssuesIdToken() {
+        TokenGenerator tokenGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.ALWAYS);
+        TokenResponse response = tokenGenerator.generate(issuerUri, ORGANIZATION_ID, project, user, userPermissions, Scope.empty(), client.getId(), idTokenRequest);
+        assertNotNull(response.getAccessToken());
+        assertNotNull(response.getRefreshToken());
+        assertNotNull(response.getIdToken());
+    }
+
+    @Test
+    void openIdPolicyIssuesIdTokenOnlyForOpenIdScope() {
+        TokenGenerator tokenGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.OPENID_SCOPE);
+        TokenResponse response = tokenGenerator.generate(issuerUri, ORGANIZATION_ID, project, user, userPermissions, Scope.empty(), client.getId(), idTokenRequest);
+        assertNotNull(response.getAccessToken());
+        assertNotNull(response.getRefreshToken());
+        assertNull(response.getIdToken());
+        response = tokenGenerator.generate(issuerUri, ORGANIZATION_ID, project, user, userPermissions, OPENID, client.getId(), idTokenRequest);
+        assertNotNull(response.getIdToken());
+        response = tokenGenerator.generate(issuerUri, ORGANIZATION_ID, project, clientPermissions, client, Scope.empty(), idTokenRequest);
+        assertNotNull(response.getRefreshToken());
+        assertNull(response.getIdToken());
+    }
+
+    @Test
+    void openIdScopeGrantsNoPermissions() {
+        assertTrue(userPermissions.filter(OPENID).isEmpty());
+        String permission = userPermissions.getScope().getValues().iterator().next();
+        assertEquals(new Scope(Set.of(permission)), userPermissions.filter(new Scope(Set.of(Scope.OPENID, permission))));
+    }
+
+    @Test
+    void openIdIsNotInAccessAndRefreshTokenScope() {
+        TokenGenerator tokenGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.OPENID_SCOPE);
+        String permission = userPermissions.getScope().getValues().iterator().next();
+        AuthorizationCodeContext context = new AuthorizationCodeContext(Code.from("code"), issuerUri, ORGANIZATION_ID, PROJECT_ID,
+                client.getId(), user.getId(), "state", new Date(), new Scope(Set.of(Scope.OPENID, permission)), project.getAudience(),
+                "", null, null);
+        TokenResponse response = tokenGenerator.generate(context, user, idTokenRequest);
+        assertNotNull(response.getIdToken());
+        DefaultClaims accessTokenClaims = TokenUtils.extractClaims(JWToken.from(response.getAccessToken()));
+        assertEquals(permission, accessTokenClaims.get(TokenUtils.SCOPE_CLAIM));
+        DefaultClaims refreshTokenClaims = TokenUtils.extractClaims(JWToken.from(response.getRefreshToken()));
+        assertEquals(permission, refreshTokenClaims.get(TokenUtils.SCOPE_CLAIM));
+    }
+
+    @Test
+    void refreshTokenIsSkippedForM2MClient() {
+        TokenGenerator tokenGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.OPENID_SCOPE);
+        EffectivePermissions permissions = EffectivePermissions.empty();
+        TokenResponse response = tokenGenerator.generate(issuerUri, ORGANIZATION_ID, project, permissions, m2mClient, Scope.empty(), idTokenRequest);
+        assertNotNull(response.getAccessToken());
+        assertNull(response.getRefreshToken());
+        assertNull(response.getRefreshExpiresIn());
+        assertNull(response.getIdToken());
+    }
+
+    /**
+     * Wall-clock benchmark, run with: gradle :iam-core:test -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void clientCredentialsThroughput() {
+        TokenGenerator alwaysGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.ALWAYS);
+        TokenGenerator openIdGenerator = new TokenGeneratorImpl(TokenIssuancePolicy.OPENID_SCOPE);
+        EffectivePermissions permissions = EffectivePermissions.empty();
+        //warm-up
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            alwaysGenerator.generate(issuerUri, ORGANIZATION_ID, project, permissions, client, Scope.empty(), idTokenRequest);
+            openIdGenerator.generate(issuerUri, ORGANIZATION_ID, project, permissions, m2mClient, Scope.empty(), idTokenRequest);
+        }
+        long alwaysDuration = measure(() -> alwaysGenerator.generate(issuerUri, ORGANIZATION_ID, project, permissions, client, Scope.empty(), idTokenRequest));
+        long m2mDuration = measure(() -> openIdGenerator.generate(issuerUri, ORGANIZATION_ID, project, permissions, m2mClient, Scope.empty(), idTokenRequest));
+        LOG.info("client_credentials throughput ALWAYS (3 signatures): {} tokens/s", ROUNDS * 1_000_000_000L / alwaysDuration);
+        LOG.info("client_credentials throughput OPENID_SCOPE, no refresh token (1 signature): {} tokens/s", ROUNDS * 1_000_000_000L / m2mDuration);
+    }
+
+    private static long measure(Runnable generate) {
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            generate.run();
+        }
+        return Math.max(1L, System.nanoTime() - started);
+    }
+
+}
@@ -1,8 +1,13 @@
 package one.microproject.iamservice.core.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+/**
+ * JSON Web Key, RSA keys carry "n" and "e" values, EC keys carry "crv", "x" and "y" values.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class JWKData {
 
     @JsonProperty("kid")
@@ -29,6 +34,15 @@ public class JWKData {
     @JsonProperty("e")
     private final String exponentValue;
 
+    @JsonProperty("crv")
+    private final String curve;
+
+    @JsonProperty("x")
+    private final String xCoordinate;
+
+    @JsonProperty("y")
+    private final String yCoordinate;
+
     @JsonCreator
     public JWKData(@JsonProperty("kid") String keyId,
                    @JsonProperty("kty") String keyType,
@@ -37,7 +51,10 @@ public class JWKData {
                    @JsonProperty("key_ops") String[] keyOperations,
                    @JsonProperty("x5t#S256") String x509CertificateSHA256Thumbprint,
                    @JsonProperty("n") String modulusValue,
-                   @JsonProperty("e") String exponentValue) {
+                   @JsonProperty("e") String exponentValue,
+                   @JsonProperty("crv") String curve,
+                   @JsonProperty("x") String xCoordinate,
+                   @JsonProperty("y") String yCoordinate) {
         this.keyId = keyId;
         this.keyType = keyType;
         this.use = use;
@@ -46,6 +63,15 @@ public class JWKData {
         this.x509CertificateSHA256Thumbprint = x509CertificateSHA256Thumbprint;
         this.modulusValue  = modulusValue;
         this.exponentValue = exponentValue;
+        this.curve = curve;
+        this.xCoordinate = xCoordinate;
+        this.yCoordinate = yCoordinate;
+    }
+
+    public JWKData(String keyId, String keyType, String use, String algorithm, String[] keyOperations,
+                   String x509CertificateSHA256Thumbprint, String modulusValue, String exponentValue) {
+        this(keyId, keyType, use, algorithm, keyOperations, x509CertificateSHA256Thumbprint, modulusValue, exponentValue,
+                null, null, null);
     }
 
     public String getKeyId() {
@@ -80,4 +106,19 @@ public class JWKData {
         return exponentValue;
     }
 
+    @JsonProperty("crv")
+    public String getCurve() {
+        return curve;
+    }
+
+    @JsonProperty("x")
+    public String getXCoordinate() {
+        return xCoordinate;
+    }
+
+    @JsonProperty("y")
+    public String getYCoordinate() {
+        return yCoordinate;
+    }
+
 }
@@ -6,6 +6,7 @@ import one.microproject.iamservice.core.model.TokenType;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.Set;
 
 public class StandardTokenClaims {
@@ -19,9 +20,15 @@ public class StandardTokenClaims {
     private final URI issuerUri;
     private final Set<String> scope;
     private final TokenType type;
+    private final Instant expiration;
 
     public StandardTokenClaims(String keyId, String issuer, String subject, Set<String> audience, Set<String> scope,
                                OrganizationId organizationId, ProjectId projectId, TokenType type) throws URISyntaxException {
+        this(keyId, issuer, subject, audience, scope, organizationId, projectId, type, null);
+    }
+
+    public StandardTokenClaims(String keyId, String issuer, String subject, Set<String> audience, Set<String> scope,
+                               OrganizationId organizationId, ProjectId projectId, TokenType type, Instant expiration) throws URISyntaxException {
         this.keyId = keyId;
         this.issuer = issuer;
         this.subject = subject;
@@ -31,6 +38,7 @@ public class StandardTokenClaims {
         this.projectId = projectId;
         this.issuerUri = new URI(issuer);
         this.type = type;
+        this.expiration = expiration;
     }
 
     public String getKeyId() {
@@ -69,4 +77,12 @@ public class StandardTokenClaims {
         return type;
     }
 
+    /**
+     * Get token expiration time ("exp" claim).
+     * @return token expiration time or null if token does not expire or expiration is not known.
+     */
+    public Instant getExpiration() {
+        return expiration;
+    }
+
 }
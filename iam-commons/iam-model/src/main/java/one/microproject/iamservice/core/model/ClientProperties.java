@@ -12,6 +12,7 @@ public class ClientProperties {
     private final Boolean authorizationCodeGrantEnabled;
     private final Boolean passwordCredentialsEnabled;
     private final Boolean clientCredentialsEnabled;
+    private final Boolean refreshTokenEnabled;
     private final Map<String, String> properties;
 
     @JsonCreator
@@ -19,14 +20,21 @@ public class ClientProperties {
                             @JsonProperty("authorizationCodeGrantEnabled") Boolean authorizationCodeGrantEnabled,
                             @JsonProperty("passwordCredentialsEnabled") Boolean passwordCredentialsEnabled,
                             @JsonProperty("clientCredentialsEnabled") Boolean clientCredentialsEnabled,
+                            @JsonProperty("refreshTokenEnabled") Boolean refreshTokenEnabled,
                             @JsonProperty("properties") Map<String, String> properties) {
         this.redirectURL = redirectURL;
         this.authorizationCodeGrantEnabled = authorizationCodeGrantEnabled;
         this.passwordCredentialsEnabled = passwordCredentialsEnabled;
         this.clientCredentialsEnabled = clientCredentialsEnabled;
+        this.refreshTokenEnabled = refreshTokenEnabled;
         this.properties = properties;
     }
 
+    public ClientProperties(String redirectURL, Boolean authorizationCodeGrantEnabled, Boolean passwordCredentialsEnabled,
+                            Boolean clientCredentialsEnabled, Map<String, String> properties) {
+        this(redirectURL, authorizationCodeGrantEnabled, passwordCredentialsEnabled, clientCredentialsEnabled, true, properties);
+    }
+
     public String getRedirectURL() {
         return redirectURL;
     }
@@ -43,6 +51,15 @@ public class ClientProperties {
         return clientCredentialsEnabled;
     }
 
+    /**
+     * Refresh tokens are issued to this client in Client Credentials flow unless this is set to false.
+     * Machine-to-machine clients can simply authenticate again, so refresh token is often not needed.
+     * @return false if refresh token shall not be issued.
+     */
+    public Boolean getRefreshTokenEnabled() {
+        return refreshTokenEnabled;
+    }
+
     public Map<String, String> getProperties() {
         return properties;
     }
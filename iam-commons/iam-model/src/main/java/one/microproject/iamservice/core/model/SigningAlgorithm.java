@@ -0,0 +1,45 @@
+package one.microproject.iamservice.core.model;
+
+import java.security.Key;
+
+/**
+ * JWS algorithm used to sign tokens and certificates of a project and its users.
+ * Algorithm is derived from key material, so persisted key pairs carry it implicitly.
+ */
+public enum SigningAlgorithm {
+
+    RS256("RSA", "SHA256withRSA"),
+    ES256("EC", "SHA256withECDSA");
+
+    public static final String EC_CURVE = "P-256";
+    public static final String EC_CURVE_JCA = "secp256r1";
+
+    private final String keyType;
+    private final String certificateSignatureAlgorithm;
+
+    SigningAlgorithm(String keyType, String certificateSignatureAlgorithm) {
+        this.keyType = keyType;
+        this.certificateSignatureAlgorithm = certificateSignatureAlgorithm;
+    }
+
+    /**
+     * Key type, same value is used as JCA key algorithm and as JWK "kty".
+     * @return key type.
+     */
+    public String getKeyType() {
+        return keyType;
+    }
+
+    public String getCertificateSignatureAlgorithm() {
+        return certificateSignatureAlgorithm;
+    }
+
+    public static SigningAlgorithm fromKey(Key key) {
+        String algorithm = key.getAlgorithm();
+        if ("EC".equals(algorithm) || "ECDSA".equals(algorithm)) {
+            return ES256;
+        }
+        return RS256;
+    }
+
+}
@@ -0,0 +1,13 @@
+package one.microproject.iamservice.caches.redis;
+
+/**
+ * Encoding of cache values stored in redis.
+ * @param <V> type of cache values.
+ */
+public interface CacheCodec<V> {
+
+    byte[] encode(V value) throws CacheReadException;
+
+    V decode(byte[] data) throws CacheReadException;
+
+}
@@ -0,0 +1,61 @@
+package one.microproject.iamservice.caches.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+
+/**
+ * Jackson based codec using reader and writer built once for value type.
+ * Smile codec decodes also JSON values, so entries written by JSON codec stay readable after switching to Smile.
+ * @param <V> type of cache values.
+ */
+public class JacksonCacheCodec<V> implements CacheCodec<V> {
+
+    private static final byte[] SMILE_HEADER = { ':', ')', '\n' };
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final ObjectReader jsonReader;
+
+    private JacksonCacheCodec(ObjectMapper mapper, ObjectMapper jsonMapper, Class<V> type) {
+        this.writer = mapper.writerFor(type);
+        this.reader = mapper.readerFor(type);
+        this.jsonReader = jsonMapper.readerFor(type);
+    }
+
+    public static <V> JacksonCacheCodec<V> json(Class<V> type) {
+        ObjectMapper mapper = new ObjectMapper();
+        return new JacksonCacheCodec<>(mapper, mapper, type);
+    }
+
+    public static <V> JacksonCacheCodec<V> smile(Class<V> type) {
+        return new JacksonCacheCodec<>(new ObjectMapper(new SmileFactory()), new ObjectMapper(), type);
+    }
+
+    @Override
+    public byte[] encode(V value) throws CacheReadException {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new CacheReadException(e);
+        }
+    }
+
+    @Override
+    public V decode(byte[] data) throws CacheReadException {
+        try {
+            return isSmile(data) ? reader.readValue(data) : jsonReader.readValue(data);
+        } catch (IOException e) {
+            throw new CacheReadException(e);
+        }
+    }
+
+    private static boolean isSmile(byte[] data) {
+        return data.length >= SMILE_HEADER.length && data[0] == SMILE_HEADER[0]
+                && data[1] == SMILE_HEADER[1] && data[2] == SMILE_HEADER[2];
+    }
+
+}
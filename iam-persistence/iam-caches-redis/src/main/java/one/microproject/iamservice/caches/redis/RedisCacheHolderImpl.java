@@ -1,101 +1,230 @@
 package one.microproject.iamservice.caches.redis;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import one.microproject.iamservice.core.services.impl.caches.CacheHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.params.SetParams;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
-public class RedisCacheHolderImpl<V> implements CacheHolder<V> {
+/**
+ * Cache holder backed by redis. Connections are borrowed from {@link JedisPool} per operation, so single instance
+ * is safe to use from many threads. Keys are iterated by SCAN cursor, never by KEYS, entries with expiration time
+ * are stored with native TTL. Values are encoded by {@link CacheCodec}, Smile by default.
+ */
+public class RedisCacheHolderImpl<V> implements CacheHolder<V>, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedisCacheHolderImpl.class);
 
     private final String keyPrefix;
-    private final Jedis jedis;
-    private final ObjectMapper mapper;
-    private final Class<V> type;
+    private final JedisPool jedisPool;
+    private final boolean ownsPool;
+    private final int scanCount;
+    private final CacheCodec<V> codec;
 
     public RedisCacheHolderImpl(RedisConfiguration configuration, Class<V> type) {
-        this.keyPrefix = type.getCanonicalName();
-        this.jedis = new Jedis(configuration.getHostname(), configuration.getPort());
-        this.mapper = new ObjectMapper();
-        this.type = type;
+        this(configuration, type, JacksonCacheCodec.smile(type));
+    }
+
+    public RedisCacheHolderImpl(RedisConfiguration configuration, Class<V> type, CacheCodec<V> codec) {
+        this(createPool(configuration), true, configuration.getScanCount(), type, codec);
+    }
+
+    /**
+     * Create cache holder using shared connection pool, the pool is not closed by this cache holder.
+     */
+    public RedisCacheHolderImpl(JedisPool jedisPool, int scanCount, Class<V> type, CacheCodec<V> codec) {
+        this(jedisPool, false, scanCount, type, codec);
+    }
+
+    private RedisCacheHolderImpl(JedisPool jedisPool, boolean ownsPool, int scanCount, Class<V> type, CacheCodec<V> codec) {
+        this.keyPrefix = type.getCanonicalName() + ":";
+        this.jedisPool = jedisPool;
+        this.ownsPool = ownsPool;
+        this.scanCount = scanCount;
+        this.codec = codec;
+    }
+
+    public static JedisPool createPool(RedisConfiguration configuration) {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(configuration.getMaxTotal());
+        poolConfig.setMaxIdle(configuration.getMaxIdle());
+        poolConfig.setMinIdle(configuration.getMinIdle());
+        return new JedisPool(poolConfig, configuration.getHostname(), configuration.getPort(), configuration.getTimeoutMillis());
     }
 
     @Override
     public Set<String> keys() {
         LOG.trace("keys");
-        return jedis.keys(keyPrefix + ":*");
+        Set<String> keys = new HashSet<>();
+        scan(page -> page.forEach(key -> keys.add(new String(key, StandardCharsets.UTF_8).substring(keyPrefix.length()))));
+        return keys;
     }
 
     @Override
     public void put(String key, V value) throws CacheReadException {
-        try {
-            LOG.trace("put {}:{}", key, value);
-            jedis.set(keyPrefix + ":" + key, mapper.writeValueAsString(value));
-        } catch (JsonProcessingException e) {
-            throw new CacheReadException(e);
+        LOG.trace("put {}:{}", key, value);
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.set(key(key), codec.encode(value));
+        }
+    }
+
+    @Override
+    public void put(String key, V value, long expiresAtMillis) throws CacheReadException {
+        LOG.trace("put {}:{} expires {}", key, value, expiresAtMillis);
+        long ttl = Math.max(1, expiresAtMillis - System.currentTimeMillis());
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.set(key(key), codec.encode(value), SetParams.setParams().px(ttl));
         }
     }
 
     @Override
     public V get(String key) throws CacheReadException {
-        try {
-            LOG.trace("get {}", key);
-            String value = jedis.get(keyPrefix + ":" + key);
-            if (value != null) {
-                return mapper.readValue(value, type);
-            } else {
-                return null;
-            }
-        } catch (JsonProcessingException e) {
-            throw new CacheReadException(e);
+        LOG.trace("get {}", key);
+        try (Jedis jedis = jedisPool.getResource()) {
+            return decode(jedis.get(key(key)));
         }
     }
 
     @Override
     public int size() {
-        return jedis.keys(keyPrefix + ":*").size();
+        int[] size = new int[1];
+        scan(page -> size[0] = size[0] + page.size());
+        return size[0];
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
     }
 
     @Override
     public V remove(String key) throws CacheReadException {
-        try {
-            LOG.trace("remove {}", key);
-            String value = jedis.get(keyPrefix + ":" + key);
-            if (value != null) {
-                V v = mapper.readValue(value, type);
-                jedis.del(keyPrefix + ":" + key);
-                return v;
-            } else {
-                return null;
+        LOG.trace("remove {}", key);
+        try (Jedis jedis = jedisPool.getResource()) {
+            return decode(jedis.getDel(key(key)));
+        }
+    }
+
+    @Override
+    public void remove(Predicate<V> predicate) throws CacheReadException {
+        LOG.trace("remove by predicate");
+        scan(page -> {
+            try (Jedis jedis = jedisPool.getResource()) {
+                List<byte[]> values = jedis.mget(page.toArray(new byte[0][]));
+                Pipeline pipeline = jedis.pipelined();
+                for (int i = 0; i < page.size(); i++) {
+                    V value = decode(values.get(i));
+                    if (value != null && predicate.test(value)) {
+                        pipeline.del(page.get(i));
+                    }
+                }
+                pipeline.sync();
+            }
+        });
+    }
+
+    @Override
+    public boolean remove(String key, V value) throws CacheReadException {
+        LOG.trace("remove {}:{}", key, value);
+        byte[] redisKey = key(key);
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.watch(redisKey);
+            V current = decode(jedis.get(redisKey));
+            // compare re-encoded values, serialized form of collections depends on their implementation
+            if (current == null || !Arrays.equals(codec.encode(current), codec.encode(value))) {
+                jedis.unwatch();
+                return false;
             }
-        } catch (JsonProcessingException e) {
-            throw new CacheReadException(e);
+            Transaction transaction = jedis.multi();
+            transaction.del(redisKey);
+            return transaction.exec() != null;
         }
     }
 
     @Override
-    public void remove(Predicate predicate) throws CacheReadException {
-        try {
-            LOG.trace("remove by predicate");
-            Set<String> keys = jedis.keys(keyPrefix + ":*");
-            for (String key: keys) {
-                String value = jedis.get(key);
+    public V computeIfPresent(String key, BiFunction<String, V, V> remappingFunction) throws CacheReadException {
+        LOG.trace("computeIfPresent {}", key);
+        byte[] redisKey = key(key);
+        try (Jedis jedis = jedisPool.getResource()) {
+            while (true) {
+                jedis.watch(redisKey);
+                V current = decode(jedis.get(redisKey));
+                if (current == null) {
+                    jedis.unwatch();
+                    return null;
+                }
+                V value = remappingFunction.apply(key, current);
+                Transaction transaction = jedis.multi();
                 if (value != null) {
-                    V v = mapper.readValue(value, type);
-                    if (predicate.test(v)) {
-                        jedis.del(key);
-                    }
+                    transaction.set(redisKey, codec.encode(value), SetParams.setParams().keepttl());
+                } else {
+                    transaction.del(redisKey);
+                }
+                List<Object> result = transaction.exec();
+                if (result != null) {
+                    return value;
                 }
+                // entry has been modified concurrently, retry with fresh value
             }
-        } catch (JsonProcessingException e) {
-            throw new CacheReadException(e);
         }
     }
 
+    JedisPool getJedisPool() {
+        return jedisPool;
+    }
+
+    String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            jedisPool.close();
+        }
+    }
+
+    private void scan(Consumer<List<byte[]>> pageConsumer) {
+        ScanParams scanParams = new ScanParams().match(key("*")).count(scanCount);
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        do {
+            ScanResult<byte[]> result;
+            try (Jedis jedis = jedisPool.getResource()) {
+                result = jedis.scan(cursor, scanParams);
+            }
+            if (!result.getResult().isEmpty()) {
+                pageConsumer.accept(new ArrayList<>(result.getResult()));
+            }
+            cursor = result.getCursorAsBytes();
+        } while (!Arrays.equals(ScanParams.SCAN_POINTER_START_BINARY, cursor));
+    }
+
+    private byte[] key(String key) {
+        return (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private V decode(byte[] data) throws CacheReadException {
+        if (data == null) {
+            return null;
+        }
+        return codec.decode(data);
+    }
+
 }
@@ -2,12 +2,41 @@ package one.microproject.iamservice.caches.redis;
 
 public class RedisConfiguration {
 
+    public static final int DEFAULT_MAX_TOTAL = 16;
+    public static final int DEFAULT_MAX_IDLE = 8;
+    public static final int DEFAULT_MIN_IDLE = 0;
+    public static final int DEFAULT_TIMEOUT_MILLIS = 2000;
+    public static final int DEFAULT_SCAN_COUNT = 500;
+
     private final String hostname;
     private final Integer port;
+    private final int maxTotal;
+    private final int maxIdle;
+    private final int minIdle;
+    private final int timeoutMillis;
+    private final int scanCount;
 
     public RedisConfiguration(String hostname, Integer port) {
+        this(hostname, port, DEFAULT_MAX_TOTAL, DEFAULT_MAX_IDLE, DEFAULT_MIN_IDLE, DEFAULT_TIMEOUT_MILLIS, DEFAULT_SCAN_COUNT);
+    }
+
+    /**
+     * @param hostname redis server hostname.
+     * @param port redis server port.
+     * @param maxTotal max number of pooled connections.
+     * @param maxIdle max number of idle pooled connections.
+     * @param minIdle min number of idle pooled connections.
+     * @param timeoutMillis connection and socket timeout in milliseconds.
+     * @param scanCount number of keys requested by one SCAN call, also size of batched operations.
+     */
+    public RedisConfiguration(String hostname, Integer port, int maxTotal, int maxIdle, int minIdle, int timeoutMillis, int scanCount) {
         this.hostname = hostname;
         this.port = port;
+        this.maxTotal = maxTotal;
+        this.maxIdle = maxIdle;
+        this.minIdle = minIdle;
+        this.timeoutMillis = timeoutMillis;
+        this.scanCount = scanCount;
     }
 
     public String getHostname() {
@@ -18,4 +47,24 @@ public class RedisConfiguration {
         return port;
     }
 
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getScanCount() {
+        return scanCount;
+    }
+
 }
@@ -0,0 +1,262 @@
+package one.microproject.iamservice.caches.redis;
+
+import one.microproject.iamservice.core.services.impl.caches.CacheHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Cache holder with bounded in-process LRU near-cache (L1) in front of redis (L2).
+ * L1 keeps also misses, so repeated lookups of absent keys like not revoked tokens do not reach redis. L1 entries
+ * live at most ttlMillis. Every write is applied to L2 first and then published on redis pub/sub channel, all
+ * other instances sharing the channel evict the key from their L1. L1 is used only while invalidation channel is
+ * subscribed, when subscription is lost L1 is cleared and lookups go directly to L2.
+ */
+public class TwoTierCacheHolderImpl<V> implements CacheHolder<V>, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TwoTierCacheHolderImpl.class);
+
+    private static final String ALL_KEYS = "*";
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final RedisCacheHolderImpl<V> l2;
+    private final Map<String, NearCacheEntry<V>> l1;
+    private final long ttlMillis;
+    private final String channel;
+    private final String nodeId;
+    private final AtomicLong invalidations;
+    private final LongAdder l1Hits;
+    private final LongAdder l1Misses;
+    private final LongAdder l2Hits;
+    private final LongAdder l2Misses;
+    private final InvalidationListener listener;
+    private final Thread listenerThread;
+    private volatile boolean subscribed;
+    private volatile boolean closed;
+
+    public TwoTierCacheHolderImpl(RedisCacheHolderImpl<V> l2, int maxSize, long ttlMillis) {
+        this.l2 = l2;
+        this.l1 = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NearCacheEntry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.ttlMillis = ttlMillis;
+        this.channel = l2.getKeyPrefix() + "invalidations";
+        this.nodeId = UUID.randomUUID().toString();
+        this.invalidations = new AtomicLong();
+        this.l1Hits = new LongAdder();
+        this.l1Misses = new LongAdder();
+        this.l2Hits = new LongAdder();
+        this.l2Misses = new LongAdder();
+        this.listener = new InvalidationListener();
+        this.listenerThread = new Thread(this::listen, "near-cache-" + l2.getKeyPrefix() + "invalidations");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    @Override
+    public Set<String> keys() {
+        return l2.keys();
+    }
+
+    @Override
+    public void put(String key, V value) {
+        l2.put(key, value);
+        invalidate(key);
+    }
+
+    @Override
+    public void put(String key, V value, long expiresAtMillis) {
+        l2.put(key, value, expiresAtMillis);
+        invalidate(key);
+    }
+
+    @Override
+    public V get(String key) {
+        if (!subscribed) {
+            return l2.get(key);
+        }
+        long now = System.currentTimeMillis();
+        synchronized (l1) {
+            NearCacheEntry<V> entry = l1.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                l1Hits.increment();
+                return entry.value;
+            }
+        }
+        l1Misses.increment();
+        long invalidationsBefore = invalidations.get();
+        V value = l2.get(key);
+        if (value != null) {
+            l2Hits.increment();
+        } else {
+            l2Misses.increment();
+        }
+        synchronized (l1) {
+            // value read from L2 may be stale if key has been invalidated meanwhile
+            if (invalidations.get() == invalidationsBefore) {
+                l1.put(key, new NearCacheEntry<>(value, now + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return l2.size();
+    }
+
+    @Override
+    public V remove(String key) {
+        V value = l2.remove(key);
+        invalidate(key);
+        return value;
+    }
+
+    @Override
+    public void remove(Predicate<V> predicate) {
+        l2.remove(predicate);
+        invalidate(ALL_KEYS);
+    }
+
+    @Override
+    public boolean remove(String key, V value) {
+        boolean removed = l2.remove(key, value);
+        if (removed) {
+            invalidate(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public V computeIfPresent(String key, BiFunction<String, V, V> remappingFunction) {
+        V value = l2.computeIfPresent(key, remappingFunction);
+        invalidate(key);
+        return value;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    public long getL1Hits() {
+        return l1Hits.sum();
+    }
+
+    public long getL1Misses() {
+        return l1Misses.sum();
+    }
+
+    public long getL2Hits() {
+        return l2Hits.sum();
+    }
+
+    public long getL2Misses() {
+        return l2Misses.sum();
+    }
+
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    public int getL1Size() {
+        synchronized (l1) {
+            return l1.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (listener.isSubscribed()) {
+            listener.unsubscribe();
+        }
+        listenerThread.interrupt();
+        l2.close();
+    }
+
+    private void invalidate(String key) {
+        evict(key);
+        try (Jedis jedis = l2.getJedisPool().getResource()) {
+            jedis.publish(channel, nodeId + ":" + key);
+        }
+    }
+
+    private void evict(String key) {
+        synchronized (l1) {
+            invalidations.incrementAndGet();
+            if (ALL_KEYS.equals(key)) {
+                l1.clear();
+            } else {
+                l1.remove(key);
+            }
+        }
+    }
+
+    private void listen() {
+        while (!closed) {
+            try (Jedis jedis = l2.getJedisPool().getResource()) {
+                jedis.subscribe(listener, channel);
+            } catch (Exception e) {
+                if (!closed) {
+                    LOG.warn("Near-cache invalidation subscription {} lost: {}", channel, e.getMessage());
+                }
+            }
+            // invalidations published while not subscribed are lost
+            subscribed = false;
+            evict(ALL_KEYS);
+            if (!closed) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class InvalidationListener extends JedisPubSub {
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            evict(ALL_KEYS);
+            subscribed = true;
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            int separator = message.indexOf(':');
+            if (separator > 0 && !nodeId.equals(message.substring(0, separator))) {
+                evict(message.substring(separator + 1));
+            }
+        }
+
+    }
+
+    private static final class NearCacheEntry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private NearCacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,383 @@
+package one.microproject.iamservice.caches.redis.tests;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process redis stand-in speaking RESP2, implements only commands used by RedisCacheHolderImpl:
+ * PING, GET, SET (PX, KEEPTTL), GETDEL, DEL, MGET, PTTL, SCAN (MATCH, COUNT), WATCH, UNWATCH, MULTI, EXEC, DISCARD,
+ * SUBSCRIBE, UNSUBSCRIBE and PUBLISH.
+ */
+public class FakeRedisServer implements AutoCloseable {
+
+    private static final Object NULL_BULK = new Object();
+    private static final Object NULL_ARRAY = new Object();
+
+    private final ServerSocket serverSocket;
+    private final TreeMap<String, Entry> data;
+    private final Map<String, Long> versions;
+    private final Map<String, Integer> commandCounts;
+    private final Map<Long, String> cursors;
+    private final Map<String, Set<OutputStream>> subscribers;
+    private long version;
+
+    public FakeRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.data = new TreeMap<>();
+        this.versions = new HashMap<>();
+        this.commandCounts = new ConcurrentHashMap<>();
+        this.cursors = new HashMap<>();
+        this.subscribers = new ConcurrentHashMap<>();
+        Thread acceptor = new Thread(this::accept, "fake-redis");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getCommandCount(String command) {
+        return commandCounts.getOrDefault(command, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread connection = new Thread(() -> serve(socket), "fake-redis-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Map<String, Long> watched = new HashMap<>();
+        List<List<String>> queued = null;
+        try (socket;
+             InputStream is = new BufferedInputStream(socket.getInputStream());
+             OutputStream os = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                List<String> command = readCommand(is);
+                if (command == null) {
+                    return;
+                }
+                String name = command.get(0).toUpperCase();
+                commandCounts.merge(name, 1, Integer::sum);
+                Object reply;
+                if ("MULTI".equals(name)) {
+                    queued = new ArrayList<>();
+                    reply = "+OK";
+                } else if ("DISCARD".equals(name)) {
+                    queued = null;
+                    watched.clear();
+                    reply = "+OK";
+                } else if ("EXEC".equals(name)) {
+                    reply = exec(queued, watched);
+                    queued = null;
+                    watched.clear();
+                } else if (queued != null) {
+                    queued.add(command);
+                    reply = "+QUEUED";
+                } else if ("WATCH".equals(name)) {
+                    synchronized (this) {
+                        for (String key : command.subList(1, command.size())) {
+                            expire(key);
+                            watched.put(key, versions.getOrDefault(key, 0L));
+                        }
+                    }
+                    reply = "+OK";
+                } else if ("UNWATCH".equals(name)) {
+                    watched.clear();
+                    reply = "+OK";
+                } else if ("SUBSCRIBE".equals(name)) {
+                    String channel = command.get(1);
+                    subscribers.computeIfAbsent(channel, c -> ConcurrentHashMap.newKeySet()).add(os);
+                    reply = List.of("subscribe", channel, 1L);
+                } else if ("UNSUBSCRIBE".equals(name)) {
+                    subscribers.values().forEach(channelSubscribers -> channelSubscribers.remove(os));
+                    reply = List.of("unsubscribe", command.size() > 1 ? command.get(1) : "", 0L);
+                } else if ("PUBLISH".equals(name)) {
+                    reply = publish(command.get(1), command.get(2));
+                } else {
+                    synchronized (this) {
+                        reply = execute(command);
+                    }
+                }
+                synchronized (os) {
+                    writeReply(os, reply);
+                    os.flush();
+                }
+            }
+        } catch (IOException e) {
+            // connection closed by client
+        }
+    }
+
+    private long publish(String channel, String message) {
+        long receivers = 0;
+        for (OutputStream subscriber : subscribers.getOrDefault(channel, Set.of())) {
+            try {
+                synchronized (subscriber) {
+                    writeReply(subscriber, List.of("message", channel, message));
+                    subscriber.flush();
+                }
+                receivers++;
+            } catch (IOException e) {
+                subscribers.get(channel).remove(subscriber);
+            }
+        }
+        return receivers;
+    }
+
+    private synchronized Object exec(List<List<String>> queued, Map<String, Long> watched) {
+        if (queued == null) {
+            return new IllegalStateException("EXEC without MULTI");
+        }
+        for (Map.Entry<String, Long> entry : watched.entrySet()) {
+            expire(entry.getKey());
+            if (!versions.getOrDefault(entry.getKey(), 0L).equals(entry.getValue())) {
+                return NULL_ARRAY;
+            }
+        }
+        List<Object> replies = new ArrayList<>();
+        for (List<String> command : queued) {
+            replies.add(execute(command));
+        }
+        return replies;
+    }
+
+    private Object execute(List<String> command) {
+        String name = command.get(0).toUpperCase();
+        switch (name) {
+            case "PING":
+                return "+PONG";
+            case "GET": {
+                Entry entry = getEntry(command.get(1));
+                return entry == null ? NULL_BULK : entry.value;
+            }
+            case "GETDEL": {
+                Entry entry = getEntry(command.get(1));
+                if (entry == null) {
+                    return NULL_BULK;
+                }
+                delete(command.get(1));
+                return entry.value;
+            }
+            case "SET":
+                return set(command);
+            case "DEL": {
+                long removed = 0;
+                for (String key : command.subList(1, command.size())) {
+                    if (getEntry(key) != null) {
+                        delete(key);
+                        removed++;
+                    }
+                }
+                return removed;
+            }
+            case "MGET": {
+                List<Object> values = new ArrayList<>();
+                for (String key : command.subList(1, command.size())) {
+                    Entry entry = getEntry(key);
+                    values.add(entry == null ? NULL_BULK : entry.value);
+                }
+                return values;
+            }
+            case "PTTL": {
+                Entry entry = getEntry(command.get(1));
+                if (entry == null) {
+                    return -2L;
+                }
+                return entry.expiresAt == 0 ? -1L : entry.expiresAt - System.currentTimeMillis();
+            }
+            case "SCAN":
+                return scan(command);
+            default:
+                return new IllegalStateException("unknown command '" + name + "'");
+        }
+    }
+
+    private Object set(List<String> command) {
+        String key = command.get(1);
+        Entry current = getEntry(key);
+        long expiresAt = 0;
+        for (int i = 3; i < command.size(); i++) {
+            String option = command.get(i).toUpperCase();
+            if ("PX".equals(option)) {
+                expiresAt = System.currentTimeMillis() + Long.parseLong(command.get(++i));
+            } else if ("KEEPTTL".equals(option) && current != null) {
+                expiresAt = current.expiresAt;
+            }
+        }
+        data.put(key, new Entry(command.get(2), expiresAt));
+        versions.put(key, ++version);
+        return "+OK";
+    }
+
+    private Object scan(List<String> command) {
+        long cursor = Long.parseLong(command.get(1));
+        Pattern pattern = null;
+        int count = 10;
+        for (int i = 2; i < command.size(); i++) {
+            String option = command.get(i).toUpperCase();
+            if ("MATCH".equals(option)) {
+                pattern = globToPattern(command.get(++i));
+            } else if ("COUNT".equals(option)) {
+                count = Integer.parseInt(command.get(++i));
+            }
+        }
+        // cursor remembers last returned key, so keys present during whole iteration are returned despite deletes
+        String lastKey = cursors.remove(cursor);
+        List<String> keys = new ArrayList<>(lastKey == null ? data.keySet() : data.tailMap(lastKey, false).keySet());
+        List<Object> page = new ArrayList<>();
+        int position = 0;
+        while (position < keys.size() && position < count) {
+            String key = keys.get(position++);
+            if (getEntry(key) != null && (pattern == null || pattern.matcher(key).matches())) {
+                page.add(key);
+            }
+        }
+        String nextCursor = "0";
+        if (position < keys.size()) {
+            long next = ++version;
+            cursors.put(next, keys.get(position - 1));
+            nextCursor = Long.toString(next);
+        }
+        return List.of(nextCursor, page);
+    }
+
+    private Entry getEntry(String key) {
+        expire(key);
+        return data.get(key);
+    }
+
+    private void expire(String key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= System.currentTimeMillis()) {
+            delete(key);
+        }
+    }
+
+    private void delete(String key) {
+        data.remove(key);
+        versions.put(key, ++version);
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static List<String> readCommand(InputStream is) throws IOException {
+        String header = readLine(is);
+        if (header == null) {
+            return null;
+        }
+        if (header.charAt(0) != '*') {
+            throw new IOException("Unsupported request " + header);
+        }
+        int size = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = Integer.parseInt(readLine(is).substring(1));
+            byte[] bytes = is.readNBytes(length + 2);
+            command.add(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream is) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = is.read()) != -1) {
+            if (c == '\r') {
+                is.read();
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return null;
+    }
+
+    private static void writeReply(OutputStream os, Object reply) throws IOException {
+        if (reply == NULL_BULK) {
+            write(os, "$-1\r\n");
+        } else if (reply == NULL_ARRAY) {
+            write(os, "*-1\r\n");
+        } else if (reply instanceof Exception) {
+            write(os, "-ERR " + ((Exception) reply).getMessage() + "\r\n");
+        } else if (reply instanceof Long) {
+            write(os, ":" + reply + "\r\n");
+        } else if (reply instanceof List) {
+            List<?> replies = (List<?>) reply;
+            write(os, "*" + replies.size() + "\r\n");
+            for (Object item : replies) {
+                writeReply(os, item);
+            }
+        } else {
+            String value = (String) reply;
+            if (value.startsWith("+")) {
+                write(os, value + "\r\n");
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+                write(os, "$" + bytes.length + "\r\n");
+                os.write(bytes);
+                write(os, "\r\n");
+            }
+        }
+    }
+
+    private static void write(OutputStream os, String value) throws IOException {
+        os.write(value.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package one.microproject.iamservice.caches.redis.tests;
+
+import one.microproject.iamservice.caches.redis.CacheCodec;
+import one.microproject.iamservice.caches.redis.CacheReadException;
+import one.microproject.iamservice.caches.redis.JacksonCacheCodec;
+import one.microproject.iamservice.caches.redis.RedisCacheHolderImpl;
+import one.microproject.iamservice.caches.redis.RedisConfiguration;
+import one.microproject.iamservice.core.dto.Code;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKCEMethod;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
+import one.microproject.iamservice.core.services.dto.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JacksonCacheCodecTests {
+
+    @Test
+    void testSmileIsSmallerThanJson() throws URISyntaxException {
+        AuthorizationCodeContext context = createContext();
+        CacheCodec<AuthorizationCodeContext> jsonCodec = JacksonCacheCodec.json(AuthorizationCodeContext.class);
+        CacheCodec<AuthorizationCodeContext> smileCodec = JacksonCacheCodec.smile(AuthorizationCodeContext.class);
+        byte[] json = jsonCodec.encode(context);
+        byte[] smile = smileCodec.encode(context);
+        assertTrue(smile.length < json.length, "smile=" + smile.length + " json=" + json.length);
+        AuthorizationCodeContext decoded = smileCodec.decode(smile);
+        assertEquals(context.getCode().getCodeValue(), decoded.getCode().getCodeValue());
+        assertEquals(context.getScope(), decoded.getScope());
+        assertEquals(context.getIssued(), decoded.getIssued());
+        assertEquals(context.getIssuerUri(), decoded.getIssuerUri());
+    }
+
+    @Test
+    void testSmileCodecReadsJsonValues() throws URISyntaxException {
+        AuthorizationCodeContext context = createContext();
+        byte[] json = JacksonCacheCodec.json(AuthorizationCodeContext.class).encode(context);
+        AuthorizationCodeContext decoded = JacksonCacheCodec.smile(AuthorizationCodeContext.class).decode(json);
+        assertEquals(context.getUserId(), decoded.getUserId());
+        assertThrows(CacheReadException.class,
+                () -> JacksonCacheCodec.smile(AuthorizationCodeContext.class).decode("{".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testSwitchFromJsonToSmileCodec() throws Exception {
+        AuthorizationCodeContext context = createContext();
+        try (FakeRedisServer redisServer = new FakeRedisServer()) {
+            RedisConfiguration configuration = new RedisConfiguration(redisServer.getHost(), redisServer.getPort());
+            try (RedisCacheHolderImpl<AuthorizationCodeContext> jsonHolder = new RedisCacheHolderImpl<>(configuration,
+                    AuthorizationCodeContext.class, JacksonCacheCodec.json(AuthorizationCodeContext.class));
+                 RedisCacheHolderImpl<AuthorizationCodeContext> smileHolder = new RedisCacheHolderImpl<>(configuration,
+                    AuthorizationCodeContext.class)) {
+                jsonHolder.put("c-001", context);
+                AuthorizationCodeContext stored = smileHolder.get("c-001");
+                assertEquals(context.getScope(), stored.getScope());
+                assertTrue(smileHolder.remove("c-001", stored));
+                assertEquals(0, smileHolder.size());
+            }
+        }
+    }
+
+    private static AuthorizationCodeContext createContext() throws URISyntaxException {
+        return new AuthorizationCodeContext(Code.from("a5f2b0c8-7d0e-4c54-9d63-6c1a2f1d9e11"),
+                new URI("http://localhost:8080/services/oauth2/org01/proj01"), OrganizationId.from("org01"),
+                ProjectId.from("proj01"), ClientId.from("cl01"), UserId.from("usr01"), "state-001", new Date(),
+                new Scope(Set.of("manage-organizations", "manage-projects", "openid")), Set.of("aud1", "aud2"),
+                "http://localhost:8080/redirect", "challenge", PKCEMethod.S256);
+    }
+
+}
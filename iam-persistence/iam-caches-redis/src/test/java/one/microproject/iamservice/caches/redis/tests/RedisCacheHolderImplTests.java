@@ -0,0 +1,127 @@
+package one.microproject.iamservice.caches.redis.tests;
+
+import one.microproject.iamservice.caches.redis.RedisCacheHolderImpl;
+import one.microproject.iamservice.caches.redis.RedisConfiguration;
+import one.microproject.iamservice.core.model.JWToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCacheHolderImplTests {
+
+    private static final String KEY_PREFIX = JWToken.class.getCanonicalName() + ":";
+
+    private FakeRedisServer redisServer;
+    private RedisCacheHolderImpl<JWToken> cacheHolder;
+
+    @BeforeEach
+    void init() throws IOException {
+        redisServer = new FakeRedisServer();
+        RedisConfiguration configuration = new RedisConfiguration(redisServer.getHost(), redisServer.getPort(), 8, 8, 0, 2000, 2);
+        cacheHolder = new RedisCacheHolderImpl<>(configuration, JWToken.class);
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        cacheHolder.close();
+        redisServer.close();
+    }
+
+    @Test
+    void testKeysAndSizeAreScanned() {
+        for (int i = 0; i < 5; i++) {
+            cacheHolder.put("k-00" + i, JWToken.from("data-00" + i));
+        }
+        assertEquals(Set.of("k-000", "k-001", "k-002", "k-003", "k-004"), cacheHolder.keys());
+        assertEquals(5, cacheHolder.size());
+        assertEquals(JWToken.from("data-002").getToken(), cacheHolder.get("k-002").getToken());
+        assertEquals(0, redisServer.getCommandCount("KEYS"));
+        assertTrue(redisServer.getCommandCount("SCAN") >= 3);
+    }
+
+    @Test
+    void testEntriesExpireNatively() throws InterruptedException {
+        cacheHolder.put("k-001", JWToken.from("data-001"), System.currentTimeMillis() + 100);
+        cacheHolder.put("k-002", JWToken.from("data-002"), System.currentTimeMillis() + 60_000);
+        try (Jedis jedis = new Jedis(redisServer.getHost(), redisServer.getPort())) {
+            assertTrue(jedis.pttl(KEY_PREFIX + "k-002") > 0);
+        }
+        Thread.sleep(200);
+        assertNull(cacheHolder.get("k-001"));
+        assertEquals(Set.of("k-002"), cacheHolder.keys());
+    }
+
+    @Test
+    void testRemoveIsSingleRoundTrip() {
+        cacheHolder.put("k-001", JWToken.from("data-001"));
+        assertEquals("data-001", cacheHolder.remove("k-001").getToken());
+        assertNull(cacheHolder.remove("k-001"));
+        assertEquals(2, redisServer.getCommandCount("GETDEL"));
+        assertEquals(0, redisServer.getCommandCount("GET"));
+    }
+
+    @Test
+    void testRemoveByPredicateIsBatched() {
+        for (int i = 0; i < 6; i++) {
+            cacheHolder.put("k-00" + i, JWToken.from((i % 2 == 0 ? "even-" : "odd-") + i));
+        }
+        cacheHolder.remove(token -> token.getToken().startsWith("even-"));
+        assertEquals(Set.of("k-001", "k-003", "k-005"), cacheHolder.keys());
+        assertEquals(0, redisServer.getCommandCount("GET"));
+        assertEquals(3, redisServer.getCommandCount("MGET"));
+    }
+
+    @Test
+    void testComputeIfPresentKeepsTTL() {
+        cacheHolder.put("k-001", JWToken.from("data-001"), System.currentTimeMillis() + 60_000);
+        JWToken updated = cacheHolder.computeIfPresent("k-001", (key, token) -> JWToken.from(token.getToken() + "-updated"));
+        assertEquals("data-001-updated", updated.getToken());
+        assertEquals("data-001-updated", cacheHolder.get("k-001").getToken());
+        try (Jedis jedis = new Jedis(redisServer.getHost(), redisServer.getPort())) {
+            assertTrue(jedis.pttl(KEY_PREFIX + "k-001") > 0);
+        }
+        assertNull(cacheHolder.computeIfPresent("k-002", (key, token) -> token));
+        assertNull(cacheHolder.computeIfPresent("k-001", (key, token) -> null));
+        assertNull(cacheHolder.get("k-001"));
+    }
+
+    @Test
+    void testConcurrentCompareAndRemove() throws Exception {
+        cacheHolder.put("k-001", JWToken.from("data-001"));
+        JWToken token = cacheHolder.get("k-001");
+        assertFalse(cacheHolder.remove("k-001", JWToken.from("data-002")));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> cacheHolder.remove("k-001", token));
+            }
+            int removed = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    removed++;
+                }
+            }
+            assertEquals(1, removed);
+            assertNull(cacheHolder.get("k-001"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
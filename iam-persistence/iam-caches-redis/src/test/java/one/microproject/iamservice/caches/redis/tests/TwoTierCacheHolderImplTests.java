@@ -0,0 +1,117 @@
+package one.microproject.iamservice.caches.redis.tests;
+
+import one.microproject.iamservice.caches.redis.RedisCacheHolderImpl;
+import one.microproject.iamservice.caches.redis.RedisConfiguration;
+import one.microproject.iamservice.caches.redis.TwoTierCacheHolderImpl;
+import one.microproject.iamservice.core.model.JWToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TwoTierCacheHolderImplTests {
+
+    private FakeRedisServer redisServer;
+    private RedisConfiguration configuration;
+
+    @BeforeEach
+    void init() throws IOException {
+        redisServer = new FakeRedisServer();
+        configuration = new RedisConfiguration(redisServer.getHost(), redisServer.getPort());
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        redisServer.close();
+    }
+
+    @Test
+    void testMissesAreServedFromL1() throws InterruptedException {
+        try (TwoTierCacheHolderImpl<JWToken> cacheHolder = createCacheHolder(100, 60_000)) {
+            assertNull(cacheHolder.get("k-001"));
+            assertNull(cacheHolder.get("k-001"));
+            assertEquals(1, redisServer.getCommandCount("GET"));
+            assertEquals(1, cacheHolder.getL1Hits());
+            assertEquals(1, cacheHolder.getL2Misses());
+            cacheHolder.put("k-001", JWToken.from("data-001"));
+            assertEquals("data-001", cacheHolder.get("k-001").getToken());
+            assertEquals("data-001", cacheHolder.get("k-001").getToken());
+            assertEquals(2, cacheHolder.getL1Hits());
+            assertEquals(1, cacheHolder.getL2Hits());
+        }
+    }
+
+    @Test
+    void testWritesInvalidateOtherNodes() throws InterruptedException {
+        try (TwoTierCacheHolderImpl<JWToken> nodeA = createCacheHolder(100, 60_000);
+             TwoTierCacheHolderImpl<JWToken> nodeB = createCacheHolder(100, 60_000)) {
+            assertNull(nodeB.get("k-001"));
+            nodeA.put("k-001", JWToken.from("data-001"));
+            assertNotNull(awaitValue(nodeB, "k-001"));
+            assertNotNull(nodeA.remove("k-001"));
+            assertTrue(awaitNoValue(nodeB, "k-001"));
+        }
+    }
+
+    @Test
+    void testL1EntriesExpire() throws InterruptedException {
+        try (TwoTierCacheHolderImpl<JWToken> cacheHolder = createCacheHolder(100, 100);
+             RedisCacheHolderImpl<JWToken> redisOnly = new RedisCacheHolderImpl<>(configuration, JWToken.class)) {
+            assertNull(cacheHolder.get("k-001"));
+            // write without invalidation message
+            redisOnly.put("k-001", JWToken.from("data-001"));
+            assertNull(cacheHolder.get("k-001"));
+            Thread.sleep(200);
+            assertNotNull(cacheHolder.get("k-001"));
+        }
+    }
+
+    @Test
+    void testL1IsBounded() throws InterruptedException {
+        try (TwoTierCacheHolderImpl<JWToken> cacheHolder = createCacheHolder(2, 60_000)) {
+            for (int i = 0; i < 5; i++) {
+                cacheHolder.get("k-00" + i);
+            }
+            assertEquals(2, cacheHolder.getL1Size());
+        }
+    }
+
+    private TwoTierCacheHolderImpl<JWToken> createCacheHolder(int maxSize, long ttlMillis) throws InterruptedException {
+        TwoTierCacheHolderImpl<JWToken> cacheHolder =
+                new TwoTierCacheHolderImpl<>(new RedisCacheHolderImpl<>(configuration, JWToken.class), maxSize, ttlMillis);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cacheHolder.isSubscribed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(cacheHolder.isSubscribed());
+        return cacheHolder;
+    }
+
+    private static JWToken awaitValue(TwoTierCacheHolderImpl<JWToken> cacheHolder, String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        JWToken value = cacheHolder.get(key);
+        while (value == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            value = cacheHolder.get(key);
+        }
+        return value;
+    }
+
+    private static boolean awaitNoValue(TwoTierCacheHolderImpl<JWToken> cacheHolder, String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cacheHolder.get(key) != null) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+}
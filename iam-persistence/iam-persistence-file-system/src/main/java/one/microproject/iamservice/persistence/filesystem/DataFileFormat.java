@@ -0,0 +1,18 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+/**
+ * Format of the model data file.
+ */
+public enum DataFileFormat {
+
+    /**
+     * Human readable JSON document, whole model is decoded when loaded.
+     */
+    JSON,
+
+    /**
+     * Binary {@link ModelSnapshot}, memory-mapped when loaded and entities are decoded on demand.
+     */
+    SNAPSHOT
+
+}
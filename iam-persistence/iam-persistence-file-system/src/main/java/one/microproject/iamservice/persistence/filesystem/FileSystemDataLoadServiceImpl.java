@@ -1,32 +1,40 @@
 package one.microproject.iamservice.persistence.filesystem;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import one.microproject.iamservice.core.services.persistence.DataLoadService;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
-import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
 public class FileSystemDataLoadServiceImpl implements DataLoadService {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileSystemDataLoadServiceImpl.class);
 
-    private Path dataFile;
+    private final Path dataFile;
+    private final ParallelModelReader reader;
 
     public FileSystemDataLoadServiceImpl(Path dataFile) {
-        LOG.info("FileSystemPersistence: loading from dataFile={}", dataFile);
+        this(dataFile, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FileSystemDataLoadServiceImpl(Path dataFile, int parallelism) {
+        LOG.info("FileSystemPersistence: loading from dataFile={} parallelism={}", dataFile, parallelism);
         this.dataFile = dataFile;
+        this.reader = new ParallelModelReader(parallelism, ParallelModelReader.DEFAULT_CHUNK_SIZE);
     }
 
     @Override
     public ModelWrapper populateCache() throws IOException {
         long timeStamp = System.nanoTime();
-        ObjectMapper mapper = new ObjectMapper();
-        ModelWrapper modelWrapper = mapper.readValue(dataFile.toFile(), ModelWrapperImpl.class);
-        LOG.info("populateCache: loaded in {}ms", ((System.nanoTime() - timeStamp)/1_000_000F));
+        ModelWrapper modelWrapper = reader.read(dataFile);
+        float readTime = (System.nanoTime() - timeStamp)/1_000_000F;
+        timeStamp = System.nanoTime();
+        List<ModelChangeRecord> records = ModelChangeLog.read(ModelChangeLog.logFileOf(dataFile));
+        records.forEach(r -> modelWrapper.write(r.toBatch()));
+        LOG.info("populateCache: loaded in {}ms, {} change log records replayed in {}ms", readTime, records.size(), ((System.nanoTime() - timeStamp)/1_000_000F));
         return modelWrapper;
     }
 
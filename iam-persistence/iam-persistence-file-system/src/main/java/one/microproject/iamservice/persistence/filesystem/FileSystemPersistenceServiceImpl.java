@@ -3,31 +3,89 @@ package one.microproject.iamservice.persistence.filesystem;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
-public class FileSystemPersistenceServiceImpl implements PersistenceService {
+/**
+ * Persistence of the model into data file (snapshot) and append-only change log next to it.
+ * Data file is written as JSON or as binary {@link ModelSnapshot}, see {@link DataFileFormat}.
+ * Single changes are appended to the change log, whole model is written into the data file on flush or when
+ * the change log grows over compaction threshold. Data file is replaced atomically and change log is truncated
+ * only after new data file has been forced to disk, so crash at any point leaves data file and change log
+ * which together contain all persisted changes.
+ */
+public class FileSystemPersistenceServiceImpl implements PersistenceService, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileSystemPersistenceServiceImpl.class);
 
+    public static final FsyncPolicy DEFAULT_FSYNC_POLICY = FsyncPolicy.ALWAYS;
+    public static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 1000;
+    public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 16 * 1024 * 1024;
+    public static final DataFileFormat DEFAULT_DATA_FILE_FORMAT = DataFileFormat.JSON;
+
     private final Path dataFile;
+    private final Path tempFile;
+    private final ModelChangeLog changeLog;
+    private final long compactionThresholdBytes;
+    private final DataFileFormat dataFileFormat;
     private final ObjectMapper mapper;
 
     public FileSystemPersistenceServiceImpl(Path dataFile) {
+        this(dataFile, DEFAULT_FSYNC_POLICY, DEFAULT_FSYNC_INTERVAL_MILLIS, DEFAULT_COMPACTION_THRESHOLD_BYTES);
+    }
+
+    public FileSystemPersistenceServiceImpl(Path dataFile, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, long compactionThresholdBytes) {
+        this(dataFile, fsyncPolicy, fsyncIntervalMillis, compactionThresholdBytes, DEFAULT_DATA_FILE_FORMAT);
+    }
+
+    public FileSystemPersistenceServiceImpl(Path dataFile, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, long compactionThresholdBytes, DataFileFormat dataFileFormat) {
         this.dataFile = dataFile;
+        this.tempFile = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        this.changeLog = new ModelChangeLog(ModelChangeLog.logFileOf(dataFile), fsyncPolicy, fsyncIntervalMillis);
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.dataFileFormat = dataFileFormat;
         this.mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
-        LOG.info("FileSystemPersistence: dataFile={}", dataFile);
+        LOG.info("FileSystemPersistence: dataFile={} format={} fsync={} fsyncInterval={}ms compactionThreshold={}B",
+                dataFile, dataFileFormat, fsyncPolicy, fsyncIntervalMillis, compactionThresholdBytes);
     }
 
     @Override
-    public void onModelChange(ModelWrapper modelWrapper) throws IOException {
+    public synchronized void onModelChange(ModelWrapper modelWrapper) throws IOException {
         long timestamp = System.nanoTime();
-        mapper.writeValue(dataFile.toFile(), modelWrapper);
+        if (DataFileFormat.SNAPSHOT.equals(dataFileFormat)) {
+            ModelSnapshotWriter.write(modelWrapper, tempFile);
+        } else {
+            mapper.writeValue(tempFile.toFile(), modelWrapper);
+        }
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tempFile, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        changeLog.truncate();
         LOG.debug("onModelChange: {}, saved in {}ms", modelWrapper.getModel().getId(), ((System.nanoTime() - timestamp)/1_000_000F));
     }
 
+    @Override
+    public synchronized void onModelChange(ModelWrapper modelWrapper, ModelBatch changes) throws IOException {
+        changeLog.append(ModelChangeRecord.from(changes));
+        if (changeLog.size() >= compactionThresholdBytes) {
+            LOG.info("onModelChange: compacting change log of {}", modelWrapper.getModel().getId());
+            onModelChange(modelWrapper);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        changeLog.close();
+    }
+
 }
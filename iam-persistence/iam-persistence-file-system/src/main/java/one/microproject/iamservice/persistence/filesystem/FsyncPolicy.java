@@ -0,0 +1,23 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+/**
+ * Durability of change log appends.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every change is forced to disk before the mutation returns.
+     */
+    ALWAYS,
+
+    /**
+     * Changes are forced to disk at most once per fsync interval, changes of last interval may be lost on power failure.
+     */
+    INTERVAL,
+
+    /**
+     * Changes are never forced, operating system decides when they reach the disk.
+     */
+    NEVER
+
+}
@@ -0,0 +1,165 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of model changes written next to model data file.
+ * Each record is framed as [int length][int crc32][JSON payload], record torn by crash is detected by length or
+ * checksum mismatch. Reading stops at first torn record and opening log for append truncates it, so all records
+ * appended later are readable again.
+ */
+public class ModelChangeLog implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelChangeLog.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final String LOG_FILE_SUFFIX = ".wal";
+
+    private final Path logFile;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final ObjectWriter writer;
+    private FileChannel channel;
+    private long lastFsync;
+
+    public ModelChangeLog(Path logFile, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.logFile = logFile;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.writer = new ObjectMapper().writerFor(ModelChangeRecord.class);
+    }
+
+    public static Path logFileOf(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + LOG_FILE_SUFFIX);
+    }
+
+    /**
+     * Read all complete records of the log.
+     * @param logFile log file, missing file is an empty log.
+     * @return records in order they have been appended.
+     * @throws IOException in case log can't be read.
+     */
+    public static List<ModelChangeRecord> read(Path logFile) throws IOException {
+        List<ModelChangeRecord> records = new ArrayList<>();
+        scan(logFile, new ObjectMapper().readerFor(ModelChangeRecord.class), records);
+        return records;
+    }
+
+    public synchronized void append(ModelChangeRecord record) throws IOException {
+        byte[] payload = writer.writeValueAsBytes(record);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc32.getValue());
+        buffer.put(payload);
+        buffer.flip();
+        FileChannel fileChannel = channel();
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        long now = System.currentTimeMillis();
+        if (fsyncPolicy == FsyncPolicy.ALWAYS
+                || (fsyncPolicy == FsyncPolicy.INTERVAL && now - lastFsync >= fsyncIntervalMillis)) {
+            fileChannel.force(false);
+            lastFsync = now;
+        }
+    }
+
+    /**
+     * Discard all records, called after all changes have been written into model data file.
+     */
+    public synchronized void truncate() throws IOException {
+        FileChannel fileChannel = channel();
+        fileChannel.truncate(0);
+        fileChannel.force(true);
+    }
+
+    public synchronized long size() throws IOException {
+        return channel().size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                channel.force(false);
+            }
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Open log lazily, so log is not truncated before data load service replayed it.
+     */
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            long validLength = scan(logFile, null, null);
+            channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() > validLength) {
+                LOG.warn("Truncating torn change log {} at {} bytes", logFile, validLength);
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+        }
+        return channel;
+    }
+
+    /**
+     * Scan log and return length of its complete records, records are parsed only if reader is given.
+     */
+    private static long scan(Path logFile, ObjectReader reader, List<ModelChangeRecord> records) throws IOException {
+        if (!Files.exists(logFile)) {
+            return 0;
+        }
+        long validLength = 0;
+        long fileSize = Files.size(logFile);
+        try (InputStream is = Files.newInputStream(logFile);
+             DataInputStream dis = new DataInputStream(new BufferedInputStream(is))) {
+            while (validLength + HEADER_SIZE <= fileSize) {
+                int length = dis.readInt();
+                int checksum = dis.readInt();
+                if (length < 0 || validLength + HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                dis.readFully(payload);
+                CRC32 crc32 = new CRC32();
+                crc32.update(payload);
+                if ((int) crc32.getValue() != checksum) {
+                    break;
+                }
+                if (reader != null) {
+                    records.add(reader.readValue(payload));
+                }
+                validLength = validLength + HEADER_SIZE + length;
+            }
+        } catch (EOFException e) {
+            // torn record at the end of the log
+        }
+        if (validLength < fileSize) {
+            LOG.warn("Change log {} has torn record at {} bytes, {} bytes ignored", logFile, validLength, fileSize - validLength);
+        }
+        return validLength;
+    }
+
+}
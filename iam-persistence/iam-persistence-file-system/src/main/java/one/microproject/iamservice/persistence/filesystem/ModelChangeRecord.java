@@ -0,0 +1,115 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.RoleWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serialized form of one {@link ModelBatch} in change log, wrapper with null value marks removal of the key.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ModelChangeRecord {
+
+    private final List<OrganizationWrapper> organizations;
+    private final List<ProjectWrapper> projects;
+    private final List<UserWrapper> users;
+    private final List<ClientWrapper> clients;
+    private final List<RoleWrapper> roles;
+
+    @JsonCreator
+    public ModelChangeRecord(@JsonProperty("organizations") List<OrganizationWrapper> organizations,
+                             @JsonProperty("projects") List<ProjectWrapper> projects,
+                             @JsonProperty("users") List<UserWrapper> users,
+                             @JsonProperty("clients") List<ClientWrapper> clients,
+                             @JsonProperty("roles") List<RoleWrapper> roles) {
+        this.organizations = (organizations == null) ? List.of() : organizations;
+        this.projects = (projects == null) ? List.of() : projects;
+        this.users = (users == null) ? List.of() : users;
+        this.clients = (clients == null) ? List.of() : clients;
+        this.roles = (roles == null) ? List.of() : roles;
+    }
+
+    public static ModelChangeRecord from(ModelBatch batch) {
+        List<OrganizationWrapper> organizations = new ArrayList<>();
+        batch.getOrganizations().forEach((k, v) -> organizations.add(new OrganizationWrapper(k, v)));
+        List<ProjectWrapper> projects = new ArrayList<>();
+        batch.getProjects().forEach((k, v) -> projects.add(new ProjectWrapper(k, v)));
+        List<UserWrapper> users = new ArrayList<>();
+        batch.getUsers().forEach((k, v) -> users.add(new UserWrapper(k, v)));
+        List<ClientWrapper> clients = new ArrayList<>();
+        batch.getClients().forEach((k, v) -> clients.add(new ClientWrapper(k, v)));
+        List<RoleWrapper> roles = new ArrayList<>();
+        batch.getRoles().forEach((k, v) -> roles.add(new RoleWrapper(k, v)));
+        return new ModelChangeRecord(organizations, projects, users, clients, roles);
+    }
+
+    public ModelBatch toBatch() {
+        ModelBatch batch = new ModelBatch();
+        organizations.forEach(o -> {
+            if (o.getValue() == null) {
+                batch.removeOrganization(o.getKey());
+            } else {
+                batch.putOrganization(o.getKey(), o.getValue());
+            }
+        });
+        projects.forEach(p -> {
+            if (p.getValue() == null) {
+                batch.removeProject(p.getKey());
+            } else {
+                batch.putProject(p.getKey(), p.getValue());
+            }
+        });
+        users.forEach(u -> {
+            if (u.getValue() == null) {
+                batch.removeUser(u.getKey());
+            } else {
+                batch.putUser(u.getKey(), u.getValue());
+            }
+        });
+        clients.forEach(c -> {
+            if (c.getValue() == null) {
+                batch.removeClient(c.getKey());
+            } else {
+                batch.putClient(c.getKey(), c.getValue());
+            }
+        });
+        roles.forEach(r -> {
+            if (r.getValue() == null) {
+                batch.removeRole(r.getKey());
+            } else {
+                batch.putRole(r.getKey(), r.getValue());
+            }
+        });
+        return batch;
+    }
+
+    public List<OrganizationWrapper> getOrganizations() {
+        return organizations;
+    }
+
+    public List<ProjectWrapper> getProjects() {
+        return projects;
+    }
+
+    public List<UserWrapper> getUsers() {
+        return users;
+    }
+
+    public List<ClientWrapper> getClients() {
+        return clients;
+    }
+
+    public List<RoleWrapper> getRoles() {
+        return roles;
+    }
+
+}
@@ -0,0 +1,252 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.keys.Id;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read-only view of binary model snapshot written by {@link ModelSnapshotWriter}, mapped into memory.
+ * Snapshot layout, all numbers are big-endian:
+ * <pre>
+ * header:      int magic, int version, long string table offset, long directory offset, int directory size, long model record offset, int reserved
+ * records:     [int length][Smile encoded value] for the model and every entity
+ * strings:     int count, int[count + 1] offsets relative to string data, UTF-8 string data
+ * directory:   fixed size entries [byte type][byte id count][short reserved][int[3] string indexes][long record offset]
+ *              sorted by type and ids, so entities can be found by binary search before any index is built
+ * </pre>
+ * Only the header and directory are read when snapshot is opened, entities are decoded on demand.
+ * Snapshot is limited to 2GB, the size of single mapped buffer.
+ */
+public class ModelSnapshot {
+
+    public static final int MAGIC = 0x49414D53;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 40;
+    public static final int DIRECTORY_ENTRY_SIZE = 24;
+    public static final int MAX_IDS = 3;
+
+    public static final byte ORGANIZATION = 1;
+    public static final byte PROJECT = 2;
+    public static final byte USER = 3;
+    public static final byte CLIENT = 4;
+    public static final byte ROLE = 5;
+
+    private static final List<Class<?>> TYPES = List.of(Organization.class, Project.class, User.class, Client.class, Role.class);
+
+    private final ByteBuffer buffer;
+    private final ObjectMapper mapper;
+    private final int stringCount;
+    private final int stringOffsetsPosition;
+    private final int stringDataPosition;
+    private final int directoryPosition;
+    private final int directorySize;
+    private final int modelRecordPosition;
+
+    private ModelSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        this.mapper = createMapper();
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a model snapshot.");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported model snapshot version " + version + ".");
+        }
+        int stringTablePosition = toPosition(buffer.getLong(8));
+        this.directoryPosition = toPosition(buffer.getLong(16));
+        this.directorySize = buffer.getInt(24);
+        this.modelRecordPosition = toPosition(buffer.getLong(28));
+        this.stringCount = buffer.getInt(stringTablePosition);
+        this.stringOffsetsPosition = stringTablePosition + Integer.BYTES;
+        this.stringDataPosition = stringOffsetsPosition + (stringCount + 1) * Integer.BYTES;
+        if ((long) directoryPosition + (long) directorySize * DIRECTORY_ENTRY_SIZE > buffer.limit()) {
+            throw new IOException("Model snapshot is truncated.");
+        }
+    }
+
+    public static ModelSnapshot open(Path snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Model snapshot " + snapshotFile + " is larger than 2GB.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ModelSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Check if file starts with model snapshot magic number.
+     * @param file file to check.
+     * @return true if file is a model snapshot.
+     */
+    public static boolean isSnapshot(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    static ObjectMapper createMapper() {
+        return new ObjectMapper(new SmileFactory());
+    }
+
+    static byte typeOf(Class<?> type) {
+        int index = TYPES.indexOf(type);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unsupported model type " + type.getName());
+        }
+        return (byte) (index + 1);
+    }
+
+    public Model getModel() throws IOException {
+        return mapper.readerFor(Model.class).readValue(readRecord(modelRecordPosition));
+    }
+
+    /**
+     * @return number of entities in directory.
+     */
+    public int size() {
+        return directorySize;
+    }
+
+    public byte getType(int entry) {
+        return buffer.get(entryPosition(entry));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ModelKey<T> getKey(int entry) {
+        int position = entryPosition(entry);
+        byte type = buffer.get(position);
+        int idCount = buffer.get(position + 1);
+        String[] ids = new String[idCount];
+        for (int i = 0; i < idCount; i++) {
+            ids[i] = getString(buffer.getInt(position + 4 + i * Integer.BYTES));
+        }
+        switch (type) {
+            case ORGANIZATION:
+                return (ModelKey<T>) ModelKey.from(Organization.class, OrganizationId.from(ids[0]));
+            case PROJECT:
+                return (ModelKey<T>) ModelKey.from(Project.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]));
+            case USER:
+                return (ModelKey<T>) ModelKey.from(User.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), UserId.from(ids[2]));
+            case CLIENT:
+                return (ModelKey<T>) ModelKey.from(Client.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), ClientId.from(ids[2]));
+            case ROLE:
+                return (ModelKey<T>) ModelKey.from(Role.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), RoleId.from(ids[2]));
+            default:
+                throw new IllegalStateException("Unsupported model type " + type + " at directory entry " + entry);
+        }
+    }
+
+    /**
+     * Decode entity of directory entry.
+     * @param entry directory entry.
+     * @param type entity type.
+     * @return decoded entity.
+     * @throws IOException in case entity record can't be decoded.
+     */
+    public <T> T read(int entry, Class<T> type) throws IOException {
+        long recordOffset = buffer.getLong(entryPosition(entry) + 16);
+        return mapper.readerFor(type).readValue(readRecord(toPosition(recordOffset)));
+    }
+
+    /**
+     * Find directory entry of the key by binary search.
+     * @param key model key.
+     * @return directory entry or -1 if key is not in snapshot.
+     */
+    public int find(ModelKey<?> key) {
+        byte type = typeOf(key.getType());
+        Id[] ids = key.getIds();
+        int low = 0;
+        int high = directorySize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = compare(middle, type, ids);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(int entry, byte type, Id[] ids) {
+        int position = entryPosition(entry);
+        int result = Byte.compare(buffer.get(position), type);
+        if (result != 0) {
+            return result;
+        }
+        int idCount = buffer.get(position + 1);
+        for (int i = 0; i < Math.min(idCount, ids.length); i++) {
+            result = getString(buffer.getInt(position + 4 + i * Integer.BYTES)).compareTo(ids[i].getId());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(idCount, ids.length);
+    }
+
+    private String getString(int index) {
+        if (index < 0 || index >= stringCount) {
+            throw new IllegalStateException("String index " + index + " out of range.");
+        }
+        int start = buffer.getInt(stringOffsetsPosition + index * Integer.BYTES);
+        int end = buffer.getInt(stringOffsetsPosition + (index + 1) * Integer.BYTES);
+        byte[] data = new byte[end - start];
+        ByteBuffer view = buffer.duplicate();
+        view.position(stringDataPosition + start);
+        view.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readRecord(int position) {
+        int length = buffer.getInt(position);
+        byte[] data = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + Integer.BYTES);
+        view.get(data);
+        return data;
+    }
+
+    private int entryPosition(int entry) {
+        return directoryPosition + entry * DIRECTORY_ENTRY_SIZE;
+    }
+
+    private static int toPosition(long offset) {
+        if (offset < 0 || offset > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot offset " + offset + " out of range.");
+        }
+        return (int) offset;
+    }
+
+}
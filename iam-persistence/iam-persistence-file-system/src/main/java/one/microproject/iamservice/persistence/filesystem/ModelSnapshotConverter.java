@@ -0,0 +1,55 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.Security;
+
+/**
+ * Conversion of model data files between JSON and binary {@link ModelSnapshot} format.
+ * Usage: ModelSnapshotConverter to-snapshot|to-json &lt;source-file&gt; &lt;target-file&gt;
+ */
+public final class ModelSnapshotConverter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelSnapshotConverter.class);
+
+    private ModelSnapshotConverter() {
+    }
+
+    public static void jsonToSnapshot(Path jsonFile, Path snapshotFile) throws IOException {
+        long timeStamp = System.nanoTime();
+        ModelWrapper modelWrapper = new ParallelModelReader(Runtime.getRuntime().availableProcessors(), ParallelModelReader.DEFAULT_CHUNK_SIZE).read(jsonFile);
+        ModelSnapshotWriter.write(modelWrapper, snapshotFile);
+        LOG.info("jsonToSnapshot: {} -> {} converted in {}ms", jsonFile, snapshotFile, ((System.nanoTime() - timeStamp)/1_000_000F));
+    }
+
+    public static void snapshotToJson(Path snapshotFile, Path jsonFile) throws IOException {
+        long timeStamp = System.nanoTime();
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(jsonFile.toFile(), new SnapshotModelWrapperImpl(ModelSnapshot.open(snapshotFile)));
+        LOG.info("snapshotToJson: {} -> {} converted in {}ms", snapshotFile, jsonFile, ((System.nanoTime() - timeStamp)/1_000_000F));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ModelSnapshotConverter to-snapshot|to-json <source-file> <target-file>");
+            System.exit(1);
+        }
+        Security.addProvider(new BouncyCastleProvider());
+        if ("to-snapshot".equals(args[0])) {
+            jsonToSnapshot(Path.of(args[1]), Path.of(args[2]));
+        } else if ("to-json".equals(args[0])) {
+            snapshotToJson(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            System.err.println("Unknown conversion " + args[0]);
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.Id;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of binary model snapshot, see {@link ModelSnapshot} for the layout.
+ */
+public final class ModelSnapshotWriter {
+
+    private static final Comparator<Entry> ENTRY_ORDER = (a, b) -> {
+        int result = Byte.compare(a.type, b.type);
+        if (result != 0) {
+            return result;
+        }
+        for (int i = 0; i < Math.min(a.ids.length, b.ids.length); i++) {
+            result = a.ids[i].getId().compareTo(b.ids[i].getId());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(a.ids.length, b.ids.length);
+    };
+
+    private ModelSnapshotWriter() {
+    }
+
+    /**
+     * Write snapshot of the model, snapshot file is replaced if it exists.
+     * Caller is responsible for forcing the file to disk and for atomic replacement of previous snapshot.
+     * @param modelWrapper model to write.
+     * @param snapshotFile snapshot file.
+     * @throws IOException in case snapshot can't be written.
+     */
+    public static void write(ModelWrapper modelWrapper, Path snapshotFile) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        modelWrapper.getOrganizations().forEach(w -> entries.add(new Entry(Organization.class, w.getKey(), w.getValue())));
+        modelWrapper.getProjects().forEach(w -> entries.add(new Entry(Project.class, w.getKey(), w.getValue())));
+        modelWrapper.getUsers().forEach(w -> entries.add(new Entry(User.class, w.getKey(), w.getValue())));
+        modelWrapper.getClients().forEach(w -> entries.add(new Entry(Client.class, w.getKey(), w.getValue())));
+        modelWrapper.getRoles().forEach(w -> entries.add(new Entry(Role.class, w.getKey(), w.getValue())));
+        entries.sort(ENTRY_ORDER);
+
+        ObjectMapper mapper = ModelSnapshot.createMapper();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        long modelRecordOffset;
+        long stringTableOffset;
+        long directoryOffset;
+        try (OutputStream os = Files.newOutputStream(snapshotFile);
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os))) {
+            dos.write(new byte[ModelSnapshot.HEADER_SIZE]);
+            modelRecordOffset = dos.size();
+            writeRecord(dos, mapper.writerFor(Model.class).writeValueAsBytes(modelWrapper.getModel()));
+            for (Entry entry: entries) {
+                entry.recordOffset = dos.size();
+                writeRecord(dos, mapper.writerFor(entry.valueType).writeValueAsBytes(entry.value));
+                entry.stringIndexes = new int[entry.ids.length];
+                for (int i = 0; i < entry.ids.length; i++) {
+                    entry.stringIndexes[i] = stringIndexes.computeIfAbsent(entry.ids[i].getId(), s -> {
+                        strings.add(s);
+                        return strings.size() - 1;
+                    });
+                }
+            }
+
+            stringTableOffset = dos.size();
+            List<byte[]> stringData = new ArrayList<>(strings.size());
+            strings.forEach(s -> stringData.add(s.getBytes(StandardCharsets.UTF_8)));
+            dos.writeInt(strings.size());
+            int stringOffset = 0;
+            dos.writeInt(stringOffset);
+            for (byte[] data: stringData) {
+                stringOffset = stringOffset + data.length;
+                dos.writeInt(stringOffset);
+            }
+            for (byte[] data: stringData) {
+                dos.write(data);
+            }
+
+            directoryOffset = dos.size();
+            for (Entry entry: entries) {
+                dos.writeByte(entry.type);
+                dos.writeByte(entry.ids.length);
+                dos.writeShort(0);
+                for (int i = 0; i < ModelSnapshot.MAX_IDS; i++) {
+                    dos.writeInt((i < entry.stringIndexes.length) ? entry.stringIndexes[i] : -1);
+                }
+                dos.writeLong(entry.recordOffset);
+            }
+            if (dos.size() == Integer.MAX_VALUE) {
+                throw new IOException("Model snapshot is larger than 2GB.");
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(ModelSnapshot.HEADER_SIZE);
+        header.putInt(ModelSnapshot.MAGIC);
+        header.putInt(ModelSnapshot.VERSION);
+        header.putLong(stringTableOffset);
+        header.putLong(directoryOffset);
+        header.putInt(entries.size());
+        header.putLong(modelRecordOffset);
+        header.putInt(0);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private static void writeRecord(DataOutputStream dos, byte[] data) throws IOException {
+        dos.writeInt(data.length);
+        dos.write(data);
+    }
+
+    private static class Entry {
+
+        private final byte type;
+        private final Class<?> valueType;
+        private final Id[] ids;
+        private final Object value;
+        private long recordOffset;
+        private int[] stringIndexes;
+
+        private Entry(Class<?> valueType, ModelKey<?> key, Object value) {
+            if (key.getIds().length > ModelSnapshot.MAX_IDS) {
+                throw new IllegalArgumentException("Model key " + key + " has more than " + ModelSnapshot.MAX_IDS + " ids.");
+            }
+            this.type = ModelSnapshot.typeOf(valueType);
+            this.valueType = valueType;
+            this.ids = key.getIds();
+            this.value = value;
+        }
+
+    }
+
+}
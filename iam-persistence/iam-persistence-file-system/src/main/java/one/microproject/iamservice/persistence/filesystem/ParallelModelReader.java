@@ -0,0 +1,159 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.RoleWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader of model data file written by {@link FileSystemPersistenceServiceImpl}.
+ * Data file is tokenized on caller's thread by Jackson streaming API into JSON trees, trees are bound to model
+ * entities in chunks on fork-join pool, because entity creators decode key pairs and certificates which dominates
+ * the load time. Entities keep their order from data file.
+ */
+public class ParallelModelReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelModelReader.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final ObjectMapper mapper;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public ParallelModelReader(int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive numbers.");
+        }
+        this.mapper = new ObjectMapper();
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    public ModelWrapperImpl read(Path dataFile) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long timeStamp = System.nanoTime();
+            Model model = null;
+            List<ForkJoinTask<List<OrganizationWrapper>>> organizations = new ArrayList<>();
+            List<ForkJoinTask<List<ProjectWrapper>>> projects = new ArrayList<>();
+            List<ForkJoinTask<List<UserWrapper>>> users = new ArrayList<>();
+            List<ForkJoinTask<List<ClientWrapper>>> clients = new ArrayList<>();
+            List<ForkJoinTask<List<RoleWrapper>>> roles = new ArrayList<>();
+            try (JsonParser parser = mapper.getFactory().createParser(dataFile.toFile())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Model data file " + dataFile + " does not contain JSON object.");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (fieldName) {
+                        case "model":
+                            model = mapper.readValue(parser, Model.class);
+                            break;
+                        case "organizations":
+                            readArray(parser, pool, mapper.readerFor(OrganizationWrapper.class), organizations);
+                            break;
+                        case "projects":
+                            readArray(parser, pool, mapper.readerFor(ProjectWrapper.class), projects);
+                            break;
+                        case "users":
+                            readArray(parser, pool, mapper.readerFor(UserWrapper.class), users);
+                            break;
+                        case "clients":
+                            readArray(parser, pool, mapper.readerFor(ClientWrapper.class), clients);
+                            break;
+                        case "roles":
+                            readArray(parser, pool, mapper.readerFor(RoleWrapper.class), roles);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+            }
+            float tokenizeTime = (System.nanoTime() - timeStamp)/1_000_000F;
+
+            timeStamp = System.nanoTime();
+            List<OrganizationWrapper> organizationList = join(organizations);
+            List<ProjectWrapper> projectList = join(projects);
+            List<UserWrapper> userList = join(users);
+            List<ClientWrapper> clientList = join(clients);
+            List<RoleWrapper> roleList = join(roles);
+            float decodeTime = (System.nanoTime() - timeStamp)/1_000_000F;
+
+            timeStamp = System.nanoTime();
+            ModelWrapperImpl modelWrapper = new ModelWrapperImpl(model, organizationList, projectList, userList, clientList, roleList);
+            float assembleTime = (System.nanoTime() - timeStamp)/1_000_000F;
+            LOG.info("read: tokenized in {}ms, decoded in {}ms, assembled in {}ms, users={} parallelism={}",
+                    tokenizeTime, decodeTime, assembleTime, userList.size(), parallelism);
+            return modelWrapper;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private <T> void readArray(JsonParser parser, ForkJoinPool pool, ObjectReader reader, List<ForkJoinTask<List<T>>> tasks) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        List<JsonNode> chunk = new ArrayList<>(chunkSize);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            chunk.add(mapper.readTree(parser));
+            if (chunk.size() == chunkSize) {
+                submit(pool, reader, chunk, tasks);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            submit(pool, reader, chunk, tasks);
+        }
+    }
+
+    private static <T> void submit(ForkJoinPool pool, ObjectReader reader, List<JsonNode> chunk, List<ForkJoinTask<List<T>>> tasks) {
+        tasks.add(pool.submit(() -> ParallelModelReader.<T>bind(reader, chunk)));
+    }
+
+    private static <T> List<T> bind(ObjectReader reader, List<JsonNode> nodes) {
+        List<T> values = new ArrayList<>(nodes.size());
+        try {
+            for (JsonNode node: nodes) {
+                values.add(reader.readValue(node));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return values;
+    }
+
+    private static <T> List<T> join(List<ForkJoinTask<List<T>>> tasks) throws IOException {
+        List<T> values = new ArrayList<>();
+        try {
+            for (ForkJoinTask<List<T>> task: tasks) {
+                values.addAll(task.join());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,51 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import one.microproject.iamservice.core.services.persistence.DataLoadService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Loads model from binary {@link ModelSnapshot} data file. Snapshot is mapped into memory and returned
+ * {@link SnapshotModelWrapperImpl} serves lookups while its indexes are being built.
+ * JSON data file is loaded by {@link FileSystemDataLoadServiceImpl}, so existing data files can be migrated
+ * by first flush of {@link FileSystemPersistenceServiceImpl} with {@link DataFileFormat#SNAPSHOT}.
+ */
+public class SnapshotDataLoadServiceImpl implements DataLoadService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotDataLoadServiceImpl.class);
+
+    private final Path dataFile;
+    private final int parallelism;
+
+    public SnapshotDataLoadServiceImpl(Path dataFile) {
+        this(dataFile, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SnapshotDataLoadServiceImpl(Path dataFile, int parallelism) {
+        LOG.info("FileSystemPersistence: loading snapshot from dataFile={}", dataFile);
+        this.dataFile = dataFile;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public ModelWrapper populateCache() throws IOException {
+        if (!ModelSnapshot.isSnapshot(dataFile)) {
+            LOG.info("populateCache: {} is not a model snapshot, loading JSON data file", dataFile);
+            return new FileSystemDataLoadServiceImpl(dataFile, parallelism).populateCache();
+        }
+        long timeStamp = System.nanoTime();
+        SnapshotModelWrapperImpl modelWrapper = new SnapshotModelWrapperImpl(ModelSnapshot.open(dataFile));
+        float openTime = (System.nanoTime() - timeStamp)/1_000_000F;
+        timeStamp = System.nanoTime();
+        List<ModelChangeRecord> records = ModelChangeLog.read(ModelChangeLog.logFileOf(dataFile));
+        records.forEach(r -> modelWrapper.replay(r.toBatch()));
+        LOG.info("populateCache: opened in {}ms, {} change log records replayed in {}ms", openTime, records.size(), ((System.nanoTime() - timeStamp)/1_000_000F));
+        return modelWrapper;
+    }
+
+}
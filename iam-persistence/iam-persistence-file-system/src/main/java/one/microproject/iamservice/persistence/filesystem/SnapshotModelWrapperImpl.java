@@ -0,0 +1,679 @@
+package one.microproject.iamservice.persistence.filesystem;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelScopeIndex;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.RoleWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * {@link ModelWrapper} backed by memory-mapped {@link ModelSnapshot}.
+ * Entities are decoded from the snapshot on first lookup and kept decoded afterwards. Key index and scope index
+ * are built by background thread, lookups by key are served before indexing has finished by binary search over
+ * snapshot directory. Key set and scope queries and all mutations wait until indexing has finished,
+ * if indexing fails they fail with the indexing failure, lookups by key keep searching snapshot directory.
+ * Change log is replayed by {@link #replay(ModelBatch)} without waiting for indexing, keys removed before indexing
+ * has finished are kept as tombstones so the indexer does not restore them from the snapshot.
+ */
+public class SnapshotModelWrapperImpl implements ModelWrapper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotModelWrapperImpl.class);
+    private static final Object TOMBSTONE = new Object();
+
+    private final ModelSnapshot snapshot;
+    private final Entities<Organization> organizations;
+    private final Entities<Project> projects;
+    private final Entities<User> users;
+    private final Entities<Client> clients;
+    private final Entities<Role> roles;
+    private final ModelScopeIndex scopeIndex;
+    private final CountDownLatch indexed;
+    private final Object replayLock;
+
+    private volatile RuntimeException indexFailure;
+    private volatile Model model;
+    private volatile PersistenceService persistenceService;
+    private volatile boolean flushOnChange = false;
+
+    public SnapshotModelWrapperImpl(ModelSnapshot snapshot) throws IOException {
+        this.snapshot = snapshot;
+        this.model = snapshot.getModel();
+        this.organizations = new Entities<>(Organization.class);
+        this.projects = new Entities<>(Project.class);
+        this.users = new Entities<>(User.class);
+        this.clients = new Entities<>(Client.class);
+        this.roles = new Entities<>(Role.class);
+        this.scopeIndex = new ModelScopeIndex();
+        this.indexed = new CountDownLatch(1);
+        this.replayLock = new Object();
+        Thread indexer = new Thread(this::index, "model-snapshot-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    /**
+     * @return true if key and scope indexes have been built successfully.
+     */
+    @JsonIgnore
+    public boolean isIndexed() {
+        return indexed.getCount() == 0 && indexFailure == null;
+    }
+
+    /**
+     * Wait until key and scope indexes have been built.
+     * @throws IllegalStateException in case indexing failed or waiting thread has been interrupted.
+     */
+    public void awaitIndexed() {
+        try {
+            indexed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for model snapshot index.", e);
+        }
+        RuntimeException failure = indexFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Model snapshot indexing failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Unlike {@link one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl} the whole model
+     * is not written on init, snapshot and its change log are already persisted and writing them would decode
+     * every entity and wait for indexing.
+     */
+    @Override
+    public void onInit(PersistenceService persistenceService, boolean flushOnChange) throws Exception {
+        LOG.info("onInit: flushOnChange={}", flushOnChange);
+        LOG.info("onInit: snapshot entities={} indexed={}", snapshot.size(), isIndexed());
+        this.persistenceService = persistenceService;
+        this.flushOnChange = flushOnChange;
+    }
+
+    @Override
+    public void flush() throws Exception {
+        awaitIndexed();
+        persistenceService.onModelChange(this);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public void awaitDurable() throws IOException {
+        if (flushOnChange) {
+            persistenceService.awaitDurable();
+        }
+    }
+
+    private void flushOnChange(ModelBatch changes) {
+        if (flushOnChange) {
+            try {
+                persistenceService.onModelChange(this, changes);
+            } catch (IOException e) {
+                LOG.error("Persistence Error: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Model getModel() {
+        return model;
+    }
+
+    @Override
+    public void setModel(Model model) {
+        this.model = model;
+    }
+
+    @Override
+    public List<OrganizationWrapper> getOrganizations() {
+        return organizations.wrap(OrganizationWrapper::new);
+    }
+
+    @Override
+    public List<ProjectWrapper> getProjects() {
+        return projects.wrap(ProjectWrapper::new);
+    }
+
+    @Override
+    public List<UserWrapper> getUsers() {
+        return users.wrap(UserWrapper::new);
+    }
+
+    @Override
+    public List<ClientWrapper> getClients() {
+        return clients.wrap(ClientWrapper::new);
+    }
+
+    @Override
+    public List<RoleWrapper> getRoles() {
+        return roles.wrap(RoleWrapper::new);
+    }
+
+    @JsonIgnore
+    @Override
+    public void putOrganization(ModelKey<Organization> key, Organization value) {
+        awaitIndexed();
+        organizations.entries.put(key, value);
+        flushOnChange(new ModelBatch().putOrganization(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void putProject(ModelKey<Project> key, Project value) {
+        awaitIndexed();
+        projects.entries.put(key, value);
+        scopeIndex.addProject(key);
+        flushOnChange(new ModelBatch().putProject(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void putUser(ModelKey<User> key, User value) {
+        awaitIndexed();
+        users.entries.put(key, value);
+        scopeIndex.addUser(key);
+        flushOnChange(new ModelBatch().putUser(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void putClient(ModelKey<Client> key, Client value) {
+        awaitIndexed();
+        clients.entries.put(key, value);
+        scopeIndex.addClient(key);
+        flushOnChange(new ModelBatch().putClient(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void putRole(ModelKey<Role> key, Role value) {
+        awaitIndexed();
+        roles.entries.put(key, value);
+        scopeIndex.addRole(key);
+        flushOnChange(new ModelBatch().putRole(key, value));
+    }
+
+    @JsonIgnore
+    @Override
+    public void write(ModelBatch batch) {
+        awaitIndexed();
+        batch.getUsers().forEach((key, value) -> {
+            if (value == null) {
+                if (users.entries.remove(key) != null) {
+                    scopeIndex.removeUser(key);
+                }
+            } else {
+                users.entries.put(key, value);
+                scopeIndex.addUser(key);
+            }
+        });
+        batch.getClients().forEach((key, value) -> {
+            if (value == null) {
+                if (clients.entries.remove(key) != null) {
+                    scopeIndex.removeClient(key);
+                }
+            } else {
+                clients.entries.put(key, value);
+                scopeIndex.addClient(key);
+            }
+        });
+        batch.getRoles().forEach((key, value) -> {
+            if (value == null) {
+                if (roles.entries.remove(key) != null) {
+                    scopeIndex.removeRole(key);
+                }
+            } else {
+                roles.entries.put(key, value);
+                scopeIndex.addRole(key);
+            }
+        });
+        batch.getProjects().forEach((key, value) -> {
+            if (value == null) {
+                if (projects.entries.remove(key) != null) {
+                    scopeIndex.removeProject(key);
+                }
+            } else {
+                projects.entries.put(key, value);
+                scopeIndex.addProject(key);
+            }
+        });
+        batch.getOrganizations().forEach((key, value) -> {
+            if (value == null) {
+                organizations.entries.remove(key);
+            } else {
+                organizations.entries.put(key, value);
+            }
+        });
+        if (!batch.isEmpty()) {
+            flushOnChange(batch);
+        }
+    }
+
+    /**
+     * Apply change log record loaded with the snapshot. Unlike {@link #write(ModelBatch)} it does not wait for indexing
+     * and the record is not persisted again.
+     * @param batch changes of change log record.
+     */
+    public void replay(ModelBatch batch) {
+        synchronized (replayLock) {
+            boolean tombstones = !isIndexed();
+            batch.getUsers().forEach((key, value) -> users.replay(key, value, tombstones, scopeIndex::addUser, scopeIndex::removeUser));
+            batch.getClients().forEach((key, value) -> clients.replay(key, value, tombstones, scopeIndex::addClient, scopeIndex::removeClient));
+            batch.getRoles().forEach((key, value) -> roles.replay(key, value, tombstones, scopeIndex::addRole, scopeIndex::removeRole));
+            batch.getProjects().forEach((key, value) -> projects.replay(key, value, tombstones, scopeIndex::addProject, scopeIndex::removeProject));
+            batch.getOrganizations().forEach((key, value) -> organizations.replay(key, value, tombstones, k -> { }, k -> { }));
+        }
+    }
+
+    @JsonIgnore
+    @Override
+    public Organization removeOrganization(ModelKey<Organization> key) {
+        awaitIndexed();
+        Organization organization = organizations.remove(key);
+        if (organization != null) {
+            flushOnChange(new ModelBatch().removeOrganization(key));
+        }
+        return organization;
+    }
+
+    @JsonIgnore
+    @Override
+    public Project removeProject(ModelKey<Project> key) {
+        awaitIndexed();
+        Project project = projects.remove(key);
+        if (project != null) {
+            scopeIndex.removeProject(key);
+            flushOnChange(new ModelBatch().removeProject(key));
+        }
+        return project;
+    }
+
+    @JsonIgnore
+    @Override
+    public User removeUser(ModelKey<User> key) {
+        awaitIndexed();
+        User user = users.remove(key);
+        if (user != null) {
+            scopeIndex.removeUser(key);
+            flushOnChange(new ModelBatch().removeUser(key));
+        }
+        return user;
+    }
+
+    @JsonIgnore
+    @Override
+    public Client removeClient(ModelKey<Client> key) {
+        awaitIndexed();
+        Client client = clients.remove(key);
+        if (client != null) {
+            scopeIndex.removeClient(key);
+            flushOnChange(new ModelBatch().removeClient(key));
+        }
+        return client;
+    }
+
+    @JsonIgnore
+    @Override
+    public Role removeRole(ModelKey<Role> key) {
+        awaitIndexed();
+        Role role = roles.remove(key);
+        if (role != null) {
+            scopeIndex.removeRole(key);
+            flushOnChange(new ModelBatch().removeRole(key));
+        }
+        return role;
+    }
+
+    @JsonIgnore
+    @Override
+    public Organization getOrganization(ModelKey<Organization> key) {
+        return organizations.get(key);
+    }
+
+    @JsonIgnore
+    @Override
+    public Project getProject(ModelKey<Project> key) {
+        return projects.get(key);
+    }
+
+    @JsonIgnore
+    @Override
+    public User getUser(ModelKey<User> key) {
+        return users.get(key);
+    }
+
+    @JsonIgnore
+    @Override
+    public Client getClient(ModelKey<Client> key) {
+        return clients.get(key);
+    }
+
+    @JsonIgnore
+    @Override
+    public Role getRole(ModelKey<Role> key) {
+        return roles.get(key);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Organization>> getOrganizationsKeys() {
+        return organizations.keySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys() {
+        return projects.keySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<User>> getUserKeys() {
+        return users.keySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Client>> getClientKeys() {
+        return clients.keySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys() {
+        return roles.keySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        awaitIndexed();
+        return scopeIndex.getProjectKeys(organizationId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        awaitIndexed();
+        return scopeIndex.getUserKeys(organizationId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        awaitIndexed();
+        return scopeIndex.getUserKeys(organizationId, projectId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        awaitIndexed();
+        return scopeIndex.getClientKeys(organizationId, projectId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        awaitIndexed();
+        return scopeIndex.getRoleKeys(organizationId, projectId);
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Organization> getAllOrganizations() {
+        return organizations.getValues(organizations.keySet());
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Project> getAllProjects(OrganizationId organizationId) {
+        return projects.getValues(getProjectKeys(organizationId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId) {
+        return users.getValues(getUserKeys(organizationId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId) {
+        return users.getValues(getUserKeys(organizationId, projectId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId) {
+        return clients.getValues(getClientKeys(organizationId, projectId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId) {
+        return roles.getValues(getRoleKeys(organizationId, projectId));
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<Map.Entry<ModelKey<Client>, Client>> getClientEntrySet() {
+        return clients.entrySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<Map.Entry<ModelKey<User>, User>> getUserEntrySet() {
+        return users.entrySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public Set<Map.Entry<ModelKey<Role>, Role>> getRoleEntrySet() {
+        return roles.entrySet();
+    }
+
+    @JsonIgnore
+    @Override
+    public void setPersistenceService(PersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    private void index() {
+        long timeStamp = System.nanoTime();
+        try {
+            for (int entry = 0; entry < snapshot.size(); entry++) {
+                switch (snapshot.getType(entry)) {
+                    case ModelSnapshot.ORGANIZATION:
+                        organizations.index(entry, k -> { });
+                        break;
+                    case ModelSnapshot.PROJECT:
+                        projects.index(entry, scopeIndex::addProject);
+                        break;
+                    case ModelSnapshot.USER:
+                        users.index(entry, scopeIndex::addUser);
+                        break;
+                    case ModelSnapshot.CLIENT:
+                        clients.index(entry, scopeIndex::addClient);
+                        break;
+                    case ModelSnapshot.ROLE:
+                        roles.index(entry, scopeIndex::addRole);
+                        break;
+                    default:
+                        LOG.warn("Unsupported model type at snapshot directory entry {}", entry);
+                }
+            }
+            LOG.info("index: {} entities indexed in {}ms", snapshot.size(), ((System.nanoTime() - timeStamp)/1_000_000F));
+        } catch (RuntimeException e) {
+            LOG.error("Model snapshot indexing failed: ", e);
+            indexFailure = e;
+        } finally {
+            synchronized (replayLock) {
+                //replay removal may race with indexing of the same key, tombstones are not needed after indexing,
+                //if indexing failed they are kept, lookups by key still search snapshot directory
+                if (indexFailure == null) {
+                    users.removeTombstones(scopeIndex::removeUser);
+                    clients.removeTombstones(scopeIndex::removeClient);
+                    roles.removeTombstones(scopeIndex::removeRole);
+                    projects.removeTombstones(scopeIndex::removeProject);
+                    organizations.removeTombstones(k -> { });
+                }
+                indexed.countDown();
+            }
+        }
+    }
+
+    /**
+     * Entities of one type, map value is either decoded entity, snapshot directory entry of not yet decoded entity
+     * or tombstone of entity removed by change log replay before indexing has finished.
+     */
+    private class Entities<T> {
+
+        private final Class<T> type;
+        private final Map<ModelKey<T>, Object> entries;
+
+        private Entities(Class<T> type) {
+            this.type = type;
+            this.entries = new ConcurrentHashMap<>();
+        }
+
+        private T get(ModelKey<T> key) {
+            Object value = entries.get(key);
+            if (value == null && !isIndexed()) {
+                int entry = snapshot.find(key);
+                if (entry >= 0) {
+                    T decoded = decode(entry);
+                    Object previous = entries.putIfAbsent(key, decoded);
+                    return (previous == null) ? decoded : resolve(key, previous);
+                }
+            }
+            return resolve(key, value);
+        }
+
+        private T remove(ModelKey<T> key) {
+            Object value = entries.remove(key);
+            if (value == TOMBSTONE) {
+                return null;
+            }
+            return (value instanceof Integer) ? decode((Integer) value) : type.cast(value);
+        }
+
+        private void index(int entry, Consumer<ModelKey<T>> addToScope) {
+            ModelKey<T> key = snapshot.getKey(entry);
+            if (entries.putIfAbsent(key, entry) != TOMBSTONE) {
+                addToScope.accept(key);
+            }
+        }
+
+        private void replay(ModelKey<T> key, T value, boolean tombstone, Consumer<ModelKey<T>> addToScope, Consumer<ModelKey<T>> removeFromScope) {
+            if (value != null) {
+                entries.put(key, value);
+                addToScope.accept(key);
+            } else {
+                if (tombstone) {
+                    entries.put(key, TOMBSTONE);
+                } else {
+                    entries.remove(key);
+                }
+                removeFromScope.accept(key);
+            }
+        }
+
+        private void removeTombstones(Consumer<ModelKey<T>> removeFromScope) {
+            entries.forEach((key, value) -> {
+                if (value == TOMBSTONE) {
+                    removeFromScope.accept(key);
+                    entries.remove(key, TOMBSTONE);
+                }
+            });
+        }
+
+        private Set<ModelKey<T>> keySet() {
+            awaitIndexed();
+            return entries.keySet();
+        }
+
+        private List<T> getValues(Set<ModelKey<T>> keys) {
+            List<T> result = new ArrayList<>(keys.size());
+            for (ModelKey<T> key: keys) {
+                T value = resolve(key, entries.get(key));
+                if (value != null) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+
+        private <W> List<W> wrap(BiFunction<ModelKey<T>, T, W> wrapper) {
+            awaitIndexed();
+            List<W> result = new ArrayList<>(entries.size());
+            entries.forEach((key, value) -> result.add(wrapper.apply(key, resolve(key, value))));
+            return result;
+        }
+
+        private Set<Map.Entry<ModelKey<T>, T>> entrySet() {
+            awaitIndexed();
+            Map<ModelKey<T>, T> result = new LinkedHashMap<>();
+            entries.forEach((key, value) -> result.put(key, resolve(key, value)));
+            return result.entrySet();
+        }
+
+        /**
+         * Decode snapshot directory entry and replace it in the map, if other thread wins the race, its instance is returned.
+         */
+        private T resolve(ModelKey<T> key, Object value) {
+            if (value == TOMBSTONE) {
+                return null;
+            }
+            if (value instanceof Integer) {
+                T decoded = decode((Integer) value);
+                if (entries.replace(key, value, decoded)) {
+                    return decoded;
+                }
+                return resolve(key, entries.get(key));
+            }
+            return type.cast(value);
+        }
+
+        private T decode(int entry) {
+            try {
+                return snapshot.read(entry, type);
+            } catch (IOException e) {
+                throw new IllegalStateException("Model snapshot entry " + entry + " can't be decoded.", e);
+            }
+        }
+
+    }
+
+}
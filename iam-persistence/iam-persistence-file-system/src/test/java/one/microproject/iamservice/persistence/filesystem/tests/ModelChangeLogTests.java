@@ -0,0 +1,116 @@
+package one.microproject.iamservice.persistence.filesystem.tests;
+
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.RoleImpl;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.persistence.filesystem.FileSystemDataLoadServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FileSystemPersistenceServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FsyncPolicy;
+import one.microproject.iamservice.persistence.filesystem.ModelChangeLog;
+import one.microproject.iamservice.persistence.filesystem.ModelChangeRecord;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Security;
+import java.util.Set;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_ORG;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_PROJECT;
+import static one.microproject.iamservice.core.utils.ModelUtils.createDefaultModelCache;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelChangeLogTests {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void testChangesAreAppendedAndReplayed() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.json");
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            modelCache.flush();
+            long snapshotSize = Files.size(dataFile);
+            addRoles(modelCache, 0, 5);
+            assertEquals(snapshotSize, Files.size(dataFile));
+            assertEquals(10, ModelChangeLog.read(ModelChangeLog.logFileOf(dataFile)).size());
+            modelCache.remove(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-0"));
+        }
+        ModelWrapper loaded = new FileSystemDataLoadServiceImpl(dataFile).populateCache();
+        assertEquals(3 + 4, loaded.getRoles().size());
+        assertTrue(loaded.getProject(projectKey()).getRoles().contains(RoleId.from("role-4")));
+        assertFalse(loaded.getProject(projectKey()).getRoles().contains(RoleId.from("role-0")));
+    }
+
+    @Test
+    void testTornRecordIsIgnoredAndOverwritten() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.json");
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            modelCache.flush();
+            addRoles(modelCache, 0, 1);
+        }
+        Path logFile = ModelChangeLog.logFileOf(dataFile);
+        Files.write(logFile, new byte[] { 0, 0, 1, 0, 1, 2, 3, 4, '{' }, StandardOpenOption.APPEND);
+        ModelWrapper loaded = new FileSystemDataLoadServiceImpl(dataFile).populateCache();
+        assertEquals(4, loaded.getRoles().size());
+
+        ModelKey<Role> roleKey = ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-1"));
+        try (ModelChangeLog changeLog = new ModelChangeLog(logFile, FsyncPolicy.NEVER, 0)) {
+            changeLog.append(ModelChangeRecord.from(new ModelBatch().putRole(roleKey, new RoleImpl(RoleId.from("role-1"), "name-1", Set.of()))));
+        }
+        assertEquals(3, ModelChangeLog.read(logFile).size());
+        assertEquals(5, new FileSystemDataLoadServiceImpl(dataFile).populateCache().getRoles().size());
+    }
+
+    @Test
+    void testChangeLogIsCompacted() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.json");
+        Path logFile = ModelChangeLog.logFileOf(dataFile);
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(dataFile, FsyncPolicy.INTERVAL, 1000, 4096)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            modelCache.flush();
+            addRoles(modelCache, 0, 20);
+            assertTrue(Files.size(logFile) < 4096);
+        }
+        String snapshot = Files.readString(dataFile, StandardCharsets.UTF_8);
+        assertTrue(snapshot.contains("role-0"));
+        assertEquals(3 + 20, new FileSystemDataLoadServiceImpl(dataFile).populateCache().getRoles().size());
+    }
+
+    private static ModelCache createModelCache(FileSystemPersistenceServiceImpl persistenceService) throws Exception {
+        ModelWrapper modelWrapper = new ModelWrapperImpl(ModelUtils.DEFAULT_MODEL, persistenceService, true);
+        return createDefaultModelCache(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, "secret", "top-secret", "admin@email.com", modelWrapper, Boolean.FALSE);
+    }
+
+    private static void addRoles(ModelCache modelCache, int from, int to) {
+        for (int i = from; i < to; i++) {
+            modelCache.add(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, new RoleImpl(RoleId.from("role-" + i), "name-" + i, Set.of()));
+        }
+    }
+
+    private static ModelKey<Project> projectKey() {
+        return ModelKey.from(Project.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT);
+    }
+
+}
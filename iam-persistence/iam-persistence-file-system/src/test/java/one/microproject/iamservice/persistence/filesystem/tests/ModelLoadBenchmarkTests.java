@@ -0,0 +1,160 @@
+package one.microproject.iamservice.persistence.filesystem.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.UserImpl;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.persistence.filesystem.FileSystemDataLoadServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FileSystemPersistenceServiceImpl;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModelLoadBenchmarkTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelLoadBenchmarkTests.class);
+
+    private static final int USERS_PER_PROJECT = 2_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void testParallelLoadMatchesSingleThreadedLoad() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.json");
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(dataFile)) {
+            ModelWrapper modelWrapper = new ModelWrapperImpl(ModelUtils.DEFAULT_MODEL, persistenceService, false);
+            ModelUtils.createModel(2, 2, 2, 16, 3, 2, modelWrapper);
+            modelWrapper.flush();
+        }
+        ModelWrapper expected = loadSingleThreaded(dataFile);
+        ModelWrapper loaded = new FileSystemDataLoadServiceImpl(dataFile, parallelism()).populateCache();
+        assertEquals(64, loaded.getUsers().size());
+        assertSameModel(expected, loaded);
+        loaded.getUsers().forEach(u ->
+            assertEquals(expected.getUser(u.getKey()).getCertificate(), u.getValue().getCertificate()));
+    }
+
+    /**
+     * Wall-clock benchmark, run with: gradle :iam-persistence-file-system:test -Pbenchmark
+     * Both loaders are warmed up, then measured rounds alternate, so JIT and page cache state are comparable.
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkModelLoad() throws Exception {
+        Path dataFile = tempDir.resolve("large-model-data.json");
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(dataFile)) {
+            ModelWrapper modelWrapper = new ModelWrapperImpl(ModelUtils.DEFAULT_MODEL, persistenceService, false);
+            ModelUtils.createModel(2, 4, 2, 4, 8, 4, modelWrapper);
+            copyUsers(modelWrapper, USERS_PER_PROJECT);
+            modelWrapper.flush();
+        }
+        int parallelism = parallelism();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            loadSingleThreaded(dataFile);
+            new FileSystemDataLoadServiceImpl(dataFile, parallelism).populateCache();
+        }
+        long[] singleThreadedTimes = new long[ROUNDS];
+        long[] parallelTimes = new long[ROUNDS];
+        ModelWrapper expected = null;
+        ModelWrapper loaded = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            long timeStamp = System.nanoTime();
+            expected = loadSingleThreaded(dataFile);
+            singleThreadedTimes[i] = System.nanoTime() - timeStamp;
+            timeStamp = System.nanoTime();
+            loaded = new FileSystemDataLoadServiceImpl(dataFile, parallelism).populateCache();
+            parallelTimes[i] = System.nanoTime() - timeStamp;
+        }
+        assertSameModel(expected, loaded);
+        LOG.info("model load benchmark: file={}MB users={} parallelism={} rounds={}",
+                Files.size(dataFile) / (1024F * 1024F), loaded.getUserKeys().size(), parallelism, ROUNDS);
+        LOG.info("model load benchmark: single-threaded min={}ms median={}ms, parallel min={}ms median={}ms",
+                min(singleThreadedTimes), median(singleThreadedTimes), min(parallelTimes), median(parallelTimes));
+    }
+
+    /**
+     * Add copies of existing users to every project, copies share key pair of the original user, so large model
+     * is created without generating a key pair per user.
+     */
+    private static void copyUsers(ModelWrapper modelWrapper, int usersPerProject) throws PKIException {
+        for (ModelKey<Project> projectKey: modelWrapper.getProjectKeys()) {
+            OrganizationId organizationId = (OrganizationId) projectKey.getIds()[0];
+            ProjectId projectId = (ProjectId) projectKey.getIds()[1];
+            Project project = modelWrapper.getProject(projectKey);
+            List<User> originals = new ArrayList<>(modelWrapper.getAllUsers(organizationId, projectId));
+            for (int i = originals.size(); i < usersPerProject; i++) {
+                User original = originals.get(i % originals.size());
+                UserId userId = UserId.from("user-copy-" + i);
+                User copy = new UserImpl(userId, original.getName(), projectId, original.getDefaultAccessTokenDuration(),
+                        original.getDefaultRefreshTokenDuration(), original.getRoles(), original.getCredentials(),
+                        original.getKeyPairSerialized(), original.getEmail(), original.getProperties());
+                modelWrapper.putUser(ModelKey.from(User.class, organizationId, projectId, userId), copy);
+                project.add(userId);
+            }
+            modelWrapper.putProject(projectKey, project);
+        }
+    }
+
+    private static ModelWrapper loadSingleThreaded(Path dataFile) throws Exception {
+        return new ObjectMapper().readValue(dataFile.toFile(), ModelWrapperImpl.class);
+    }
+
+    private static int parallelism() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static void assertSameModel(ModelWrapper expected, ModelWrapper loaded) {
+        assertEquals(expected.getModel().getId(), loaded.getModel().getId());
+        assertEquals(expected.getOrganizations().size(), loaded.getOrganizations().size());
+        assertEquals(expected.getProjects().size(), loaded.getProjects().size());
+        assertEquals(expected.getClients().size(), loaded.getClients().size());
+        assertEquals(expected.getRoles().size(), loaded.getRoles().size());
+        assertEquals(userIds(expected.getUsers()), userIds(loaded.getUsers()));
+    }
+
+    private static List<String> userIds(List<UserWrapper> users) {
+        return users.stream().map(u -> u.getValue().getId().getId()).sorted().collect(Collectors.toList());
+    }
+
+    private static float min(long[] times) {
+        return Arrays.stream(times).min().orElse(0L) / 1_000_000F;
+    }
+
+    private static float median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000F;
+    }
+
+}
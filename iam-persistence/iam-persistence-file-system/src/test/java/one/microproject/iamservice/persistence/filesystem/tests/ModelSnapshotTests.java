@@ -0,0 +1,219 @@
+package one.microproject.iamservice.persistence.filesystem.tests;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.RoleImpl;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapperImpl;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.persistence.filesystem.DataFileFormat;
+import one.microproject.iamservice.persistence.filesystem.FileSystemDataLoadServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FileSystemPersistenceServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FsyncPolicy;
+import one.microproject.iamservice.persistence.filesystem.ModelSnapshot;
+import one.microproject.iamservice.persistence.filesystem.ModelSnapshotConverter;
+import one.microproject.iamservice.persistence.filesystem.SnapshotDataLoadServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.SnapshotModelWrapperImpl;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Security;
+import java.util.Set;
+
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_ORG;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMINS_PROJECT;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMIN_CLIENT_ID;
+import static one.microproject.iamservice.core.utils.ModelUtils.IAM_ADMIN_USER;
+import static one.microproject.iamservice.core.utils.ModelUtils.createDefaultModelCache;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelSnapshotTests {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    private static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    void testSnapshotIsWrittenAndSearched() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.bin");
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            addRoles(modelCache, 0, 5);
+            modelCache.flush();
+        }
+        assertTrue(ModelSnapshot.isSnapshot(dataFile));
+        ModelSnapshot snapshot = ModelSnapshot.open(dataFile);
+        assertEquals(ModelUtils.DEFAULT_MODEL.getId(), snapshot.getModel().getId());
+        for (int entry = 0; entry < snapshot.size(); entry++) {
+            assertEquals(entry, snapshot.find(snapshot.getKey(entry)));
+        }
+        int userEntry = snapshot.find(ModelKey.from(User.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, IAM_ADMIN_USER));
+        assertTrue(userEntry >= 0);
+        assertEquals(IAM_ADMIN_USER, snapshot.read(userEntry, User.class).getId());
+        assertEquals(-1, snapshot.find(ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-x"))));
+    }
+
+    @Test
+    void testSnapshotIsLoadedLazily() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.bin");
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            addRoles(modelCache, 0, 5);
+            modelCache.flush();
+        }
+        SnapshotModelWrapperImpl loaded = (SnapshotModelWrapperImpl) new SnapshotDataLoadServiceImpl(dataFile).populateCache();
+        assertNotNull(loaded.getUser(ModelKey.from(User.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, IAM_ADMIN_USER)));
+        assertNotNull(loaded.getClient(ModelKey.from(Client.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, IAM_ADMIN_CLIENT_ID)));
+        assertNull(loaded.getRole(ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-x"))));
+        loaded.awaitIndexed();
+        assertTrue(loaded.isIndexed());
+        assertEquals(3 + 5, loaded.getAllRoles(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT).size());
+        assertEquals(1, loaded.getUserKeys(IAM_ADMINS_ORG).size());
+        assertEquals(1, loaded.getProjectKeys(IAM_ADMINS_ORG).size());
+    }
+
+    @Test
+    void testChangesAreReplayedOnSnapshot() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.bin");
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            modelCache.flush();
+        }
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelWrapper modelWrapper = new SnapshotDataLoadServiceImpl(dataFile).populateCache();
+            modelWrapper.onInit(persistenceService, true);
+            ModelCache modelCache = new ModelCacheImpl(modelWrapper);
+            addRoles(modelCache, 0, 5);
+            modelCache.remove(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-0"));
+        }
+        ModelWrapper loaded = new SnapshotDataLoadServiceImpl(dataFile).populateCache();
+        assertEquals(3 + 4, loaded.getRoles().size());
+        assertTrue(loaded.getProject(projectKey()).getRoles().contains(RoleId.from("role-4")));
+        assertFalse(loaded.getProject(projectKey()).getRoles().contains(RoleId.from("role-0")));
+    }
+
+    @Test
+    void testIndexingFailureIsReported() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.bin");
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            modelCache.flush();
+        }
+        corruptFirstDirectoryEntry(dataFile);
+        SnapshotModelWrapperImpl loaded = new SnapshotModelWrapperImpl(ModelSnapshot.open(dataFile));
+        assertThrows(IllegalStateException.class, loaded::awaitIndexed);
+        assertFalse(loaded.isIndexed());
+        assertThrows(IllegalStateException.class, loaded::getRoleKeys);
+        ModelKey<Role> roleKey = ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-x"));
+        assertThrows(IllegalStateException.class, () -> loaded.putRole(roleKey, new RoleImpl(RoleId.from("role-x"), "name", Set.of())));
+        assertThrows(IllegalStateException.class, loaded::flush);
+    }
+
+    @Test
+    void testChangeLogIsReplayedWithoutWaitingForIndex() throws Exception {
+        Path dataFile = tempDir.resolve("model-data.bin");
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            addRoles(modelCache, 0, 5);
+            modelCache.flush();
+        }
+        try (FileSystemPersistenceServiceImpl persistenceService = createPersistenceService(dataFile)) {
+            ModelWrapper modelWrapper = new SnapshotDataLoadServiceImpl(dataFile).populateCache();
+            modelWrapper.onInit(persistenceService, true);
+            ModelCache modelCache = new ModelCacheImpl(modelWrapper);
+            addRoles(modelCache, 5, 6);
+            modelCache.remove(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from("role-0"));
+        }
+        //indexing fails, change log replay must not depend on it
+        corruptFirstDirectoryEntry(dataFile);
+        SnapshotModelWrapperImpl loaded = (SnapshotModelWrapperImpl) new SnapshotDataLoadServiceImpl(dataFile).populateCache();
+        assertNotNull(loaded.getRole(roleKey("role-5")));
+        assertNotNull(loaded.getRole(roleKey("role-1")));
+        assertNull(loaded.getRole(roleKey("role-0")));
+        assertThrows(IllegalStateException.class, loaded::awaitIndexed);
+    }
+
+    @Test
+    void testJsonDataFileIsConverted() throws Exception {
+        Path jsonFile = tempDir.resolve("model-data.json");
+        Path snapshotFile = tempDir.resolve("model-data.bin");
+        Path convertedFile = tempDir.resolve("model-data-converted.json");
+        try (FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(jsonFile)) {
+            ModelCache modelCache = createModelCache(persistenceService);
+            addRoles(modelCache, 0, 5);
+            modelCache.flush();
+        }
+        assertFalse(ModelSnapshot.isSnapshot(jsonFile));
+        assertEquals(3 + 5, new SnapshotDataLoadServiceImpl(jsonFile).populateCache().getRoles().size());
+
+        ModelSnapshotConverter.jsonToSnapshot(jsonFile, snapshotFile);
+        ModelSnapshotConverter.snapshotToJson(snapshotFile, convertedFile);
+        ModelWrapper original = new FileSystemDataLoadServiceImpl(jsonFile).populateCache();
+        ModelWrapper converted = new FileSystemDataLoadServiceImpl(convertedFile).populateCache();
+        assertEquals(original.getModel().getId(), converted.getModel().getId());
+        assertEquals(original.getOrganizationsKeys(), converted.getOrganizationsKeys());
+        assertEquals(original.getProjectKeys(), converted.getProjectKeys());
+        assertEquals(original.getUserKeys(), converted.getUserKeys());
+        assertEquals(original.getClientKeys(), converted.getClientKeys());
+        assertEquals(original.getRoleKeys(), converted.getRoleKeys());
+    }
+
+    private static FileSystemPersistenceServiceImpl createPersistenceService(Path dataFile) {
+        return new FileSystemPersistenceServiceImpl(dataFile, FsyncPolicy.NEVER, 0,
+                FileSystemPersistenceServiceImpl.DEFAULT_COMPACTION_THRESHOLD_BYTES, DataFileFormat.SNAPSHOT);
+    }
+
+    private static ModelCache createModelCache(FileSystemPersistenceServiceImpl persistenceService) throws Exception {
+        ModelWrapper modelWrapper = new ModelWrapperImpl(ModelUtils.DEFAULT_MODEL, persistenceService, true);
+        return createDefaultModelCache(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, "secret", "top-secret", "admin@email.com", modelWrapper, Boolean.FALSE);
+    }
+
+    private static void addRoles(ModelCache modelCache, int from, int to) {
+        for (int i = from; i < to; i++) {
+            modelCache.add(IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, new RoleImpl(RoleId.from("role-" + i), "name-" + i, Set.of()));
+        }
+    }
+
+    /**
+     * Point first ID of first snapshot directory entry (organization) out of string table.
+     */
+    private static void corruptFirstDirectoryEntry(Path snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int firstEntryPosition = (int) buffer.getLong(16);
+            buffer.putInt(firstEntryPosition + 4, Integer.MAX_VALUE);
+            buffer.force();
+        }
+    }
+
+    private static ModelKey<Role> roleKey(String roleId) {
+        return ModelKey.from(Role.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT, RoleId.from(roleId));
+    }
+
+    private static ModelKey<Project> projectKey() {
+        return ModelKey.from(Project.class, IAM_ADMINS_ORG, IAM_ADMINS_PROJECT);
+    }
+
+}
@@ -0,0 +1,573 @@
+package one.microproject.iamservice.persistence.mongo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelChangeListener;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.RoleWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.CLIENTS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.ORGANIZATIONS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.PROJECTS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.ROLES;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.USERS;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.SEPARATOR;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.convertToId;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.convertToKey;
+
+/**
+ * Model wrapper keeping bounded LRU cache of organizations, projects, users, clients and roles in front of
+ * {@link MongoModelWrapperImpl}, so point lookups on token path do not wait for MongoDB round trip.
+ * Entities are mutable, cache holds JSON encoded entities and every lookup decodes a new instance, so changes
+ * of a returned instance never leak into the cache or to other threads. Writes evict the key even if they fail.
+ * Cache is kept consistent with writes of other iam-service instances using MongoDB change stream of the database,
+ * every insert, update, replace or delete event evicts the document from cache. Change streams require replica set,
+ * cache is used only while change stream is open, when it is lost cache is cleared and lookups go directly to MongoDB.
+ * Scoped and bulk queries are not cached. Change events and change stream state are forwarded to registered
+ * {@link ModelChangeListener}s, so caches derived from the model are kept consistent as well.
+ */
+public class CachingMongoModelWrapperImpl implements ModelWrapper, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingMongoModelWrapperImpl.class);
+
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final long MAX_AWAIT_TIME_MILLIS = 500;
+    private static final List<String> CACHED_COLLECTIONS = List.of(ORGANIZATIONS, PROJECTS, USERS, CLIENTS, ROLES);
+
+    private final MongoModelWrapperImpl delegate;
+    private final MongoDatabase database;
+    private final Map<String, byte[]> cache;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong invalidations;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Thread watcherThread;
+    private final List<ModelChangeListener> listeners;
+    private volatile boolean watching;
+    private volatile boolean closed;
+
+    public CachingMongoModelWrapperImpl(MongoModelWrapperImpl delegate, int maxSize) {
+        this.delegate = delegate;
+        this.database = delegate.getDatabase();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.objectMapper = new ObjectMapper();
+        this.invalidations = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.watcherThread = new Thread(this::watch, "model-cache-" + database.getName() + "-change-stream");
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+    }
+
+    @Override
+    public void onInit(PersistenceService persistenceService, boolean flushOnChange) throws Exception {
+        delegate.onInit(persistenceService, flushOnChange);
+    }
+
+    @Override
+    public void flush() throws Exception {
+        delegate.flush();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public Model getModel() {
+        return delegate.getModel();
+    }
+
+    @Override
+    public void setModel(Model model) {
+        delegate.setModel(model);
+    }
+
+    @Override
+    public List<OrganizationWrapper> getOrganizations() {
+        return delegate.getOrganizations();
+    }
+
+    @Override
+    public List<ProjectWrapper> getProjects() {
+        return delegate.getProjects();
+    }
+
+    @Override
+    public List<UserWrapper> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public List<ClientWrapper> getClients() {
+        return delegate.getClients();
+    }
+
+    @Override
+    public List<RoleWrapper> getRoles() {
+        return delegate.getRoles();
+    }
+
+    @Override
+    public void putOrganization(ModelKey<Organization> key, Organization value) {
+        try {
+            delegate.putOrganization(key, value);
+        } finally {
+            evict(ORGANIZATIONS, key);
+        }
+    }
+
+    @Override
+    public void putProject(ModelKey<Project> key, Project value) {
+        try {
+            delegate.putProject(key, value);
+        } finally {
+            evict(PROJECTS, key);
+        }
+    }
+
+    @Override
+    public void putUser(ModelKey<User> key, User value) {
+        try {
+            delegate.putUser(key, value);
+        } finally {
+            evict(USERS, key);
+        }
+    }
+
+    @Override
+    public void putClient(ModelKey<Client> key, Client value) {
+        try {
+            delegate.putClient(key, value);
+        } finally {
+            evict(CLIENTS, key);
+        }
+    }
+
+    @Override
+    public void putRole(ModelKey<Role> key, Role value) {
+        try {
+            delegate.putRole(key, value);
+        } finally {
+            evict(ROLES, key);
+        }
+    }
+
+    @Override
+    public void write(ModelBatch batch) {
+        try {
+            delegate.write(batch);
+        } finally {
+            batch.getOrganizations().keySet().forEach(key -> evict(ORGANIZATIONS, key));
+            batch.getProjects().keySet().forEach(key -> evict(PROJECTS, key));
+            batch.getUsers().keySet().forEach(key -> evict(USERS, key));
+            batch.getClients().keySet().forEach(key -> evict(CLIENTS, key));
+            batch.getRoles().keySet().forEach(key -> evict(ROLES, key));
+        }
+    }
+
+    @Override
+    public Organization removeOrganization(ModelKey<Organization> key) {
+        try {
+            return delegate.removeOrganization(key);
+        } finally {
+            evict(ORGANIZATIONS, key);
+        }
+    }
+
+    @Override
+    public Project removeProject(ModelKey<Project> key) {
+        try {
+            return delegate.removeProject(key);
+        } finally {
+            evict(PROJECTS, key);
+        }
+    }
+
+    @Override
+    public User removeUser(ModelKey<User> key) {
+        try {
+            return delegate.removeUser(key);
+        } finally {
+            evict(USERS, key);
+        }
+    }
+
+    @Override
+    public Client removeClient(ModelKey<Client> key) {
+        try {
+            return delegate.removeClient(key);
+        } finally {
+            evict(CLIENTS, key);
+        }
+    }
+
+    @Override
+    public Role removeRole(ModelKey<Role> key) {
+        try {
+            return delegate.removeRole(key);
+        } finally {
+            evict(ROLES, key);
+        }
+    }
+
+    @Override
+    public Organization getOrganization(ModelKey<Organization> key) {
+        return get(ORGANIZATIONS, key, Organization.class, delegate::getOrganization);
+    }
+
+    @Override
+    public Project getProject(ModelKey<Project> key) {
+        return get(PROJECTS, key, Project.class, delegate::getProject);
+    }
+
+    @Override
+    public User getUser(ModelKey<User> key) {
+        return get(USERS, key, User.class, delegate::getUser);
+    }
+
+    @Override
+    public Client getClient(ModelKey<Client> key) {
+        return get(CLIENTS, key, Client.class, delegate::getClient);
+    }
+
+    @Override
+    public Role getRole(ModelKey<Role> key) {
+        return get(ROLES, key, Role.class, delegate::getRole);
+    }
+
+    @Override
+    public Set<ModelKey<Organization>> getOrganizationsKeys() {
+        return delegate.getOrganizationsKeys();
+    }
+
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys() {
+        return delegate.getProjectKeys();
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys() {
+        return delegate.getUserKeys();
+    }
+
+    @Override
+    public Set<ModelKey<Client>> getClientKeys() {
+        return delegate.getClientKeys();
+    }
+
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys() {
+        return delegate.getRoleKeys();
+    }
+
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        return delegate.getProjectKeys(organizationId);
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        return delegate.getUserKeys(organizationId);
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getUserKeys(organizationId, projectId);
+    }
+
+    @Override
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getClientKeys(organizationId, projectId);
+    }
+
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getRoleKeys(organizationId, projectId);
+    }
+
+    @Override
+    public Collection<Organization> getAllOrganizations() {
+        return delegate.getAllOrganizations();
+    }
+
+    @Override
+    public Collection<Project> getAllProjects(OrganizationId organizationId) {
+        return delegate.getAllProjects(organizationId);
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId) {
+        return delegate.getAllUsers(organizationId);
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getAllUsers(organizationId, projectId);
+    }
+
+    @Override
+    public Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getAllClients(organizationId, projectId);
+    }
+
+    @Override
+    public Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId) {
+        return delegate.getAllRoles(organizationId, projectId);
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<Client>, Client>> getClientEntrySet() {
+        return delegate.getClientEntrySet();
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<User>, User>> getUserEntrySet() {
+        return delegate.getUserEntrySet();
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<Role>, Role>> getRoleEntrySet() {
+        return delegate.getRoleEntrySet();
+    }
+
+    @Override
+    public void setPersistenceService(PersistenceService persistenceService) {
+        delegate.setPersistenceService(persistenceService);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public boolean addChangeListener(ModelChangeListener listener) {
+        synchronized (listeners) {
+            listeners.add(listener);
+            listener.onTrackingChanged(watching);
+        }
+        return true;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public boolean isWatching() {
+        return watching;
+    }
+
+    public MongoConnectionPoolStats getConnectionPoolStats() {
+        return delegate.getConnectionPoolStats();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watcherThread.interrupt();
+        try {
+            watcherThread.join(MAX_AWAIT_TIME_MILLIS * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    private <T> T get(String collectionName, ModelKey<T> key, Class<T> type, Function<ModelKey<T>, T> loader) {
+        if (!watching) {
+            return loader.apply(key);
+        }
+        String cacheKey = cacheKey(collectionName, convertToId(key));
+        byte[] encoded;
+        synchronized (cache) {
+            encoded = cache.get(cacheKey);
+        }
+        if (encoded != null) {
+            T value = decode(encoded, type);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            evict(cacheKey);
+        }
+        misses.increment();
+        long invalidationsBefore = invalidations.get();
+        T value = loader.apply(key);
+        if (value != null) {
+            encoded = encode(value, type);
+            if (encoded != null) {
+                synchronized (cache) {
+                    // value read from MongoDB may be stale if document has been changed meanwhile
+                    if (watching && invalidations.get() == invalidationsBefore) {
+                        cache.put(cacheKey, encoded);
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    private <T> byte[] encode(T value, Class<T> type) {
+        try {
+            return objectMapper.writerFor(type).writeValueAsBytes(value);
+        } catch (IOException e) {
+            LOG.warn("Model cache can't encode {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T decode(byte[] encoded, Class<T> type) {
+        try {
+            return objectMapper.readValue(encoded, type);
+        } catch (IOException e) {
+            LOG.warn("Model cache can't decode {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void evict(String collectionName, ModelKey<?> key) {
+        evict(cacheKey(collectionName, convertToId(key)));
+    }
+
+    private void evict(String cacheKey) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.remove(cacheKey);
+        }
+    }
+
+    private void evictAll() {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private void watch() {
+        while (!closed) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = database
+                    .watch(List.of(Aggregates.match(Filters.in("ns.coll", CACHED_COLLECTIONS))))
+                    .maxAwaitTime(MAX_AWAIT_TIME_MILLIS, TimeUnit.MILLISECONDS)
+                    .cursor()) {
+                // changes made before change stream has been opened are not reported
+                evictAll();
+                setWatching(true);
+                LOG.info("Model cache change stream of {} opened", database.getName());
+                while (!closed) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event != null && !onChange(event)) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                if (!closed) {
+                    LOG.warn("Model cache change stream of {} lost: {}", database.getName(), e.getMessage());
+                }
+            }
+            // changes made while change stream is closed are lost
+            setWatching(false);
+            evictAll();
+            if (!closed) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict changed document from cache.
+     * @return false if change stream has been invalidated and must be reopened.
+     */
+    private boolean onChange(ChangeStreamDocument<Document> event) {
+        OperationType operationType = event.getOperationType();
+        MongoNamespace namespace = event.getNamespace();
+        BsonValue id = (event.getDocumentKey() == null) ? null : event.getDocumentKey().get("_id");
+        ModelKey<?> key = (namespace != null && id != null && id.isString())
+                ? convertToKey(namespace.getCollectionName(), id.asString().getValue()) : null;
+        if (key != null) {
+            evict(cacheKey(namespace.getCollectionName(), id.asString().getValue()));
+            listeners.forEach(listener -> listener.onChange(key));
+            return true;
+        }
+        evictAll();
+        if (operationType == OperationType.INVALIDATE) {
+            return false;
+        }
+        // change can not be attributed to one entity, listeners must discard everything
+        listeners.forEach(listener -> listener.onTrackingChanged(true));
+        return true;
+    }
+
+    private void setWatching(boolean watching) {
+        synchronized (listeners) {
+            if (this.watching != watching) {
+                this.watching = watching;
+                listeners.forEach(listener -> listener.onTrackingChanged(watching));
+            }
+        }
+    }
+
+    private static String cacheKey(String collectionName, String id) {
+        return collectionName + SEPARATOR + id;
+    }
+
+}
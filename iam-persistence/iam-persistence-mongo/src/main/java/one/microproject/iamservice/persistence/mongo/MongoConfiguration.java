@@ -2,26 +2,47 @@ package one.microproject.iamservice.persistence.mongo;
 
 public class MongoConfiguration {
 
+    public static final int DEFAULT_MAX_POOL_SIZE = 100;
+    public static final int DEFAULT_MIN_POOL_SIZE = 0;
+    public static final long DEFAULT_MAX_WAIT_TIME_MILLIS = 10000;
+    public static final String DEFAULT_READ_PREFERENCE = "primary";
+
     private final String hostname;
     private final Integer port;
     private final String database;
     private final String username;
     private final String password;
+    private final int maxPoolSize;
+    private final int minPoolSize;
+    private final long maxWaitTimeMillis;
+    private final String readPreference;
 
-    public MongoConfiguration(String hostname, Integer port, String database, String username, String password) {
+    /**
+     * @param maxPoolSize max number of connections in the pool of one server.
+     * @param minPoolSize min number of connections kept in the pool of one server.
+     * @param maxWaitTimeMillis max time to wait in the wait queue for a pooled connection.
+     * @param readPreference read preference name, for example primary, primaryPreferred, secondaryPreferred or nearest.
+     */
+    public MongoConfiguration(String hostname, Integer port, String database, String username, String password,
+                              int maxPoolSize, int minPoolSize, long maxWaitTimeMillis, String readPreference) {
         this.hostname = hostname;
         this.port = port;
         this.database = database;
         this.username = username;
         this.password = password;
+        this.maxPoolSize = maxPoolSize;
+        this.minPoolSize = minPoolSize;
+        this.maxWaitTimeMillis = maxWaitTimeMillis;
+        this.readPreference = readPreference;
+    }
+
+    public MongoConfiguration(String hostname, Integer port, String database, String username, String password) {
+        this(hostname, port, database, username, password,
+                DEFAULT_MAX_POOL_SIZE, DEFAULT_MIN_POOL_SIZE, DEFAULT_MAX_WAIT_TIME_MILLIS, DEFAULT_READ_PREFERENCE);
     }
 
     public MongoConfiguration(String hostname, Integer port, String database) {
-        this.hostname = hostname;
-        this.port = port;
-        this.database = database;
-        this.username = null;
-        this.password = null;
+        this(hostname, port, database, null, null);
     }
 
     public String getHostname() {
@@ -44,6 +65,22 @@ public class MongoConfiguration {
         return password;
     }
 
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public long getMaxWaitTimeMillis() {
+        return maxWaitTimeMillis;
+    }
+
+    public String getReadPreference() {
+        return readPreference;
+    }
+
     public String getConnectionString() {
         String usernameAndPassword = "";
         if (username != null) {
@@ -0,0 +1,84 @@
+package one.microproject.iamservice.persistence.mongo;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool statistics of shared MongoClient, summed over pools of all servers.
+ */
+public class MongoConnectionPoolStats implements ConnectionPoolListener {
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger checkedOut = new AtomicInteger();
+    private final AtomicInteger waitQueueSize = new AtomicInteger();
+    private final LongAdder checkOutFailures = new LongAdder();
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        size.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waitQueueSize.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waitQueueSize.decrementAndGet();
+        checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waitQueueSize.decrementAndGet();
+        checkOutFailures.increment();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    /**
+     * @return number of open connections.
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return number of connections currently used by operations.
+     */
+    public int getCheckedOut() {
+        return checkedOut.get();
+    }
+
+    /**
+     * @return number of operations waiting for a connection.
+     */
+    public int getWaitQueueSize() {
+        return waitQueueSize.get();
+    }
+
+    /**
+     * @return number of operations which failed to obtain a connection, for example on wait queue timeout.
+     */
+    public long getCheckOutFailures() {
+        return checkOutFailures.sum();
+    }
+
+}
@@ -1,15 +1,23 @@
 package one.microproject.iamservice.persistence.mongo;
 
+import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.Model;
 import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
 import one.microproject.iamservice.core.model.Role;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.keys.ModelKey;
 import one.microproject.iamservice.core.services.persistence.PersistenceService;
 import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
 import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
 import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
@@ -21,6 +29,8 @@ import one.microproject.iamservice.persistence.mongo.wrappers.OrganizationMongoW
 import one.microproject.iamservice.persistence.mongo.wrappers.ProjectMongoWrapper;
 import one.microproject.iamservice.persistence.mongo.wrappers.RoleMongoWrapper;
 import one.microproject.iamservice.persistence.mongo.wrappers.UserMongoWrapper;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
 import org.mongojack.JacksonMongoCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,29 +42,73 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.ORGANIZATION_ID;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.PROJECT_ID;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.UPSERT;
 import static one.microproject.iamservice.persistence.mongo.MongoUtils.convertToId;
 import static one.microproject.iamservice.persistence.mongo.MongoUtils.createJacksonMongoCollection;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.createMongoClient;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.createScopeIndex;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.idFilter;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.keyProjection;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.missingScopeFilter;
+import static one.microproject.iamservice.persistence.mongo.MongoUtils.scopeFilter;
 
-public class MongoModelWrapperImpl implements ModelWrapper {
+public class MongoModelWrapperImpl implements ModelWrapper, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(MongoModelWrapperImpl.class);
     private static final String OPERATION_NOT_IMPLEMENTED = "Operation is not implemented.";
 
+    public static final String ORGANIZATIONS = "organizations";
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+    public static final String CLIENTS = "clients";
+    public static final String ROLES = "roles";
+
     private final JacksonMongoCollection<ModelInfoWrapper> modelInfoCollection;
     private final JacksonMongoCollection<OrganizationMongoWrapper> organizationCollection;
     private final JacksonMongoCollection<ProjectMongoWrapper> projectCollection;
     private final JacksonMongoCollection<UserMongoWrapper> userCollection;
     private final JacksonMongoCollection<ClientMongoWrapper> clientCollection;
     private final JacksonMongoCollection<RoleMongoWrapper> roleCollection;
+    private final MongoClient mongoClient;
+    private final String database;
+    private final MongoConnectionPoolStats connectionPoolStats;
 
+    /**
+     * Create model wrapper with its own MongoClient, the client is shared by all collections and closed by {@link #close()}.
+     */
     public MongoModelWrapperImpl(MongoConfiguration configuration) {
-        modelInfoCollection = createJacksonMongoCollection(configuration, ModelInfoWrapper.class, "modelinfo");
-        organizationCollection = createJacksonMongoCollection(configuration, OrganizationMongoWrapper.class, "organizations");
-        projectCollection = createJacksonMongoCollection(configuration, ProjectMongoWrapper.class, "projects");
-        userCollection = createJacksonMongoCollection(configuration, UserMongoWrapper.class, "users");
-        clientCollection = createJacksonMongoCollection(configuration, ClientMongoWrapper.class, "clients");
-        roleCollection = createJacksonMongoCollection(configuration, RoleMongoWrapper.class, "roles");
+        this(configuration, new MongoConnectionPoolStats());
+    }
+
+    private MongoModelWrapperImpl(MongoConfiguration configuration, MongoConnectionPoolStats connectionPoolStats) {
+        this.connectionPoolStats = connectionPoolStats;
+        this.mongoClient = createMongoClient(configuration, connectionPoolStats);
+        this.database = configuration.getDatabase();
+        modelInfoCollection = createJacksonMongoCollection(mongoClient, database, ModelInfoWrapper.class, "modelinfo");
+        organizationCollection = createJacksonMongoCollection(mongoClient, database, OrganizationMongoWrapper.class, ORGANIZATIONS);
+        projectCollection = createJacksonMongoCollection(mongoClient, database, ProjectMongoWrapper.class, PROJECTS);
+        userCollection = createJacksonMongoCollection(mongoClient, database, UserMongoWrapper.class, USERS);
+        clientCollection = createJacksonMongoCollection(mongoClient, database, ClientMongoWrapper.class, CLIENTS);
+        roleCollection = createJacksonMongoCollection(mongoClient, database, RoleMongoWrapper.class, ROLES);
+        initializeScopes();
+    }
+
+    MongoDatabase getDatabase() {
+        return mongoClient.getDatabase(database);
+    }
+
+    public MongoConnectionPoolStats getConnectionPoolStats() {
+        return connectionPoolStats;
+    }
+
+    @Override
+    public void close() {
+        LOG.info("Closing MongoClient");
+        mongoClient.close();
     }
 
     @Override
@@ -112,111 +166,70 @@ public class MongoModelWrapperImpl implements ModelWrapper {
     @Override
     public void putOrganization(ModelKey<Organization> key, Organization value) {
         String id = convertToId(key);
-        if (organizationCollection.findOneById(id) == null) {
-            organizationCollection.insert(new OrganizationMongoWrapper(id, key, value));
-        } else {
-            organizationCollection.replaceOneById(id, new OrganizationMongoWrapper(id, key, value));
-        }
+        organizationCollection.getMongoCollection().replaceOne(idFilter(id), new OrganizationMongoWrapper(id, key, value), UPSERT);
     }
 
     @Override
     public void putProject(ModelKey<Project> key, Project value) {
         String id = convertToId(key);
-        if (projectCollection.findOneById(id) == null) {
-            projectCollection.insert(new ProjectMongoWrapper(id, key, value));
-        } else {
-            projectCollection.replaceOneById(id, new ProjectMongoWrapper(id, key, value));
-        }
+        projectCollection.getMongoCollection().replaceOne(idFilter(id), new ProjectMongoWrapper(id, key, value), UPSERT);
     }
 
     @Override
     public void putUser(ModelKey<User> key, User value) {
         String id = convertToId(key);
-        if (userCollection.findOneById(id) == null) {
-            userCollection.insert(new UserMongoWrapper(id, key, value));
-        } else {
-            userCollection.replaceOneById(id, new UserMongoWrapper(id, key, value));
-        }
+        userCollection.getMongoCollection().replaceOne(idFilter(id), new UserMongoWrapper(id, key, value), UPSERT);
     }
 
     @Override
     public void putClient(ModelKey<Client> key, Client value) {
         String id = convertToId(key);
-        if (clientCollection.findOneById(id) == null) {
-            clientCollection.insert(new ClientMongoWrapper(id, key, value));
-        } else {
-            clientCollection.replaceOneById(id, new ClientMongoWrapper(id, key, value));
-        }
+        clientCollection.getMongoCollection().replaceOne(idFilter(id), new ClientMongoWrapper(id, key, value), UPSERT);
     }
 
     @Override
     public void putRole(ModelKey<Role> key, Role value) {
         String id = convertToId(key);
-        if (roleCollection.findOneById(id) == null) {
-            roleCollection.insert(new RoleMongoWrapper(id, key, value));
-        } else {
-            roleCollection.replaceOneById(id, new RoleMongoWrapper(id, key, value));
-        }
+        roleCollection.getMongoCollection().replaceOne(idFilter(id), new RoleMongoWrapper(id, key, value), UPSERT);
+    }
+
+    @Override
+    public void write(ModelBatch batch) {
+        bulkWrite(userCollection, batch.getUsers(), UserMongoWrapper::new);
+        bulkWrite(clientCollection, batch.getClients(), ClientMongoWrapper::new);
+        bulkWrite(roleCollection, batch.getRoles(), RoleMongoWrapper::new);
+        bulkWrite(projectCollection, batch.getProjects(), ProjectMongoWrapper::new);
+        bulkWrite(organizationCollection, batch.getOrganizations(), OrganizationMongoWrapper::new);
     }
 
     @Override
     public Organization removeOrganization(ModelKey<Organization> key) {
-        String id = convertToId(key);
-        OrganizationMongoWrapper organizationMongoWrapper = organizationCollection.findOneById(id);
-        if (organizationMongoWrapper != null) {
-            organizationCollection.removeById(id);
-            return organizationMongoWrapper.getValue();
-        } else {
-            return null;
-        }
+        OrganizationMongoWrapper organizationMongoWrapper = organizationCollection.getMongoCollection().findOneAndDelete(idFilter(convertToId(key)));
+        return (organizationMongoWrapper == null) ? null : organizationMongoWrapper.getValue();
     }
 
     @Override
     public Project removeProject(ModelKey<Project> key) {
-        String id = convertToId(key);
-        ProjectMongoWrapper projectMongoWrapper = projectCollection.findOneById(id);
-        if (projectMongoWrapper != null) {
-            projectCollection.removeById(id);
-            return projectMongoWrapper.getValue();
-        } else {
-            return null;
-        }
+        ProjectMongoWrapper projectMongoWrapper = projectCollection.getMongoCollection().findOneAndDelete(idFilter(convertToId(key)));
+        return (projectMongoWrapper == null) ? null : projectMongoWrapper.getValue();
     }
 
     @Override
     public User removeUser(ModelKey<User> key) {
-        String id = convertToId(key);
-        UserMongoWrapper userMongoWrapper = userCollection.findOneById(id);
-        if (userMongoWrapper != null) {
-            userCollection.removeById(id);
-            return userMongoWrapper.getValue();
-        } else {
-            return null;
-        }
+        UserMongoWrapper userMongoWrapper = userCollection.getMongoCollection().findOneAndDelete(idFilter(convertToId(key)));
+        return (userMongoWrapper == null) ? null : userMongoWrapper.getValue();
     }
 
     @Override
     public Client removeClient(ModelKey<Client> key) {
-        String id = convertToId(key);
-        ClientMongoWrapper clientMongoWrapper = clientCollection.findOneById(id);
-        if (clientMongoWrapper != null) {
-            clientCollection.removeById(id);
-            return clientMongoWrapper.getValue();
-        } else {
-            return null;
-        }
+        ClientMongoWrapper clientMongoWrapper = clientCollection.getMongoCollection().findOneAndDelete(idFilter(convertToId(key)));
+        return (clientMongoWrapper == null) ? null : clientMongoWrapper.getValue();
     }
 
     @Override
     public Role removeRole(ModelKey<Role> key) {
-        String id = convertToId(key);
-        RoleMongoWrapper roleMongoWrapper = roleCollection.findOneById(id);
-        if (roleMongoWrapper != null) {
-            roleCollection.removeById(id);
-            return roleMongoWrapper.getValue();
-        } else {
-            return null;
-        }
+        RoleMongoWrapper roleMongoWrapper = roleCollection.getMongoCollection().findOneAndDelete(idFilter(convertToId(key)));
+        return (roleMongoWrapper == null) ? null : roleMongoWrapper.getValue();
     }
 
     @Override
@@ -271,62 +284,82 @@ public class MongoModelWrapperImpl implements ModelWrapper {
 
     @Override
     public Set<ModelKey<Organization>> getOrganizationsKeys() {
-        Set<ModelKey<Organization>> organizationKeys = new HashSet<>();
-        MongoCursor<OrganizationMongoWrapper> organizationsIterator = organizationCollection.getMongoCollection().find().iterator();
-        while (organizationsIterator.hasNext()) {
-            organizationKeys.add(organizationsIterator.next().getKey());
-        }
-        return organizationKeys;
+        return findKeys(organizationCollection, new BsonDocument(), OrganizationMongoWrapper::getKey);
     }
 
     @Override
     public Set<ModelKey<Project>> getProjectKeys() {
-        Set<ModelKey<Project>> projectKeys = new HashSet<>();
-        MongoCursor<ProjectMongoWrapper> projectIterator = projectCollection.getMongoCollection().find().iterator();
-        while (projectIterator.hasNext()) {
-            projectKeys.add(projectIterator.next().getKey());
-        }
-        return projectKeys;
+        return findKeys(projectCollection, new BsonDocument(), ProjectMongoWrapper::getKey);
     }
 
     @Override
     public Set<ModelKey<User>> getUserKeys() {
-        Set<ModelKey<User>> userKeys = new HashSet<>();
-        MongoCursor<UserMongoWrapper> userIterator = userCollection.getMongoCollection().find().iterator();
-        while (userIterator.hasNext()) {
-            userKeys.add(userIterator.next().getKey());
-        }
-        return userKeys;
+        return findKeys(userCollection, new BsonDocument(), UserMongoWrapper::getKey);
     }
 
     @Override
     public Set<ModelKey<Client>> getClientKeys() {
-        Set<ModelKey<Client>> clientKeys = new HashSet<>();
-        MongoCursor<ClientMongoWrapper> clientIterator = clientCollection.getMongoCollection().find().iterator();
-        while (clientIterator.hasNext()) {
-            clientKeys.add(clientIterator.next().getKey());
-        }
-        return clientKeys;
+        return findKeys(clientCollection, new BsonDocument(), ClientMongoWrapper::getKey);
     }
 
     @Override
     public Set<ModelKey<Role>> getRoleKeys() {
-        Set<ModelKey<Role>> roleKeys = new HashSet<>();
-        MongoCursor<RoleMongoWrapper> roleIterator = roleCollection.getMongoCollection().find().iterator();
-        while (roleIterator.hasNext()) {
-            roleKeys.add(roleIterator.next().getKey());
-        }
-        return roleKeys;
+        return findKeys(roleCollection, new BsonDocument(), RoleMongoWrapper::getKey);
+    }
+
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        return findKeys(projectCollection, scopeFilter(organizationId), ProjectMongoWrapper::getKey);
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        return findKeys(userCollection, scopeFilter(organizationId), UserMongoWrapper::getKey);
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        return findKeys(userCollection, scopeFilter(organizationId, projectId), UserMongoWrapper::getKey);
+    }
+
+    @Override
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        return findKeys(clientCollection, scopeFilter(organizationId, projectId), ClientMongoWrapper::getKey);
+    }
+
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        return findKeys(roleCollection, scopeFilter(organizationId, projectId), RoleMongoWrapper::getKey);
     }
 
     @Override
     public Collection<Organization> getAllOrganizations() {
-        List<Organization> organizations = new ArrayList<>();
-        MongoCursor<OrganizationMongoWrapper> organizationsIterator = organizationCollection.getMongoCollection().find().iterator();
-        while (organizationsIterator.hasNext()) {
-            organizations.add(organizationsIterator.next().getValue());
-        }
-        return organizations;
+        return findValues(organizationCollection, new BsonDocument(), OrganizationMongoWrapper::getValue);
+    }
+
+    @Override
+    public Collection<Project> getAllProjects(OrganizationId organizationId) {
+        return findValues(projectCollection, scopeFilter(organizationId), ProjectMongoWrapper::getValue);
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId) {
+        return findValues(userCollection, scopeFilter(organizationId), UserMongoWrapper::getValue);
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId) {
+        return findValues(userCollection, scopeFilter(organizationId, projectId), UserMongoWrapper::getValue);
+    }
+
+    @Override
+    public Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId) {
+        return findValues(clientCollection, scopeFilter(organizationId, projectId), ClientMongoWrapper::getValue);
+    }
+
+    @Override
+    public Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId) {
+        return findValues(roleCollection, scopeFilter(organizationId, projectId), RoleMongoWrapper::getValue);
     }
 
     @Override
@@ -367,4 +400,76 @@ public class MongoModelWrapperImpl implements ModelWrapper {
         LOG.info("NOOP");
     }
 
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Backfill scope fields of documents stored before scope fields were introduced and create scope indexes.
+     */
+    private void initializeScopes() {
+        for (ProjectMongoWrapper p: projectCollection.find(missingScopeFilter())) {
+            projectCollection.replaceOneById(p.get_id(), new ProjectMongoWrapper(p.get_id(), p.getKey(), p.getValue()));
+        }
+        for (UserMongoWrapper u: userCollection.find(missingScopeFilter())) {
+            userCollection.replaceOneById(u.get_id(), new UserMongoWrapper(u.get_id(), u.getKey(), u.getValue()));
+        }
+        for (ClientMongoWrapper c: clientCollection.find(missingScopeFilter())) {
+            clientCollection.replaceOneById(c.get_id(), new ClientMongoWrapper(c.get_id(), c.getKey(), c.getValue()));
+        }
+        for (RoleMongoWrapper r: roleCollection.find(missingScopeFilter())) {
+            roleCollection.replaceOneById(r.get_id(), new RoleMongoWrapper(r.get_id(), r.getKey(), r.getValue()));
+        }
+        createScopeIndex(projectCollection, ORGANIZATION_ID);
+        createScopeIndex(userCollection, ORGANIZATION_ID, PROJECT_ID);
+        createScopeIndex(clientCollection, ORGANIZATION_ID, PROJECT_ID);
+        createScopeIndex(roleCollection, ORGANIZATION_ID, PROJECT_ID);
+    }
+
+    /**
+     * Write all changes of one collection using single ordered bulk write.
+     */
+    private static <W, T> void bulkWrite(JacksonMongoCollection<W> collection, Map<ModelKey<T>, T> changes, WrapperFactory<T, W> wrapperFactory) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<WriteModel<W>> requests = new ArrayList<>(changes.size());
+        changes.forEach((key, value) -> {
+            String id = convertToId(key);
+            if (value == null) {
+                requests.add(new DeleteOneModel<>(idFilter(id)));
+            } else {
+                requests.add(new ReplaceOneModel<>(idFilter(id), wrapperFactory.create(id, key, value), UPSERT));
+            }
+        });
+        collection.getMongoCollection().bulkWrite(requests);
+    }
+
+    private static <W, T> Set<ModelKey<T>> findKeys(JacksonMongoCollection<W> collection, Bson filter, Function<W, ModelKey<T>> keyGetter) {
+        Set<ModelKey<T>> keys = new HashSet<>();
+        try (MongoCursor<W> iterator = collection.getMongoCollection().find(filter).projection(keyProjection()).iterator()) {
+            while (iterator.hasNext()) {
+                keys.add(keyGetter.apply(iterator.next()));
+            }
+        }
+        return keys;
+    }
+
+    private static <W, T> List<T> findValues(JacksonMongoCollection<W> collection, Bson filter, Function<W, T> valueGetter) {
+        List<T> values = new ArrayList<>();
+        try (MongoCursor<W> iterator = collection.getMongoCollection().find(filter).iterator()) {
+            while (iterator.hasNext()) {
+                values.add(valueGetter.apply(iterator.next()));
+            }
+        }
+        return values;
+    }
+
+    private interface WrapperFactory<T, W> {
+
+        W create(String id, ModelKey<T> key, T value);
+
+    }
+
 }
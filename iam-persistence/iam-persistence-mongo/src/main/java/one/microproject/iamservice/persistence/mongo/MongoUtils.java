@@ -1,22 +1,76 @@
 package one.microproject.iamservice.persistence.mongo;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.event.ConnectionPoolListener;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.model.keys.ModelKey;
 import org.bson.UuidRepresentation;
+import org.bson.conversions.Bson;
 import org.mongojack.JacksonMongoCollection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.CLIENTS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.ORGANIZATIONS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.PROJECTS;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.ROLES;
+import static one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl.USERS;
 
 public final class MongoUtils {
 
     private MongoUtils() {
     }
 
+    private static final Logger LOG = LoggerFactory.getLogger(MongoUtils.class);
+
     public static final String SEPARATOR = "/";
+    public static final String ORGANIZATION_ID = "organizationId";
+    public static final String PROJECT_ID = "projectId";
+    public static final String KEY = "key";
+    public static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
 
-    public static <T> JacksonMongoCollection<T> createJacksonMongoCollection(MongoConfiguration configuration, Class<T> type, String collectionName) {
-        MongoClient mongoClient = MongoClients.create(configuration.getConnectionString());
+    public static MongoClientSettings createMongoClientSettings(MongoConfiguration configuration, ConnectionPoolListener connectionPoolListener) {
+        return MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(configuration.getConnectionString()))
+                .applyToConnectionPoolSettings(builder -> builder
+                        .maxSize(configuration.getMaxPoolSize())
+                        .minSize(configuration.getMinPoolSize())
+                        .maxWaitTime(configuration.getMaxWaitTimeMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(connectionPoolListener))
+                .readPreference(ReadPreference.valueOf(configuration.getReadPreference()))
+                .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                .build();
+    }
+
+    /**
+     * Create client with single connection pool per server, the client should be shared by all collections.
+     */
+    public static MongoClient createMongoClient(MongoConfiguration configuration, ConnectionPoolListener connectionPoolListener) {
+        return MongoClients.create(createMongoClientSettings(configuration, connectionPoolListener));
+    }
+
+    public static <T> JacksonMongoCollection<T> createJacksonMongoCollection(MongoClient mongoClient, String database, Class<T> type, String collectionName) {
         return JacksonMongoCollection.builder()
-                .build(mongoClient, configuration.getDatabase(), collectionName, type, UuidRepresentation.JAVA_LEGACY);
+                .build(mongoClient, database, collectionName, type, UuidRepresentation.JAVA_LEGACY);
     }
 
     public static <T> String convertToId(ModelKey<T> key) {
@@ -30,4 +84,73 @@ public final class MongoUtils {
         return stringKey.toString();
     }
 
+    /**
+     * Convert document id back to model key, reverse of {@link #convertToId(ModelKey)}.
+     * @param collectionName collection of the document.
+     * @param id document id.
+     * @return model key or null if collection does not hold model entities or id does not match the collection.
+     */
+    public static ModelKey<?> convertToKey(String collectionName, String id) {
+        String[] ids = id.split(SEPARATOR, -1);
+        if (ORGANIZATIONS.equals(collectionName) && ids.length == 1) {
+            return ModelKey.from(Organization.class, OrganizationId.from(ids[0]));
+        } else if (PROJECTS.equals(collectionName) && ids.length == 2) {
+            return ModelKey.from(Project.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]));
+        } else if (USERS.equals(collectionName) && ids.length == 3) {
+            return ModelKey.from(User.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), UserId.from(ids[2]));
+        } else if (CLIENTS.equals(collectionName) && ids.length == 3) {
+            return ModelKey.from(Client.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), ClientId.from(ids[2]));
+        } else if (ROLES.equals(collectionName) && ids.length == 3) {
+            return ModelKey.from(Role.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), RoleId.from(ids[2]));
+        }
+        return null;
+    }
+
+    public static Bson idFilter(String id) {
+        return Filters.eq("_id", id);
+    }
+
+    /**
+     * Create filter matching all documents of organization, for example all projects of one organization.
+     * Filter is an equality match on organizationId field, so it is resolved using scope index.
+     * @param organizationId organization of documents.
+     * @return filter matching documents within the scope of given organization.
+     */
+    public static Bson scopeFilter(OrganizationId organizationId) {
+        return Filters.eq(ORGANIZATION_ID, organizationId.getId());
+    }
+
+    /**
+     * Create filter matching all documents of project, for example all users of one project.
+     * Filter is an equality match on organizationId and projectId fields, so it is resolved using compound scope index.
+     * @param organizationId organization of documents.
+     * @param projectId project of documents.
+     * @return filter matching documents within the scope of given project.
+     */
+    public static Bson scopeFilter(OrganizationId organizationId, ProjectId projectId) {
+        return Filters.and(Filters.eq(ORGANIZATION_ID, organizationId.getId()), Filters.eq(PROJECT_ID, projectId.getId()));
+    }
+
+    /**
+     * Create filter matching documents stored before scope fields were introduced.
+     */
+    public static Bson missingScopeFilter() {
+        return Filters.exists(ORGANIZATION_ID, false);
+    }
+
+    /**
+     * Create scope index on given fields, creating an index which already exists is no-op.
+     */
+    public static void createScopeIndex(JacksonMongoCollection<?> collection, String... fieldNames) {
+        String indexName = collection.getMongoCollection().createIndex(Indexes.ascending(fieldNames));
+        LOG.info("#MONGO: index {}.{} ready", collection.getMongoCollection().getNamespace().getCollectionName(), indexName);
+    }
+
+    /**
+     * Projection of key-only queries, skips decoding of document values.
+     */
+    public static Bson keyProjection() {
+        return Projections.include(KEY);
+    }
+
 }
@@ -8,22 +8,40 @@ import one.microproject.iamservice.core.model.keys.ModelKey;
 public class ClientMongoWrapper {
 
     private final String _id;
+    private final String organizationId;
+    private final String projectId;
     private final ModelKey<Client> key;
     private final Client value;
 
     @JsonCreator
     public ClientMongoWrapper(@JsonProperty("_id") String _id,
+                              @JsonProperty("organizationId") String organizationId,
+                              @JsonProperty("projectId") String projectId,
                               @JsonProperty("key") ModelKey<Client> key,
                               @JsonProperty("value") Client value) {
         this._id = _id;
+        this.organizationId = organizationId;
+        this.projectId = projectId;
         this.key = key;
         this.value = value;
     }
 
+    public ClientMongoWrapper(String _id, ModelKey<Client> key, Client value) {
+        this(_id, key.getIds()[0].getId(), key.getIds()[1].getId(), key, value);
+    }
+
     public String get_id() {
         return _id;
     }
 
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
     public ModelKey<Client> getKey() {
         return key;
     }
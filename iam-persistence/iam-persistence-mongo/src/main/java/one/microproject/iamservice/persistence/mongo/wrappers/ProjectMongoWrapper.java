@@ -8,22 +8,33 @@ import one.microproject.iamservice.core.model.keys.ModelKey;
 public class ProjectMongoWrapper {
 
     private final String _id;
+    private final String organizationId;
     private final ModelKey<Project> key;
     private final Project value;
 
     @JsonCreator
     public ProjectMongoWrapper(@JsonProperty("_id") String _id,
+                               @JsonProperty("organizationId") String organizationId,
                                @JsonProperty("key") ModelKey<Project> key,
                                @JsonProperty("value") Project value) {
         this._id = _id;
+        this.organizationId = organizationId;
         this.key = key;
         this.value = value;
     }
 
+    public ProjectMongoWrapper(String _id, ModelKey<Project> key, Project value) {
+        this(_id, key.getIds()[0].getId(), key, value);
+    }
+
     public String get_id() {
         return _id;
     }
 
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
     public ModelKey<Project> getKey() {
         return key;
     }
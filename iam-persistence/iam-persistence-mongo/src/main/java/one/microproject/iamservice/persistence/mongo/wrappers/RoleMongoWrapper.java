@@ -8,22 +8,40 @@ import one.microproject.iamservice.core.model.keys.ModelKey;
 public class RoleMongoWrapper {
 
     private final String _id;
+    private final String organizationId;
+    private final String projectId;
     private final ModelKey<Role> key;
     private final Role value;
 
     @JsonCreator
     public RoleMongoWrapper(@JsonProperty("_id") String _id,
+                            @JsonProperty("organizationId") String organizationId,
+                            @JsonProperty("projectId") String projectId,
                             @JsonProperty("key") ModelKey<Role> key,
                             @JsonProperty("value") Role value) {
         this._id = _id;
+        this.organizationId = organizationId;
+        this.projectId = projectId;
         this.key = key;
         this.value = value;
     }
 
+    public RoleMongoWrapper(String _id, ModelKey<Role> key, Role value) {
+        this(_id, key.getIds()[0].getId(), key.getIds()[1].getId(), key, value);
+    }
+
     public String get_id() {
         return _id;
     }
 
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
     public ModelKey<Role> getKey() {
         return key;
     }
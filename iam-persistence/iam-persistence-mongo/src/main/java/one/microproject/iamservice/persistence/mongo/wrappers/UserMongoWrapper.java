@@ -8,22 +8,40 @@ import one.microproject.iamservice.core.model.keys.ModelKey;
 public class UserMongoWrapper {
 
     private final String _id;
+    private final String organizationId;
+    private final String projectId;
     private final ModelKey<User> key;
     private final User value;
 
     @JsonCreator
     public UserMongoWrapper(@JsonProperty("_id") String _id,
+                            @JsonProperty("organizationId") String organizationId,
+                            @JsonProperty("projectId") String projectId,
                             @JsonProperty("key") ModelKey<User> key,
                             @JsonProperty("value") User value) {
         this._id = _id;
+        this.organizationId = organizationId;
+        this.projectId = projectId;
         this.key = key;
         this.value = value;
     }
 
+    public UserMongoWrapper(String _id, ModelKey<User> key, User value) {
+        this(_id, key.getIds()[0].getId(), key.getIds()[1].getId(), key, value);
+    }
+
     public String get_id() {
         return _id;
     }
 
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
     public ModelKey<User> getKey() {
         return key;
     }
@@ -0,0 +1,101 @@
+package one.microproject.iamservice.persistence.mongo.tests;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Permission;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.RoleImpl;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.persistence.mongo.CachingMongoModelWrapperImpl;
+import one.microproject.iamservice.persistence.mongo.MongoConfiguration;
+import one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two caching model wrappers sharing one database simulate two iam-service instances.
+ * Change streams require replica set, MongoDBContainer runs single node replica set.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CachingMongoModelWrapperTests {
+
+    private static final ModelKey<Role> ROLE_KEY = ModelKey.from(Role.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"), RoleId.from("role-001"));
+
+    @Container
+    private static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.4-bionic");
+
+    private static CachingMongoModelWrapperImpl nodeA;
+    private static CachingMongoModelWrapperImpl nodeB;
+
+    @BeforeAll
+    static void init() throws InterruptedException {
+        MongoConfiguration mongoConfiguration = new MongoConfiguration("localhost", mongoDBContainer.getMappedPort(27017), "iam-service");
+        nodeA = new CachingMongoModelWrapperImpl(new MongoModelWrapperImpl(mongoConfiguration), 100);
+        nodeB = new CachingMongoModelWrapperImpl(new MongoModelWrapperImpl(mongoConfiguration), 100);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((!nodeA.isWatching() || !nodeB.isWatching()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(nodeA.isWatching());
+        assertTrue(nodeB.isWatching());
+    }
+
+    @AfterAll
+    static void shutdown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testChangesOfOtherNodeAreVisible() throws InterruptedException {
+        nodeA.putRole(ROLE_KEY, new RoleImpl(RoleId.from("role-001"), "name-001", Set.of()));
+        assertEquals("name-001", nodeB.getRole(ROLE_KEY).getName());
+        long hits = nodeB.getHits();
+        assertEquals("name-001", nodeB.getRole(ROLE_KEY).getName());
+        assertEquals(hits + 1, nodeB.getHits());
+
+        nodeA.putRole(ROLE_KEY, new RoleImpl(RoleId.from("role-001"), "name-002", Set.of()));
+        assertTrue(await(() -> "name-002".equals(nodeB.getRole(ROLE_KEY).getName())));
+
+        nodeA.removeRole(ROLE_KEY);
+        assertTrue(await(() -> nodeB.getRole(ROLE_KEY) == null));
+        assertNull(nodeA.getRole(ROLE_KEY));
+    }
+
+    @Test
+    void testCachedInstancesAreNotShared() {
+        ModelKey<Role> roleKey = ModelKey.from(Role.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"), RoleId.from("role-002"));
+        nodeA.putRole(roleKey, new RoleImpl(RoleId.from("role-002"), "name-001", Set.of()));
+        Role first = nodeA.getRole(roleKey);
+        first.addPermission(new Permission("service", "resource", "action"));
+        Role second = nodeA.getRole(roleKey);
+        assertNotSame(first, second);
+        assertTrue(second.getPermissions().isEmpty());
+        nodeA.removeRole(roleKey);
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+}
@@ -1,5 +1,6 @@
 package one.microproject.iamservice.persistence.mongo.tests;
 
+import com.mongodb.MongoClientSettings;
 import one.microproject.iamservice.core.model.Client;
 import one.microproject.iamservice.core.model.ClientId;
 import one.microproject.iamservice.core.model.Organization;
@@ -11,11 +12,16 @@ import one.microproject.iamservice.core.model.RoleId;
 import one.microproject.iamservice.core.model.User;
 import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl;
 import one.microproject.iamservice.persistence.mongo.MongoUtils;
+import one.microproject.iamservice.persistence.mongo.wrappers.UserMongoWrapper;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class KeyTransformationTests {
 
@@ -59,4 +65,31 @@ class KeyTransformationTests {
         assertEquals(3, id.split(MongoUtils.SEPARATOR).length);
     }
 
+    @Test
+    void testIdToKeyConversion() {
+        ModelKey<User> userKey = ModelKey.from(User.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"), UserId.from("u-001"));
+        ModelKey<Role> roleKey = ModelKey.from(Role.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"), RoleId.from("r-001"));
+        ModelKey<Project> projectKey = ModelKey.from(Project.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"));
+        assertEquals(userKey, MongoUtils.convertToKey(MongoModelWrapperImpl.USERS, MongoUtils.convertToId(userKey)));
+        assertEquals(roleKey, MongoUtils.convertToKey(MongoModelWrapperImpl.ROLES, MongoUtils.convertToId(roleKey)));
+        assertEquals(projectKey, MongoUtils.convertToKey(MongoModelWrapperImpl.PROJECTS, MongoUtils.convertToId(projectKey)));
+        assertNull(MongoUtils.convertToKey(MongoModelWrapperImpl.USERS, MongoUtils.convertToId(projectKey)));
+        assertNull(MongoUtils.convertToKey("model", "model-001"));
+    }
+
+    @Test
+    void testScopeFieldsOfUser() {
+        ModelKey<User> modelKey = ModelKey.from(User.class, OrganizationId.from("org-001"), ProjectId.from("proj-001"), UserId.from("u-001"));
+        UserMongoWrapper wrapper = new UserMongoWrapper(MongoUtils.convertToId(modelKey), modelKey, null);
+        assertEquals("org-001", wrapper.getOrganizationId());
+        assertEquals("proj-001", wrapper.getProjectId());
+    }
+
+    @Test
+    void testScopeFilter() {
+        Bson filter = MongoUtils.scopeFilter(OrganizationId.from("org-001"), ProjectId.from("proj-001"));
+        BsonDocument document = filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertEquals(BsonDocument.parse("{ $and: [ { organizationId: 'org-001' }, { projectId: 'proj-001' } ] }"), document);
+    }
+
 }
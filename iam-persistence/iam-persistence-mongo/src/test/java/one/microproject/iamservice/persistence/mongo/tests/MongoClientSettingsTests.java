@@ -0,0 +1,70 @@
+package one.microproject.iamservice.persistence.mongo.tests;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import one.microproject.iamservice.persistence.mongo.MongoConfiguration;
+import one.microproject.iamservice.persistence.mongo.MongoConnectionPoolStats;
+import one.microproject.iamservice.persistence.mongo.MongoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MongoClientSettingsTests {
+
+    @Test
+    void testPoolSettings() {
+        MongoConfiguration configuration = new MongoConfiguration("localhost", 27017, "iam-db", "user", "secret",
+                20, 2, 500, "secondaryPreferred");
+        MongoConnectionPoolStats stats = new MongoConnectionPoolStats();
+        MongoClientSettings settings = MongoUtils.createMongoClientSettings(configuration, stats);
+        assertEquals(20, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(2, settings.getConnectionPoolSettings().getMinSize());
+        assertEquals(500, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertTrue(settings.getConnectionPoolSettings().getConnectionPoolListeners().contains(stats));
+        assertEquals(ReadPreference.secondaryPreferred(), settings.getReadPreference());
+        assertEquals("user", settings.getCredential().getUserName());
+    }
+
+    @Test
+    void testDefaultPoolSettings() {
+        MongoConfiguration configuration = new MongoConfiguration("localhost", 27017, "iam-db");
+        MongoClientSettings settings = MongoUtils.createMongoClientSettings(configuration, new MongoConnectionPoolStats());
+        assertEquals(MongoConfiguration.DEFAULT_MAX_POOL_SIZE, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(ReadPreference.primary(), settings.getReadPreference());
+    }
+
+    @Test
+    void testConnectionPoolStats() {
+        MongoConnectionPoolStats stats = new MongoConnectionPoolStats();
+        ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+        ConnectionId connectionId = new ConnectionId(serverId);
+        stats.connectionCreated(new ConnectionCreatedEvent(connectionId));
+        stats.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        stats.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        assertEquals(2, stats.getWaitQueueSize());
+        stats.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId));
+        stats.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, ConnectionCheckOutFailedEvent.Reason.TIMEOUT));
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getCheckedOut());
+        assertEquals(0, stats.getWaitQueueSize());
+        assertEquals(1, stats.getCheckOutFailures());
+        stats.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+        stats.connectionClosed(new ConnectionClosedEvent(connectionId, ConnectionClosedEvent.Reason.POOL_CLOSED));
+        assertEquals(0, stats.getSize());
+        assertEquals(0, stats.getCheckedOut());
+    }
+
+}
@@ -0,0 +1,39 @@
+package one.microproject.iamservice.persistence.mvstore;
+
+public class MVStoreConfiguration {
+
+    public static final int DEFAULT_CACHE_SIZE_MB = 16;
+    public static final int DEFAULT_HOT_CACHE_MAX_SIZE = 10000;
+
+    private final String fileName;
+    private final int cacheSizeMB;
+    private final int hotCacheMaxSize;
+
+    /**
+     * @param fileName path to MVStore file, file is created if it does not exist.
+     * @param cacheSizeMB size of MVStore page cache in megabytes.
+     * @param hotCacheMaxSize max number of encoded entities kept in hot entity cache.
+     */
+    public MVStoreConfiguration(String fileName, int cacheSizeMB, int hotCacheMaxSize) {
+        this.fileName = fileName;
+        this.cacheSizeMB = cacheSizeMB;
+        this.hotCacheMaxSize = hotCacheMaxSize;
+    }
+
+    public MVStoreConfiguration(String fileName) {
+        this(fileName, DEFAULT_CACHE_SIZE_MB, DEFAULT_HOT_CACHE_MAX_SIZE);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getCacheSizeMB() {
+        return cacheSizeMB;
+    }
+
+    public int getHotCacheMaxSize() {
+        return hotCacheMaxSize;
+    }
+
+}
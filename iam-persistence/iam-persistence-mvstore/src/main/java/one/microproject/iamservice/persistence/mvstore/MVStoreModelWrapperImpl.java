@@ -0,0 +1,552 @@
+package one.microproject.iamservice.persistence.mvstore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.persistence.PersistenceService;
+import one.microproject.iamservice.core.services.persistence.wrappers.ClientWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.OrganizationWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.ProjectWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.RoleWrapper;
+import one.microproject.iamservice.core.services.persistence.wrappers.UserWrapper;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static one.microproject.iamservice.persistence.mvstore.MVStoreUtils.convertToId;
+import static one.microproject.iamservice.persistence.mvstore.MVStoreUtils.scopePrefix;
+
+/**
+ * Model wrapper backed by embedded H2 MVStore file, so the model does not have to fit into the heap.
+ * Entities are stored Smile encoded in one map per entity type, keyed by ids of {@link ModelKey} joined by
+ * {@link MVStoreUtils#SEPARATOR}, scope queries are range scans over key prefix of organization or project.
+ * Every mutation is committed as new store version, all changes of {@link ModelBatch} are committed as single
+ * version, so they are applied atomically after crash. Recently used entities are kept encoded in bounded
+ * LRU cache, point lookups of hot entities do not touch the store. Every lookup decodes its own instance, callers
+ * mutate entities in place before they are written, shared instances would expose uncommitted changes.
+ */
+public class MVStoreModelWrapperImpl implements ModelWrapper, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MVStoreModelWrapperImpl.class);
+    private static final String MODEL_KEY = "model";
+    private static final int COMPACT_TARGET_FILL_RATE = 50;
+    private static final int COMPACT_WRITE_BYTES = 16 * 1024 * 1024;
+
+    public static final String MODEL_INFO = "modelinfo";
+    public static final String ORGANIZATIONS = "organizations";
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+    public static final String CLIENTS = "clients";
+    public static final String ROLES = "roles";
+
+    private final MVStore store;
+    private final ObjectMapper mapper;
+    private final MVMap<String, byte[]> modelInfoMap;
+    private final StoreMap<Organization> organizations;
+    private final StoreMap<Project> projects;
+    private final StoreMap<User> users;
+    private final StoreMap<Client> clients;
+    private final StoreMap<Role> roles;
+    private final ReentrantLock writeLock;
+    private final Map<String, byte[]> cache;
+    private final AtomicLong invalidations;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public MVStoreModelWrapperImpl(MVStoreConfiguration configuration) {
+        this.store = new MVStore.Builder()
+                .fileName(configuration.getFileName())
+                .cacheSize(configuration.getCacheSizeMB())
+                .autoCommitDisabled()
+                .open();
+        this.mapper = new ObjectMapper(new SmileFactory());
+        this.modelInfoMap = store.openMap(MODEL_INFO);
+        this.organizations = new StoreMap<>(ORGANIZATIONS, Organization.class, MVStoreUtils::toOrganizationKey);
+        this.projects = new StoreMap<>(PROJECTS, Project.class, MVStoreUtils::toProjectKey);
+        this.users = new StoreMap<>(USERS, User.class, MVStoreUtils::toUserKey);
+        this.clients = new StoreMap<>(CLIENTS, Client.class, MVStoreUtils::toClientKey);
+        this.roles = new StoreMap<>(ROLES, Role.class, MVStoreUtils::toRoleKey);
+        this.writeLock = new ReentrantLock();
+        int hotCacheMaxSize = configuration.getHotCacheMaxSize();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > hotCacheMaxSize;
+            }
+        };
+        this.invalidations = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        LOG.info("#MVSTORE: {} opened, organizations={} projects={} users={} clients={} roles={}", configuration.getFileName(),
+                organizations.map.sizeAsLong(), projects.map.sizeAsLong(), users.map.sizeAsLong(), clients.map.sizeAsLong(), roles.map.sizeAsLong());
+    }
+
+    @Override
+    public void close() {
+        LOG.info("Closing MVStore");
+        writeLock.lock();
+        try {
+            store.commit();
+            store.compact(COMPACT_TARGET_FILL_RATE, COMPACT_WRITE_BYTES);
+            store.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onInit(PersistenceService persistenceService, boolean flushOnChange) throws Exception {
+        LOG.info("NOOP");
+    }
+
+    /**
+     * Changes are committed by every mutation, flush forces committed changes to disk.
+     */
+    @Override
+    public void flush() throws Exception {
+        writeLock.lock();
+        try {
+            store.commit();
+            store.sync();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return modelInfoMap.containsKey(MODEL_KEY);
+    }
+
+    @Override
+    public Model getModel() {
+        byte[] data = modelInfoMap.get(MODEL_KEY);
+        return (data == null) ? null : decode(data, Model.class);
+    }
+
+    @Override
+    public void setModel(Model model) {
+        byte[] data = encode(model, Model.class);
+        commit(() -> modelInfoMap.put(MODEL_KEY, data));
+    }
+
+    @Override
+    public List<OrganizationWrapper> getOrganizations() {
+        return organizations.wrap(OrganizationWrapper::new);
+    }
+
+    @Override
+    public List<ProjectWrapper> getProjects() {
+        return projects.wrap(ProjectWrapper::new);
+    }
+
+    @Override
+    public List<UserWrapper> getUsers() {
+        return users.wrap(UserWrapper::new);
+    }
+
+    @Override
+    public List<ClientWrapper> getClients() {
+        return clients.wrap(ClientWrapper::new);
+    }
+
+    @Override
+    public List<RoleWrapper> getRoles() {
+        return roles.wrap(RoleWrapper::new);
+    }
+
+    @Override
+    public void putOrganization(ModelKey<Organization> key, Organization value) {
+        commit(() -> organizations.put(key, value));
+    }
+
+    @Override
+    public void putProject(ModelKey<Project> key, Project value) {
+        commit(() -> projects.put(key, value));
+    }
+
+    @Override
+    public void putUser(ModelKey<User> key, User value) {
+        commit(() -> users.put(key, value));
+    }
+
+    @Override
+    public void putClient(ModelKey<Client> key, Client value) {
+        commit(() -> clients.put(key, value));
+    }
+
+    @Override
+    public void putRole(ModelKey<Role> key, Role value) {
+        commit(() -> roles.put(key, value));
+    }
+
+    @Override
+    public void write(ModelBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        commit(() -> {
+            users.write(batch.getUsers());
+            clients.write(batch.getClients());
+            roles.write(batch.getRoles());
+            projects.write(batch.getProjects());
+            organizations.write(batch.getOrganizations());
+            return null;
+        });
+    }
+
+    @Override
+    public Organization removeOrganization(ModelKey<Organization> key) {
+        return commit(() -> organizations.remove(key));
+    }
+
+    @Override
+    public Project removeProject(ModelKey<Project> key) {
+        return commit(() -> projects.remove(key));
+    }
+
+    @Override
+    public User removeUser(ModelKey<User> key) {
+        return commit(() -> users.remove(key));
+    }
+
+    @Override
+    public Client removeClient(ModelKey<Client> key) {
+        return commit(() -> clients.remove(key));
+    }
+
+    @Override
+    public Role removeRole(ModelKey<Role> key) {
+        return commit(() -> roles.remove(key));
+    }
+
+    @Override
+    public Organization getOrganization(ModelKey<Organization> key) {
+        return organizations.get(key);
+    }
+
+    @Override
+    public Project getProject(ModelKey<Project> key) {
+        return projects.get(key);
+    }
+
+    @Override
+    public User getUser(ModelKey<User> key) {
+        return users.get(key);
+    }
+
+    @Override
+    public Client getClient(ModelKey<Client> key) {
+        return clients.get(key);
+    }
+
+    @Override
+    public Role getRole(ModelKey<Role> key) {
+        return roles.get(key);
+    }
+
+    @Override
+    public Set<ModelKey<Organization>> getOrganizationsKeys() {
+        return organizations.findKeys("");
+    }
+
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys() {
+        return projects.findKeys("");
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys() {
+        return users.findKeys("");
+    }
+
+    @Override
+    public Set<ModelKey<Client>> getClientKeys() {
+        return clients.findKeys("");
+    }
+
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys() {
+        return roles.findKeys("");
+    }
+
+    @Override
+    public Set<ModelKey<Project>> getProjectKeys(OrganizationId organizationId) {
+        return projects.findKeys(scopePrefix(organizationId));
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId) {
+        return users.findKeys(scopePrefix(organizationId));
+    }
+
+    @Override
+    public Set<ModelKey<User>> getUserKeys(OrganizationId organizationId, ProjectId projectId) {
+        return users.findKeys(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Set<ModelKey<Client>> getClientKeys(OrganizationId organizationId, ProjectId projectId) {
+        return clients.findKeys(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Set<ModelKey<Role>> getRoleKeys(OrganizationId organizationId, ProjectId projectId) {
+        return roles.findKeys(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Collection<Organization> getAllOrganizations() {
+        return organizations.findValues("");
+    }
+
+    @Override
+    public Collection<Project> getAllProjects(OrganizationId organizationId) {
+        return projects.findValues(scopePrefix(organizationId));
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId) {
+        return users.findValues(scopePrefix(organizationId));
+    }
+
+    @Override
+    public Collection<User> getAllUsers(OrganizationId organizationId, ProjectId projectId) {
+        return users.findValues(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Collection<Client> getAllClients(OrganizationId organizationId, ProjectId projectId) {
+        return clients.findValues(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Collection<Role> getAllRoles(OrganizationId organizationId, ProjectId projectId) {
+        return roles.findValues(scopePrefix(organizationId, projectId));
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<Client>, Client>> getClientEntrySet() {
+        return clients.findEntries();
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<User>, User>> getUserEntrySet() {
+        return users.findEntries();
+    }
+
+    @Override
+    public Set<Map.Entry<ModelKey<Role>, Role>> getRoleEntrySet() {
+        return roles.findEntries();
+    }
+
+    @Override
+    public void setPersistenceService(PersistenceService persistenceService) {
+        LOG.info("NOOP");
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Apply changes and commit them as single store version, writers are serialized so commit never contains
+     * partial changes of another writer.
+     */
+    private <R> R commit(Supplier<R> changes) {
+        writeLock.lock();
+        try {
+            R result = changes.get();
+            store.commit();
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void evict(String cacheKey) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.remove(cacheKey);
+        }
+    }
+
+    private <T> byte[] encode(T value, Class<T> type) {
+        try {
+            return mapper.writerFor(type).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Value of type " + type.getName() + " can't be encoded.", e);
+        }
+    }
+
+    private <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return mapper.readerFor(type).readValue(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Value of type " + type.getName() + " can't be decoded.", e);
+        }
+    }
+
+    /**
+     * Store map of one entity type.
+     */
+    private class StoreMap<T> {
+
+        private final String name;
+        private final Class<T> type;
+        private final MVMap<String, byte[]> map;
+        private final Function<String, ModelKey<T>> keyParser;
+
+        private StoreMap(String name, Class<T> type, Function<String, ModelKey<T>> keyParser) {
+            this.name = name;
+            this.type = type;
+            this.map = store.openMap(name);
+            this.keyParser = keyParser;
+        }
+
+        private T get(ModelKey<T> key) {
+            String id = convertToId(key);
+            String cacheKey = cacheKey(id);
+            byte[] data;
+            synchronized (cache) {
+                data = cache.get(cacheKey);
+            }
+            if (data != null) {
+                hits.increment();
+                return decode(data, type);
+            }
+            misses.increment();
+            long invalidationsBefore = invalidations.get();
+            data = map.get(id);
+            if (data == null) {
+                return null;
+            }
+            synchronized (cache) {
+                // value read from store may be stale if entity has been changed meanwhile
+                if (invalidations.get() == invalidationsBefore) {
+                    cache.put(cacheKey, data);
+                }
+            }
+            return decode(data, type);
+        }
+
+        private Void put(ModelKey<T> key, T value) {
+            String id = convertToId(key);
+            try {
+                map.put(id, encode(value, type));
+            } finally {
+                evict(cacheKey(id));
+            }
+            return null;
+        }
+
+        private T remove(ModelKey<T> key) {
+            String id = convertToId(key);
+            byte[] data;
+            try {
+                data = map.remove(id);
+            } finally {
+                evict(cacheKey(id));
+            }
+            return (data == null) ? null : decode(data, type);
+        }
+
+        private void write(Map<ModelKey<T>, T> changes) {
+            changes.forEach((key, value) -> {
+                if (value == null) {
+                    String id = convertToId(key);
+                    try {
+                        map.remove(id);
+                    } finally {
+                        evict(cacheKey(id));
+                    }
+                } else {
+                    put(key, value);
+                }
+            });
+        }
+
+        private <W> List<W> wrap(BiFunction<ModelKey<T>, T, W> wrapper) {
+            List<W> wrappers = new ArrayList<>();
+            scan("", (id, data) -> wrappers.add(wrapper.apply(keyParser.apply(id), decode(data, type))));
+            return wrappers;
+        }
+
+        private Set<ModelKey<T>> findKeys(String prefix) {
+            Set<ModelKey<T>> keys = new HashSet<>();
+            scan(prefix, (id, data) -> keys.add(keyParser.apply(id)));
+            return keys;
+        }
+
+        private List<T> findValues(String prefix) {
+            List<T> values = new ArrayList<>();
+            scan(prefix, (id, data) -> values.add(decode(data, type)));
+            return values;
+        }
+
+        private Set<Map.Entry<ModelKey<T>, T>> findEntries() {
+            Map<ModelKey<T>, T> entries = new HashMap<>();
+            scan("", (id, data) -> entries.put(keyParser.apply(id), decode(data, type)));
+            return entries.entrySet();
+        }
+
+        /**
+         * Iterate entries with keys starting with prefix, keys are ordered so iteration stops at first other key.
+         */
+        private void scan(String prefix, BiConsumer<String, byte[]> consumer) {
+            Cursor<String, byte[]> cursor = map.cursor(prefix);
+            while (cursor.hasNext()) {
+                String id = cursor.next();
+                if (!id.startsWith(prefix)) {
+                    break;
+                }
+                consumer.accept(id, cursor.getValue());
+            }
+        }
+
+        private String cacheKey(String id) {
+            return name + MVStoreUtils.SEPARATOR + id;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package one.microproject.iamservice.persistence.mvstore;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+
+public final class MVStoreUtils {
+
+    private MVStoreUtils() {
+    }
+
+    /**
+     * Separator of ids in store keys. Keys are ordered lexicographically, separator sorts before any other character,
+     * so all keys of one organization or project are adjacent and scope queries are range scans over key prefix.
+     */
+    public static final char SEPARATOR = '\u0000';
+
+    public static <T> String convertToId(ModelKey<T> key) {
+        StringBuilder stringKey = new StringBuilder();
+        for (int i=0; i<key.getIds().length; i++) {
+            stringKey.append(key.getIds()[i].getId());
+            if (i < (key.getIds().length - 1)) {
+                stringKey.append(SEPARATOR);
+            }
+        }
+        return stringKey.toString();
+    }
+
+    /**
+     * Create key prefix of all entities within the scope of organization.
+     * @param organizationId organization of entities.
+     * @return key prefix.
+     */
+    public static String scopePrefix(OrganizationId organizationId) {
+        return organizationId.getId() + SEPARATOR;
+    }
+
+    /**
+     * Create key prefix of all entities within the scope of project.
+     * @param organizationId organization of entities.
+     * @param projectId project of entities.
+     * @return key prefix.
+     */
+    public static String scopePrefix(OrganizationId organizationId, ProjectId projectId) {
+        return organizationId.getId() + SEPARATOR + projectId.getId() + SEPARATOR;
+    }
+
+    public static ModelKey<Organization> toOrganizationKey(String id) {
+        String[] ids = split(id, 1);
+        return ModelKey.from(Organization.class, OrganizationId.from(ids[0]));
+    }
+
+    public static ModelKey<Project> toProjectKey(String id) {
+        String[] ids = split(id, 2);
+        return ModelKey.from(Project.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]));
+    }
+
+    public static ModelKey<User> toUserKey(String id) {
+        String[] ids = split(id, 3);
+        return ModelKey.from(User.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), UserId.from(ids[2]));
+    }
+
+    public static ModelKey<Client> toClientKey(String id) {
+        String[] ids = split(id, 3);
+        return ModelKey.from(Client.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), ClientId.from(ids[2]));
+    }
+
+    public static ModelKey<Role> toRoleKey(String id) {
+        String[] ids = split(id, 3);
+        return ModelKey.from(Role.class, OrganizationId.from(ids[0]), ProjectId.from(ids[1]), RoleId.from(ids[2]));
+    }
+
+    private static String[] split(String id, int count) {
+        String[] ids = id.split(String.valueOf(SEPARATOR), -1);
+        if (ids.length != count) {
+            throw new IllegalStateException("Store key has " + ids.length + " ids, expected " + count);
+        }
+        return ids;
+    }
+
+}
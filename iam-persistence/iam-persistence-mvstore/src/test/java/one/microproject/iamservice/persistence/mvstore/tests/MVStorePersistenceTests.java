@@ -0,0 +1,219 @@
+package one.microproject.iamservice.persistence.mvstore.tests;
+
+import one.microproject.iamservice.core.model.Client;
+import one.microproject.iamservice.core.model.ClientCredentials;
+import one.microproject.iamservice.core.model.ClientId;
+import one.microproject.iamservice.core.model.ClientProperties;
+import one.microproject.iamservice.core.model.Model;
+import one.microproject.iamservice.core.model.Organization;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.OrganizationImpl;
+import one.microproject.iamservice.core.model.PKIException;
+import one.microproject.iamservice.core.model.Project;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.model.Role;
+import one.microproject.iamservice.core.model.RoleId;
+import one.microproject.iamservice.core.model.RoleImpl;
+import one.microproject.iamservice.core.model.User;
+import one.microproject.iamservice.core.model.UserId;
+import one.microproject.iamservice.core.model.UserProperties;
+import one.microproject.iamservice.core.model.keys.ModelKey;
+import one.microproject.iamservice.core.services.caches.ModelCache;
+import one.microproject.iamservice.core.services.dto.CreateClientRequest;
+import one.microproject.iamservice.core.services.dto.CreateProjectRequest;
+import one.microproject.iamservice.core.services.dto.CreateUserRequest;
+import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.services.persistence.wrappers.ModelBatch;
+import one.microproject.iamservice.core.utils.ModelUtils;
+import one.microproject.iamservice.persistence.mvstore.MVStoreConfiguration;
+import one.microproject.iamservice.persistence.mvstore.MVStoreModelWrapperImpl;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.Security;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MVStorePersistenceTests {
+
+    private static OrganizationId organizationId01 = OrganizationId.from("org-001");
+    private static OrganizationId organizationId02 = OrganizationId.from("org-001-a");
+    private static ProjectId projectId01 = ProjectId.from("proj-001");
+    private static RoleId roleId = RoleId.from("r-01");
+    private static ClientId clientId = ClientId.from("admin-client");
+    private static UserId userId = UserId.from("admin");
+
+    @TempDir
+    static Path tempDir;
+
+    private static String fileName;
+    private static MVStoreModelWrapperImpl modelWrapper;
+    private static ModelCache modelCache;
+
+    @BeforeAll
+    static void init() {
+        Security.addProvider(new BouncyCastleProvider());
+        fileName = tempDir.resolve("model-storage.mv.db").toString();
+        modelWrapper = new MVStoreModelWrapperImpl(new MVStoreConfiguration(fileName));
+        modelCache = new ModelCacheImpl(modelWrapper);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        modelWrapper.close();
+    }
+
+    @Test
+    @Order(1)
+    void testInitialCache() {
+        assertFalse(modelWrapper.isInitialized());
+    }
+
+    @Test
+    @Order(10)
+    void testModelInfoReadWrite() {
+        Model model = ModelUtils.DEFAULT_MODEL;
+        modelCache.setModel(model);
+        Model modelFromStore = modelCache.getModel();
+        assertNotNull(modelFromStore);
+        assertEquals(model.getId(), modelFromStore.getId());
+        assertEquals(model.getName(), modelFromStore.getName());
+        assertTrue(modelWrapper.isInitialized());
+    }
+
+    @Test
+    @Order(11)
+    void testCreateOrganizationsAndProjects() throws PKIException {
+        assertTrue(modelCache.add(new OrganizationImpl(organizationId01, "")).isPresent());
+        assertTrue(modelCache.add(new OrganizationImpl(organizationId02, "")).isPresent());
+        assertEquals(2, modelWrapper.getOrganizationsKeys().size());
+        assertEquals(2, modelCache.getOrganizations().size());
+
+        assertTrue(modelCache.add(organizationId01, new CreateProjectRequest(projectId01, "", Set.of())).isPresent());
+        assertTrue(modelCache.add(organizationId02, new CreateProjectRequest(projectId01, "", Set.of())).isPresent());
+        Optional<Project> projectOptional = modelCache.getProject(organizationId01, projectId01);
+        assertTrue(projectOptional.isPresent());
+        assertEquals(projectId01, projectOptional.get().getId());
+        assertEquals(1, modelCache.getProjects(organizationId01).size());
+        assertEquals(1, modelCache.getProjects(organizationId02).size());
+    }
+
+    @Test
+    @Order(12)
+    void testCreateProjectEntities() throws PKIException {
+        assertTrue(modelCache.add(organizationId01, projectId01, new RoleImpl(roleId, "", List.of())).isPresent());
+        assertTrue(modelCache.getRole(organizationId01, projectId01, roleId).isPresent());
+
+        Optional<Client> clientOptional = modelCache.add(organizationId01, projectId01,
+                new CreateClientRequest(clientId, "", 3600L, 3600L, "secret",
+                        new ClientProperties("", true, true, true, new HashMap<>())));
+        assertTrue(clientOptional.isPresent());
+        assertTrue(modelCache.verifyClientCredentials(organizationId01, projectId01, new ClientCredentials(clientId, "secret")));
+
+        Optional<User> userOptional = modelCache.add(organizationId01, projectId01, new CreateUserRequest(userId, "", 3600L, 3600L, "", UserProperties.getDefault()));
+        assertTrue(userOptional.isPresent());
+        assertTrue(modelCache.getUser(organizationId01, projectId01, userId).isPresent());
+    }
+
+    @Test
+    @Order(13)
+    void testScopeQueriesAreIsolated() {
+        assertEquals(1, modelWrapper.getRoleKeys(organizationId01, projectId01).size());
+        assertEquals(0, modelWrapper.getRoleKeys(organizationId02, projectId01).size());
+        assertEquals(1, modelWrapper.getUserKeys(organizationId01).size());
+        assertEquals(1, modelWrapper.getAllUsers(organizationId01, projectId01).size());
+        assertEquals(0, modelWrapper.getAllUsers(organizationId02).size());
+        assertEquals(1, modelWrapper.getClientKeys(organizationId01, projectId01).size());
+        assertEquals(1, modelWrapper.getUserEntrySet().size());
+    }
+
+    @Test
+    @Order(14)
+    void testHotCacheServesLookups() {
+        ModelKey<User> userKey = ModelKey.from(User.class, organizationId01, projectId01, userId);
+        assertNotNull(modelWrapper.getUser(userKey));
+        long hits = modelWrapper.getHits();
+        assertNotNull(modelWrapper.getUser(userKey));
+        assertEquals(hits + 1, modelWrapper.getHits());
+        assertTrue(modelWrapper.getSize() > 0);
+    }
+
+    @Test
+    @Order(15)
+    void testBatchWrite() {
+        ModelKey<Role> roleKey01 = ModelKey.from(Role.class, organizationId02, projectId01, RoleId.from("r-02"));
+        ModelKey<Role> roleKey02 = ModelKey.from(Role.class, organizationId02, projectId01, RoleId.from("r-03"));
+        modelWrapper.write(new ModelBatch()
+                .putRole(roleKey01, new RoleImpl(RoleId.from("r-02"), "", List.of()))
+                .putRole(roleKey02, new RoleImpl(RoleId.from("r-03"), "", List.of())));
+        assertEquals(2, modelWrapper.getAllRoles(organizationId02, projectId01).size());
+        modelWrapper.write(new ModelBatch().removeRole(roleKey01));
+        assertNull(modelWrapper.getRole(roleKey01));
+        assertNotNull(modelWrapper.getRole(roleKey02));
+    }
+
+    @Test
+    @Order(16)
+    void testAllEntitiesAreWrapped() {
+        assertEquals(2, modelWrapper.getOrganizations().size());
+        assertEquals(2, modelWrapper.getProjects().size());
+        assertEquals(1, modelWrapper.getUsers().size());
+        assertEquals(1, modelWrapper.getClients().size());
+        assertEquals(2, modelWrapper.getRoles().size());
+    }
+
+    @Test
+    @Order(17)
+    void testHotCacheDoesNotShareInstances() {
+        ModelKey<User> userKey = ModelKey.from(User.class, organizationId01, projectId01, userId);
+        User user = modelWrapper.getUser(userKey);
+        user.addRole(RoleId.from("uncommitted"));
+        User cached = modelWrapper.getUser(userKey);
+        assertNotSame(user, cached);
+        assertFalse(cached.getRoles().contains(RoleId.from("uncommitted")));
+    }
+
+    @Test
+    @Order(20)
+    void testModelIsReopened() throws Exception {
+        modelWrapper.flush();
+        modelWrapper.close();
+        modelWrapper = new MVStoreModelWrapperImpl(new MVStoreConfiguration(fileName));
+        modelCache = new ModelCacheImpl(modelWrapper);
+        assertTrue(modelWrapper.isInitialized());
+        assertEquals(2, modelCache.getOrganizations().size());
+        assertTrue(modelCache.getUser(organizationId01, projectId01, userId).isPresent());
+        assertTrue(modelCache.verifyClientCredentials(organizationId01, projectId01, new ClientCredentials(clientId, "secret")));
+        assertEquals(1, modelWrapper.getRoleKeys(organizationId02, projectId01).size());
+    }
+
+    @Test
+    @Order(21)
+    void testRemoveOrganizationWithDependencies() {
+        assertTrue(modelCache.removeWithDependencies(organizationId02));
+        Optional<Organization> organizationOptional = modelCache.getOrganization(organizationId02);
+        assertTrue(organizationOptional.isEmpty());
+        assertEquals(0, modelWrapper.getProjectKeys(organizationId02).size());
+        assertEquals(0, modelWrapper.getRoleKeys(organizationId02, projectId01).size());
+        assertEquals(1, modelWrapper.getProjectKeys(organizationId01).size());
+        assertEquals(1, modelWrapper.getRoleKeys(organizationId01, projectId01).size());
+    }
+
+}
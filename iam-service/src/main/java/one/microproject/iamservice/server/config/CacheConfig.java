@@ -1,19 +1,27 @@
 package one.microproject.iamservice.server.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.microproject.iamservice.caches.redis.CacheCodec;
+import one.microproject.iamservice.caches.redis.JacksonCacheCodec;
 import one.microproject.iamservice.caches.redis.RedisCacheHolderImpl;
 import one.microproject.iamservice.caches.redis.RedisConfiguration;
+import one.microproject.iamservice.caches.redis.TwoTierCacheHolderImpl;
 import one.microproject.iamservice.core.model.JWToken;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
 import one.microproject.iamservice.core.services.impl.caches.CacheHolder;
 import one.microproject.iamservice.core.services.impl.caches.CacheHolderImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 
 import javax.annotation.PostConstruct;
+import java.util.function.ToDoubleFunction;
 
 @Configuration
 @ConfigurationProperties(prefix="iam-service.cache-type")
@@ -24,18 +32,38 @@ public class CacheConfig {
     private String type;
     private String host;
     private Integer port;
+    private int maxTotal = RedisConfiguration.DEFAULT_MAX_TOTAL;
+    private int maxIdle = RedisConfiguration.DEFAULT_MAX_IDLE;
+    private int minIdle = RedisConfiguration.DEFAULT_MIN_IDLE;
+    private int timeoutMillis = RedisConfiguration.DEFAULT_TIMEOUT_MILLIS;
+    private int scanCount = RedisConfiguration.DEFAULT_SCAN_COUNT;
+    private String codec = "smile";
+    private boolean nearCacheEnabled = true;
+    private int nearCacheMaxSize = 10000;
+    private long nearCacheTtlMillis = 10000;
 
     @PostConstruct
     public void init() {
         LOG.info("#CONFIG iam-service.cache-type:type: {}", type);
+        if ("redis".equals(type)) {
+            LOG.info("#CONFIG iam-service.cache-type:max-total: {}", maxTotal);
+            LOG.info("#CONFIG iam-service.cache-type:max-idle: {}", maxIdle);
+            LOG.info("#CONFIG iam-service.cache-type:min-idle: {}", minIdle);
+            LOG.info("#CONFIG iam-service.cache-type:timeout-millis: {}", timeoutMillis);
+            LOG.info("#CONFIG iam-service.cache-type:scan-count: {}", scanCount);
+            LOG.info("#CONFIG iam-service.cache-type:codec: {}", codec);
+            LOG.info("#CONFIG iam-service.cache-type:near-cache-enabled: {}", nearCacheEnabled);
+            LOG.info("#CONFIG iam-service.cache-type:near-cache-max-size: {}", nearCacheMaxSize);
+            LOG.info("#CONFIG iam-service.cache-type:near-cache-ttl-millis: {}", nearCacheTtlMillis);
+        }
     }
 
     @Bean
     @Scope("singleton")
-    public CacheHolder<JWToken> createJWTCache() {
+    public CacheHolder<JWToken> createJWTCache(@Autowired MeterRegistry meterRegistry) {
         if ("redis".equals(type)) {
             LOG.info("  Create REDIS backed JWToken cache {}:{}", host, port);
-            return new RedisCacheHolderImpl<>(new RedisConfiguration(host, port), JWToken.class);
+            return createRedisCache(JWToken.class, meterRegistry);
         } else {
             LOG.info("  Create in-memory JWToken cache ...");
             return new CacheHolderImpl<>();
@@ -44,10 +72,10 @@ public class CacheConfig {
 
     @Bean
     @Scope("singleton")
-    public CacheHolder<AuthorizationCodeContext> createAuthorizationCodeContextCache() {
+    public CacheHolder<AuthorizationCodeContext> createAuthorizationCodeContextCache(@Autowired MeterRegistry meterRegistry) {
         if ("redis".equals(type)) {
             LOG.info("  Create REDIS backed AuthorizationCodeContext cache {}:{}", host, port);
-            return new RedisCacheHolderImpl<>(new RedisConfiguration(host, port), AuthorizationCodeContext.class);
+            return createRedisCache(AuthorizationCodeContext.class, meterRegistry);
         } else {
             LOG.info("  Create in-memory AuthorizationCodeContext cache ...");
             return new CacheHolderImpl<>();
@@ -78,4 +106,127 @@ public class CacheConfig {
         this.port = port;
     }
 
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    public void setScanCount(int scanCount) {
+        this.scanCount = scanCount;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public boolean isNearCacheEnabled() {
+        return nearCacheEnabled;
+    }
+
+    public void setNearCacheEnabled(boolean nearCacheEnabled) {
+        this.nearCacheEnabled = nearCacheEnabled;
+    }
+
+    public int getNearCacheMaxSize() {
+        return nearCacheMaxSize;
+    }
+
+    public void setNearCacheMaxSize(int nearCacheMaxSize) {
+        this.nearCacheMaxSize = nearCacheMaxSize;
+    }
+
+    public long getNearCacheTtlMillis() {
+        return nearCacheTtlMillis;
+    }
+
+    public void setNearCacheTtlMillis(long nearCacheTtlMillis) {
+        this.nearCacheTtlMillis = nearCacheTtlMillis;
+    }
+
+    private <V> CacheHolder<V> createRedisCache(Class<V> valueType, MeterRegistry meterRegistry) {
+        RedisCacheHolderImpl<V> redisCache = new RedisCacheHolderImpl<>(getRedisConfiguration(), valueType, getCodec(valueType));
+        if (!nearCacheEnabled) {
+            return redisCache;
+        }
+        LOG.info("  Create near-cache for {} max-size={} ttl={}ms", valueType.getSimpleName(), nearCacheMaxSize, nearCacheTtlMillis);
+        TwoTierCacheHolderImpl<V> cache = new TwoTierCacheHolderImpl<>(redisCache, nearCacheMaxSize, nearCacheTtlMillis);
+        String name = valueType.getSimpleName();
+        registerCounter(meterRegistry, cache, name, "l1", "hit", TwoTierCacheHolderImpl::getL1Hits);
+        registerCounter(meterRegistry, cache, name, "l1", "miss", TwoTierCacheHolderImpl::getL1Misses);
+        registerCounter(meterRegistry, cache, name, "l2", "hit", TwoTierCacheHolderImpl::getL2Hits);
+        registerCounter(meterRegistry, cache, name, "l2", "miss", TwoTierCacheHolderImpl::getL2Misses);
+        Gauge.builder("iam.cache.hit-ratio", cache, c -> ratio(c.getL1Hits(), c.getL1Misses()))
+                .tags("cache", name, "tier", "l1")
+                .description("Near-cache hit ratio")
+                .register(meterRegistry);
+        Gauge.builder("iam.cache.hit-ratio", cache, c -> ratio(c.getL2Hits(), c.getL2Misses()))
+                .tags("cache", name, "tier", "l2")
+                .description("Redis hit ratio of near-cache misses")
+                .register(meterRegistry);
+        Gauge.builder("iam.cache.l1.size", cache, TwoTierCacheHolderImpl::getL1Size)
+                .tags("cache", name)
+                .description("Number of near-cache entries")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    private static <V> void registerCounter(MeterRegistry meterRegistry, TwoTierCacheHolderImpl<V> cache, String name,
+                                            String tier, String result, ToDoubleFunction<TwoTierCacheHolderImpl<V>> count) {
+        FunctionCounter.builder("iam.cache.requests", cache, count)
+                .tags("cache", name, "tier", tier, "result", result)
+                .description("Cache lookups by tier and result")
+                .register(meterRegistry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private <V> CacheCodec<V> getCodec(Class<V> type) {
+        if ("json".equals(codec)) {
+            return JacksonCacheCodec.json(type);
+        }
+        return JacksonCacheCodec.smile(type);
+    }
+
+    private RedisConfiguration getRedisConfiguration() {
+        return new RedisConfiguration(host, port, maxTotal, maxIdle, minIdle, timeoutMillis, scanCount);
+    }
+
 }
@@ -1,6 +1,8 @@
 package one.microproject.iamservice.server.config;
 
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.services.AuthenticationService;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.services.ProviderConfigurationService;
 import one.microproject.iamservice.core.services.TokenGenerator;
 import one.microproject.iamservice.core.TokenValidator;
@@ -15,7 +17,6 @@ import one.microproject.iamservice.core.services.admin.ProjectManagerService;
 import one.microproject.iamservice.core.services.impl.AuthenticationServiceImpl;
 import one.microproject.iamservice.core.services.impl.ProviderConfigurationServiceImpl;
 import one.microproject.iamservice.core.services.impl.ResourceServerServiceImpl;
-import one.microproject.iamservice.core.services.impl.TokenGeneratorImpl;
 import one.microproject.iamservice.client.impl.TokenValidatorImpl;
 import one.microproject.iamservice.core.services.impl.admin.ClientManagementServiceImpl;
 import one.microproject.iamservice.core.services.impl.admin.UserManagerServiceImpl;
@@ -35,12 +36,6 @@ public class CoreServiceConfig {
         return new TokenValidatorImpl();
     }
 
-    @Bean
-    @Scope("singleton")
-    public TokenGenerator getTokenGenerator() {
-        return new TokenGeneratorImpl();
-    }
-
     @Bean
     @Scope("singleton")
     public AuthenticationService getAuthenticationService(@Autowired ModelCache modelCache,
@@ -61,8 +56,9 @@ public class CoreServiceConfig {
 
     @Bean
     @Scope("singleton")
-    public OrganizationManagerService getOrganizationManagerService(@Autowired ModelCache modelCache) {
-        return new OrganizationManagerServiceImpl(modelCache);
+    public OrganizationManagerService getOrganizationManagerService(@Autowired ModelCache modelCache,
+                                                                    @Autowired KeyPairProvider keyPairProvider) {
+        return new OrganizationManagerServiceImpl(modelCache, keyPairProvider);
     }
 
     @Bean
@@ -86,8 +82,9 @@ public class CoreServiceConfig {
     @Bean
     @Scope("singleton")
     public ProviderConfigurationService getProviderConfigurationService(@Autowired OrganizationManagerService organizationManagerService,
-                                                                        @Autowired ProjectManagerService projectManagerService) {
-        return new ProviderConfigurationServiceImpl(organizationManagerService, projectManagerService);
+                                                                        @Autowired ProjectManagerService projectManagerService,
+                                                                        @Autowired KeyPairDataCache keyPairDataCache) {
+        return new ProviderConfigurationServiceImpl(organizationManagerService, projectManagerService, keyPairDataCache);
     }
 
 }
@@ -0,0 +1,103 @@
+package one.microproject.iamservice.server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.server.services.JWKSEventPublisher;
+import one.microproject.iamservice.server.services.WellKnownResponseCache;
+import one.microproject.iamservice.server.services.impl.JWKSEventPublisherImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+@ConfigurationProperties(prefix="iam-service.jwks-events")
+public class JWKSEventsConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JWKSEventsConfig.class);
+
+    private long checkIntervalMillis = 500;
+    private long timeoutMillis = 1800000;
+    private int maxSubscribers = 1024;
+    private int maxSubscribersPerProject = 256;
+    private int maxSubscribersPerAddress = 64;
+    private int senderThreads = 2;
+
+    @PostConstruct
+    public void init() {
+        LOG.info("#CONFIG iam-service.jwks-events.check-interval-millis: {}", checkIntervalMillis);
+        LOG.info("#CONFIG iam-service.jwks-events.timeout-millis: {}", timeoutMillis);
+        LOG.info("#CONFIG iam-service.jwks-events.max-subscribers: {}", maxSubscribers);
+        LOG.info("#CONFIG iam-service.jwks-events.max-subscribers-per-project: {}", maxSubscribersPerProject);
+        LOG.info("#CONFIG iam-service.jwks-events.max-subscribers-per-address: {}", maxSubscribersPerAddress);
+        LOG.info("#CONFIG iam-service.jwks-events.sender-threads: {}", senderThreads);
+    }
+
+    @Bean
+    @Scope("singleton")
+    public JWKSEventPublisher getJWKSEventPublisher(@Autowired ProviderConfigurationService providerConfigurationService,
+                                                   @Autowired WellKnownResponseCache wellKnownResponseCache,
+                                                   @Autowired MeterRegistry meterRegistry) {
+        JWKSEventPublisher publisher = new JWKSEventPublisherImpl(providerConfigurationService, wellKnownResponseCache,
+                checkIntervalMillis, timeoutMillis, maxSubscribers, maxSubscribersPerProject, maxSubscribersPerAddress, senderThreads);
+        Gauge.builder("iam.jwks-events.subscribers", publisher, JWKSEventPublisher::getSubscriberCount)
+                .description("Number of connected JWKS change event subscribers")
+                .register(meterRegistry);
+        return publisher;
+    }
+
+    public long getCheckIntervalMillis() {
+        return checkIntervalMillis;
+    }
+
+    public void setCheckIntervalMillis(long checkIntervalMillis) {
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getMaxSubscribersPerProject() {
+        return maxSubscribersPerProject;
+    }
+
+    public void setMaxSubscribersPerProject(int maxSubscribersPerProject) {
+        this.maxSubscribersPerProject = maxSubscribersPerProject;
+    }
+
+    public int getMaxSubscribersPerAddress() {
+        return maxSubscribersPerAddress;
+    }
+
+    public void setMaxSubscribersPerAddress(int maxSubscribersPerAddress) {
+        this.maxSubscribersPerAddress = maxSubscribersPerAddress;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+}
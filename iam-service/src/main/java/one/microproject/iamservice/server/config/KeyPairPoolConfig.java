@@ -0,0 +1,103 @@
+package one.microproject.iamservice.server.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.microproject.iamservice.core.services.KeyPairPool;
+import one.microproject.iamservice.core.services.KeyPairProvider;
+import one.microproject.iamservice.core.services.impl.keys.KeyPairPoolImpl;
+import one.microproject.iamservice.core.utils.TokenUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.security.Security;
+
+@Configuration
+@ConfigurationProperties(prefix="iam-service.key-pair-pool")
+public class KeyPairPoolConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeyPairPoolConfig.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private boolean enabled = true;
+    private int capacity = 16;
+    private int workers = 1;
+    private KeyPairPool keyPairPool;
+
+    public KeyPairPoolConfig(@Autowired MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        LOG.info("#CONFIG iam-service.key-pair-pool.enabled: {}", enabled);
+        LOG.info("#CONFIG iam-service.key-pair-pool.capacity: {}", capacity);
+        LOG.info("#CONFIG iam-service.key-pair-pool.workers: {}", workers);
+        if (enabled) {
+            Security.addProvider(new BouncyCastleProvider());
+            this.keyPairPool = new KeyPairPoolImpl(capacity, workers);
+            Gauge.builder("iam.key-pair-pool.depth", keyPairPool, p -> p.getStats().getDepth())
+                    .description("Number of pre-generated key pairs ready in the pool")
+                    .register(meterRegistry);
+            FunctionCounter.builder("iam.key-pair-pool.hits", keyPairPool, p -> p.getStats().getHits())
+                    .description("Key pairs served from the pool")
+                    .register(meterRegistry);
+            FunctionCounter.builder("iam.key-pair-pool.starvations", keyPairPool, p -> p.getStats().getStarvations())
+                    .description("Key pairs generated on request thread because the pool was empty")
+                    .register(meterRegistry);
+            this.keyPairPool.start();
+        }
+    }
+
+    @Bean
+    @Scope("singleton")
+    public KeyPairProvider createKeyPairProvider() {
+        return (keyPairPool == null) ? TokenUtils.DEFAULT_KEY_PAIR_PROVIDER : keyPairPool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (keyPairPool != null) {
+            LOG.info("#KEY-PAIR-POOL: shutdown");
+            try {
+                keyPairPool.close();
+            } catch (Exception e) {
+                LOG.error("Error shutting down KeyPairPool", e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+}
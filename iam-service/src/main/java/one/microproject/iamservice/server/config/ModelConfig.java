@@ -1,21 +1,37 @@
 package one.microproject.iamservice.server.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.microproject.iamservice.core.model.KeyPairDataCache;
 import one.microproject.iamservice.core.model.ModelId;
 import one.microproject.iamservice.core.model.ModelImpl;
 import one.microproject.iamservice.core.model.OrganizationId;
 import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.services.KeyPairProvider;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.impl.caches.ModelCacheImpl;
+import one.microproject.iamservice.core.services.impl.persistence.AsyncPersistenceServiceImpl;
 import one.microproject.iamservice.core.services.persistence.DataLoadService;
 import one.microproject.iamservice.core.services.persistence.wrappers.ModelWrapper;
+import one.microproject.iamservice.persistence.filesystem.DataFileFormat;
 import one.microproject.iamservice.persistence.filesystem.FileSystemDataLoadServiceImpl;
 import one.microproject.iamservice.persistence.filesystem.FileSystemPersistenceServiceImpl;
+import one.microproject.iamservice.persistence.filesystem.FsyncPolicy;
+import one.microproject.iamservice.persistence.filesystem.ModelChangeLog;
+import one.microproject.iamservice.persistence.filesystem.SnapshotDataLoadServiceImpl;
+import one.microproject.iamservice.persistence.mongo.CachingMongoModelWrapperImpl;
 import one.microproject.iamservice.persistence.mongo.MongoConfiguration;
+import one.microproject.iamservice.persistence.mongo.MongoConnectionPoolStats;
 import one.microproject.iamservice.persistence.mongo.MongoModelWrapperImpl;
+import one.microproject.iamservice.persistence.mvstore.MVStoreConfiguration;
+import one.microproject.iamservice.persistence.mvstore.MVStoreModelWrapperImpl;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,9 +39,11 @@ import org.springframework.context.annotation.Scope;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.Security;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @ConfigurationProperties(prefix="iam-service.data-model")
@@ -43,14 +61,33 @@ public class ModelConfig {
     private String defaultAdminEmail;
     private String persistence;
     private String path;
+    private DataFileFormat dataFileFormat = FileSystemPersistenceServiceImpl.DEFAULT_DATA_FILE_FORMAT;
+    private FsyncPolicy fsyncPolicy = FileSystemPersistenceServiceImpl.DEFAULT_FSYNC_POLICY;
+    private long fsyncIntervalMillis = FileSystemPersistenceServiceImpl.DEFAULT_FSYNC_INTERVAL_MILLIS;
+    private long compactionThresholdBytes = FileSystemPersistenceServiceImpl.DEFAULT_COMPACTION_THRESHOLD_BYTES;
+    private long flushMaxDelayMillis = 10;
+    private int flushMaxBatchSize = 1000;
+    private int loadParallelism = Runtime.getRuntime().availableProcessors();
+    private int keyPairCacheCapacity = KeyPairDataCache.DEFAULT_CAPACITY;
     private String mongoHost;
     private Integer mongoPort;
     private String mongoDatabase;
     private String mongoUsername;
     private String mongoPassword;
+    private int mongoMaxPoolSize = MongoConfiguration.DEFAULT_MAX_POOL_SIZE;
+    private int mongoMinPoolSize = MongoConfiguration.DEFAULT_MIN_POOL_SIZE;
+    private long mongoMaxWaitTimeMillis = MongoConfiguration.DEFAULT_MAX_WAIT_TIME_MILLIS;
+    private String mongoReadPreference = MongoConfiguration.DEFAULT_READ_PREFERENCE;
+    private boolean mongoCacheEnabled = false;
+    private int mongoCacheMaxSize = 10000;
+    private int mvstoreCacheSizeMb = MVStoreConfiguration.DEFAULT_CACHE_SIZE_MB;
+    private int mvstoreHotCacheMaxSize = MVStoreConfiguration.DEFAULT_HOT_CACHE_MAX_SIZE;
     private Boolean enableClientCredentialsFlow;
 
     private ModelCache modelCache;
+    private AutoCloseable mongoModelWrapper;
+    private MVStoreModelWrapperImpl mvStoreModelWrapper;
+    private AsyncPersistenceServiceImpl fileSystemPersistenceService;
 
     @PostConstruct
     private void init() {
@@ -65,29 +102,51 @@ public class ModelConfig {
         LOG.info("#CONFIG: persistence={}", persistence);
         LOG.info("#CONFIG: enableClientCredentialsFlow={}", enableClientCredentialsFlow);
         LOG.info("#CONFIG: timezone {}", timeZone);
+        LOG.info("#CONFIG: keyPairCacheCapacity={}", keyPairCacheCapacity);
     }
 
     @Bean
     @Scope("singleton")
-    public ModelCache createModelCache() throws Exception {
+    public KeyPairDataCache createKeyPairDataCache(@Autowired MeterRegistry meterRegistry) {
+        KeyPairDataCache keyPairDataCache = new KeyPairDataCache(keyPairCacheCapacity);
+        registerKeyPairCacheMetrics(meterRegistry, keyPairDataCache);
+        return keyPairDataCache;
+    }
+
+    @Bean
+    @Scope("singleton")
+    public ModelCache createModelCache(@Autowired MeterRegistry meterRegistry, @Autowired KeyPairDataCache keyPairDataCache,
+                                       @Autowired KeyPairProvider keyPairProvider) throws Exception {
         if ("file-system".equals(persistence)) {
             try {
-                LOG.info("#CONFIG: populating ModelCache from file: {}", path);
-                DataLoadService dataLoadService = new FileSystemDataLoadServiceImpl(Path.of(path));
+                LOG.info("#CONFIG: populating ModelCache from file: {} format={}", path, dataFileFormat);
+                LOG.info("#CONFIG: fsync={} fsyncInterval={}ms compactionThreshold={}B", fsyncPolicy, fsyncIntervalMillis, compactionThresholdBytes);
+                LOG.info("#CONFIG: flushMaxDelay={}ms flushMaxBatchSize={}", flushMaxDelayMillis, flushMaxBatchSize);
+                DataLoadService dataLoadService = DataFileFormat.SNAPSHOT.equals(dataFileFormat)
+                        ? new SnapshotDataLoadServiceImpl(Path.of(path), loadParallelism)
+                        : new FileSystemDataLoadServiceImpl(Path.of(path), loadParallelism);
                 ModelWrapper modelWrapper = dataLoadService.populateCache();
-                modelWrapper.onInit(new FileSystemPersistenceServiceImpl(Path.of(path)), FLUSH_ON_CHANGE);
-                modelCache = new ModelCacheImpl(modelWrapper);
+                modelWrapper.onInit(createFileSystemPersistenceService(), FLUSH_ON_CHANGE);
+                modelCache = new ModelCacheImpl(modelWrapper, keyPairDataCache, keyPairProvider);
+                registerPersistenceMetrics(meterRegistry, fileSystemPersistenceService);
                 LOG.info("#CONFIG: ModelCache loaded from file OK");
                 return modelCache;
             } catch (Exception e) {
                 LOG.error("#CONFIG: ModelCache loading from filesystem failed. ERROR: {}", e.getMessage());
+                Path dataFile = Path.of(path);
+                if (Files.exists(dataFile) || Files.exists(ModelChangeLog.logFileOf(dataFile))) {
+                    //default model would overwrite existing data file and truncate its change log
+                    LOG.error("#CONFIG Error: existing data file {} is not replaced by default model !", path);
+                    throw new IllegalStateException("Existing data file " + path + " can't be loaded.", e);
+                }
             }
             try {
                 LOG.info("#CONFIG: creating default model");
-                ModelWrapper modelWrapper = ModelUtils.createModelWrapper(DEFAULT_MODEL, new FileSystemPersistenceServiceImpl(Path.of(path)), FLUSH_ON_CHANGE);
+                ModelWrapper modelWrapper = ModelUtils.createModelWrapper(DEFAULT_MODEL, createFileSystemPersistenceService(), FLUSH_ON_CHANGE);
                 modelCache = ModelUtils.createDefaultModelCache(
-                        OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow);
+                        OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow, keyPairDataCache, keyPairProvider);
                 modelCache.flush();
+                registerPersistenceMetrics(meterRegistry, fileSystemPersistenceService);
                 LOG.info("#CONFIG: ModelCache with default model initialized OK");
                 return modelCache;
             } catch (Exception e) {
@@ -97,22 +156,51 @@ public class ModelConfig {
         } else if ("mongo-db".equals(persistence)) {
             LOG.info("#CONFIG: creating mongo-db backed model cache");
             LOG.info("#CONFIG: mongoHost=mongodb://{}:******@{}:{}/{}", mongoUsername, mongoHost, mongoPort, mongoDatabase);
-            ModelWrapper modelWrapper = new MongoModelWrapperImpl(new MongoConfiguration(mongoHost, mongoPort, mongoDatabase, mongoUsername, mongoPassword));
+            LOG.info("#CONFIG: mongo pool max={} min={} maxWaitTime={}ms readPreference={}",
+                    mongoMaxPoolSize, mongoMinPoolSize, mongoMaxWaitTimeMillis, mongoReadPreference);
+            MongoModelWrapperImpl mongoWrapper = new MongoModelWrapperImpl(new MongoConfiguration(mongoHost, mongoPort, mongoDatabase, mongoUsername, mongoPassword,
+                    mongoMaxPoolSize, mongoMinPoolSize, mongoMaxWaitTimeMillis, mongoReadPreference));
+            registerConnectionPoolMetrics(meterRegistry, mongoWrapper.getConnectionPoolStats());
+            ModelWrapper modelWrapper = mongoWrapper;
+            mongoModelWrapper = mongoWrapper;
+            LOG.info("#CONFIG: mongo model cache enabled={} maxSize={}", mongoCacheEnabled, mongoCacheMaxSize);
+            if (mongoCacheEnabled) {
+                CachingMongoModelWrapperImpl cachingWrapper = new CachingMongoModelWrapperImpl(mongoWrapper, mongoCacheMaxSize);
+                registerModelCacheMetrics(meterRegistry, cachingWrapper);
+                modelWrapper = cachingWrapper;
+                mongoModelWrapper = cachingWrapper;
+            }
             if (!modelWrapper.isInitialized()) {
                 LOG.info("#CONFIG: initializing mongo-db with default model");
                 modelWrapper.setModel(new ModelImpl(ModelId.from(DEFAULT_MODEL), ""));
                 modelCache = ModelUtils.createDefaultModelCache(
-                        OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow);
+                        OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow, keyPairDataCache, keyPairProvider);
             } else {
                 LOG.info("#CONFIG: mongo-db model is already initialized !");
-                modelCache = new ModelCacheImpl(modelWrapper);
+                modelCache = new ModelCacheImpl(modelWrapper, keyPairDataCache, keyPairProvider);
+            }
+            return modelCache;
+        } else if ("mvstore".equals(persistence)) {
+            LOG.info("#CONFIG: creating mvstore backed model cache");
+            LOG.info("#CONFIG: mvstore file={} cacheSize={}MB hotCacheMaxSize={}", path, mvstoreCacheSizeMb, mvstoreHotCacheMaxSize);
+            mvStoreModelWrapper = new MVStoreModelWrapperImpl(new MVStoreConfiguration(path, mvstoreCacheSizeMb, mvstoreHotCacheMaxSize));
+            registerMVStoreCacheMetrics(meterRegistry, mvStoreModelWrapper);
+            ModelWrapper modelWrapper = mvStoreModelWrapper;
+            if (!modelWrapper.isInitialized()) {
+                LOG.info("#CONFIG: initializing mvstore with default model");
+                modelWrapper.setModel(new ModelImpl(ModelId.from(DEFAULT_MODEL), ""));
+                modelCache = ModelUtils.createDefaultModelCache(
+                        OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow, keyPairDataCache, keyPairProvider);
+            } else {
+                LOG.info("#CONFIG: mvstore model is already initialized !");
+                modelCache = new ModelCacheImpl(modelWrapper, keyPairDataCache, keyPairProvider);
             }
             return modelCache;
         } else {
             LOG.info("#CONFIG: default ModelWrapper created");
             ModelWrapper modelWrapper = ModelUtils.createInMemoryModelWrapper(DEFAULT_MODEL);
             modelCache = ModelUtils.createDefaultModelCache(
-                    OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow);
+                    OrganizationId.from(adminOrganization), ProjectId.from(adminProject), defaultAdminPassword, defaultAdminClientSecret, defaultAdminEmail, modelWrapper, enableClientCredentialsFlow, keyPairDataCache, keyPairProvider);
             return modelCache;
         }
     }
@@ -127,6 +215,112 @@ public class ModelConfig {
         } catch (Exception e) {
             LOG.error("Error: ", e);
         }
+        if (mongoModelWrapper != null) {
+            try {
+                mongoModelWrapper.close();
+            } catch (Exception e) {
+                LOG.error("Error: ", e);
+            }
+        }
+        if (mvStoreModelWrapper != null) {
+            try {
+                mvStoreModelWrapper.close();
+            } catch (Exception e) {
+                LOG.error("Error: ", e);
+            }
+        }
+        if (fileSystemPersistenceService != null) {
+            try {
+                fileSystemPersistenceService.close();
+            } catch (Exception e) {
+                LOG.error("Error: ", e);
+            }
+        }
+    }
+
+    private AsyncPersistenceServiceImpl createFileSystemPersistenceService() throws Exception {
+        if (fileSystemPersistenceService != null) {
+            fileSystemPersistenceService.close();
+        }
+        FileSystemPersistenceServiceImpl persistenceService = new FileSystemPersistenceServiceImpl(Path.of(path), fsyncPolicy, fsyncIntervalMillis, compactionThresholdBytes, dataFileFormat);
+        AsyncPersistenceServiceImpl asyncPersistenceService = new AsyncPersistenceServiceImpl(persistenceService, flushMaxDelayMillis, flushMaxBatchSize);
+        fileSystemPersistenceService = asyncPersistenceService;
+        return asyncPersistenceService;
+    }
+
+    private static void registerKeyPairCacheMetrics(MeterRegistry meterRegistry, KeyPairDataCache keyPairDataCache) {
+        Gauge.builder("iam.key-pair-cache.size", keyPairDataCache, KeyPairDataCache::size)
+                .description("Number of decoded key pairs held by key pair cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.key-pair-cache.requests", keyPairDataCache, KeyPairDataCache::getHits)
+                .description("Key pair lookups served by key pair cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.key-pair-cache.requests", keyPairDataCache, KeyPairDataCache::getMisses)
+                .description("Key pair lookups served by key pair cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    private static void registerPersistenceMetrics(MeterRegistry meterRegistry, AsyncPersistenceServiceImpl persistenceService) {
+        Gauge.builder("iam.persistence.queue.depth", persistenceService, p -> p.getStats().getDepth())
+                .description("Number of model changes waiting to be persisted")
+                .register(meterRegistry);
+        FunctionTimer.builder("iam.persistence.flush", persistenceService, p -> p.getStats().getFlushes(), p -> p.getStats().getTotalFlushTimeNanos(), TimeUnit.NANOSECONDS)
+                .description("Flushes of coalesced model changes")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.persistence.flushed-changes", persistenceService, p -> p.getStats().getFlushedChanges())
+                .description("Model changes persisted by flushes")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.persistence.flush-failures", persistenceService, p -> p.getStats().getFailures())
+                .description("Flushes which failed to persist model changes")
+                .register(meterRegistry);
+    }
+
+    private static void registerConnectionPoolMetrics(MeterRegistry meterRegistry, MongoConnectionPoolStats stats) {
+        Gauge.builder("iam.mongodb.pool.size", stats, MongoConnectionPoolStats::getSize)
+                .description("Number of open connections in MongoDB connection pool")
+                .register(meterRegistry);
+        Gauge.builder("iam.mongodb.pool.checked-out", stats, MongoConnectionPoolStats::getCheckedOut)
+                .description("Number of MongoDB connections in use")
+                .register(meterRegistry);
+        Gauge.builder("iam.mongodb.pool.wait-queue", stats, MongoConnectionPoolStats::getWaitQueueSize)
+                .description("Number of operations waiting for MongoDB connection")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.mongodb.pool.check-out-failures", stats, MongoConnectionPoolStats::getCheckOutFailures)
+                .description("Number of operations which failed to obtain MongoDB connection")
+                .register(meterRegistry);
+    }
+
+    private static void registerModelCacheMetrics(MeterRegistry meterRegistry, CachingMongoModelWrapperImpl cachingWrapper) {
+        FunctionCounter.builder("iam.model.cache.requests", cachingWrapper, CachingMongoModelWrapperImpl::getHits)
+                .description("Number of model lookups served by mongo model cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.model.cache.requests", cachingWrapper, CachingMongoModelWrapperImpl::getMisses)
+                .description("Number of model lookups served by mongo model cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("iam.model.cache.size", cachingWrapper, CachingMongoModelWrapperImpl::getSize)
+                .description("Number of model entities held by mongo model cache")
+                .register(meterRegistry);
+        Gauge.builder("iam.model.cache.watching", cachingWrapper, w -> w.isWatching() ? 1 : 0)
+                .description("1 if change stream of mongo model cache is open, 0 otherwise")
+                .register(meterRegistry);
+    }
+
+    private static void registerMVStoreCacheMetrics(MeterRegistry meterRegistry, MVStoreModelWrapperImpl mvStoreWrapper) {
+        FunctionCounter.builder("iam.model.cache.requests", mvStoreWrapper, MVStoreModelWrapperImpl::getHits)
+                .description("Number of model lookups served by mvstore hot entity cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("iam.model.cache.requests", mvStoreWrapper, MVStoreModelWrapperImpl::getMisses)
+                .description("Number of model lookups served by mvstore hot entity cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("iam.model.cache.size", mvStoreWrapper, MVStoreModelWrapperImpl::getSize)
+                .description("Number of model entities held by mvstore hot entity cache")
+                .register(meterRegistry);
     }
 
     public void setPersistence(String persistence) {
@@ -137,6 +331,70 @@ public class ModelConfig {
         this.path = path;
     }
 
+    public DataFileFormat getDataFileFormat() {
+        return dataFileFormat;
+    }
+
+    public void setDataFileFormat(DataFileFormat dataFileFormat) {
+        this.dataFileFormat = dataFileFormat;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public long getFsyncIntervalMillis() {
+        return fsyncIntervalMillis;
+    }
+
+    public void setFsyncIntervalMillis(long fsyncIntervalMillis) {
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+    }
+
+    public long getCompactionThresholdBytes() {
+        return compactionThresholdBytes;
+    }
+
+    public void setCompactionThresholdBytes(long compactionThresholdBytes) {
+        this.compactionThresholdBytes = compactionThresholdBytes;
+    }
+
+    public long getFlushMaxDelayMillis() {
+        return flushMaxDelayMillis;
+    }
+
+    public void setFlushMaxDelayMillis(long flushMaxDelayMillis) {
+        this.flushMaxDelayMillis = flushMaxDelayMillis;
+    }
+
+    public int getFlushMaxBatchSize() {
+        return flushMaxBatchSize;
+    }
+
+    public void setFlushMaxBatchSize(int flushMaxBatchSize) {
+        this.flushMaxBatchSize = flushMaxBatchSize;
+    }
+
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
+
+    public int getKeyPairCacheCapacity() {
+        return keyPairCacheCapacity;
+    }
+
+    public void setKeyPairCacheCapacity(int keyPairCacheCapacity) {
+        this.keyPairCacheCapacity = keyPairCacheCapacity;
+    }
+
     public void setDefaultAdminPassword(String defaultAdminPassword) {
         this.defaultAdminPassword = defaultAdminPassword;
     }
@@ -189,6 +447,70 @@ public class ModelConfig {
         this.mongoPassword = mongoPassword;
     }
 
+    public int getMongoMaxPoolSize() {
+        return mongoMaxPoolSize;
+    }
+
+    public void setMongoMaxPoolSize(int mongoMaxPoolSize) {
+        this.mongoMaxPoolSize = mongoMaxPoolSize;
+    }
+
+    public int getMongoMinPoolSize() {
+        return mongoMinPoolSize;
+    }
+
+    public void setMongoMinPoolSize(int mongoMinPoolSize) {
+        this.mongoMinPoolSize = mongoMinPoolSize;
+    }
+
+    public long getMongoMaxWaitTimeMillis() {
+        return mongoMaxWaitTimeMillis;
+    }
+
+    public void setMongoMaxWaitTimeMillis(long mongoMaxWaitTimeMillis) {
+        this.mongoMaxWaitTimeMillis = mongoMaxWaitTimeMillis;
+    }
+
+    public String getMongoReadPreference() {
+        return mongoReadPreference;
+    }
+
+    public void setMongoReadPreference(String mongoReadPreference) {
+        this.mongoReadPreference = mongoReadPreference;
+    }
+
+    public boolean isMongoCacheEnabled() {
+        return mongoCacheEnabled;
+    }
+
+    public void setMongoCacheEnabled(boolean mongoCacheEnabled) {
+        this.mongoCacheEnabled = mongoCacheEnabled;
+    }
+
+    public int getMongoCacheMaxSize() {
+        return mongoCacheMaxSize;
+    }
+
+    public void setMongoCacheMaxSize(int mongoCacheMaxSize) {
+        this.mongoCacheMaxSize = mongoCacheMaxSize;
+    }
+
+    public int getMvstoreCacheSizeMb() {
+        return mvstoreCacheSizeMb;
+    }
+
+    public void setMvstoreCacheSizeMb(int mvstoreCacheSizeMb) {
+        this.mvstoreCacheSizeMb = mvstoreCacheSizeMb;
+    }
+
+    public int getMvstoreHotCacheMaxSize() {
+        return mvstoreHotCacheMaxSize;
+    }
+
+    public void setMvstoreHotCacheMaxSize(int mvstoreHotCacheMaxSize) {
+        this.mvstoreHotCacheMaxSize = mvstoreHotCacheMaxSize;
+    }
+
     public Boolean getEnableClientCredentialsFlow() {
         return enableClientCredentialsFlow;
     }
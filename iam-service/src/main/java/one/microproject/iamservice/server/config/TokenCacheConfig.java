@@ -1,8 +1,6 @@
 package one.microproject.iamservice.server.config;
 
 import one.microproject.iamservice.core.model.JWToken;
-import one.microproject.iamservice.core.TokenValidator;
-import one.microproject.iamservice.core.services.caches.ModelCache;
 import one.microproject.iamservice.core.services.caches.TokenCache;
 import one.microproject.iamservice.core.services.impl.caches.CacheHolder;
 import one.microproject.iamservice.core.services.impl.caches.TokenCacheImpl;
@@ -16,10 +14,8 @@ public class TokenCacheConfig {
 
     @Bean
     @Scope("singleton")
-    public TokenCache getTokenCache(@Autowired ModelCache modelCache,
-                                    @Autowired CacheHolder<JWToken> cache,
-                                    @Autowired TokenValidator tokenValidator) {
-        return new TokenCacheImpl(modelCache, tokenValidator, cache);
+    public TokenCache getTokenCache(@Autowired CacheHolder<JWToken> cache) {
+        return new TokenCacheImpl(cache);
     }
 
 }
@@ -0,0 +1,48 @@
+package one.microproject.iamservice.server.config;
+
+import one.microproject.iamservice.core.model.KeyPairDataCache;
+import one.microproject.iamservice.core.services.TokenGenerator;
+import one.microproject.iamservice.core.services.dto.TokenIssuancePolicy;
+import one.microproject.iamservice.core.services.impl.TokenGeneratorImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+@ConfigurationProperties(prefix="iam-service.token-issuance")
+public class TokenGeneratorConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenGeneratorConfig.class);
+
+    private String idTokenPolicy = TokenIssuancePolicy.ALWAYS.name();
+
+    @PostConstruct
+    public void init() {
+        LOG.info("#CONFIG iam-service.token-issuance.id-token-policy: {}", idTokenPolicy);
+    }
+
+    @Bean
+    @Scope("singleton")
+    public TokenGenerator getTokenGenerator(@Autowired KeyPairDataCache keyPairDataCache) {
+        return new TokenGeneratorImpl(getIdTokenPolicyValue(), keyPairDataCache);
+    }
+
+    public String getIdTokenPolicy() {
+        return idTokenPolicy;
+    }
+
+    public void setIdTokenPolicy(String idTokenPolicy) {
+        this.idTokenPolicy = idTokenPolicy;
+    }
+
+    public TokenIssuancePolicy getIdTokenPolicyValue() {
+        return TokenIssuancePolicy.valueOf(idTokenPolicy);
+    }
+
+}
@@ -0,0 +1,45 @@
+package one.microproject.iamservice.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.server.services.WellKnownResponseCache;
+import one.microproject.iamservice.server.services.impl.WellKnownResponseCacheImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+@ConfigurationProperties(prefix="iam-service.well-known")
+public class WellKnownConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WellKnownConfig.class);
+
+    private long maxAgeMillis = 10000;
+
+    @PostConstruct
+    public void init() {
+        LOG.info("#CONFIG iam-service.well-known.max-age-millis: {}", maxAgeMillis);
+    }
+
+    @Bean
+    @Scope("singleton")
+    public WellKnownResponseCache getWellKnownResponseCache(@Autowired ProviderConfigurationService providerConfigurationService,
+                                                           @Autowired ObjectMapper objectMapper) {
+        return new WellKnownResponseCacheImpl(providerConfigurationService, objectMapper, maxAgeMillis);
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+}
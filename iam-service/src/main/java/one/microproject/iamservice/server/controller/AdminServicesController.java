@@ -36,9 +36,11 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
@@ -46,6 +48,7 @@ import java.util.Set;
 
 import static one.microproject.iamservice.core.ModelCommons.createProjectAdminPermissions;
 import static one.microproject.iamservice.core.ModelCommons.createProjectAdminRoleId;
+import static one.microproject.iamservice.server.controller.support.ControllerUtils.AWAIT_DURABLE_HEADER;
 
 @RestController
 @RequestMapping(path = "/services/admin")
@@ -71,9 +74,13 @@ public class AdminServicesController {
 
     @Operation(summary = "Create new organization.")
     @PostMapping(path = "/organization", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<IdHolder> createOrganization(@RequestBody CreateOrganization request) throws PKIException {
+    public ResponseEntity<IdHolder> createOrganization(@RequestBody CreateOrganization request,
+                                                       @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws PKIException, IOException {
         Optional<OrganizationId> organizationIdOptional = organizationManagerService.create(CreateOrganizationRequest.from(request.getId(), request.getName()));
         if (organizationIdOptional.isPresent()) {
+            if (awaitDurable) {
+                organizationManagerService.awaitDurable();
+            }
             return ResponseEntity.ok(IdHolder.from(organizationIdOptional.get().getId()));
         } else {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
@@ -82,7 +89,8 @@ public class AdminServicesController {
 
     @Operation(summary = "Create new project within an organization, with default project admin user.")
     @PostMapping("/organization/setup")
-    public ResponseEntity<SetupOrganizationResponse> setUpOrganization(@RequestBody SetupOrganizationRequest request) throws PKIException {
+    public ResponseEntity<SetupOrganizationResponse> setUpOrganization(@RequestBody SetupOrganizationRequest request,
+                                                                       @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws PKIException, IOException {
         LOG.info("Organization setup {}/{}", request.getOrganizationId(), request.getProjectId());
         OrganizationId organizationId = OrganizationId.from(request.getOrganizationId());
         ProjectId projectId = ProjectId.from(request.getProjectId());
@@ -152,14 +160,21 @@ public class AdminServicesController {
             adminPermissions.add(permission.asStringValue());
         }
         LOG.info("setUpOrganization: OK");
+        if (awaitDurable) {
+            organizationManagerService.awaitDurable();
+        }
         return ResponseEntity.ok().body(new SetupOrganizationResponse(request, adminRoleId.getId(), adminPermissions));
     }
 
     @Operation(summary = "Delete organization by ID with all projects, users and clients.")
     @DeleteMapping("/organization/{organization-id}")
-    public ResponseEntity<Void> deleteOrganizationRecursively(@PathVariable("organization-id") String organizationId) {
+    public ResponseEntity<Void> deleteOrganizationRecursively(@PathVariable("organization-id") String organizationId,
+                                                              @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         boolean result = organizationManagerService.removeWithDependencies(OrganizationId.from(organizationId));
         if (result) {
+            if (awaitDurable) {
+                organizationManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.badRequest().build();
@@ -169,9 +184,13 @@ public class AdminServicesController {
     @Operation(summary = "Delete project in organization by ID with users and clients.")
     @DeleteMapping("/organization/{organization-id}/{project-id}")
     public ResponseEntity<Void> deleteProjectRecursively(@PathVariable("organization-id") String organizationId,
-                                                         @PathVariable("project-id") String projectId) {
+                                                         @PathVariable("project-id") String projectId,
+                                                         @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         boolean result = projectManagerService.removeWithDependencies(OrganizationId.from(organizationId), ProjectId.from(projectId));
         if (result) {
+            if (awaitDurable) {
+                projectManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.badRequest().build();
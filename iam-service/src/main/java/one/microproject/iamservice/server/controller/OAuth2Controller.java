@@ -18,8 +18,8 @@ import one.microproject.iamservice.core.model.UserId;
 import one.microproject.iamservice.core.model.extensions.authentication.up.UPAuthenticationRequest;
 import one.microproject.iamservice.core.utils.ModelUtils;
 import one.microproject.iamservice.core.services.AuthenticationService;
-import one.microproject.iamservice.core.services.ProviderConfigurationService;
 import one.microproject.iamservice.core.services.ResourceServerService;
+import one.microproject.iamservice.core.services.admin.ProjectManagerService;
 import one.microproject.iamservice.core.services.dto.AuthorizationCode;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeContext;
 import one.microproject.iamservice.core.services.dto.AuthorizationCodeGrantRequest;
@@ -37,11 +37,15 @@ import one.microproject.iamservice.core.services.dto.Scope;
 import one.microproject.iamservice.core.dto.TokenResponse;
 import one.microproject.iamservice.core.services.dto.UserInfoResponse;
 import one.microproject.iamservice.server.services.BaseUrlMapper;
+import one.microproject.iamservice.server.services.CachedResponse;
+import one.microproject.iamservice.server.services.JWKSEventPublisher;
+import one.microproject.iamservice.server.services.WellKnownResponseCache;
 import one.microproject.iamservice.server.controller.support.ControllerUtils;
 import one.microproject.iamservice.server.controller.support.OAuth2TokenException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +57,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
@@ -84,20 +89,26 @@ public class OAuth2Controller {
 
     private final ServletContext servletContext;
     private final AuthenticationService authenticationService;
-    private final ProviderConfigurationService providerConfigurationService;
     private final ResourceServerService resourceServerService;
     private final BaseUrlMapper baseUrlMapper;
+    private final WellKnownResponseCache wellKnownResponseCache;
+    private final JWKSEventPublisher jwksEventPublisher;
+    private final ProjectManagerService projectManagerService;
 
     public OAuth2Controller(@Autowired ServletContext servletContext,
                             @Autowired AuthenticationService authenticationService,
-                            @Autowired ProviderConfigurationService providerConfigurationService,
                             @Autowired ResourceServerService resourceServerService,
-                            @Autowired BaseUrlMapper baseUrlMapper) {
+                            @Autowired BaseUrlMapper baseUrlMapper,
+                            @Autowired WellKnownResponseCache wellKnownResponseCache,
+                            @Autowired JWKSEventPublisher jwksEventPublisher,
+                            @Autowired ProjectManagerService projectManagerService) {
         this.servletContext = servletContext;
         this.authenticationService = authenticationService;
-        this.providerConfigurationService = providerConfigurationService;
         this.resourceServerService = resourceServerService;
         this.baseUrlMapper = baseUrlMapper;
+        this.wellKnownResponseCache = wellKnownResponseCache;
+        this.jwksEventPublisher = jwksEventPublisher;
+        this.projectManagerService = projectManagerService;
     }
 
     @Operation(description =
@@ -329,14 +340,18 @@ public class OAuth2Controller {
             "Get information about this OAuth2 server configuration. \n" +
             "- [OpenID Connect Discovery](https://openid.net/specs/openid-connect-discovery-1_0.html)")
     @GetMapping(path = "/{organization-id}/{project-id}/.well-known/openid-configuration", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProviderConfigurationResponse> getConfiguration(@PathVariable("organization-id") String organizationId,
-                                                                          @PathVariable("project-id") String projectId,
-                                                                          HttpServletRequest request) throws MalformedURLException {
-        LOG.info("getConfiguration: {}", request.getRequestURL());
+    @ApiResponse(description = "Provider configuration", responseCode = "200",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProviderConfigurationResponse.class)))
+    public ResponseEntity<byte[]> getConfiguration(@PathVariable("organization-id") String organizationId,
+                                                   @PathVariable("project-id") String projectId,
+                                                   HttpServletRequest request) throws MalformedURLException {
+        LOG.debug("getConfiguration: {}", request.getRequestURL());
+        if (projectManagerService.get(OrganizationId.from(organizationId), ProjectId.from(projectId)).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
         String baseUrl = getBaseUrl(servletContext, request, baseUrlMapper);
         ProviderConfigurationRequest providerConfigurationRequest = new ProviderConfigurationRequest(baseUrl, OrganizationId.from(organizationId), ProjectId.from(projectId));
-        ProviderConfigurationResponse configuration = providerConfigurationService.getConfiguration(providerConfigurationRequest);
-        return ResponseEntity.ok(configuration);
+        return toResponseEntity(wellKnownResponseCache.getConfiguration(providerConfigurationRequest));
     }
 
     @Operation(description = "__Get JSON Web Keys (JWK)__ \n" +
@@ -344,11 +359,43 @@ public class OAuth2Controller {
             "structure that represents a cryptographic key. \n" +
             "- [RFC7517](https://tools.ietf.org/html/rfc7517)")
     @GetMapping(path = "/{organization-id}/{project-id}/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<JWKResponse> getCerts(@PathVariable("organization-id") String organizationId,
-                                                @PathVariable("project-id") String projectId) {
-        LOG.info("getCerts: organizationId={} projectId={}", organizationId, projectId);
-        JWKResponse jwkData = providerConfigurationService.getJWKData(OrganizationId.from(organizationId), ProjectId.from(projectId));
-        return ResponseEntity.ok(jwkData);
+    @ApiResponse(description = "JSON Web Keys", responseCode = "200",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = JWKResponse.class)))
+    public ResponseEntity<byte[]> getCerts(@PathVariable("organization-id") String organizationId,
+                                           @PathVariable("project-id") String projectId) {
+        LOG.debug("getCerts: organizationId={} projectId={}", organizationId, projectId);
+        if (projectManagerService.get(OrganizationId.from(organizationId), ProjectId.from(projectId)).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return toResponseEntity(wellKnownResponseCache.getJWKData(OrganizationId.from(organizationId), ProjectId.from(projectId)));
+    }
+
+    @Operation(description = "__Subscribe for JSON Web Keys (JWK) changes__ \n" +
+            "Server-sent events stream, event 'jwks' carrying current JWKS ETag is sent after subscription " +
+            "and each time project's keys change. Returns 404 for unknown project and 503 when subscriber limit has been reached.")
+    @GetMapping(path = "/{organization-id}/{project-id}/.well-known/jwks-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getCertsEvents(@PathVariable("organization-id") String organizationId,
+                                                     @PathVariable("project-id") String projectId,
+                                                     HttpServletRequest request) {
+        LOG.debug("getCertsEvents: organizationId={} projectId={}", organizationId, projectId);
+        if (projectManagerService.get(OrganizationId.from(organizationId), ProjectId.from(projectId)).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Optional<SseEmitter> emitter = jwksEventPublisher.subscribe(OrganizationId.from(organizationId), ProjectId.from(projectId), request.getRemoteAddr());
+        return emitter.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Conditional requests with matching If-None-Match header are answered with 304 Not Modified by Spring MVC.
+     * Clients must revalidate on every use, so changed keys and permissions are visible immediately,
+     * changes made by other instances sharing the model are visible within max. age of {@link WellKnownResponseCache}.
+     */
+    private static ResponseEntity<byte[]> toResponseEntity(CachedResponse cachedResponse) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .eTag(cachedResponse.getETag())
+                .body(cachedResponse.getBody());
     }
 
     @Operation(description = "__OAuth 2.0 Token Introspection__ \n" +
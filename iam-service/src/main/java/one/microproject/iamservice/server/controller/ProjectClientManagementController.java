@@ -18,11 +18,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import static one.microproject.iamservice.server.controller.support.ControllerUtils.AWAIT_DURABLE_HEADER;
+
 @RestController
 @RequestMapping(path = "/services/management")
 @Tag(name = "Project Client Management", description = "APIs for managing Project's Clients.")
@@ -41,7 +45,8 @@ public class ProjectClientManagementController {
     @PostMapping("/{organization-id}/{project-id}/clients")
     public ResponseEntity<Void> createClient(@PathVariable("organization-id") String organizationId,
                                              @PathVariable("project-id") String projectId,
-                                             @RequestBody CreateClient createClient) {
+                                             @RequestBody CreateClient createClient,
+                                             @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         iamSecurityValidator.verifyProjectAdminAccess(OrganizationId.from(organizationId), ProjectId.from(projectId));
         CreateClientRequest request = new CreateClientRequest(ClientId.from(createClient.getId()),
                 createClient.getName(), createClient.getDefaultAccessTokenDuration(),
@@ -49,6 +54,9 @@ public class ProjectClientManagementController {
                 createClient.getProperties());
         Optional<ClientCredentials> client = clientManagementService.createClient(OrganizationId.from(organizationId), ProjectId.from(projectId), request);
         if (client.isPresent()) {
+            if (awaitDurable) {
+                clientManagementService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -60,9 +68,13 @@ public class ProjectClientManagementController {
     public ResponseEntity<Void> addRoleToClient(@PathVariable("organization-id") String organizationId,
                                                 @PathVariable("project-id") String projectId,
                                                 @PathVariable("client-id") String clientId,
-                                                @PathVariable("role-id") String roleId) {
+                                                @PathVariable("role-id") String roleId,
+                                                @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         iamSecurityValidator.verifyProjectAdminAccess(OrganizationId.from(organizationId), ProjectId.from(projectId));
         if (clientManagementService.addRole(OrganizationId.from(organizationId), ProjectId.from(projectId), ClientId.from(clientId), RoleId.from(roleId))) {
+            if (awaitDurable) {
+                clientManagementService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -74,9 +86,13 @@ public class ProjectClientManagementController {
     public ResponseEntity<Void> removeRoleFromClient(@PathVariable("organization-id") String organizationId,
                                                      @PathVariable("project-id") String projectId,
                                                      @PathVariable("client-id") String clientId,
-                                                     @PathVariable("role-id") String roleId) {
+                                                     @PathVariable("role-id") String roleId,
+                                                     @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         iamSecurityValidator.verifyProjectAdminAccess(OrganizationId.from(organizationId), ProjectId.from(projectId));
         if (clientManagementService.removeRole(OrganizationId.from(organizationId), ProjectId.from(projectId), ClientId.from(clientId), RoleId.from(roleId))) {
+            if (awaitDurable) {
+                clientManagementService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -87,9 +103,13 @@ public class ProjectClientManagementController {
     @DeleteMapping("/{organization-id}/{project-id}/clients/{client-id}")
     public ResponseEntity<Void> deleteClient(@PathVariable("organization-id") String organizationId,
                                              @PathVariable("project-id") String projectId,
-                                             @PathVariable("client-id") String clientId) {
+                                             @PathVariable("client-id") String clientId,
+                                             @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         iamSecurityValidator.verifyProjectAdminAccess(OrganizationId.from(organizationId), ProjectId.from(projectId));
         if (clientManagementService.removeClient(OrganizationId.from(organizationId), ProjectId.from(projectId), ClientId.from(clientId))) {
+            if (awaitDurable) {
+                clientManagementService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
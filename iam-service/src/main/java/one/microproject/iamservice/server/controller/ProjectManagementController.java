@@ -22,15 +22,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static one.microproject.iamservice.server.controller.support.ControllerUtils.AWAIT_DURABLE_HEADER;
+
 
 @RestController
 @RequestMapping(path = "/services/management")
@@ -50,7 +54,8 @@ public class ProjectManagementController {
     @PostMapping("/{organization-id}/{project-id}/roles")
     public ResponseEntity<Void> createRole(@PathVariable("organization-id") String organizationId,
                                            @PathVariable("project-id") String projectId,
-                                           @RequestBody CreateRole createRole) {
+                                           @RequestBody CreateRole createRole,
+                                           @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         RoleId roleId = RoleId.from(createRole.getId());
@@ -61,6 +66,9 @@ public class ProjectManagementController {
             projectManagerService.addPermission(orgId, projId, permission);
             projectManagerService.addPermissionToRole(orgId, projId, roleId, permission.getId());
         }
+        if (awaitDurable) {
+            projectManagerService.awaitDurable();
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -100,12 +108,16 @@ public class ProjectManagementController {
     @DeleteMapping("/{organization-id}/{project-id}/permissions/{permission-id}")
     public ResponseEntity<Void> deletePermission(@PathVariable("organization-id") String organizationId,
                                                  @PathVariable("project-id") String projectId,
-                                                 @PathVariable("permission-id") String permissionId) throws PermissionParsingException {
+                                                 @PathVariable("permission-id") String permissionId,
+                                                 @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws PermissionParsingException, IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         Permission permission = Permission.from(permissionId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         if (projectManagerService.removePermission(orgId, projId, permission.getId())) {
+            if (awaitDurable) {
+                projectManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -116,12 +128,16 @@ public class ProjectManagementController {
     @DeleteMapping("/{organization-id}/{project-id}/roles/{role-id}")
     public ResponseEntity<Void> deleteRole(@PathVariable("organization-id") String organizationId,
                                            @PathVariable("project-id") String projectId,
-                                           @PathVariable("role-id") String roleId) {
+                                           @PathVariable("role-id") String roleId,
+                                           @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         RoleId rId = RoleId.from(roleId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         if (projectManagerService.removeRole(orgId, projId, rId)) {
+            if (awaitDurable) {
+                projectManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -132,11 +148,15 @@ public class ProjectManagementController {
     @PutMapping("/{organization-id}/{project-id}/audience")
     public ResponseEntity<Void> setAudience(@PathVariable("organization-id") String organizationId,
                                             @PathVariable("project-id") String projectId,
-                                            @RequestBody Set<String> audience) {
+                                            @RequestBody Set<String> audience,
+                                            @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         projectManagerService.setAudience(orgId, projId, audience);
+        if (awaitDurable) {
+            projectManagerService.awaitDurable();
+        }
         return ResponseEntity.ok().build();
     }
 
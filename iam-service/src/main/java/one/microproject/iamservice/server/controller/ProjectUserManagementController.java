@@ -22,11 +22,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import static one.microproject.iamservice.server.controller.support.ControllerUtils.AWAIT_DURABLE_HEADER;
+
 @RestController
 @RequestMapping(path = "/services/management")
 @Tag(name = "Project User Management", description = "APIs for managing Project's Users.")
@@ -45,7 +49,8 @@ public class ProjectUserManagementController {
     @PostMapping("/{organization-id}/{project-id}/users")
     public ResponseEntity<Void> createUser(@PathVariable("organization-id") String organizationId,
                                            @PathVariable("project-id") String projectId,
-                                           @RequestBody CreateUser createUser) throws PKIException  {
+                                           @RequestBody CreateUser createUser,
+                                           @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws PKIException, IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         UserId userId = UserId.from(createUser.getId());
@@ -56,6 +61,9 @@ public class ProjectUserManagementController {
         if (userOptional.isPresent()) {
             UPCredentials upCredentials = new UPCredentials(userId, createUser.getPassword());
             userManagerService.setCredentials(orgId, projId, userId, upCredentials);
+            if (awaitDurable) {
+                userManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -66,11 +74,15 @@ public class ProjectUserManagementController {
     @DeleteMapping("/{organization-id}/{project-id}/users/{user-id}")
     public ResponseEntity<Void> deleteUser(@PathVariable("organization-id") String organizationId,
                                            @PathVariable("project-id") String projectId,
-                                           @PathVariable("user-id") String userId) {
+                                           @PathVariable("user-id") String userId,
+                                           @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         if (userManagerService.remove(orgId, projId, UserId.from(userId))) {
+            if (awaitDurable) {
+                userManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -82,13 +94,17 @@ public class ProjectUserManagementController {
     public ResponseEntity<Void> changeUserPassword(@PathVariable("organization-id") String organizationId,
                                                    @PathVariable("project-id") String projectId,
                                                    @PathVariable("user-id") String userId,
-                                                   @RequestBody UserCredentialsChangeRequest userCredentialsChangeRequest) throws PKIException {
+                                                   @RequestBody UserCredentialsChangeRequest userCredentialsChangeRequest,
+                                                   @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws PKIException, IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         UserId uId = UserId.from(userId);
         iamSecurityValidator.verifyUserAccess(orgId, projId, uId);
         Credentials credentials = new UPCredentials(uId, userCredentialsChangeRequest.getNewPassword());
         userManagerService.setCredentials(orgId, projId, uId, credentials);
+        if (awaitDurable) {
+            userManagerService.awaitDurable();
+        }
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
@@ -97,11 +113,15 @@ public class ProjectUserManagementController {
     public ResponseEntity<Void> addRoleToUser(@PathVariable("organization-id") String organizationId,
                                               @PathVariable("project-id") String projectId,
                                               @PathVariable("user-id") String userId,
-                                              @PathVariable("role-id") String roleId) {
+                                              @PathVariable("role-id") String roleId,
+                                              @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         if (userManagerService.assignRole(orgId, projId, UserId.from(userId), RoleId.from(roleId))) {
+            if (awaitDurable) {
+                userManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -113,11 +133,15 @@ public class ProjectUserManagementController {
     public ResponseEntity<Void> removeRoleFromUser(@PathVariable("organization-id") String organizationId,
                                                    @PathVariable("project-id") String projectId,
                                                    @PathVariable("user-id") String userId,
-                                                   @PathVariable("role-id") String roleId) {
+                                                   @PathVariable("role-id") String roleId,
+                                                   @RequestHeader(name = AWAIT_DURABLE_HEADER, defaultValue = "false") boolean awaitDurable) throws IOException {
         OrganizationId orgId = OrganizationId.from(organizationId);
         ProjectId projId = ProjectId.from(projectId);
         iamSecurityValidator.verifyProjectAdminAccess(orgId, projId);
         if (userManagerService.removeRole(orgId, projId, UserId.from(userId), RoleId.from(roleId))) {
+            if (awaitDurable) {
+                userManagerService.awaitDurable();
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -20,6 +20,11 @@ import static one.microproject.iamservice.client.JWTUtils.AUTHORIZATION;
 
 public final class ControllerUtils {
 
+    /**
+     * Request header of admin APIs, when true, response is sent after the change is durable in persistence layer.
+     */
+    public static final String AWAIT_DURABLE_HEADER = "X-Await-Durable";
+
     private ControllerUtils() {
     }
 
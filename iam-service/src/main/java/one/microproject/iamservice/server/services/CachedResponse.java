@@ -0,0 +1,51 @@
+package one.microproject.iamservice.server.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Serialized JSON response body with strong ETag derived from the content.
+ * Rebuilding unchanged content produces the same ETag, so expired responses can be rebuilt without breaking client revalidation.
+ */
+public class CachedResponse {
+
+    private final long revision;
+    private final byte[] body;
+    private final String eTag;
+    private final long createdAt;
+
+    public CachedResponse(long revision, byte[] body) {
+        this.revision = revision;
+        this.body = body;
+        this.eTag = createETag(body);
+        this.createdAt = System.nanoTime();
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public boolean isExpired(long maxAgeNanos) {
+        return System.nanoTime() - createdAt >= maxAgeNanos;
+    }
+
+    private static String createETag(byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package one.microproject.iamservice.server.services;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+/**
+ * Server-sent events announcing changes of project's JWKS.
+ * Every subscriber receives "jwks" event with current JWKS ETag immediately after subscription and then each time
+ * project's signing keys change, so resource servers can refresh their key cache without waiting for next poll.
+ */
+public interface JWKSEventPublisher extends AutoCloseable {
+
+    String EVENT_NAME = "jwks";
+
+    /**
+     * Subscribe for JWKS change events of the project, caller is responsible for checking that the project exists.
+     * @param organizationId unique organization ID.
+     * @param projectId unique project ID.
+     * @param remoteAddress address of the subscribing client.
+     * @return event emitter or empty if max. number of subscribers in total, of the project or of the remote address has been reached.
+     */
+    Optional<SseEmitter> subscribe(OrganizationId organizationId, ProjectId projectId, String remoteAddress);
+
+    /**
+     * Get number of active subscribers.
+     * @return number of active subscribers.
+     */
+    int getSubscriberCount();
+
+}
@@ -0,0 +1,30 @@
+package one.microproject.iamservice.server.services;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.services.dto.ProviderConfigurationRequest;
+
+/**
+ * Cache of serialized discovery responses (OpenID configuration and JWKS).
+ * Responses are serialized once per project revision and reused until project's keys or permissions change.
+ * Revisions track changes made by this instance, responses are also rebuilt after max. age, so changes made by other
+ * instances sharing the model are served within max. age.
+ */
+public interface WellKnownResponseCache {
+
+    /**
+     * Get serialized provider configuration.
+     * @param request provider configuration request.
+     * @return serialized provider configuration with it's ETag.
+     */
+    CachedResponse getConfiguration(ProviderConfigurationRequest request);
+
+    /**
+     * Get serialized JWK data of the project.
+     * @param organizationId unique organization ID.
+     * @param projectId unique project ID.
+     * @return serialized JWK data with it's ETag.
+     */
+    CachedResponse getJWKData(OrganizationId organizationId, ProjectId projectId);
+
+}
@@ -0,0 +1,234 @@
+package one.microproject.iamservice.server.services.impl;
+
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.server.services.JWKSEventPublisher;
+import one.microproject.iamservice.server.services.WellKnownResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project revisions of subscribed projects are checked periodically, revision and ETag checks are map lookups,
+ * so short check interval is cheap. Events are sent only when revision or JWKS ETag of subscribed project changes,
+ * ETag covers changes made by other instances which are picked up by {@link WellKnownResponseCache} after max. age.
+ * Subscriptions are anonymous, number of subscribers is limited in total, per project and per remote address.
+ * Events are sent by sender threads, so the check never blocks on subscriber's connection. Subscriber still blocked
+ * in delivery of previous event when next event is due is dropped.
+ */
+public class JWKSEventPublisherImpl implements JWKSEventPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JWKSEventPublisherImpl.class);
+
+    private final ProviderConfigurationService providerConfigurationService;
+    private final WellKnownResponseCache wellKnownResponseCache;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerProject;
+    private final int maxSubscribersPerAddress;
+    private final Map<String, Subscription> subscriptions;
+    private final Map<String, Integer> subscribersByAddress;
+    private final AtomicInteger subscriberCount;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService senders;
+
+    public JWKSEventPublisherImpl(ProviderConfigurationService providerConfigurationService, WellKnownResponseCache wellKnownResponseCache,
+                                  long checkIntervalMillis, long timeoutMillis, int maxSubscribers,
+                                  int maxSubscribersPerProject, int maxSubscribersPerAddress, int senderThreads) {
+        this.providerConfigurationService = providerConfigurationService;
+        this.wellKnownResponseCache = wellKnownResponseCache;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerProject = maxSubscribersPerProject;
+        this.maxSubscribersPerAddress = maxSubscribersPerAddress;
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.subscribersByAddress = new ConcurrentHashMap<>();
+        this.subscriberCount = new AtomicInteger();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwks-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCounter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "jwks-events-sender-" + senderCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::checkRevisions, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(OrganizationId organizationId, ProjectId projectId, String remoteAddress) {
+        if (!acquire(remoteAddress)) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        String key = organizationId.getId() + "/" + projectId.getId();
+        Subscriber subscriber = new Subscriber(remoteAddress);
+        long revision = providerConfigurationService.getRevision(organizationId, projectId);
+        String eTag = getETag(organizationId, projectId);
+        AtomicBoolean added = new AtomicBoolean();
+        Subscription subscription = subscriptions.compute(key, (k, current) -> {
+            Subscription s = (current == null) ? new Subscription(organizationId, projectId, revision, eTag) : current;
+            if (s.emitters.size() < maxSubscribersPerProject) {
+                added.set(s.emitters.put(emitter, subscriber) == null);
+            }
+            return s.emitters.isEmpty() ? null : s;
+        });
+        if (!added.get()) {
+            release(remoteAddress);
+            LOG.warn("JWKS events subscriber limit {} of project {} reached", maxSubscribersPerProject, key);
+            return Optional.empty();
+        }
+        emitter.onCompletion(() -> remove(key, emitter, remoteAddress));
+        emitter.onTimeout(() -> remove(key, emitter, remoteAddress));
+        emitter.onError(e -> remove(key, emitter, remoteAddress));
+        send(key, emitter, remoteAddress, subscription.revision, subscription.eTag);
+        return Optional.of(emitter);
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void checkRevisions() {
+        try {
+            subscriptions.forEach((key, subscription) -> {
+                long revision = providerConfigurationService.getRevision(subscription.organizationId, subscription.projectId);
+                String eTag = getETag(subscription.organizationId, subscription.projectId);
+                if (revision != subscription.revision || !eTag.equals(subscription.eTag)) {
+                    subscription.revision = revision;
+                    subscription.eTag = eTag;
+                    LOG.debug("JWKS changed {} revision={}", key, revision);
+                    subscription.emitters.forEach((emitter, subscriber) -> dispatch(key, emitter, subscriber, revision, eTag));
+                }
+            });
+        } catch (Exception e) {
+            LOG.error("JWKS revision check failed: ", e);
+        }
+    }
+
+    private String getETag(OrganizationId organizationId, ProjectId projectId) {
+        return wellKnownResponseCache.getJWKData(organizationId, projectId).getETag();
+    }
+
+    private void dispatch(String key, SseEmitter emitter, Subscriber subscriber, long revision, String eTag) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            LOG.debug("JWKS events subscriber of {} is blocked, dropping it", key);
+            remove(key, emitter, subscriber.remoteAddress);
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                try {
+                    send(key, emitter, subscriber.remoteAddress, revision, eTag);
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void send(String key, SseEmitter emitter, String remoteAddress, long revision, String eTag) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).id(Long.toString(revision)).data(eTag));
+        } catch (IOException | IllegalStateException e) {
+            LOG.debug("JWKS event delivery failed {}", key);
+            remove(key, emitter, remoteAddress);
+        }
+    }
+
+    private void remove(String key, SseEmitter emitter, String remoteAddress) {
+        subscriptions.computeIfPresent(key, (k, subscription) -> {
+            if (subscription.emitters.remove(emitter) != null) {
+                release(remoteAddress);
+            }
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    private boolean acquire(String remoteAddress) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            LOG.warn("JWKS events subscriber limit {} reached", maxSubscribers);
+            return false;
+        }
+        AtomicBoolean acquired = new AtomicBoolean();
+        subscribersByAddress.compute(remoteAddress, (address, count) -> {
+            int current = (count == null) ? 0 : count;
+            if (current >= maxSubscribersPerAddress) {
+                return count;
+            }
+            acquired.set(true);
+            return current + 1;
+        });
+        if (!acquired.get()) {
+            subscriberCount.decrementAndGet();
+            LOG.warn("JWKS events subscriber limit {} of address {} reached", maxSubscribersPerAddress, remoteAddress);
+        }
+        return acquired.get();
+    }
+
+    private void release(String remoteAddress) {
+        subscriberCount.decrementAndGet();
+        subscribersByAddress.computeIfPresent(remoteAddress, (address, count) -> (count > 1) ? count - 1 : null);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.values().forEach(subscription -> subscription.emitters.keySet().forEach(SseEmitter::complete));
+        subscriptions.clear();
+        subscribersByAddress.clear();
+        subscriberCount.set(0);
+    }
+
+    private final class Subscription {
+
+        private final OrganizationId organizationId;
+        private final ProjectId projectId;
+        private final Map<SseEmitter, Subscriber> emitters;
+        private volatile long revision;
+        private volatile String eTag;
+
+        private Subscription(OrganizationId organizationId, ProjectId projectId, long revision, String eTag) {
+            this.organizationId = organizationId;
+            this.projectId = projectId;
+            this.emitters = new ConcurrentHashMap<>();
+            this.revision = revision;
+            this.eTag = eTag;
+        }
+
+    }
+
+    private static final class Subscriber {
+
+        private final String remoteAddress;
+        private final AtomicBoolean sending;
+
+        private Subscriber(String remoteAddress) {
+            this.remoteAddress = remoteAddress;
+            this.sending = new AtomicBoolean();
+        }
+
+    }
+
+}
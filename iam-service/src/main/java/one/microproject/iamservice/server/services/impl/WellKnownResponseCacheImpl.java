@@ -0,0 +1,94 @@
+package one.microproject.iamservice.server.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.microproject.iamservice.core.model.OrganizationId;
+import one.microproject.iamservice.core.model.ProjectId;
+import one.microproject.iamservice.core.services.ProviderConfigurationService;
+import one.microproject.iamservice.core.services.dto.ProviderConfigurationRequest;
+import one.microproject.iamservice.server.services.CachedResponse;
+import one.microproject.iamservice.server.services.WellKnownResponseCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Responses are kept in bounded LRU maps, keys contain request base URL, so least recently used responses are evicted
+ * instead of growing the cache with every host name. Callers must check that the project exists before asking for
+ * its responses.
+ */
+public class WellKnownResponseCacheImpl implements WellKnownResponseCache {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final ProviderConfigurationService providerConfigurationService;
+    private final ObjectWriter objectWriter;
+    private final Map<String, CachedResponse> configurations;
+    private final Map<String, CachedResponse> jwks;
+    private final long maxAgeNanos;
+
+    public WellKnownResponseCacheImpl(ProviderConfigurationService providerConfigurationService, ObjectMapper objectMapper,
+                                      long maxAgeMillis) {
+        this.providerConfigurationService = providerConfigurationService;
+        this.objectWriter = objectMapper.writer();
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+        this.configurations = createLruMap();
+        this.jwks = createLruMap();
+    }
+
+    @Override
+    public CachedResponse getConfiguration(ProviderConfigurationRequest request) {
+        String key = request.getBaseURL() + "/" + request.getOrganizationId().getId() + "/" + request.getProjectId().getId();
+        return get(configurations, key, request.getOrganizationId(), request.getProjectId(),
+                () -> providerConfigurationService.getConfiguration(request));
+    }
+
+    @Override
+    public CachedResponse getJWKData(OrganizationId organizationId, ProjectId projectId) {
+        String key = organizationId.getId() + "/" + projectId.getId();
+        return get(jwks, key, organizationId, projectId,
+                () -> providerConfigurationService.getJWKData(organizationId, projectId));
+    }
+
+    private CachedResponse get(Map<String, CachedResponse> cache, String key, OrganizationId organizationId, ProjectId projectId, Supplier<Object> responseSupplier) {
+        long revision = providerConfigurationService.getRevision(organizationId, projectId);
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (isValid(cached, revision)) {
+            return cached;
+        }
+        //response is built outside of the lock, concurrent rebuilds of the same revision produce equal responses
+        CachedResponse response = new CachedResponse(revision, serialize(responseSupplier.get()));
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    private static Map<String, CachedResponse> createLruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    private boolean isValid(CachedResponse cached, long revision) {
+        return cached != null && cached.getRevision() == revision && !cached.isExpired(maxAgeNanos);
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectWriter.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import one.microproject.iamservice.core.services.dto.SetupOrganizationRequest;
 import one.microproject.iamservice.core.services.dto.SetupOrganizationResponse;
 import one.microproject.iamservice.core.dto.TokenResponse;
 import one.microproject.iamservice.core.services.dto.UserInfo;
+import one.microproject.iamservice.server.controller.support.ControllerUtils;
 import one.microproject.iamservice.serviceclient.IAMAuthorizerClient;
 import one.microproject.iamservice.serviceclient.IAMServiceManagerClient;
 import one.microproject.iamservice.serviceclient.IAMServiceClientBuilder;
@@ -42,7 +43,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
@@ -265,6 +269,27 @@ class ProjectManagementTests {
         assertEquals(audience2, projectInfo.getAudience());
     }
 
+    @Test
+    @Order(208)
+    void setAudienceAwaitDurableTest() throws AuthenticationException, IOException {
+        URL url = new URL(baseUrl, "/services/management/" + organizationId.getId() + "/" + projectId.getId() + "/audience");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("PUT");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Authorization", "Bearer " + jwt_organization_admin_token);
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty(ControllerUtils.AWAIT_DURABLE_HEADER, "true");
+        try (OutputStream os = connection.getOutputStream()) {
+            os.write("[\"a5\",\"a6\"]".getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            assertEquals(200, connection.getResponseCode());
+        } finally {
+            connection.disconnect();
+        }
+        assertEquals(Set.of("a5", "a6"), iamServiceProjectManagerClient.getInfo().getAudience());
+    }
+
     @Test
     @Order(807)
     void deleteRole() throws AuthenticationException {
@@ -8,21 +8,36 @@ import one.microproject.iamservice.core.dto.ProviderConfigurationResponse;
 import one.microproject.iamservice.serviceclient.IAMServiceManagerClient;
 import one.microproject.iamservice.serviceclient.IAMServiceClientBuilder;
 import one.microproject.iamservice.serviceclient.IAMServiceStatusClient;
+import one.microproject.iamservice.server.services.JWKSEventPublisher;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -36,6 +51,12 @@ class ProviderConfigurationTests {
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JWKSEventPublisher jwksEventPublisher;
+
     @BeforeAll
     private static void init() {
         organizationId = ModelUtils.IAM_ADMINS_ORG;
@@ -77,4 +98,77 @@ class ProviderConfigurationTests {
         assertFalse(jwkResponse.getKeys().isEmpty());
     }
 
+    @Test
+    @Order(4)
+    void checkConditionalJsonWebKeysRequestTest() {
+        String url = "/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/.well-known/jwks.json";
+        checkConditionalRequest(url);
+    }
+
+    @Test
+    @Order(5)
+    void checkConditionalProviderConfigurationRequestTest() {
+        String url = "/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/.well-known/openid-configuration";
+        checkConditionalRequest(url);
+    }
+
+    @Test
+    @Order(6)
+    void checkJsonWebKeysEventsTest() throws IOException {
+        String path = "/services/oauth2/" + organizationId.getId() + "/" + projectId.getId() + "/.well-known/";
+        String eTag = restTemplate.getForEntity(path + "jwks.json", String.class).getHeaders().getETag();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path + "jwks-events").openConnection();
+        connection.setRequestProperty("Accept", "text/event-stream");
+        connection.setReadTimeout(10000);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            assertEquals(HttpStatus.OK.value(), connection.getResponseCode());
+            assertEquals("event:jwks", reader.readLine());
+            assertTrue(reader.readLine().startsWith("id:"));
+            assertEquals("data:" + eTag, reader.readLine());
+            assertTrue(jwksEventPublisher.getSubscriberCount() > 0);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    @Order(7)
+    void checkJsonWebKeysEventsOfUnknownProjectTest() throws IOException {
+        String path = "/services/oauth2/" + organizationId.getId() + "/unknown-project/.well-known/jwks-events";
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestProperty("Accept", "text/event-stream");
+        try {
+            assertEquals(HttpStatus.NOT_FOUND.value(), connection.getResponseCode());
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    @Order(8)
+    void checkWellKnownResponsesOfUnknownProjectTest() {
+        String path = "/services/oauth2/" + organizationId.getId() + "/unknown-project/.well-known/";
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(path + "jwks.json", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(path + "openid-configuration", String.class).getStatusCode());
+    }
+
+    private void checkConditionalRequest(String url) {
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertNotNull(response.getHeaders().getCacheControl());
+        assertNotNull(response.getBody());
+
+        ResponseEntity<String> second = restTemplate.getForEntity(url, String.class);
+        assertEquals(eTag, second.getHeaders().getETag());
+        assertEquals(response.getBody(), second.getBody());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
 }